@@ -0,0 +1,78 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing executor modes (see {@link ExecutorMode}) under the load of slow providers. Each task simulates
+ * blocking call (e.g. external service with retries or SMTP) by sleeping. On JDK 21+ mode AUTO uses virtual threads,
+ * on older runtimes it is the same as PLATFORM.
+ * @author Marcin Wierzchowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExecutorProviderBenchmark {
+    /**
+     * Executor mode
+     */
+    @Param({"PLATFORM", "AUTO"})
+    private ExecutorMode mode;
+
+    /**
+     * Number of concurrent slow calls
+     */
+    @Param({"50", "500"})
+    private int calls;
+
+    /**
+     * Duration of single call in ms
+     */
+    @Param({"20"})
+    private long callMillis;
+
+    /**
+     * Executor provider
+     */
+    private DefaultExecutorProvider executorProvider;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var commonProperties = new CommonProperties();
+        commonProperties.getExecutor().setMode(mode);
+        executorProvider = new DefaultExecutorProvider(commonProperties);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorProvider.shutdown();
+    }
+
+    @Benchmark
+    public void slowProviderCalls() throws InterruptedException {
+        var latch = new CountDownLatch(calls);
+        for (int i = 0; i < calls; i++) {
+            executorProvider.executor().execute(() -> {
+                try {
+                    Thread.sleep(callMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of ephemeris calculation in {@link SolarCalculator}. Days of the whole year are calculated in turns, so
+ * results are not biased by the season.
+ * @author Marcin Wierzchowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SolarCalculatorBenchmark {
+    /**
+     * Solar calculator
+     */
+    private SolarCalculator solarCalculator;
+
+    /**
+     * Location
+     */
+    private Location location;
+
+    /**
+     * Zone of ephemeris
+     */
+    private ZoneId zone;
+
+    /**
+     * Days of the year
+     */
+    private LocalDate[] days;
+
+    /**
+     * Index of the next day
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        solarCalculator = new SolarCalculator();
+        location = new Location("Warsaw", 52.23, 21.01);
+        zone = ZoneId.of("Europe/Warsaw");
+        days = new LocalDate[365];
+        for (int i = 0; i < days.length; i++) {
+            days[i] = LocalDate.of(2020, 1, 1).plusDays(i);
+        }
+    }
+
+    @Benchmark
+    public SunEphemeris sunEphemerisOf() {
+        next = (next + 1) % days.length;
+        return solarCalculator.sunEphemerisOf(days[next], location, zone);
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.Location;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing lookup of the next sun event in {@link SunEphemerisTable} with the lookup in
+ * {@link SunEphemeris} used before. Lookups are done for instants spread over the whole year.
+ * @author Marcin Wierzchowski
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SunEphemerisTableBenchmark {
+    /**
+     * Number of days
+     */
+    private static final int DAYS = 365;
+
+    /**
+     * Table of ephemerides
+     */
+    private SunEphemerisTable table;
+
+    /**
+     * Ephemerides of days
+     */
+    private SunEphemeris[] ephemerides;
+
+    /**
+     * Instants of lookups
+     */
+    private Instant[] instants;
+
+    /**
+     * Clocks of lookups
+     */
+    private Clock[] clocks;
+
+    /**
+     * Index of the next lookup
+     */
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var calculator = new SolarCalculator();
+        var location = new Location("Warsaw", 52.23, 21.01);
+        var zone = ZoneId.of("Europe/Warsaw");
+        var firstDay = LocalDate.of(2020, 1, 1);
+        table = SunEphemerisTable.of(firstDay, DAYS, zone, day -> calculator.sunEphemerisOf(day, location, zone));
+        ephemerides = new SunEphemeris[DAYS];
+        instants = new Instant[DAYS];
+        clocks = new Clock[DAYS];
+        for (int i = 0; i < DAYS; i++) {
+            ephemerides[i] = calculator.sunEphemerisOf(firstDay.plusDays(i), location, zone);
+            instants[i] = firstDay.plusDays(i).atTime(10, 0).atZone(zone).toInstant();
+            clocks[i] = Clock.fixed(instants[i], zone);
+        }
+    }
+
+    @Benchmark
+    public int tableLookup() {
+        next = (next + 1) % DAYS;
+        return table.nextIndexAfter(instants[next]);
+    }
+
+    @Benchmark
+    public Object ephemerisLookup() {
+        next = (next + 1) % DAYS;
+        return ephemerides[next].firstEventAfterPreviousOrNow(null, clocks[next]);
+    }
+}
@@ -0,0 +1,64 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of {@link TimerSchedule#nearestOccurrenceMillis(Clock)}. Run with the gc profiler (enabled in the build)
+ * to see that the hot path does not allocate ("gc.alloc.rate.norm" close to 0 B/op), in contrast to the
+ * calculation made with {@link java.time} types.
+ * @author Marcin Wierzchowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TimerScheduleBenchmark {
+    /**
+     * Clock
+     */
+    private Clock clock;
+
+    /**
+     * Schedule
+     */
+    private TimerSchedule schedule;
+
+    @Setup
+    public void setup() {
+        clock = Clock.system(ZoneId.of("Europe/Warsaw"));
+        schedule = new TimerSchedule();
+        schedule.setTime(LocalTime.of(6, 30));
+        schedule.getDays().add(DayOfWeek.MONDAY);
+        schedule.getDays().add(DayOfWeek.SATURDAY);
+    }
+
+    @Benchmark
+    public long nearestOccurrenceMillis() {
+        return schedule.nearestOccurrenceMillis(clock);
+    }
+
+    @Benchmark
+    public long javaTimeNearestOccurrence() {
+        var today = LocalDate.now(clock);
+        var now = LocalTime.now(clock);
+        for (int day = 0; day <= 7; day++) {
+            var date = today.plusDays(day);
+            if (schedule.getDays().contains(date.getDayOfWeek()) && (day > 0 || now.isBefore(schedule.getTime()))) {
+                return date.atTime(schedule.getTime()).atZone(clock.getZone()).toInstant().toEpochMilli();
+            }
+        }
+        throw new IllegalStateException("Schedule has no days");
+    }
+}
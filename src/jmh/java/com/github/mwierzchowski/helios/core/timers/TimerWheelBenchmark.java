@@ -0,0 +1,115 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import com.github.mwierzchowski.helios.core.commons.CommonProperties;
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark comparing registration and cancellation of alert deadlines in {@link TimerWheel} with the
+ * {@link ThreadPoolTaskScheduler} used before. Deadlines are spread randomly over one week, as they are for timer
+ * schedules.
+ * @author Marcin Wierzchowski
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TimerWheelBenchmark {
+    /**
+     * Number of registered schedules
+     */
+    @Param({"10000", "50000"})
+    private int schedules;
+
+    /**
+     * Deadlines of schedules
+     */
+    private Instant[] deadlines;
+
+    /**
+     * Executor provider
+     */
+    private DefaultExecutorProvider executorProvider;
+
+    /**
+     * Timer wheel
+     */
+    private TimerWheel timerWheel;
+
+    /**
+     * Task scheduler
+     */
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    /**
+     * Futures of tasks registered in the task scheduler
+     */
+    private ScheduledFuture<?>[] futures;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        var random = new Random(42);
+        var now = Instant.now().plusSeconds(60);
+        deadlines = new Instant[schedules];
+        for (int i = 0; i < schedules; i++) {
+            deadlines[i] = now.plusSeconds(random.nextInt(7 * 24 * 3600));
+        }
+        futures = new ScheduledFuture<?>[schedules];
+        executorProvider = new DefaultExecutorProvider(new CommonProperties());
+        timerWheel = new TimerWheel(new TimerProperties(), Clock.systemUTC(), executorProvider);
+        timerWheel.start();
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(5);
+        taskScheduler.setRemoveOnCancelPolicy(true);
+        taskScheduler.initialize();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        timerWheel.stop();
+        executorProvider.shutdown();
+        taskScheduler.shutdown();
+    }
+
+    @Benchmark
+    public int timerWheelScheduleAndCancel() {
+        Runnable task = () -> { };
+        for (int i = 0; i < schedules; i++) {
+            timerWheel.schedule(i, deadlines[i], task);
+        }
+        var size = timerWheel.size();
+        for (int i = 0; i < schedules; i++) {
+            timerWheel.cancel(i);
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int taskSchedulerScheduleAndCancel() {
+        Runnable task = () -> { };
+        for (int i = 0; i < schedules; i++) {
+            futures[i] = taskScheduler.schedule(task, Date.from(deadlines[i]));
+        }
+        var size = taskScheduler.getScheduledThreadPoolExecutor().getQueue().size();
+        for (int i = 0; i < schedules; i++) {
+            futures[i].cancel(false);
+        }
+        return size;
+    }
+}
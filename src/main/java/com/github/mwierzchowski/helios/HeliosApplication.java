@@ -1,6 +1,8 @@
 package com.github.mwierzchowski.helios;
 
 import com.github.mwierzchowski.helios.service.TimerService;
+import com.github.mwierzchowski.helios.service.WeatherService;
+import com.github.mwierzchowski.helios.service.ext.ConditionalGetFilter;
 import com.github.mwierzchowski.helios.service.ext.ConstraintExceptionMapper;
 import com.github.mwierzchowski.helios.service.ext.CorsFilter;
 import com.github.mwierzchowski.helios.service.ext.NotFoundExceptionMapper;
@@ -38,11 +40,13 @@ public class HeliosApplication extends ResourceConfig {
 	@PostConstruct
     public void initialize() {
 		register(CorsFilter.class);
+		register(ConditionalGetFilter.class);
 		register(NotFoundExceptionMapper.class);
 		register(ConstraintExceptionMapper.class);
 		register(UnhandledExceptionMapper.class);
 		register(OpenApiResource.class);
 		register(TimerService.class);
+		register(WeatherService.class);
     }
 
 	/**
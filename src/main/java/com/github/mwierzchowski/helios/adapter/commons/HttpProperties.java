@@ -0,0 +1,78 @@
+package com.github.mwierzchowski.helios.adapter.commons;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Properties of outbound HTTP transport used by adapters (see {@link HttpTransport}).
+ * @author Marcin Wierzchowski
+ */
+@Data
+@Component
+@ConfigurationProperties("helios.http")
+public class HttpProperties {
+    /**
+     * Maximal number of pooled connections
+     */
+    private Integer maxConnections = 20;
+
+    /**
+     * Maximal number of pooled connections to a single host
+     */
+    private Integer maxConnectionsPerRoute = 5;
+
+    /**
+     * Maximal time of keeping idle connection alive (shorter when server says so)
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * Time of inactivity after which pooled connection is validated before reuse
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * Default timeouts of services
+     */
+    private Timeouts timeouts = new Timeouts();
+
+    /**
+     * Timeouts of services (e.g. owm, sunapi, geoip) that differ from default ones
+     */
+    private Map<String, Timeouts> services = new HashMap<>();
+
+    /**
+     * Provides timeouts of the service.
+     * @param service name of service
+     * @return timeouts of service or default timeouts
+     */
+    public Timeouts timeoutsOf(String service) {
+        return services.getOrDefault(service, timeouts);
+    }
+
+    /**
+     * Timeouts of requests.
+     */
+    @Data
+    public static class Timeouts {
+        /**
+         * Timeout of establishing connection (including TLS handshake)
+         */
+        private Duration connect = Duration.ofSeconds(5);
+
+        /**
+         * Timeout of waiting for data (socket timeout)
+         */
+        private Duration read = Duration.ofSeconds(10);
+
+        /**
+         * Timeout of waiting for connection from the pool
+         */
+        private Duration connectionRequest = Duration.ofSeconds(5);
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.mwierzchowski.helios.adapter.commons;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Shared outbound HTTP transport of adapters. All services use the same pool of keep-alive connections, while every
+ * service gets its own {@link RestTemplate} with its timeouts (see {@link HttpProperties}), so a hanging service does
+ * not hold threads indefinitely. Responses are compressed (gzip or deflate) when server supports it. Expired and idle
+ * connections are evicted in background and usage of the pool is reported as metrics.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+public class HttpTransport {
+    /**
+     * Name of the client in metrics
+     */
+    public static final String CLIENT_NAME = "helios";
+
+    /**
+     * HTTP properties
+     */
+    private final HttpProperties httpProperties;
+
+    /**
+     * Shared HTTP client
+     */
+    private final CloseableHttpClient httpClient;
+
+    /**
+     * Creates pooled HTTP client and binds metrics of its pool.
+     * @param httpProperties HTTP properties
+     * @param meterRegistry meter registry
+     */
+    public HttpTransport(HttpProperties httpProperties, MeterRegistry meterRegistry) {
+        this.httpProperties = httpProperties;
+        var connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(httpProperties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(httpProperties.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) httpProperties.getValidateAfterInactivity().toMillis());
+        var keepAlive = httpProperties.getKeepAlive().toMillis();
+        this.httpClient = HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    var serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive) : keepAlive;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive, MILLISECONDS)
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, CLIENT_NAME).bindTo(meterRegistry);
+    }
+
+    /**
+     * Provides REST template of the service that uses shared connections.
+     * @param service name of service
+     * @return REST template
+     */
+    public RestTemplate restTemplate(String service) {
+        var timeouts = httpProperties.timeoutsOf(service);
+        log.debug("Creating HTTP transport of {} service with {}", service, timeouts);
+        var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+        requestFactory.setConnectTimeout((int) timeouts.getConnect().toMillis());
+        requestFactory.setReadTimeout((int) timeouts.getRead().toMillis());
+        requestFactory.setConnectionRequestTimeout((int) timeouts.getConnectionRequest().toMillis());
+        return new RestTemplate(requestFactory);
+    }
+
+    /**
+     * Closes HTTP client and its connections.
+     * @throws IOException when client could not be closed
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
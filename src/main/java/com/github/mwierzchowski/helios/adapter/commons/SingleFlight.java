@@ -0,0 +1,121 @@
+package com.github.mwierzchowski.helios.adapter.commons;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescer of concurrent calls for the same key. First caller of the key (leader) executes the call in its own
+ * thread, while callers that come before the call is completed (followers) wait for its result (or exception) instead
+ * of executing the same call again. Key is released when the call is completed, so calls are never cached here.
+ * Numbers of leaders and followers are reported as metrics, so ratio of coalesced calls may be observed.
+ * @param <K> type of key
+ * @param <V> type of result
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+    /**
+     * Name of calls metric
+     */
+    public static final String CALLS_METRIC = "helios.singleflight.calls";
+
+    /**
+     * Name of in-flight calls metric
+     */
+    public static final String IN_FLIGHT_METRIC = "helios.singleflight.inflight";
+
+    /**
+     * Name of the single flight (used in logs and metrics)
+     */
+    private final String name;
+
+    /**
+     * Calls in flight
+     */
+    private final Map<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Counter of executed calls
+     */
+    private final Counter leaders;
+
+    /**
+     * Counter of coalesced calls
+     */
+    private final Counter followers;
+
+    /**
+     * Creates single flight and registers its metrics.
+     * @param name name of single flight
+     * @param meterRegistry meter registry
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.leaders = meterRegistry.counter(CALLS_METRIC, "name", name, "role", "leader");
+        this.followers = meterRegistry.counter(CALLS_METRIC, "name", name, "role", "follower");
+        meterRegistry.gauge(IN_FLIGHT_METRIC, List.of(Tag.of("name", name)), calls, Map::size);
+    }
+
+    /**
+     * Executes the call or waits for the same call already in flight.
+     * @param key key of call
+     * @param call call
+     * @return result of call
+     */
+    public V execute(K key, Supplier<V> call) {
+        var flight = new CompletableFuture<V>();
+        var inFlight = calls.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            log.debug("Call {} of {} is in flight, waiting for its result", key, name);
+            followers.increment();
+            return await(inFlight);
+        }
+        leaders.increment();
+        try {
+            var result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            flight.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            calls.remove(key, flight);
+        }
+    }
+
+    /**
+     * Provides number of calls in flight.
+     * @return number of calls
+     */
+    public int inFlight() {
+        return calls.size();
+    }
+
+    /**
+     * Helper method that waits for the call in flight and rethrows its exception.
+     * @param flight call in flight
+     * @return result of call
+     */
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException ex) {
+            var cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw ex;
+        }
+    }
+}
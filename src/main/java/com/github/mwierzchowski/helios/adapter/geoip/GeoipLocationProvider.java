@@ -1,5 +1,6 @@
 package com.github.mwierzchowski.helios.adapter.geoip;
 
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport;
 import com.github.mwierzchowski.helios.core.commons.Location;
 import com.github.mwierzchowski.helios.core.commons.LocationProvider;
 import com.maxmind.geoip2.DatabaseReader;
@@ -8,7 +9,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
@@ -31,6 +31,11 @@ public class GeoipLocationProvider implements LocationProvider {
      */
     private final GeoipProperties geoipProperties;
 
+    /**
+     * Outbound HTTP transport
+     */
+    private final HttpTransport httpTransport;
+
     /**
      * IP based location (cached)
      */
@@ -74,7 +79,8 @@ public class GeoipLocationProvider implements LocationProvider {
      * @throws UnknownHostException in case of network problems
      */
     private InetAddress publicIpAddress() throws UnknownHostException {
-        var checkerResponse = new RestTemplate().getForObject(geoipProperties.getCheckIpPath(), String.class);
+        var checkerResponse = httpTransport.restTemplate("geoip")
+                .getForObject(geoipProperties.getCheckIpPath(), String.class);
         if (checkerResponse == null || checkerResponse.isEmpty()) {
             throw new IllegalStateException("Could not determine public IP of this machine");
         }
@@ -11,6 +11,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.event.EventListener;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -89,7 +90,9 @@ public class EventMailSender {
 
     /**
      * Sends email with events since last send. Events are removed from queue but they are put back when send fails.
+     * Sending is blocking, so it is run by the task executor instead of the scheduler thread.
      */
+    @Async
     @Scheduled(cron = "#{mailProperties.sendCron}")
     public void sendMail() {
         if (eventQueue.isEmpty()) {
@@ -0,0 +1,54 @@
+package com.github.mwierzchowski.helios.adapter.owm;
+
+import com.github.mwierzchowski.helios.core.commons.LocationProvider;
+import io.github.resilience4j.retry.annotation.Retry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.openweathermap.api.CurrentWeatherApi;
+import org.openweathermap.model.CurrentWeatherResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Client of Open Weather Map (OWM) current weather API. In case of communication issues, call to OWM API is retried
+ * number of times.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.owm.api-key")
+public class OwmClient {
+    /**
+     * OWM properties
+     */
+    private final OwmProperties owmProperties;
+
+    /**
+     * Location provider
+     */
+    private final LocationProvider locationProvider;
+
+    /**
+     * OWM API client
+     */
+    private final CurrentWeatherApi weatherApi;
+
+    /**
+     * Requests current weather at the location.
+     * @return OWM response
+     * @throws RuntimeException when request failed after all retries
+     */
+    @Retry(name = "owm")
+    public CurrentWeatherResponse currentWeather() {
+        var location = locationProvider.locate();
+        var weatherResponse = weatherApi.currentWeather(
+                location.getLatitude(),
+                location.getLongitude(),
+                owmProperties.getUnitsSystem(),
+                owmProperties.getLanguage()
+        );
+        log.debug("Current weather response: {}", weatherResponse);
+        return weatherResponse;
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.mwierzchowski.helios.adapter.owm;
 
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator;
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport;
 import com.github.mwierzchowski.helios.core.commons.EventStore;
 import org.openweathermap.api.CurrentWeatherApi;
 import org.openweathermap.invoker.ApiClient;
@@ -15,8 +16,8 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class OwmConfiguration {
     @Bean
-    public ApiClient owmApiClient(OwmProperties owmProperties) {
-        ApiClient apiClient = new ApiClient();
+    public ApiClient owmApiClient(OwmProperties owmProperties, HttpTransport httpTransport) {
+        ApiClient apiClient = new ApiClient(httpTransport.restTemplate("owm"));
         apiClient.setBasePath(owmProperties.getBasePath());
         apiClient.setApiKey(owmProperties.getApiKey());
         return apiClient;
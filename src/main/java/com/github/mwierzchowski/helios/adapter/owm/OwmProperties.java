@@ -35,8 +35,19 @@ public class OwmProperties {
     private String unitsSystem = "metric";
 
     /**
-     * Time to live for cached responses. OWM provides new observations  at earliest every 10 mins, so shorter TTL
+     * Time to live in ms for cached responses. OWM provides new observations  at earliest every 10 mins, so shorter TTL
      * does not make sense.
      */
     private Long cacheTtl = 900000L; // 15 min
+
+    /**
+     * Time in ms before expiration of cached response when it is refreshed in background.
+     */
+    private Long refreshAhead = 60000L; // 1 min
+
+    /**
+     * Maximal age in ms of cached response that may be provided when refreshes fail. Older response is fetched again
+     * synchronously.
+     */
+    private Long maxStaleness = 3600000L; // 1 h
 }
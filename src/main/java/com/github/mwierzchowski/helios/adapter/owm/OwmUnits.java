@@ -0,0 +1,55 @@
+package com.github.mwierzchowski.helios.adapter.owm;
+
+import com.github.mwierzchowski.helios.core.weather.SpeedUnit;
+import com.github.mwierzchowski.helios.core.weather.TemperatureUnit;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.stream.Stream;
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND;
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.MILES_PER_HOUR;
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS;
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.FAHRENHEIT;
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.KELVIN;
+
+/**
+ * Units systems supported by OWM, with units of values provided in responses.
+ * @author Marcin Wierzchowski
+ */
+@Getter
+@AllArgsConstructor
+public enum OwmUnits {
+    STANDARD("standard", KELVIN, METERS_PER_SECOND),
+    METRIC("metric", CELSIUS, METERS_PER_SECOND),
+    IMPERIAL("imperial", FAHRENHEIT, MILES_PER_HOUR);
+
+    /**
+     * Name of units system used in OWM requests
+     */
+    private String system;
+
+    /**
+     * Unit of temperatures
+     */
+    private TemperatureUnit temperatureUnit;
+
+    /**
+     * Unit of speeds
+     */
+    private SpeedUnit speedUnit;
+
+    /**
+     * Provides enumeration for given units system.
+     * @param system name of units system
+     * @return OwmUnits
+     * @throws IllegalArgumentException when units system is not supported
+     */
+    public static OwmUnits ofSystem(@NonNull String system) {
+        return Stream.of(OwmUnits.values())
+                .filter(units -> units.system.equalsIgnoreCase(system))
+                .findAny()
+                .orElseThrow(() -> new IllegalArgumentException("Units system '" + system + "' is not supported"));
+    }
+}
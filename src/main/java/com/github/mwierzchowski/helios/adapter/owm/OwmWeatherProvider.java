@@ -1,40 +1,46 @@
 package com.github.mwierzchowski.helios.adapter.owm;
 
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator;
-import com.github.mwierzchowski.helios.core.commons.Location;
-import com.github.mwierzchowski.helios.core.commons.LocationProvider;
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
+import com.github.mwierzchowski.helios.core.weather.Speed;
+import com.github.mwierzchowski.helios.core.weather.Temperature;
 import com.github.mwierzchowski.helios.core.weather.Weather;
 import com.github.mwierzchowski.helios.core.weather.WeatherProvider;
-import io.github.resilience4j.retry.annotation.Retry;
+import com.github.mwierzchowski.helios.core.weather.Wind;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.mapstruct.AfterMapping;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.MappingTarget;
 import org.mapstruct.factory.Mappers;
-import org.openweathermap.api.CurrentWeatherApi;
 import org.openweathermap.model.CurrentWeatherResponse;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.cache.annotation.CacheConfig;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.core.annotation.Order;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.mapstruct.ReportingPolicy.IGNORE;
 
 /**
  * Open Weather Map (OWM) implementation of the weather source. Responses from OWM are cached to avoid running over the
  * queries limit. Additionally, frequent calls do not make sense, since OWM provides current weather every 10 mins at
- * most. If needed, cache could be manually expired by calling {@link OwmWeatherProvider#expireCachedResponse()} method.
- * In case of communication issues, call to OWM API is retried number of times. At the end, empty {@link Optional} is
- * returned.
+ * most. Cache is refreshed ahead: cached weather is always provided immediately and it is refreshed in background
+ * shortly before expiration, so callers never wait for OWM (and its retries, see {@link OwmClient}). Response with
+ * the same observation time (<code>dt</code>) as the cached one is not mapped again. Weather cached longer than
+ * maximal staleness (e.g. when refreshes keep failing) is not provided, it is fetched synchronously instead. If needed,
+ * cache could be manually expired by calling {@link OwmWeatherProvider#expireCachedResponse()} method. When weather
+ * can not be fetched, empty {@link Optional} is returned.
  * @author Marcin Wierzchowski
  */
 @Component
-@CacheConfig(cacheNames = {"owm-weather-source"})
 @Slf4j
 @RequiredArgsConstructor
 @ConditionalOnProperty(name = "helios.owm.api-key")
@@ -45,6 +51,16 @@ public class OwmWeatherProvider implements WeatherProvider {
      */
     public static final String WEATHER_SOURCE_NAME = OwmWeatherProvider.class.getSimpleName();
 
+    /**
+     * Name of metric counting cache lookups
+     */
+    public static final String CACHE_METRIC = "helios.owm.cache";
+
+    /**
+     * Name of metric counting cache refreshes
+     */
+    public static final String REFRESH_METRIC = "helios.owm.cache.refresh";
+
     /**
      * Mapper instance
      */
@@ -55,75 +71,184 @@ public class OwmWeatherProvider implements WeatherProvider {
      */
     private final OwmProperties owmProperties;
 
-    /**
-     * Location provider
-     */
-    private final LocationProvider locationProvider;
-
     /**
      * OWM API client
      */
-    private final CurrentWeatherApi weatherApi;
+    private final OwmClient owmClient;
 
     /**
      * Health indicator for OWM adapter
      */
     private final ExternalServiceHealthIndicator<CurrentWeatherResponse> healthIndicator;
 
+    /**
+     * Executor provider
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Meter registry
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Cached weather or null when nothing is cached
+     */
+    private final AtomicReference<CachedWeather> cache = new AtomicReference<>();
+
+    /**
+     * Flag informing if background refresh is in progress
+     */
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
     @Override
-    @Cacheable
-    @Retry(name = "owm", fallbackMethod = "missingWeather")
     public Optional<Weather> currentWeather() {
-        Location location = locationProvider.locate();
-        CurrentWeatherResponse weatherResponse = weatherApi.currentWeather(
-                location.getLatitude(),
-                location.getLongitude(),
-                owmProperties.getUnitsSystem(),
-                owmProperties.getLanguage()
-        );
-        log.debug("Current weather response: {}", weatherResponse);
-        Weather weather = MAPPER.toWeather(weatherResponse);
-        healthIndicator.register(weatherResponse);
-        return Optional.of(weather);
+        var cached = cache.get();
+        var now = clock.instant();
+        if (cached == null || now.isAfter(cached.fetched.plusMillis(owmProperties.getMaxStaleness()))) {
+            log.debug("Weather is not cached or cached weather is too stale");
+            meterRegistry.counter(CACHE_METRIC, "result", cached == null ? "miss" : "stale").increment();
+            return fetch().map(CachedWeather::getWeather);
+        }
+        meterRegistry.counter(CACHE_METRIC, "result", "hit").increment();
+        var refreshAt = cached.fetched.plusMillis(owmProperties.getCacheTtl() - owmProperties.getRefreshAhead());
+        if (!now.isBefore(refreshAt)) {
+            refreshInBackground();
+        }
+        return Optional.of(cached.weather);
     }
 
     /**
-     * Fallback method used when its not possible to provide current weather due to technical issues with OWM.
-     * @param throwable problem root cause
-     * @return empty optional
+     * Expires cached weather, so it is fetched synchronously on the next call.
      */
-    public Optional<Weather> missingWeather(Throwable throwable) {
-        log.error("Current weather request failed", throwable);
-        healthIndicator.register(throwable);
-        return Optional.empty();
+    public void expireCachedResponse() {
+        cache.set(null);
+        log.debug("Cached weather response (if any) expired");
     }
 
     /**
-     * Scheduled method that expires response cache. Should be called at least every 10 mins or more since OWM collects
-     * weather info every 10 mins at most.
+     * Helper method that starts background refresh, unless one is already in progress.
      */
-    @Scheduled(
-            fixedRateString = "#{owmProperties.cacheTtl}",
-            initialDelayString = "#{owmProperties.cacheTtl}"
-    )
-    @CacheEvict(allEntries = true)
-    public void expireCachedResponse() {
-        log.debug("Cached weather response (if any) expired");
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        log.debug("Refreshing cached weather in background");
+        try {
+            executorProvider.ioExecutor().execute(() -> {
+                try {
+                    fetch();
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException ex) {
+            refreshing.set(false);
+            log.warn("Background refresh of cached weather could not be started", ex);
+        }
     }
 
     /**
-     * Mapper interface
+     * Helper method that fetches weather from OWM and caches it. When observation time of the response has not
+     * advanced, cached weather is kept and only its fetch time is updated.
+     * @return cached weather or empty optional if weather could not be fetched
+     */
+    private Optional<CachedWeather> fetch() {
+        CurrentWeatherResponse weatherResponse;
+        try {
+            weatherResponse = owmClient.currentWeather();
+        } catch (RuntimeException ex) {
+            log.error("Current weather request failed", ex);
+            healthIndicator.register(ex);
+            meterRegistry.counter(REFRESH_METRIC, "result", "failed").increment();
+            return Optional.empty();
+        }
+        healthIndicator.register(weatherResponse);
+        var now = clock.instant();
+        var previous = cache.get();
+        var observed = weatherResponse.getDt();
+        CachedWeather fetched;
+        if (previous != null && observed != null && observed.equals(previous.observed)) {
+            log.debug("Weather observation time has not advanced, cached weather is kept");
+            meterRegistry.counter(REFRESH_METRIC, "result", "unchanged").increment();
+            fetched = new CachedWeather(previous.weather, previous.observed, now);
+        } else {
+            var units = OwmUnits.ofSystem(owmProperties.getUnitsSystem());
+            meterRegistry.counter(REFRESH_METRIC, "result", "updated").increment();
+            fetched = new CachedWeather(MAPPER.toWeather(weatherResponse, units), observed, now);
+        }
+        cache.set(fetched);
+        return Optional.of(fetched);
+    }
+
+    /**
+     * Cached weather.
+     */
+    @RequiredArgsConstructor
+    private static class CachedWeather {
+        /**
+         * Weather
+         */
+        private final Weather weather;
+
+        /**
+         * Observation time of OWM response (dt)
+         */
+        private final Integer observed;
+
+        /**
+         * Time when response was fetched
+         */
+        private final Instant fetched;
+
+        /**
+         * Provides cached weather.
+         * @return weather
+         */
+        Weather getWeather() {
+            return weather;
+        }
+    }
+
+    /**
+     * Mapper interface. Temperature and wind speed are mapped after the mapping, since their units depend on units
+     * system used in the request (see {@link OwmUnits}).
      */
     @Mapper(unmappedTargetPolicy = IGNORE)
     interface OwmMapper {
         @Mapping(target = "source", expression = "java(OwmWeatherProvider.WEATHER_SOURCE_NAME)")
         @Mapping(target = "timestamp", expression = "java(java.time.Instant.ofEpochSecond(response.getDt()))") // TODO
-        @Mapping(target = "temperature.value", source = "response.main.temp")
-        @Mapping(target = "temperature.unit", constant = "CELSIUS") // TODO
-        @Mapping(target = "wind.speed.value", source ="response.wind.speed")
-        @Mapping(target = "wind.speed.unit", constant = "METERS_PER_SECOND") // TODO
+        @Mapping(target = "temperature", ignore = true)
+        @Mapping(target = "wind.speed", ignore = true)
         @Mapping(target = "wind.direction", source ="response.wind.deg")
         @Mapping(target = "cloudsCoverage", source ="response.clouds.all")
-        Weather toWeather(CurrentWeatherResponse response);
+        Weather toWeather(CurrentWeatherResponse response, @Context OwmUnits units);
+
+        /**
+         * Maps temperature and wind speed in units of given units system.
+         * @param response OWM response
+         * @param weather mapped weather
+         * @param units units system of the response
+         */
+        @AfterMapping
+        default void mapUnits(CurrentWeatherResponse response, @MappingTarget Weather weather,
+                              @Context OwmUnits units) {
+            Optional.ofNullable(response.getMain())
+                    .map(main -> main.getTemp())
+                    .ifPresent(temp -> weather.setTemperature(new Temperature(temp, units.getTemperatureUnit())));
+            Optional.ofNullable(response.getWind())
+                    .map(wind -> wind.getSpeed())
+                    .ifPresent(speed -> {
+                        if (weather.getWind() == null) {
+                            weather.setWind(new Wind());
+                        }
+                        weather.getWind().setSpeed(new Speed(speed, units.getSpeedUnit()));
+                    });
+        }
     }
 }
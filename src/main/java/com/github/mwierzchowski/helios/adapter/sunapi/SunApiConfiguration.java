@@ -1,22 +1,30 @@
 package com.github.mwierzchowski.helios.adapter.sunapi;
 
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator;
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport;
+import com.github.mwierzchowski.helios.adapter.commons.SingleFlight;
 import com.github.mwierzchowski.helios.core.commons.EventStore;
+import com.github.mwierzchowski.helios.core.sun.SunEphemeris;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.sunrisesunset.api.SunriseSunsetApi;
 import org.sunrisesunset.invoker.ApiClient;
 import org.sunrisesunset.model.SunriseSunsetResponse;
 
+import java.time.LocalDate;
+
 /**
  * Sun API adapter configuration.
  * @author Marcin Wierzchowski
  */
 @Configuration
+@ConditionalOnProperty(name = "helios.sun.provider", havingValue = "sunapi", matchIfMissing = true)
 public class SunApiConfiguration {
     @Bean
-    public ApiClient sunApiClient(SunApiProperties properties) {
-        ApiClient apiClient = new ApiClient();
+    public ApiClient sunApiClient(SunApiProperties properties, HttpTransport httpTransport) {
+        ApiClient apiClient = new ApiClient(httpTransport.restTemplate("sunapi"));
         apiClient.setBasePath(properties.getBasePath());
         return apiClient;
     }
@@ -30,4 +38,9 @@ public class SunApiConfiguration {
     public ExternalServiceHealthIndicator<SunriseSunsetResponse> sunApiHealthIndicator(EventStore eventStore) {
         return new ExternalServiceHealthIndicator<>(SunApiSunEphemerisProvider.class, eventStore);
     }
+
+    @Bean
+    public SingleFlight<LocalDate, SunEphemeris> sunApiSingleFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("sunapi", meterRegistry);
+    }
 }
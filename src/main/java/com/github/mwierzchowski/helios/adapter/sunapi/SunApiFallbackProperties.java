@@ -17,6 +17,12 @@ import static java.time.LocalTime.parse;
  */
 @Data
 public class SunApiFallbackProperties {
+    /**
+     * Flag enabling local calculation of fallback ephemeris. Fixed times below are used only when it is disabled or
+     * calculation is not possible.
+     */
+    private Boolean calculated = true;
+
     /**
      * Fallback dawn time.
      */
@@ -5,6 +5,8 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 /**
  * Sun API adapter configuration.
  * @author Marcin Wierzchowski
@@ -28,6 +30,26 @@ public class SunApiProperties {
      */
     private Integer cacheDays = 7;
 
+    /**
+     * Maximal number of days fetched concurrently during cache warm-up
+     */
+    private Integer warmUpParallelism = 3;
+
+    /**
+     * Maximal number of attempts to fetch ephemeris of each day during cache warm-up
+     */
+    private Integer warmUpMaxAttempts = 8;
+
+    /**
+     * Delay before the first retry of the day during cache warm-up (doubled with every next attempt)
+     */
+    private Duration warmUpBackoff = Duration.ofSeconds(15);
+
+    /**
+     * Maximal delay between retries of the day during cache warm-up
+     */
+    private Duration warmUpMaxBackoff = Duration.ofMinutes(10);
+
     /**
      * Fallback properties
      */
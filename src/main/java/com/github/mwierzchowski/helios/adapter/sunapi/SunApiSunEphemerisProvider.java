@@ -1,25 +1,43 @@
 package com.github.mwierzchowski.helios.adapter.sunapi;
 
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator;
+import com.github.mwierzchowski.helios.adapter.commons.SingleFlight;
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
+import com.github.mwierzchowski.helios.core.commons.Location;
 import com.github.mwierzchowski.helios.core.commons.LocationProvider;
+import com.github.mwierzchowski.helios.core.sun.SolarCalculator;
 import com.github.mwierzchowski.helios.core.sun.SunEphemeris;
 import com.github.mwierzchowski.helios.core.sun.SunEphemerisProvider;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.sunrisesunset.api.SunriseSunsetApi;
 import org.sunrisesunset.model.SunriseSunsetResponse;
 
 import javax.annotation.PostConstruct;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.DAWN;
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.DUSK;
@@ -27,17 +45,31 @@ import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.NOON;
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNRISE;
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNSET;
 import static java.util.Optional.ofNullable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.stream.Collectors.toList;
 
 /**
  * Implementation of {@link SunEphemerisProvider} that provides {@link SunEphemeris} from https://sunrise-sunset.org/
- * service.
+ * service. Fetched ephemerides are kept in memory and in {@link SunEphemerisStore}, so after restart they are served
+ * from the store, while missing days are fetched in background (see {@link #manageCache()}). Both are invalidated when
+ * location changes. Provider is enabled by default or with <code>helios.sun.provider=sunapi</code> property.
  * @author Marcin Wierzchowski
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.sun.provider", havingValue = "sunapi", matchIfMissing = true)
 public class SunApiSunEphemerisProvider implements SunEphemerisProvider {
+    /**
+     * Name of the metric with duration of cache warm-up
+     */
+    public static final String WARM_UP_DURATION_METRIC = "helios.sunapi.warmup.duration";
+
+    /**
+     * Name of the metric with coverage (fraction of cached days) of the last cache warm-up
+     */
+    public static final String WARM_UP_COVERAGE_METRIC = "helios.sunapi.warmup.coverage";
+
     /**
      * Sun Api properties
      */
@@ -58,46 +90,193 @@ public class SunApiSunEphemerisProvider implements SunEphemerisProvider {
      */
     private final ExternalServiceHealthIndicator<SunriseSunsetResponse> healthIndicator;
 
+    /**
+     * Coalescer of concurrent requests for the same day
+     */
+    private final SingleFlight<LocalDate, SunEphemeris> singleFlight;
+
+    /**
+     * Solar calculator (used for fallback)
+     */
+    private final SolarCalculator solarCalculator;
+
+    /**
+     * Persistent store of ephemerides
+     */
+    private final SunEphemerisStore ephemerisStore;
+
+    /**
+     * Executor provider
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Meter registry
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Cached ephemerides
+     */
     @Getter
     private final Map<LocalDate, SunEphemeris> cache = new ConcurrentHashMap<>();
 
     /**
-     * Populates cache with configured number of future sun ephemeris and removes old (from past) data. Method should be
-     * called on application startup and everyday on the same time (configured by cron). In case of communication
-     * issues method is automatically retried but should not block calling scheduler thread.
+     * Location of cached ephemerides
+     */
+    private volatile Location cachedLocation;
+
+    /**
+     * Running (or the last) cache warm-up
+     */
+    private CompletableFuture<WarmUp> warmUp;
+
+    /**
+     * Coverage of the last cache warm-up
+     */
+    private volatile double lastCoverage = Double.NaN;
+
+    /**
+     * Registers gauge of coverage of the last cache warm-up (not a number until the first warm-up finishes).
      */
     @PostConstruct
-    @Retry(name = "sun-api-cache")
+    public void registerMetrics() {
+        meterRegistry.gauge(WARM_UP_COVERAGE_METRIC, Tags.empty(), this, provider -> provider.lastCoverage);
+    }
+
+    /**
+     * Starts cache warm-up (see {@link #manageCache()}) on application startup and everyday on the same time
+     * (configured by cron). Method only starts warm-up, so it never blocks startup nor scheduler thread.
+     */
     @Scheduled(cron = "#{sunApiProperties.cacheCron}")
-    public void manageCache() {
-        log.debug("Caching ephemeris for next {} days", sunProperties.getCacheDays());
-        var today = LocalDate.now();
-        for (int i = 0; i < sunProperties.getCacheDays(); i++) {
-            sunEphemerisFor(today.plusDays(i));
+    @EventListener(classes = ApplicationReadyEvent.class, condition = "@commonProperties.processingOnStartupEnabled")
+    public void warmUpCache() {
+        manageCache();
+    }
+
+    /**
+     * Removes old (from past) data and populates cache with configured number of future sun ephemeris in background.
+     * Days already saved in the store are not fetched again. Days are fetched concurrently (up to configured
+     * parallelism) and in case of communication issues each day is retried independently with exponential backoff, so
+     * days fetched successfully are kept even if other days fail. When warm-up is already running, it is not started
+     * again.
+     * @return future completed with summary of warm-up
+     */
+    public synchronized CompletableFuture<WarmUp> manageCache() {
+        if (warmUp != null && !warmUp.isDone()) {
+            log.debug("Cache warm-up is already running");
+            return warmUp;
         }
-        var outdatedEntries = cache.keySet().stream().filter(today::isAfter).collect(toList());
-        log.debug("Removing from cache {} outdated entries", outdatedEntries.size());
-        outdatedEntries.forEach(cache::remove);
+        var today = LocalDate.now();
+        warmUp = CompletableFuture.runAsync(() -> removeOutdated(today), executorProvider.executor())
+                .thenCompose(nothing -> new CacheWarmUp(today).start());
+        return warmUp;
     }
 
     /**
-     * Main provider method. Calls Sun API service and stores result in cache. It returns value from cache if it
-     * already contains ephemeris for given day. In case of communication issues, call is retried according to the
-     * configuration. In the worst case scenario, fallback method provides configured fallback ephemeris (but its not
-     * stored in the cache).
+     * Main provider method. Calls Sun API service and stores result in cache. It returns value from cache (or from
+     * the store) if it already contains ephemeris for given day and current location. Concurrent calls for the same
+     * day are coalesced, so service is called only once. In case of communication issues, call is retried according
+     * to the configuration. In the worst case scenario, fallback method provides configured fallback ephemeris (but
+     * its not stored in the cache).
      * @param day day for which ephemeris should be calculated
      * @return ephemeris
      */
     @Override
     @Retry(name = "sun-api", fallbackMethod = "missingEphemeris")
     public SunEphemeris sunEphemerisFor(LocalDate day) {
+        var location = currentLocation();
         var ephemeris = cache.get(day);
         if (ephemeris != null) {
             log.debug("Ephemeris for {} is available in cache", day);
             return ephemeris;
         }
-        log.info("Requesting ephemeris for {} ", day);
+        return singleFlight.execute(day, () -> requestEphemeris(day, location));
+    }
+
+    /**
+     * Fallback method that provides ephemeris calculated locally (see {@link SolarCalculator}) or, when it is disabled
+     * or not possible (e.g. location is not available), ephemeris from properties.
+     * @param day day for which ephemeris should be calculated
+     * @param throwable error
+     * @return fallback ephemeris
+     */
+    public SunEphemeris missingEphemeris(LocalDate day, Throwable throwable) {
+        log.error("Ephemeris request failed, providing fallback", throwable);
+        healthIndicator.register(throwable);
+        var fallback = sunProperties.getFallback();
+        if (fallback.getCalculated()) {
+            try {
+                var ephemeris = solarCalculator.sunEphemerisOf(day, locationProvider.locate(), ZoneId.systemDefault());
+                ephemeris.setApproximated(true);
+                return ephemeris;
+            } catch (Exception ex) {
+                log.error("Ephemeris calculation failed, providing fixed fallback", ex);
+            }
+        }
+        return fallback.getSunEphemeris();
+    }
+
+    /**
+     * Helper method that removes outdated (before given day) ephemerides from cache and from the store.
+     * @param today current day
+     */
+    private void removeOutdated(LocalDate today) {
+        var outdatedEntries = cache.keySet().stream().filter(today::isAfter).collect(toList());
+        log.debug("Removing from cache {} outdated entries", outdatedEntries.size());
+        outdatedEntries.forEach(cache::remove);
+        try {
+            var evicted = ephemerisStore.evictBefore(today);
+            log.debug("Removed from store {} outdated events", evicted);
+        } catch (DataAccessException ex) {
+            log.warn("Could not remove outdated ephemerides from store", ex);
+        }
+    }
+
+    /**
+     * Helper method that provides current location. Cached ephemerides are invalidated (in memory and in the store)
+     * when location changes.
+     * @return location
+     */
+    private Location currentLocation() {
         var location = locationProvider.locate();
+        if (location.equals(cachedLocation)) {
+            return location;
+        }
+        synchronized (this) {
+            if (!location.equals(cachedLocation)) {
+                if (cachedLocation != null) {
+                    log.info("Location changed to {}, invalidating cached ephemerides", location);
+                    cache.clear();
+                }
+                try {
+                    ephemerisStore.evictOtherThan(location);
+                } catch (DataAccessException ex) {
+                    log.warn("Could not remove ephemerides of other locations from store", ex);
+                }
+                cachedLocation = location;
+            }
+        }
+        return location;
+    }
+
+    /**
+     * Helper method that restores ephemeris from the store or (if it is missing) calls Sun API service. Result is
+     * stored in cache, unless location has changed in the meantime.
+     * @param day day for which ephemeris should be calculated
+     * @param location location
+     * @return ephemeris
+     */
+    private SunEphemeris requestEphemeris(LocalDate day, Location location) {
+        var ephemeris = cache.get(day);
+        if (ephemeris != null) {
+            return ephemeris;
+        }
+        ephemeris = restoreEphemeris(day, location);
+        if (ephemeris != null) {
+            return ephemeris;
+        }
+        log.info("Requesting ephemeris for {} ", day);
         var sunApiResponse = api.sunriseSunset(
                 location.getLatitude(),
                 location.getLongitude(),
@@ -107,19 +286,44 @@ public class SunApiSunEphemerisProvider implements SunEphemerisProvider {
         log.debug("Sun API response: {}", sunApiResponse);
         ephemeris = toSunEphemeris(sunApiResponse);
         healthIndicator.register(sunApiResponse);
-        cache.putIfAbsent(day, ephemeris);
+        if (location.equals(cachedLocation)) {
+            cache.putIfAbsent(day, ephemeris);
+            saveEphemeris(location, ephemeris);
+        }
         return ephemeris;
     }
 
     /**
-     * Fallback method that provides ephemeris from properties
-     * @param throwable error
-     * @return fallback ephmeris
+     * Helper method that loads ephemerides of the location since given day from the store into cache.
+     * @param day day for which ephemeris should be calculated
+     * @param location location
+     * @return ephemeris of the day or null if it is not stored
      */
-    public SunEphemeris missingEphemeris(Throwable throwable) {
-        log.error("Ephemeris request failed, providing fallback", throwable);
-        healthIndicator.register(throwable);
-        return sunProperties.getFallback().getSunEphemeris();
+    private SunEphemeris restoreEphemeris(LocalDate day, Location location) {
+        try {
+            var stored = ephemerisStore.load(location, day);
+            if (!stored.isEmpty() && location.equals(cachedLocation)) {
+                log.debug("Restored from store ephemeris of {} days", stored.size());
+                stored.forEach(cache::putIfAbsent);
+            }
+            return stored.get(day);
+        } catch (DataAccessException ex) {
+            log.warn("Could not load ephemeris for {} from store", day, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Helper method that saves ephemeris of the location in the store.
+     * @param location location
+     * @param ephemeris ephemeris
+     */
+    private void saveEphemeris(Location location, SunEphemeris ephemeris) {
+        try {
+            ephemerisStore.save(location, ephemeris);
+        } catch (DataAccessException ex) {
+            log.warn("Could not save ephemeris for {} in store", ephemeris.getDay(), ex);
+        }
     }
 
     /**
@@ -153,4 +357,188 @@ public class SunApiSunEphemerisProvider implements SunEphemerisProvider {
     private LocalTime toLocalTime(OffsetDateTime odt) {
         return odt.atZoneSameInstant(ZoneId.systemDefault()).toLocalTime();
     }
+
+    /**
+     * Summary of cache warm-up.
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class WarmUp {
+        /**
+         * Number of days to be cached
+         */
+        private final int days;
+
+        /**
+         * Number of days cached successfully
+         */
+        private final int covered;
+
+        /**
+         * Duration of warm-up
+         */
+        private final Duration duration;
+
+        /**
+         * Provides fraction of days cached successfully.
+         * @return coverage
+         */
+        public double getCoverage() {
+            return days == 0 ? 1.0 : (double) covered / days;
+        }
+    }
+
+    /**
+     * Single run of cache warm-up. Days are dispatched to the executor while there are free slots (up to configured
+     * parallelism). Failed days are put back to the queue after backoff delay by the scheduler, so no thread waits
+     * for the retry.
+     */
+    private class CacheWarmUp {
+        /**
+         * Start of warm-up in nanoseconds
+         */
+        private final long start = System.nanoTime();
+
+        /**
+         * Number of days to be cached
+         */
+        private final int days = sunProperties.getCacheDays();
+
+        /**
+         * Days waiting for dispatch
+         */
+        private final Queue<LocalDate> pending = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Failed attempts per day
+         */
+        private final Map<LocalDate, Integer> failures = new ConcurrentHashMap<>();
+
+        /**
+         * Slots of concurrently fetched days
+         */
+        private final Semaphore slots = new Semaphore(sunProperties.getWarmUpParallelism());
+
+        /**
+         * Number of days not finished yet (cached or given up)
+         */
+        private final AtomicInteger remaining = new AtomicInteger(days);
+
+        /**
+         * Number of days cached successfully
+         */
+        private final AtomicInteger covered = new AtomicInteger();
+
+        /**
+         * Result of warm-up
+         */
+        private final CompletableFuture<WarmUp> result = new CompletableFuture<>();
+
+        /**
+         * Creates warm-up of configured number of days since given day.
+         * @param today first day
+         */
+        CacheWarmUp(LocalDate today) {
+            for (int i = 0; i < days; i++) {
+                pending.add(today.plusDays(i));
+            }
+        }
+
+        /**
+         * Starts warm-up.
+         * @return future completed when all days are cached or given up
+         */
+        CompletableFuture<WarmUp> start() {
+            log.debug("Caching ephemeris for next {} days", days);
+            if (days > 0) {
+                dispatch();
+            } else {
+                finish();
+            }
+            return result;
+        }
+
+        /**
+         * Dispatches pending days to the executor while there are free slots. Queue is checked again after slot is
+         * released, so day added concurrently by other thread is not missed.
+         */
+        private void dispatch() {
+            while (slots.tryAcquire()) {
+                var day = pending.poll();
+                if (day == null) {
+                    slots.release();
+                    if (pending.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                CompletableFuture.runAsync(() -> sunEphemerisFor(day), executorProvider.ioExecutor())
+                        .whenComplete((nothing, ex) -> {
+                            slots.release();
+                            completed(day, ex);
+                            dispatch();
+                        });
+            }
+        }
+
+        /**
+         * Handles completed attempt of the day. Failed day is retried after backoff, unless attempts are exhausted.
+         * @param day day
+         * @param ex error or null if ephemeris was cached
+         */
+        private void completed(LocalDate day, Throwable ex) {
+            if (ex == null) {
+                covered.incrementAndGet();
+                countDown();
+                return;
+            }
+            var cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            healthIndicator.register(cause);
+            var attempts = failures.merge(day, 1, Integer::sum);
+            if (attempts >= sunProperties.getWarmUpMaxAttempts()) {
+                log.error("Caching ephemeris for {} failed {} times, giving up", day, attempts, cause);
+                countDown();
+                return;
+            }
+            var backoff = backoffOf(attempts);
+            log.warn("Caching ephemeris for {} failed, retrying in {}", day, backoff, cause);
+            executorProvider.scheduler().schedule(() -> {
+                pending.add(day);
+                dispatch();
+            }, backoff.toMillis(), MILLISECONDS);
+        }
+
+        /**
+         * Helper method that provides exponential backoff after given number of failed attempts.
+         * @param attempts number of failed attempts
+         * @return backoff
+         */
+        private Duration backoffOf(int attempts) {
+            var backoff = sunProperties.getWarmUpBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+            var maxBackoff = sunProperties.getWarmUpMaxBackoff();
+            return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+        }
+
+        /**
+         * Helper method that marks day as finished and finishes warm-up after the last day.
+         */
+        private void countDown() {
+            if (remaining.decrementAndGet() == 0) {
+                finish();
+            }
+        }
+
+        /**
+         * Helper method that reports duration and coverage of warm-up and completes its result.
+         */
+        private void finish() {
+            var summary = new WarmUp(days, covered.get(), Duration.ofNanos(System.nanoTime() - start));
+            meterRegistry.timer(WARM_UP_DURATION_METRIC).record(summary.getDuration());
+            lastCoverage = summary.getCoverage();
+            log.info("Cached ephemeris of {} out of {} days in {}ms", summary.getCovered(), days,
+                    summary.getDuration().toMillis());
+            result.complete(summary);
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package com.github.mwierzchowski.helios.adapter.sunapi;
+
+import com.github.mwierzchowski.helios.core.commons.Location;
+import com.github.mwierzchowski.helios.core.sun.SunEphemeris;
+import com.github.mwierzchowski.helios.core.sun.SunEphemerisType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Database store of ephemerides fetched from Sun API, so they survive restarts of the application. Ephemerides are
+ * kept per location and day. Times of events are stored as epoch seconds, so they do not depend on the system zone.
+ * @author Marcin Wierzchowski
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+public class SunEphemerisStore {
+    /**
+     * JDBC template
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads ephemerides of the location since given day.
+     * @param location location
+     * @param since first day (inclusive)
+     * @return ephemerides by day
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, SunEphemeris> load(Location location, LocalDate since) {
+        var ephemerides = new TreeMap<LocalDate, SunEphemeris>();
+        jdbcTemplate.query("select day, type, time from sun_ephemeris "
+                + "where latitude = ? and longitude = ? and day >= ?", rs -> {
+            var day = rs.getDate("day").toLocalDate();
+            var ephemeris = ephemerides.computeIfAbsent(day, this::ephemerisOf);
+            var time = Instant.ofEpochSecond(rs.getLong("time")).atZone(ZoneId.systemDefault()).toLocalTime();
+            ephemeris.getTimes().put(SunEphemerisType.valueOf(rs.getString("type")), time);
+        }, location.getLatitude(), location.getLongitude(), Date.valueOf(since));
+        return ephemerides;
+    }
+
+    /**
+     * Saves ephemeris of the location (replacing previously saved ephemeris of the same day).
+     * @param location location
+     * @param ephemeris ephemeris
+     */
+    public void save(Location location, SunEphemeris ephemeris) {
+        var day = Date.valueOf(ephemeris.getDay());
+        jdbcTemplate.update("delete from sun_ephemeris where latitude = ? and longitude = ? and day = ?",
+                location.getLatitude(), location.getLongitude(), day);
+        var args = new ArrayList<Object[]>();
+        ephemeris.getTimes().forEach((type, time) -> {
+            var epochSecond = time.atDate(ephemeris.getDay()).atZone(ZoneId.systemDefault()).toEpochSecond();
+            args.add(new Object[] {location.getLatitude(), location.getLongitude(), day, type.name(), epochSecond});
+        });
+        jdbcTemplate.batchUpdate("insert into sun_ephemeris (latitude, longitude, day, type, time) "
+                + "values (?, ?, ?, ?, ?)", args);
+    }
+
+    /**
+     * Removes ephemerides of days before given day.
+     * @param day day
+     * @return number of removed events
+     */
+    public int evictBefore(LocalDate day) {
+        return jdbcTemplate.update("delete from sun_ephemeris where day < ?", Date.valueOf(day));
+    }
+
+    /**
+     * Removes ephemerides of locations other than given one.
+     * @param location location
+     * @return number of removed events
+     */
+    public int evictOtherThan(Location location) {
+        return jdbcTemplate.update("delete from sun_ephemeris where latitude <> ? or longitude <> ?",
+                location.getLatitude(), location.getLongitude());
+    }
+
+    /**
+     * Helper method that creates empty ephemeris of the day.
+     * @param day day
+     * @return ephemeris
+     */
+    private SunEphemeris ephemerisOf(LocalDate day) {
+        var ephemeris = new SunEphemeris();
+        ephemeris.setDay(day);
+        return ephemeris;
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.BooleanSupplier;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Instrumentation of scheduled alerts (timer alerts and sun events). For every fired alert it records lateness
+ * (difference between the instant alert was scheduled for and the instant it was actually fired), time of validation
+ * and time of publishing. Meters are histograms with percentiles, tagged by event type and timer, available in the
+ * actuator metrics endpoint. Alerts later than configured threshold are additionally counted and logged.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertMetrics {
+    /**
+     * Name of lateness meter
+     */
+    public static final String LATENESS = "helios.alerts.lateness";
+
+    /**
+     * Name of validation time meter
+     */
+    public static final String VALIDATION = "helios.alerts.validation";
+
+    /**
+     * Name of publish time meter
+     */
+    public static final String PUBLISH = "helios.alerts.publish";
+
+    /**
+     * Name of late alerts counter
+     */
+    public static final String LATE = "helios.alerts.late";
+
+    /**
+     * Value of timer tag for alerts that are not fired by timers
+     */
+    public static final String NO_TIMER = "none";
+
+    /**
+     * Published percentiles
+     */
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    /**
+     * Common properties
+     */
+    private final CommonProperties commonProperties;
+
+    /**
+     * Meter registry
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Records lateness of the alert fired now. Alerts fired before scheduled instant are recorded with zero lateness.
+     * @param event event type
+     * @param timer timer (or {@link AlertMetrics#NO_TIMER})
+     * @param scheduled instant for which alert was scheduled
+     * @return lateness
+     */
+    public Duration recordLateness(String event, String timer, Instant scheduled) {
+        var lateness = Duration.ofMillis(Math.max(0, clock.millis() - scheduled.toEpochMilli()));
+        var threshold = commonProperties.getAlertLatenessThreshold();
+        timerOf(LATENESS, event, timer, threshold).record(lateness);
+        if (lateness.compareTo(threshold) > 0) {
+            meterRegistry.counter(LATE, tagsOf(event, timer)).increment();
+            log.warn("Alert {} (timer: {}) fired {}ms late (scheduled for {})", event, timer, lateness.toMillis(),
+                    scheduled);
+        }
+        return lateness;
+    }
+
+    /**
+     * Runs and records validation of the alert.
+     * @param event event type
+     * @param timer timer (or {@link AlertMetrics#NO_TIMER})
+     * @param validation validation
+     * @return result of validation
+     */
+    public boolean recordValidation(String event, String timer, BooleanSupplier validation) {
+        var start = System.nanoTime();
+        try {
+            return validation.getAsBoolean();
+        } finally {
+            timerOf(VALIDATION, event, timer, null).record(System.nanoTime() - start, NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs and records publishing of the alert.
+     * @param event event type
+     * @param timer timer (or {@link AlertMetrics#NO_TIMER})
+     * @param publishing publishing
+     */
+    public void recordPublish(String event, String timer, Runnable publishing) {
+        timerOf(PUBLISH, event, timer, null).record(publishing);
+    }
+
+    /**
+     * Helper method that provides (registers on the first use) histogram of given name and tags.
+     * @param name name of meter
+     * @param event event type
+     * @param timer timer
+     * @param threshold alerting threshold published as service level objective (optional)
+     * @return timer meter
+     */
+    private Timer timerOf(String name, String event, String timer, Duration threshold) {
+        var builder = Timer.builder(name)
+                .tags(tagsOf(event, timer))
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram();
+        if (threshold != null) {
+            builder.sla(threshold);
+        }
+        return builder.register(meterRegistry);
+    }
+
+    /**
+     * Helper method that provides tags of meters.
+     * @param event event type
+     * @param timer timer
+     * @return tags
+     */
+    private Tags tagsOf(String event, String timer) {
+        return Tags.of("event", event, "timer", timer);
+    }
+}
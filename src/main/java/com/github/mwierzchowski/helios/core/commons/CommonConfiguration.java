@@ -1,14 +1,21 @@
 package com.github.mwierzchowski.helios.core.commons;
 
+import com.github.mwierzchowski.helios.core.journal.EventJournal;
+import com.github.mwierzchowski.helios.core.journal.JournalingEventStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 
 import java.time.Clock;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 
 /**
  * Configuration for common components.
@@ -16,9 +23,41 @@ import java.util.concurrent.ScheduledExecutorService;
  */
 @Configuration
 public class CommonConfiguration {
+    /**
+     * Provides events store of configured type (see {@link EventStoreProperties#getType()}), wrapped with journal when
+     * it is enabled. Type is taken from bound properties, so any relaxed spelling of it (e.g. 'ring-buffer' or
+     * 'RING_BUFFER') selects the same store.
+     * @param commonProperties common properties
+     * @param publisher application events publisher
+     * @param ringBuffer ring buffer events store (created only when selected)
+     * @param journal events journal
+     * @return events store
+     */
     @Bean
-    public EventStore eventStore(ApplicationEventPublisher publisher) {
-        return publisher::publishEvent;
+    @Primary
+    public EventStore eventStore(CommonProperties commonProperties, ApplicationEventPublisher publisher,
+                                 ObjectProvider<RingBufferEventStore> ringBuffer, ObjectProvider<EventJournal> journal) {
+        EventStore eventStore;
+        if (commonProperties.getEventStore().getType() == EventStoreProperties.Type.RING_BUFFER) {
+            eventStore = ringBuffer.getObject();
+        } else {
+            eventStore = publisher::publishEvent;
+        }
+        var eventJournal = journal.getIfAvailable();
+        return eventJournal == null ? eventStore : new JournalingEventStore(eventJournal, eventStore);
+    }
+
+    @Lazy
+    @Bean
+    public RingBufferEventStore ringBufferEventStore(CommonProperties commonProperties,
+                                                     HeliosEventMulticaster applicationEventMulticaster,
+                                                     MeterRegistry meterRegistry) {
+        return new RingBufferEventStore(commonProperties.getEventStore(), applicationEventMulticaster, meterRegistry);
+    }
+
+    @Bean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+    public HeliosEventMulticaster applicationEventMulticaster() {
+        return new HeliosEventMulticaster();
     }
 
     @Bean
@@ -27,15 +66,12 @@ public class CommonConfiguration {
     }
 
     @Bean
-    public ScheduledExecutorService scheduledExecutorService() {
-        return Executors.newScheduledThreadPool(5);
+    public TaskScheduler taskScheduler(ExecutorProvider executorProvider) {
+        return new ConcurrentTaskScheduler(executorProvider.executor(), executorProvider.scheduler());
     }
 
     @Bean
-    public TaskScheduler taskScheduler() {
-        var taskScheduler = new ThreadPoolTaskScheduler();
-        taskScheduler.setPoolSize(5);
-        taskScheduler.setThreadNamePrefix("helios-scheduler");
-        return taskScheduler;
+    public TaskExecutor taskExecutor(ExecutorProvider executorProvider) {
+        return new ConcurrentTaskExecutor(executorProvider.executor());
     }
 }
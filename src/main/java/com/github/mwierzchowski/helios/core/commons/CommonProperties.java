@@ -2,9 +2,11 @@ package com.github.mwierzchowski.helios.core.commons;
 
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.format.DateTimeFormatter;
 
 /**
@@ -25,6 +27,23 @@ public class CommonProperties {
      */
     private String timeFormat = "YYYY-MM-dd HH:mm:ss.SSS";
 
+    /**
+     * Lateness of alert firing above which alert is reported as late (see {@link AlertMetrics})
+     */
+    private Duration alertLatenessThreshold = Duration.ofSeconds(5);
+
+    /**
+     * Executors properties
+     */
+    @NestedConfigurationProperty
+    private ExecutorProperties executor = new ExecutorProperties();
+
+    /**
+     * Events store properties
+     */
+    @NestedConfigurationProperty
+    private EventStoreProperties eventStore = new EventStoreProperties();
+
     @Cacheable("commons-time-formatter")
     public DateTimeFormatter timeFormatter() {
         return DateTimeFormatter.ofPattern(timeFormat);
@@ -0,0 +1,171 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+import static com.github.mwierzchowski.helios.core.commons.ExecutorMode.PLATFORM;
+import static com.github.mwierzchowski.helios.core.commons.ExecutorMode.VIRTUAL;
+
+/**
+ * Default executor provider. In virtual mode, every task gets its own virtual thread and the scheduler runs delayed
+ * tasks on virtual threads as well (with much higher limit than platform pool has). Virtual threads API is accessed
+ * reflectively, since the application is built for runtimes that do not have it. In platform mode, fixed pools of
+ * platform threads are used, with separate pool for calls of external services.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+public class DefaultExecutorProvider implements ExecutorProvider {
+    /**
+     * Prefix of names of threads executing tasks
+     */
+    private static final String TASK_THREAD_PREFIX = "helios-task-";
+
+    /**
+     * Prefix of names of threads calling external services
+     */
+    private static final String IO_THREAD_PREFIX = "helios-io-";
+
+    /**
+     * Prefix of names of threads running delayed and periodic tasks
+     */
+    private static final String SCHEDULER_THREAD_PREFIX = "helios-scheduler-";
+
+    /**
+     * Executor for tasks
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Executor for calls of external services
+     */
+    private final ExecutorService ioExecutor;
+
+    /**
+     * Executor for delayed and periodic tasks
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Flag informing if virtual threads are used
+     */
+    private final boolean virtual;
+
+    /**
+     * Constructor that creates executors according to configured mode.
+     * @throws IllegalStateException when virtual mode is configured but runtime does not support virtual threads
+     * @param commonProperties common properties
+     */
+    public DefaultExecutorProvider(CommonProperties commonProperties) {
+        var properties = commonProperties.getExecutor();
+        var virtualExecutor = properties.getMode() == PLATFORM ? Optional.<ExecutorService>empty()
+                : virtualThreadFactory(TASK_THREAD_PREFIX).flatMap(DefaultExecutorProvider::threadPerTaskExecutor);
+        if (virtualExecutor.isEmpty() && properties.getMode() == VIRTUAL) {
+            throw new IllegalStateException("Virtual threads are not supported by runtime "
+                    + Runtime.version());
+        }
+        virtual = virtualExecutor.isPresent();
+        if (virtual) {
+            executor = virtualExecutor.get();
+            ioExecutor = virtualThreadFactory(IO_THREAD_PREFIX)
+                    .flatMap(DefaultExecutorProvider::threadPerTaskExecutor)
+                    .orElseThrow();
+            scheduler = scheduler(properties.getVirtualSchedulerPoolSize(),
+                    virtualThreadFactory(SCHEDULER_THREAD_PREFIX).orElseThrow());
+        } else {
+            executor = Executors.newFixedThreadPool(properties.getPoolSize(),
+                    new CustomizableThreadFactory(TASK_THREAD_PREFIX));
+            ioExecutor = Executors.newFixedThreadPool(properties.getIoPoolSize(),
+                    new CustomizableThreadFactory(IO_THREAD_PREFIX));
+            scheduler = scheduler(properties.getSchedulerPoolSize(),
+                    new CustomizableThreadFactory(SCHEDULER_THREAD_PREFIX));
+        }
+        log.info("Using {} threads for executors", virtual ? "virtual" : "platform");
+    }
+
+    @Override
+    public ExecutorService executor() {
+        return executor;
+    }
+
+    @Override
+    public ExecutorService ioExecutor() {
+        return ioExecutor;
+    }
+
+    @Override
+    public ScheduledExecutorService scheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Stops executors.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        ioExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /** Helpers *******************************************************************************************************/
+
+    /**
+     * Helper method that creates scheduler.
+     * @param poolSize number of threads
+     * @param threadFactory thread factory
+     * @return scheduler
+     */
+    private static ScheduledExecutorService scheduler(int poolSize, ThreadFactory threadFactory) {
+        var scheduler = new ScheduledThreadPoolExecutor(poolSize, threadFactory);
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    /**
+     * Helper method that creates factory of virtual threads (Thread.ofVirtual().name(prefix, 0).factory()).
+     * @param prefix prefix of thread names
+     * @return optional factory or empty if runtime does not support virtual threads
+     */
+    private static Optional<ThreadFactory> virtualThreadFactory(String prefix) {
+        try {
+            var builderClass = Class.forName("java.lang.Thread$Builder");
+            var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return Optional.of((ThreadFactory) builderClass.getMethod("factory").invoke(builder));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.debug("Virtual threads are not available", ex);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Helper method that creates executor starting new thread for each task
+     * (Executors.newThreadPerTaskExecutor(threadFactory)).
+     * @param threadFactory thread factory
+     * @return optional executor or empty if runtime does not support it
+     */
+    private static Optional<ExecutorService> threadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            var method = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) method.invoke(null, threadFactory));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            log.debug("Thread per task executor is not available", ex);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import lombok.Data;
+
+/**
+ * Properties of events store (see {@link EventStore}).
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class EventStoreProperties {
+    /**
+     * Type of events store (configured as 'direct' or 'ring-buffer')
+     */
+    private Type type = Type.DIRECT;
+
+    /**
+     * Capacity of the ring buffer (rounded up to the power of 2)
+     */
+    private Integer capacity = 1024;
+
+    /**
+     * Number of consumer threads of the ring buffer. Each listener is assigned to exactly one consumer.
+     */
+    private Integer consumers = 2;
+
+    /**
+     * Strategy of consumers waiting for events
+     */
+    private WaitStrategy waitStrategy = WaitStrategy.BLOCKING;
+
+    /**
+     * Policy applied when ring buffer is full
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    /**
+     * Types of events store.
+     */
+    public enum Type {
+        /**
+         * Events are delivered to listeners synchronously by publishing thread
+         */
+        DIRECT,
+
+        /**
+         * Events are delivered to listeners asynchronously by consumers of ring buffer (see
+         * {@link RingBufferEventStore})
+         */
+        RING_BUFFER
+    }
+
+    /**
+     * Strategies of consumers waiting for events.
+     */
+    public enum WaitStrategy {
+        /**
+         * Waits on condition signalled by publishers (lowest CPU usage)
+         */
+        BLOCKING,
+
+        /**
+         * Spins for a while and then parks for short periods
+         */
+        SLEEPING,
+
+        /**
+         * Yields the thread
+         */
+        YIELDING,
+
+        /**
+         * Spins (lowest latency, keeps consumer cores busy)
+         */
+        BUSY_SPIN
+    }
+
+    /**
+     * Policies applied when ring buffer is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Publisher waits until there is free slot
+         */
+        BLOCK,
+
+        /**
+         * Event is dropped
+         */
+        DROP,
+
+        /**
+         * Event is delivered synchronously by the publisher thread (ordering is not guaranteed then)
+         */
+        CALLER_RUNS
+    }
+}
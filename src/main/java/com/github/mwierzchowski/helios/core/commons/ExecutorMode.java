@@ -0,0 +1,22 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+/**
+ * Modes of executors provided by {@link ExecutorProvider}.
+ * @author Marcin Wierzchowski
+ */
+public enum ExecutorMode {
+    /**
+     * Virtual threads when runtime supports them (JDK 21+), platform threads otherwise
+     */
+    AUTO,
+
+    /**
+     * Pools of platform threads
+     */
+    PLATFORM,
+
+    /**
+     * Virtual thread per task (requires JDK 21+)
+     */
+    VIRTUAL
+}
@@ -0,0 +1,35 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import lombok.Data;
+
+/**
+ * Properties of executors (see {@link ExecutorProvider}).
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class ExecutorProperties {
+    /**
+     * Mode of executors
+     */
+    private ExecutorMode mode = ExecutorMode.AUTO;
+
+    /**
+     * Number of platform threads executing tasks (ignored for virtual threads)
+     */
+    private Integer poolSize = 5;
+
+    /**
+     * Number of platform threads calling external services (ignored for virtual threads)
+     */
+    private Integer ioPoolSize = 8;
+
+    /**
+     * Number of platform threads running delayed and periodic tasks
+     */
+    private Integer schedulerPoolSize = 5;
+
+    /**
+     * Maximal number of virtual threads running delayed and periodic tasks at the same time
+     */
+    private Integer virtualSchedulerPoolSize = 256;
+}
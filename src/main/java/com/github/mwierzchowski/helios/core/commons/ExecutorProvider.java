@@ -0,0 +1,37 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Interface for providers of executors used by publishers and adapters. Depending on the mode (see
+ * {@link ExecutorMode}) tasks may be run on virtual threads, so tasks blocked on I/O do not limit concurrency.
+ * @author Marcin Wierzchowski
+ */
+public interface ExecutorProvider {
+    /**
+     * Provides executor for application tasks (e.g. firing alerts or database calls).
+     * @return executor service
+     */
+    ExecutorService executor();
+
+    /**
+     * Provides executor for calls of external services (e.g. weather or sun services). It is separated from
+     * {@link #executor()}, so slow or hanging calls (which are not interrupted when their deadline passes) never delay
+     * application tasks.
+     * @return executor service
+     */
+    ExecutorService ioExecutor();
+
+    /**
+     * Provides executor for delayed and periodic tasks.
+     * @return scheduled executor service
+     */
+    ScheduledExecutorService scheduler();
+
+    /**
+     * Returns true if executors run tasks on virtual threads.
+     * @return result of the check
+     */
+    boolean isVirtual();
+}
@@ -0,0 +1,55 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Application events multicaster that additionally allows to deliver event only to the partition of listeners. Each
+ * listener is assigned to one partition (round robin, at the time of first delivery) and keeps it, so consumers of
+ * {@link RingBufferEventStore} deliver events to given listener always from the same thread and in order of
+ * publishing.
+ * @author Marcin Wierzchowski
+ */
+public class HeliosEventMulticaster extends SimpleApplicationEventMulticaster {
+    /**
+     * Partition sequence numbers of listeners
+     */
+    private final Map<ApplicationListener<?>, Integer> listenerSequences = new ConcurrentHashMap<>();
+
+    /**
+     * Next sequence number of listener
+     */
+    private final AtomicInteger nextSequence = new AtomicInteger();
+
+    /**
+     * Delivers event to listeners assigned to given partition.
+     * @param event event
+     * @param partition partition of listeners
+     * @param partitions number of partitions
+     */
+    public void multicastEvent(ApplicationEvent event, int partition, int partitions) {
+        var type = ResolvableType.forInstance(event);
+        for (ApplicationListener<?> listener : getApplicationListeners(event, type)) {
+            if (partitionOf(listener, partitions) == partition) {
+                invokeListener(listener, event);
+            }
+        }
+    }
+
+    /**
+     * Helper method that provides partition of the listener.
+     * @param listener listener
+     * @param partitions number of partitions
+     * @return partition
+     */
+    private int partitionOf(ApplicationListener<?> listener, int partitions) {
+        var sequence = listenerSequences.computeIfAbsent(listener, l -> nextSequence.getAndIncrement());
+        return sequence % partitions;
+    }
+}
@@ -0,0 +1,385 @@
+package com.github.mwierzchowski.helios.core.commons;
+
+import com.github.mwierzchowski.helios.core.commons.EventStoreProperties.OverflowPolicy;
+import com.github.mwierzchowski.helios.core.commons.EventStoreProperties.WaitStrategy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Events store that delivers events asynchronously with bounded, preallocated ring buffer. Publishers claim
+ * sequences with CAS (many publishers may publish concurrently) and every consumer thread reads all events in the
+ * order of sequences, but delivers them only to listeners assigned to its partition (see
+ * {@link HeliosEventMulticaster}). Thanks to that, each listener receives events in order of publishing, always from
+ * the same thread. Slot may be reused only when all consumers passed it, and when buffer is full configured
+ * {@link OverflowPolicy} is applied. Depth of the buffer, publish to consume latency and number of dropped events are
+ * reported as metrics.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+public class RingBufferEventStore implements EventStore {
+    /**
+     * Prefix of names of consumer threads
+     */
+    private static final String CONSUMER_THREAD_PREFIX = "helios-events-";
+
+    /**
+     * Number of spins before consumer using {@link WaitStrategy#SLEEPING} strategy starts to park
+     */
+    private static final int SPINS_BEFORE_SLEEP = 100;
+
+    /**
+     * Time of parking when consumer (or blocked publisher) waits
+     */
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * Preallocated slots of the buffer
+     */
+    private final Slot[] slots;
+
+    /**
+     * Mask used to calculate index of the slot from sequence
+     */
+    private final int mask;
+
+    /**
+     * Last claimed sequence
+     */
+    private final AtomicLong claimed = new AtomicLong(-1);
+
+    /**
+     * Next sequences to be read by consumers
+     */
+    private final AtomicLongArray consumed;
+
+    /**
+     * Lock used by {@link WaitStrategy#BLOCKING} strategy
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Condition signalled by publishers when {@link WaitStrategy#BLOCKING} strategy is used
+     */
+    private final Condition published = lock.newCondition();
+
+    /**
+     * Multicaster of events
+     */
+    private final HeliosEventMulticaster multicaster;
+
+    /**
+     * Strategy of waiting consumers
+     */
+    private final WaitStrategy waitStrategy;
+
+    /**
+     * Policy applied when buffer is full
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Publish to consume latency
+     */
+    private final Timer latency;
+
+    /**
+     * Number of dropped events
+     */
+    private final Counter dropped;
+
+    /**
+     * Consumer threads
+     */
+    private final List<Thread> consumers = new ArrayList<>();
+
+    /**
+     * Flag informing if consumers should run
+     */
+    private volatile boolean running;
+
+    /**
+     * Constructor that preallocates buffer and registers metrics.
+     * @throws IllegalArgumentException when capacity or number of consumers is not positive
+     * @param properties events store properties
+     * @param multicaster multicaster of events
+     * @param meterRegistry meter registry
+     */
+    public RingBufferEventStore(EventStoreProperties properties, HeliosEventMulticaster multicaster,
+                                MeterRegistry meterRegistry) {
+        if (properties.getCapacity() < 1 || properties.getConsumers() < 1) {
+            throw new IllegalArgumentException("Capacity and number of consumers of events store have to be positive");
+        }
+        var capacity = Integer.highestOneBit(properties.getCapacity() - 1) << 1;
+        this.slots = new Slot[Math.max(capacity, 1)];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = slots.length - 1;
+        this.consumed = new AtomicLongArray(properties.getConsumers());
+        this.multicaster = multicaster;
+        this.waitStrategy = properties.getWaitStrategy();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.latency = meterRegistry.timer("helios.events.latency");
+        this.dropped = meterRegistry.counter("helios.events.dropped");
+        Gauge.builder("helios.events.depth", this, RingBufferEventStore::depth).register(meterRegistry);
+        Gauge.builder("helios.events.capacity", this, RingBufferEventStore::capacity).register(meterRegistry);
+    }
+
+    /**
+     * Starts consumer threads.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int partition = 0; partition < consumed.length(); partition++) {
+            var consumer = new Consumer(partition, consumed.get(partition));
+            var thread = new Thread(consumer, CONSUMER_THREAD_PREFIX + partition);
+            thread.setDaemon(true);
+            thread.start();
+            consumers.add(thread);
+        }
+        log.info("Started {} consumers of events ring buffer with {} slots", consumers.size(), slots.length);
+    }
+
+    /**
+     * Stops consumer threads. Events published but not consumed yet are delivered before consumer stops.
+     * @throws InterruptedException when interrupted while waiting for consumers
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        signalPublished();
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        consumers.clear();
+        log.info("Stopped consumers of events ring buffer");
+    }
+
+    /**
+     * Publishes event to the buffer. If buffer is full, configured {@link OverflowPolicy} is applied. When consumers
+     * are not running, event is delivered synchronously by the publisher.
+     * @param event event
+     */
+    @Override
+    public void publish(HeliosEvent event) {
+        var applicationEvent = new PayloadApplicationEvent<>(this, event);
+        if (!running) {
+            multicaster.multicastEvent(applicationEvent);
+            return;
+        }
+        long sequence;
+        var attempt = 0;
+        while (true) {
+            var current = claimed.get();
+            sequence = current + 1;
+            if (sequence - slots.length >= minConsumed()) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    log.warn("Events buffer is full, dropping event {}", event);
+                    dropped.increment();
+                    return;
+                }
+                if (overflowPolicy == OverflowPolicy.CALLER_RUNS || !running) {
+                    log.debug("Events buffer is full, delivering event {} by publisher", event);
+                    multicaster.multicastEvent(applicationEvent);
+                    return;
+                }
+                waitForSlot(attempt++);
+                continue;
+            }
+            if (claimed.compareAndSet(current, sequence)) {
+                break;
+            }
+        }
+        var slot = slots[(int) sequence & mask];
+        slot.event = applicationEvent;
+        slot.publishedNanos = System.nanoTime();
+        slot.sequence = sequence;
+        if (waitStrategy == WaitStrategy.BLOCKING) {
+            signalPublished();
+        }
+    }
+
+    /**
+     * Provides number of events waiting for the slowest consumer.
+     * @return depth of the buffer
+     */
+    public long depth() {
+        return Math.max(claimed.get() + 1 - minConsumed(), 0);
+    }
+
+    /**
+     * Provides capacity of the buffer.
+     * @return number of slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Helper method that provides the lowest sequence to be read by consumers.
+     * @return sequence
+     */
+    private long minConsumed() {
+        var min = Long.MAX_VALUE;
+        for (int i = 0; i < consumed.length(); i++) {
+            min = Math.min(min, consumed.get(i));
+        }
+        return min;
+    }
+
+    /**
+     * Helper method that waits for free slot.
+     * @param attempt number of attempt
+     */
+    private void waitForSlot(int attempt) {
+        if (attempt < SPINS_BEFORE_SLEEP) {
+            Thread.onSpinWait();
+        } else {
+            LockSupport.parkNanos(PARK_NANOS);
+        }
+    }
+
+    /**
+     * Helper method that wakes up consumers waiting with {@link WaitStrategy#BLOCKING} strategy.
+     */
+    private void signalPublished() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slot of the buffer.
+     */
+    private static class Slot {
+        /**
+         * Sequence of the event in the slot (written last by publisher)
+         */
+        private volatile long sequence = -1;
+
+        /**
+         * Event
+         */
+        private ApplicationEvent event;
+
+        /**
+         * Time of publication (in nanos, see {@link System#nanoTime()})
+         */
+        private long publishedNanos;
+    }
+
+    /**
+     * Consumer of events delivering them to listeners from its partition.
+     */
+    private class Consumer implements Runnable {
+        /**
+         * Partition of listeners
+         */
+        private final int partition;
+
+        /**
+         * Next sequence to read
+         */
+        private long next;
+
+        /**
+         * Constructor.
+         * @param partition partition of listeners
+         * @param next next sequence to read
+         */
+        Consumer(int partition, long next) {
+            this.partition = partition;
+            this.next = next;
+        }
+
+        /**
+         * Main consumer loop. Consumer stops when store is stopped and all published events are delivered, or when
+         * it is interrupted.
+         */
+        @Override
+        public void run() {
+            var attempt = 0;
+            while ((running || next <= claimed.get()) && !Thread.currentThread().isInterrupted()) {
+                var slot = slots[(int) next & mask];
+                if (slot.sequence != next) {
+                    await(attempt++);
+                    continue;
+                }
+                attempt = 0;
+                var event = slot.event;
+                var publishedNanos = slot.publishedNanos;
+                try {
+                    multicaster.multicastEvent(event, partition, consumed.length());
+                } catch (RuntimeException ex) {
+                    log.error("Delivery of event {} failed", event, ex);
+                }
+                latency.record(System.nanoTime() - publishedNanos, TimeUnit.NANOSECONDS);
+                consumed.set(partition, ++next);
+            }
+        }
+
+        /**
+         * Helper method that waits for event according to configured strategy.
+         * @param attempt number of attempt
+         */
+        private void await(int attempt) {
+            switch (waitStrategy) {
+                case BUSY_SPIN:
+                    Thread.onSpinWait();
+                    break;
+                case YIELDING:
+                    Thread.yield();
+                    break;
+                case SLEEPING:
+                    if (attempt < SPINS_BEFORE_SLEEP) {
+                        Thread.onSpinWait();
+                    } else {
+                        LockSupport.parkNanos(PARK_NANOS);
+                    }
+                    break;
+                default:
+                    awaitPublished();
+            }
+        }
+
+        /**
+         * Helper method that waits on condition signalled by publishers. Wait is limited in time, since signal may be
+         * sent between the check of the slot and the start of waiting.
+         */
+        private void awaitPublished() {
+            lock.lock();
+            try {
+                if (running && slots[(int) next & mask].sequence != next) {
+                    published.await(1, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+
+/**
+ * Binary codec of events stored in the journal (see {@link EventJournal}). Codecs are Spring components and only
+ * events that have a codec are journaled. Type id is written with every record, so it has to be unique and must not
+ * change once journal was written.
+ * @param <E> type of the event
+ * @author Marcin Wierzchowski
+ */
+public interface EventCodec<E extends HeliosEvent<?>> {
+    /**
+     * Provides unique id of the event type.
+     * @return type id
+     */
+    byte getTypeId();
+
+    /**
+     * Provides class of events supported by the codec.
+     * @return event class
+     */
+    Class<E> getEventClass();
+
+    /**
+     * Informs if events should be replayed on startup to rebuild last known state.
+     * @return true if events are replayed
+     */
+    default boolean isReplayed() {
+        return false;
+    }
+
+    /**
+     * Encodes the event.
+     * @param event event
+     * @param output output
+     * @throws IOException when output can not be written
+     */
+    void encode(E event, DataOutput output) throws IOException;
+
+    /**
+     * Decodes the event.
+     * @param input input
+     * @return event
+     * @throws IOException when input can not be read
+     */
+    E decode(DataInput input) throws IOException;
+
+    /**
+     * Helper method that writes nullable instant (as epoch millis).
+     * @param output output
+     * @param instant instant
+     * @throws IOException when output can not be written
+     */
+    static void writeInstant(DataOutput output, Instant instant) throws IOException {
+        output.writeBoolean(instant != null);
+        if (instant != null) {
+            output.writeLong(instant.toEpochMilli());
+        }
+    }
+
+    /**
+     * Helper method that reads nullable instant.
+     * @param input input
+     * @return instant
+     * @throws IOException when input can not be read
+     */
+    static Instant readInstant(DataInput input) throws IOException {
+        return input.readBoolean() ? Instant.ofEpochMilli(input.readLong()) : null;
+    }
+
+    /**
+     * Helper method that writes nullable decimal as scale and unscaled value.
+     * @param output output
+     * @param decimal decimal
+     * @throws IOException when output can not be written
+     */
+    static void writeDecimal(DataOutput output, BigDecimal decimal) throws IOException {
+        output.writeBoolean(decimal != null);
+        if (decimal != null) {
+            var unscaled = decimal.unscaledValue().toByteArray();
+            output.writeInt(decimal.scale());
+            output.writeByte(unscaled.length);
+            output.write(unscaled);
+        }
+    }
+
+    /**
+     * Helper method that reads nullable decimal.
+     * @param input input
+     * @return decimal
+     * @throws IOException when input can not be read
+     */
+    static BigDecimal readDecimal(DataInput input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        var scale = input.readInt();
+        var unscaled = new byte[input.readUnsignedByte()];
+        input.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    /**
+     * Helper method that writes nullable enum constant by its name, so reordering of constants does not break
+     * journal.
+     * @param output output
+     * @param constant enum constant
+     * @throws IOException when output can not be written
+     */
+    static void writeEnum(DataOutput output, Enum<?> constant) throws IOException {
+        output.writeUTF(constant == null ? "" : constant.name());
+    }
+
+    /**
+     * Helper method that reads nullable enum constant.
+     * @param input input
+     * @param enumClass class of enum
+     * @param <T> type of enum
+     * @return enum constant
+     * @throws IOException when input can not be read
+     */
+    static <T extends Enum<T>> T readEnum(DataInput input, Class<T> enumClass) throws IOException {
+        var name = input.readUTF();
+        return name.isEmpty() ? null : Enum.valueOf(enumClass, name);
+    }
+}
@@ -0,0 +1,530 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of events. Events are encoded with {@link EventCodec}s and appended with monotonic sequence
+ * numbers to memory-mapped segment files of fixed size. Record consists of length, sequence, timestamp of append,
+ * type id, encoded event and CRC32 checksum, so torn tail written before crash is detected and ignored on startup.
+ * When record does not fit into the active segment, new segment is started (file name is the sequence of its first
+ * record) and segments above retained count or older than retention period are deleted. Queries are served straight
+ * from the mapped segments, filtering by type and time before events are decoded.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "helios.journal.enabled", havingValue = "true")
+public class EventJournal {
+    /**
+     * Suffix of segment file names
+     */
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    /**
+     * Number of bytes of record length and checksum
+     */
+    private static final int FRAME_BYTES = 2 * Integer.BYTES;
+
+    /**
+     * Number of bytes of sequence, timestamp and type id
+     */
+    private static final int HEADER_BYTES = 2 * Long.BYTES + Byte.BYTES;
+
+    /**
+     * Journal properties
+     */
+    private final JournalProperties properties;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Codecs by type id
+     */
+    private final Map<Byte, EventCodec<?>> codecsById = new HashMap<>();
+
+    /**
+     * Codecs by event class
+     */
+    private final Map<Class<?>, EventCodec<?>> codecsByClass = new HashMap<>();
+
+    /**
+     * Segments ordered by sequence (the last one is active)
+     */
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * Buffer of encoded record (guarded by journal monitor)
+     */
+    private final RecordBuffer recordBuffer = new RecordBuffer();
+
+    /**
+     * Checksum of appended record (guarded by journal monitor)
+     */
+    private final CRC32 checksum = new CRC32();
+
+    /**
+     * Sequence of the next record
+     */
+    private long nextSequence = 1;
+
+    /**
+     * Constructor.
+     * @throws IllegalStateException when type id is used by more than one codec
+     * @param properties journal properties
+     * @param clock clock
+     * @param codecs codecs of events
+     */
+    public EventJournal(JournalProperties properties, Clock clock, List<EventCodec<?>> codecs) {
+        this.properties = properties;
+        this.clock = clock;
+        for (EventCodec<?> codec : codecs) {
+            var previous = codecsById.put(codec.getTypeId(), codec);
+            if (previous != null) {
+                throw new IllegalStateException("Type id " + codec.getTypeId() + " is used by "
+                        + previous.getEventClass().getSimpleName() + " and " + codec.getEventClass().getSimpleName());
+            }
+            codecsByClass.put(codec.getEventClass(), codec);
+        }
+    }
+
+    /**
+     * Maps existing segments and recovers the position of the last valid record.
+     * @throws IOException when segments can not be read
+     */
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        var directory = Paths.get(properties.getDirectory());
+        Files.createDirectories(directory);
+        List<Path> paths;
+        try (var files = Files.list(directory)) {
+            paths = files.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        for (Path path : paths) {
+            var segment = Segment.map(path, 0);
+            nextSequence = Math.max(nextSequence, segment.recover(checksum) + 1);
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            roll();
+        }
+        applyRetention();
+        log.info("Opened events journal in {} with {} segments, next sequence is {}",
+                directory.toAbsolutePath(), segments.size(), nextSequence);
+    }
+
+    /**
+     * Forces content of the active segment to the storage device.
+     */
+    @PreDestroy
+    public synchronized void close() {
+        if (!segments.isEmpty()) {
+            activeSegment().buffer.force();
+        }
+        log.info("Closed events journal, next sequence is {}", nextSequence);
+    }
+
+    /**
+     * Appends event to the journal. Events without codec are not journaled.
+     * @throws IllegalArgumentException when encoded event does not fit into segment
+     * @throws UncheckedIOException when event can not be encoded or new segment can not be created
+     * @param event event
+     * @return sequence of the record, or empty if event is not journaled
+     */
+    public synchronized OptionalLong append(HeliosEvent<?> event) {
+        @SuppressWarnings("unchecked")
+        var codec = (EventCodec<HeliosEvent<?>>) codecsByClass.get(event.getClass());
+        if (codec == null) {
+            return OptionalLong.empty();
+        }
+        var timestamp = clock.millis();
+        var length = encode(codec, event, timestamp);
+        if (length + FRAME_BYTES > properties.getSegmentSize().toBytes()) {
+            throw new IllegalArgumentException("Event " + event + " does not fit into journal segment");
+        }
+        if (!activeSegment().fits(length)) {
+            roll();
+            applyRetention();
+        }
+        checksum.reset();
+        checksum.update(recordBuffer.array(), 0, length);
+        var segment = activeSegment();
+        segment.write(recordBuffer.array(), length, (int) checksum.getValue(), timestamp);
+        if (properties.isSync()) {
+            segment.buffer.force();
+        }
+        return OptionalLong.of(nextSequence++);
+    }
+
+    /**
+     * Provides journaled events of given type in given time range.
+     * @param eventClass class of events or null for all types
+     * @param from beginning of the range (inclusive) or null for unlimited
+     * @param to end of the range (exclusive) or null for unlimited
+     * @return journal entries ordered by sequence
+     */
+    public List<JournalEntry> query(Class<?> eventClass, Instant from, Instant to) {
+        if (eventClass == null) {
+            return read(typeId -> true, from, to);
+        }
+        var codec = codecsByClass.get(eventClass);
+        if (codec == null) {
+            return List.of();
+        }
+        var codecTypeId = codec.getTypeId();
+        return read(typeId -> typeId == codecTypeId, from, to);
+    }
+
+    /**
+     * Provides journaled events that should be replayed (see {@link EventCodec#isReplayed()}) appended since given
+     * moment.
+     * @param from beginning of the tail (inclusive)
+     * @return journal entries ordered by sequence
+     */
+    public List<JournalEntry> replayableSince(Instant from) {
+        return read(typeId -> codecsById.get((byte) typeId).isReplayed(), from, null);
+    }
+
+    /**
+     * Provides class of journaled events by its simple name.
+     * @param simpleName simple name of the event class
+     * @return event class
+     */
+    public Optional<Class<?>> eventClassOf(String simpleName) {
+        return codecsByClass.keySet().stream()
+                .filter(eventClass -> eventClass.getSimpleName().equals(simpleName))
+                .findFirst();
+    }
+
+    /**
+     * Provides number of segments.
+     * @return number of segments
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Helper method that reads records matching given filters.
+     * @param typeFilter filter of type ids
+     * @param from beginning of the range (inclusive) or null for unlimited
+     * @param to end of the range (exclusive) or null for unlimited
+     * @return journal entries
+     */
+    private List<JournalEntry> read(IntPredicate typeFilter, Instant from, Instant to) {
+        var fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+        var toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+        var entries = new ArrayList<JournalEntry>();
+        for (Segment segment : segments) {
+            if (segment.lastTimestamp < fromMillis) {
+                continue;
+            }
+            if (segment.firstTimestamp >= toMillis) {
+                continue;
+            }
+            var view = segment.buffer.duplicate();
+            var limit = segment.limit;
+            var position = 0;
+            while (position < limit) {
+                var length = view.getInt(position);
+                var timestamp = view.getLong(position + Integer.BYTES + Long.BYTES);
+                var typeId = view.get(position + Integer.BYTES + 2 * Long.BYTES);
+                if (timestamp >= fromMillis && timestamp < toMillis && codecsById.containsKey(typeId)
+                        && typeFilter.test(typeId)) {
+                    entries.add(decode(view, position, length));
+                }
+                position += length + FRAME_BYTES;
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Helper method that encodes record into record buffer.
+     * @param codec codec of the event
+     * @param event event
+     * @param timestamp timestamp of append
+     * @return length of the record
+     */
+    private int encode(EventCodec<HeliosEvent<?>> codec, HeliosEvent<?> event, long timestamp) {
+        recordBuffer.reset();
+        try {
+            var output = new DataOutputStream(recordBuffer);
+            output.writeLong(nextSequence);
+            output.writeLong(timestamp);
+            output.writeByte(codec.getTypeId());
+            codec.encode(event, output);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Event " + event + " can not be encoded", ex);
+        }
+        return recordBuffer.size();
+    }
+
+    /**
+     * Helper method that decodes the record.
+     * @param view view of the segment buffer
+     * @param position position of the record
+     * @param length length of the record
+     * @return journal entry
+     */
+    private JournalEntry decode(ByteBuffer view, int position, int length) {
+        var record = new byte[length];
+        view.position(position + Integer.BYTES);
+        view.get(record);
+        try {
+            var input = new DataInputStream(new ByteArrayInputStream(record));
+            var sequence = input.readLong();
+            var timestamp = Instant.ofEpochMilli(input.readLong());
+            var codec = codecsById.get(input.readByte());
+            return new JournalEntry(sequence, timestamp, codec.decode(input));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Journal record at " + position + " can not be decoded", ex);
+        }
+    }
+
+    /**
+     * Helper method that starts new segment.
+     */
+    private void roll() {
+        var path = Paths.get(properties.getDirectory(), String.format("%020d%s", nextSequence, SEGMENT_SUFFIX));
+        try {
+            segments.add(Segment.map(path, (int) properties.getSegmentSize().toBytes()));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Journal segment " + path + " can not be created", ex);
+        }
+        log.debug("Started journal segment {}", path);
+    }
+
+    /**
+     * Helper method that deletes segments above retained count or older than retention period. Active segment is
+     * never deleted.
+     */
+    private void applyRetention() {
+        var expiration = clock.millis() - properties.getRetention().toMillis();
+        while (segments.size() > 1 && (segments.size() > properties.getRetainedSegments()
+                || segments.get(0).lastTimestamp < expiration)) {
+            var segment = segments.remove(0);
+            try {
+                Files.deleteIfExists(segment.path);
+                log.debug("Deleted journal segment {}", segment.path);
+            } catch (IOException ex) {
+                log.warn("Journal segment {} can not be deleted", segment.path, ex);
+            }
+        }
+    }
+
+    /**
+     * Helper method that provides active segment.
+     * @return active segment
+     */
+    private Segment activeSegment() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Entry of the journal.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class JournalEntry {
+        /**
+         * Sequence of the record
+         */
+        private final long sequence;
+
+        /**
+         * Moment of append
+         */
+        private final Instant timestamp;
+
+        /**
+         * Event
+         */
+        private final HeliosEvent<?> event;
+
+        /**
+         * Provides type of the event.
+         * @return simple name of event class
+         */
+        public String getType() {
+            return event.getClass().getSimpleName();
+        }
+    }
+
+    /**
+     * Memory-mapped segment file.
+     */
+    private static class Segment {
+        /**
+         * Path of the file
+         */
+        private final Path path;
+
+        /**
+         * Mapped content of the file
+         */
+        private final MappedByteBuffer buffer;
+
+        /**
+         * Position after the last record
+         */
+        private volatile int limit;
+
+        /**
+         * Timestamp of the first record
+         */
+        private volatile long firstTimestamp = Long.MAX_VALUE;
+
+        /**
+         * Timestamp of the last record
+         */
+        private volatile long lastTimestamp = Long.MIN_VALUE;
+
+        /**
+         * Constructor.
+         * @param path path of the file
+         * @param buffer mapped content of the file
+         */
+        private Segment(Path path, MappedByteBuffer buffer) {
+            this.path = path;
+            this.buffer = buffer;
+        }
+
+        /**
+         * Maps segment file.
+         * @param path path of the file
+         * @param size size of the new file (existing files are mapped with their own size)
+         * @return segment
+         * @throws IOException when file can not be mapped
+         */
+        static Segment map(Path path, int size) throws IOException {
+            try (var channel = FileChannel.open(path, CREATE, READ, WRITE)) {
+                var mappedSize = Math.max(channel.size(), size);
+                return new Segment(path, channel.map(READ_WRITE, 0, mappedSize));
+            }
+        }
+
+        /**
+         * Finds the last valid record and sets limit after it.
+         * @param checksum checksum used for validation
+         * @return sequence of the last valid record or 0 if there are none
+         */
+        long recover(CRC32 checksum) {
+            var lastSequence = 0L;
+            var view = buffer.duplicate();
+            var position = 0;
+            while (position + Integer.BYTES <= view.capacity()) {
+                var length = view.getInt(position);
+                if (length < HEADER_BYTES || position + length + FRAME_BYTES > view.capacity()) {
+                    break;
+                }
+                var record = new byte[length];
+                view.position(position + Integer.BYTES);
+                view.get(record);
+                checksum.reset();
+                checksum.update(record, 0, length);
+                if (view.getInt() != (int) checksum.getValue()) {
+                    log.warn("Invalid journal record in {} at position {}, ignoring the rest", path, position);
+                    break;
+                }
+                var timestamp = view.getLong(position + Integer.BYTES + Long.BYTES);
+                firstTimestamp = Math.min(firstTimestamp, timestamp);
+                lastTimestamp = timestamp;
+                lastSequence = view.getLong(position + Integer.BYTES);
+                position += length + FRAME_BYTES;
+            }
+            limit = position;
+            return lastSequence;
+        }
+
+        /**
+         * Checks if record fits into the segment.
+         * @param length length of the record
+         * @return true if record fits
+         */
+        boolean fits(int length) {
+            return limit + length + FRAME_BYTES <= buffer.capacity();
+        }
+
+        /**
+         * Writes the record. Length is written last, so incomplete record is never read as valid one.
+         * @param record record buffer
+         * @param length length of the record
+         * @param checksum checksum of the record
+         * @param timestamp timestamp of the record
+         */
+        void write(byte[] record, int length, int checksum, long timestamp) {
+            var view = buffer.duplicate();
+            view.position(limit + Integer.BYTES);
+            view.put(record, 0, length);
+            view.putInt(checksum);
+            view.putInt(limit, length);
+            if (firstTimestamp == Long.MAX_VALUE) {
+                firstTimestamp = timestamp;
+            }
+            lastTimestamp = timestamp;
+            limit += length + FRAME_BYTES;
+        }
+    }
+
+    /**
+     * Reusable buffer of encoded record that exposes its array.
+     */
+    private static class RecordBuffer extends ByteArrayOutputStream {
+        /**
+         * Constructor.
+         */
+        RecordBuffer() {
+            super(256);
+        }
+
+        /**
+         * Provides internal array of the buffer.
+         * @return array
+         */
+        byte[] array() {
+            return buf;
+        }
+    }
+}
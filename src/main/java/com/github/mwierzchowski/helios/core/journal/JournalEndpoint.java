@@ -0,0 +1,46 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import com.github.mwierzchowski.helios.core.journal.EventJournal.JournalEntry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Actuator endpoint exposing journaled events.
+ * @author Marcin Wierzchowski
+ */
+@Component
+@Endpoint(id = "journal")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.journal.enabled", havingValue = "true")
+public class JournalEndpoint {
+    /**
+     * Events journal
+     */
+    private final EventJournal journal;
+
+    /**
+     * Provides journaled events.
+     * @param type simple name of event class (all types if not provided)
+     * @param from beginning of time range in ISO-8601 format (inclusive)
+     * @param to end of time range in ISO-8601 format (exclusive)
+     * @return journal entries ordered by sequence
+     */
+    @ReadOperation
+    public List<JournalEntry> entries(@Nullable String type, @Nullable String from, @Nullable String to) {
+        var fromInstant = from == null ? null : Instant.parse(from);
+        var toInstant = to == null ? null : Instant.parse(to);
+        if (type == null) {
+            return journal.query(null, fromInstant, toInstant);
+        }
+        return journal.eventClassOf(type)
+                .map(eventClass -> journal.query(eventClass, fromInstant, toInstant))
+                .orElse(List.of());
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Events journal properties.
+ * @author Marcin Wierzchowski
+ */
+@Data
+@Component
+@ConfigurationProperties("helios.journal")
+public class JournalProperties {
+    /**
+     * Flag enabling journal of events (see {@link EventJournal})
+     */
+    private boolean enabled = false;
+
+    /**
+     * Directory of journal segments
+     */
+    private String directory = "journal";
+
+    /**
+     * Size of a single segment file
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Maximal number of segments kept on disk (including the active one)
+     */
+    private Integer retainedSegments = 16;
+
+    /**
+     * Maximal age of closed segments kept on disk
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Window of journal tail replayed on startup
+     */
+    private Duration replayWindow = Duration.ofDays(1);
+
+    /**
+     * Flag informing if every append should be forced to the storage device
+     */
+    private boolean sync = false;
+}
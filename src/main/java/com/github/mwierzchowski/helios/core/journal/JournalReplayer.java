@@ -0,0 +1,58 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+
+import static org.springframework.core.Ordered.HIGHEST_PRECEDENCE;
+
+/**
+ * Component that replays tail of the journal on startup, so listeners rebuild facts and last known state without
+ * waiting for new events. Replayed events are delivered to listeners directly, so they are not journaled again.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.journal.enabled", havingValue = "true")
+public class JournalReplayer {
+    /**
+     * Journal properties
+     */
+    private final JournalProperties properties;
+
+    /**
+     * Events journal
+     */
+    private final EventJournal journal;
+
+    /**
+     * Publisher of replayed events
+     */
+    private final ApplicationEventPublisher publisher;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Callback method called on application start (before other startup listeners). It replays events from the
+     * replay window (see {@link JournalProperties#getReplayWindow()}) in order of sequence.
+     */
+    @Order(HIGHEST_PRECEDENCE)
+    @EventListener(classes = ApplicationReadyEvent.class, condition = "@commonProperties.processingOnStartupEnabled")
+    public void replay() {
+        var start = System.nanoTime();
+        var entries = journal.replayableSince(clock.instant().minus(properties.getReplayWindow()));
+        entries.forEach(entry -> publisher.publishEvent(entry.getEvent()));
+        log.info("Replayed {} journaled events in {}ms", entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
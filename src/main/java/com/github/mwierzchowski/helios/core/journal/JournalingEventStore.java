@@ -0,0 +1,39 @@
+package com.github.mwierzchowski.helios.core.journal;
+
+import com.github.mwierzchowski.helios.core.commons.EventStore;
+import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Events store decorator that appends events to the journal (see {@link EventJournal}) before they are published by
+ * the delegate. Failure of the journal never prevents publication.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class JournalingEventStore implements EventStore {
+    /**
+     * Events journal
+     */
+    private final EventJournal journal;
+
+    /**
+     * Store publishing events
+     */
+    private final EventStore delegate;
+
+    /**
+     * Journals and publishes the event.
+     * @param event event
+     */
+    @Override
+    public void publish(HeliosEvent event) {
+        try {
+            journal.append(event).ifPresent(sequence -> log.debug("Journaled event {} as {}", event, sequence));
+        } catch (RuntimeException ex) {
+            log.warn("Event {} can not be journaled", event, ex);
+        }
+        delegate.publish(event);
+    }
+}
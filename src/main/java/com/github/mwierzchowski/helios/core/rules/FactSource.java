@@ -0,0 +1,20 @@
+package com.github.mwierzchowski.helios.core.rules;
+
+/**
+ * Source of the fact that is not provided by events, but is available to rules on every execution (e.g. history of
+ * weather observations).
+ * @author Marcin Wierzchowski
+ */
+public interface FactSource {
+    /**
+     * Provides name of the fact.
+     * @return name of the fact
+     */
+    String getFactName();
+
+    /**
+     * Provides current fact.
+     * @return fact
+     */
+    Object getFact();
+}
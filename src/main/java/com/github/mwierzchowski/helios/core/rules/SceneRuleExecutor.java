@@ -11,11 +11,14 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class SceneRuleExecutor {
     private final SceneRuleProperties properties;
+    private final List<FactSource> factSources;
 //    private final SceneRuleRepository repository;
 //    private final SceneMaker sceneMaker;
     private RulesEngine rulesEngine = new DefaultRulesEngine();
@@ -31,6 +34,7 @@ public class SceneRuleExecutor {
             log.debug("Event not configured for rules execution: {}", event);
             return;
         }
+        factSources.forEach(source -> facts.put(source.getFactName(), source.getFact()));
         log.debug("Executing rules for event: {}", event);
 //        rulesEngine.fire(activeRules(), facts);
     }
@@ -0,0 +1,207 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.Location;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.acos;
+import static java.lang.Math.asin;
+import static java.lang.Math.atan2;
+import static java.lang.Math.cos;
+import static java.lang.Math.round;
+import static java.lang.Math.sin;
+import static java.lang.Math.tan;
+import static java.lang.Math.toDegrees;
+import static java.lang.Math.toRadians;
+
+/**
+ * Calculator of {@link SunEphemeris} based on NOAA solar calculations (https://gml.noaa.gov/grad/solcalc/), which
+ * do not require any network service. Position of the sun is calculated for the approximate time of the event and
+ * then refined for the calculated time. Error of calculated times is within a minute or two (below polar circles).
+ * Events that do not happen on the given day (e.g. sunrise during polar night) are not included in ephemeris. Position
+ * of the sun in the sky (azimuth and elevation) is calculated for the given instant.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class SolarCalculator {
+    /**
+     * Zenith of the sun center at sunrise and sunset (including refraction and radius of the sun)
+     */
+    public static final double SUNRISE_ZENITH = 90.833;
+
+    /**
+     * Zenith of the sun center at the begin and the end of civil twilight
+     */
+    public static final double CIVIL_TWILIGHT_ZENITH = 96.0;
+
+    /**
+     * Number of refinements of event time
+     */
+    private static final int REFINEMENTS = 2;
+
+    /**
+     * Julian day of Unix epoch
+     */
+    private static final double EPOCH_JULIAN_DAY = 2440587.5;
+
+    /**
+     * Julian day of J2000.0 epoch
+     */
+    private static final double J2000_JULIAN_DAY = 2451545.0;
+
+    /**
+     * Number of minutes in day
+     */
+    private static final double MINUTES_PER_DAY = 1440.0;
+
+    /**
+     * Number of seconds in day
+     */
+    private static final long SECONDS_PER_DAY = 86400;
+
+    /**
+     * Calculates ephemeris of the given day.
+     * @param day day
+     * @param location location
+     * @param zone zone of ephemeris times
+     * @return ephemeris
+     */
+    public SunEphemeris sunEphemerisOf(LocalDate day, Location location, ZoneId zone) {
+        var ephemeris = new SunEphemeris();
+        ephemeris.setDay(day);
+        var midnight = day.atStartOfDay(ZoneOffset.UTC).toInstant();
+        for (SunEphemerisType type : SunEphemerisType.values()) {
+            var minutes = minutesOf(type, day.toEpochDay(), location.getLatitude(), location.getLongitude());
+            if (!Double.isNaN(minutes)) {
+                var time = midnight.plusSeconds(round(minutes * 60)).atZone(zone).toLocalTime();
+                ephemeris.getTimes().put(type, time);
+            }
+        }
+        return ephemeris;
+    }
+
+    /**
+     * Calculates position of the sun at the given instant. Elevation is geometric (not corrected by atmospheric
+     * refraction), so the sun is at about -0.83 degrees at sunrise and sunset.
+     * @param instant instant
+     * @param location location
+     * @return position of the sun
+     */
+    public SunPosition sunPositionAt(Instant instant, Location location) {
+        var centuries = (instant.getEpochSecond() / (double) SECONDS_PER_DAY + EPOCH_JULIAN_DAY - J2000_JULIAN_DAY)
+                / 36525;
+        var position = new SolarPosition(centuries);
+        var minutes = Math.floorMod(instant.getEpochSecond(), SECONDS_PER_DAY) / 60.0;
+        var hourAngle = toRadians((minutes + position.equationOfTime + 4 * location.getLongitude()) / 4 - 180);
+        var lat = toRadians(location.getLatitude());
+        var dec = toRadians(position.declination);
+        var elevation = asin(sin(lat) * sin(dec) + cos(lat) * cos(dec) * cos(hourAngle));
+        var azimuth = toDegrees(atan2(sin(hourAngle), cos(hourAngle) * sin(lat) - tan(dec) * cos(lat))) + 180;
+        return new SunPosition(instant, azimuth % 360, toDegrees(elevation));
+    }
+
+    /**
+     * Helper method that calculates time of the event in minutes since UTC midnight of the day. Calculation starts at
+     * the mean solar noon of the location, so result may be negative or exceed the day for distant longitudes.
+     * @param type type of event
+     * @param epochDay epoch day
+     * @param latitude latitude in degrees
+     * @param longitude longitude in degrees (positive to the east)
+     * @return minutes since midnight or NaN if event does not happen
+     */
+    private double minutesOf(SunEphemerisType type, long epochDay, double latitude, double longitude) {
+        var minutes = 720 - 4 * longitude;
+        for (int i = 0; i < REFINEMENTS; i++) {
+            var centuries = (epochDay + EPOCH_JULIAN_DAY + minutes / MINUTES_PER_DAY - J2000_JULIAN_DAY) / 36525;
+            var position = new SolarPosition(centuries);
+            var noon = 720 - 4 * longitude - position.equationOfTime;
+            if (type == SunEphemerisType.NOON) {
+                minutes = noon;
+                continue;
+            }
+            var hourAngle = hourAngleOf(zenithOf(type), latitude, position.declination);
+            if (Double.isNaN(hourAngle)) {
+                return Double.NaN;
+            }
+            minutes = isMorning(type) ? noon - 4 * hourAngle : noon + 4 * hourAngle;
+        }
+        return minutes;
+    }
+
+    /**
+     * Helper method that calculates hour angle of the sun at given zenith.
+     * @param zenith zenith in degrees
+     * @param latitude latitude in degrees
+     * @param declination declination of the sun in degrees
+     * @return hour angle in degrees or NaN if sun does not reach given zenith
+     */
+    private double hourAngleOf(double zenith, double latitude, double declination) {
+        var lat = toRadians(latitude);
+        var dec = toRadians(declination);
+        var cosHourAngle = cos(toRadians(zenith)) / (cos(lat) * cos(dec)) - tan(lat) * tan(dec);
+        return abs(cosHourAngle) > 1 ? Double.NaN : toDegrees(acos(cosHourAngle));
+    }
+
+    /**
+     * Helper method that provides zenith of the event.
+     * @param type type of event
+     * @return zenith in degrees
+     */
+    private double zenithOf(SunEphemerisType type) {
+        return type == SunEphemerisType.DAWN || type == SunEphemerisType.DUSK ? CIVIL_TWILIGHT_ZENITH : SUNRISE_ZENITH;
+    }
+
+    /**
+     * Helper method that checks if event happens before noon.
+     * @param type type of event
+     * @return result of the check
+     */
+    private boolean isMorning(SunEphemerisType type) {
+        return type == SunEphemerisType.DAWN || type == SunEphemerisType.SUNRISE;
+    }
+
+    /**
+     * Position of the sun in the given moment.
+     */
+    private static class SolarPosition {
+        /**
+         * Declination of the sun in degrees
+         */
+        private final double declination;
+
+        /**
+         * Equation of time in minutes
+         */
+        private final double equationOfTime;
+
+        /**
+         * Calculates position of the sun.
+         * @param t Julian centuries since J2000.0
+         */
+        SolarPosition(double t) {
+            var meanLongitude = toRadians((280.46646 + t * (36000.76983 + t * 0.0003032)) % 360);
+            var meanAnomaly = toRadians(357.52911 + t * (35999.05029 - 0.0001537 * t));
+            var eccentricity = 0.016708634 - t * (0.000042037 + 0.0000001267 * t);
+            var equationOfCenter = sin(meanAnomaly) * (1.914602 - t * (0.004817 + 0.000014 * t))
+                    + sin(2 * meanAnomaly) * (0.019993 - 0.000101 * t)
+                    + sin(3 * meanAnomaly) * 0.000289;
+            var omega = toRadians(125.04 - 1934.136 * t);
+            var apparentLongitude = toRadians(toDegrees(meanLongitude) + equationOfCenter - 0.00569
+                    - 0.00478 * sin(omega));
+            var meanObliquity = 23 + (26 + (21.448 - t * (46.815 + t * (0.00059 - t * 0.001813))) / 60) / 60;
+            var obliquity = toRadians(meanObliquity + 0.00256 * cos(omega));
+            this.declination = toDegrees(asin(sin(obliquity) * sin(apparentLongitude)));
+            var y = tan(obliquity / 2) * tan(obliquity / 2);
+            this.equationOfTime = 4 * toDegrees(y * sin(2 * meanLongitude)
+                    - 2 * eccentricity * sin(meanAnomaly)
+                    + 4 * eccentricity * y * sin(meanAnomaly) * cos(2 * meanLongitude)
+                    - 0.5 * y * y * sin(4 * meanLongitude)
+                    - 1.25 * eccentricity * eccentricity * sin(2 * meanAnomaly));
+        }
+    }
+}
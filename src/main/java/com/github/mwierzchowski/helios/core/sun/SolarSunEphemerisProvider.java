@@ -0,0 +1,72 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.Location;
+import com.github.mwierzchowski.helios.core.commons.LocationProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Implementation of {@link SunEphemerisProvider} that calculates {@link SunEphemeris} locally (see
+ * {@link SolarCalculator}), without any network service. Ephemerides of the whole year are calculated at once and kept
+ * in {@link SunEphemerisTable}, which is rebuilt when location changes or requested day is not covered. Provider is
+ * enabled with <code>helios.sun.provider=solar</code> property.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.sun.provider", havingValue = "solar")
+public class SolarSunEphemerisProvider implements SunEphemerisProvider {
+    /**
+     * Number of days in the table
+     */
+    public static final int TABLE_DAYS = 366;
+
+    /**
+     * Location provider
+     */
+    private final LocationProvider locationProvider;
+
+    /**
+     * Solar calculator
+     */
+    private final SolarCalculator solarCalculator;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Location of the table
+     */
+    private Location tableLocation;
+
+    /**
+     * Table of calculated ephemerides
+     */
+    private SunEphemerisTable table;
+
+    /**
+     * Main provider method. Provides ephemeris of the current location from the table.
+     * @param day day for which ephemeris should be calculated
+     * @return ephemeris
+     */
+    @Override
+    public synchronized SunEphemeris sunEphemerisFor(LocalDate day) {
+        var location = locationProvider.locate();
+        var zone = clock.getZone();
+        if (table == null || !table.covers(day) || !location.equals(tableLocation) || !zone.equals(table.getZone())) {
+            log.debug("Calculating ephemeris for {} days since {}", TABLE_DAYS, day);
+            table = SunEphemerisTable.of(day, TABLE_DAYS, zone,
+                    tableDay -> solarCalculator.sunEphemerisOf(tableDay, location, zone));
+            tableLocation = location;
+        }
+        return table.ephemerisOf(day);
+    }
+}
@@ -6,9 +6,9 @@ import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
 
 /**
  * Ephemeris that provides time of sun events on given day.
@@ -22,9 +22,9 @@ public class SunEphemeris {
     private LocalDate day;
 
     /**
-     * Map with time of ephemeris events
+     * Map with time of ephemeris events (ordered by type)
      */
-    private Map<SunEphemerisType, LocalTime> times = new TreeMap<>();
+    private Map<SunEphemerisType, LocalTime> times = new EnumMap<>(SunEphemerisType.class);
 
     /**
      * Flag informing if ephemeris is approximated. It is set to true in case of fallback response from
@@ -39,15 +39,14 @@ public class SunEphemeris {
      * @return event
      */
     public Optional<SunEphemerisEvent> firstEventAfterPreviousOrNow(SunEphemerisEvent prevEvent, Clock clock) {
-        var deadline = Optional.ofNullable(prevEvent).map(SunEphemerisEvent::getTimestamp)
-                .orElseGet(clock::instant)
+        var deadline = (prevEvent != null ? prevEvent.getTimestamp() : clock.instant())
                 .atZone(clock.getZone()).toLocalTime();
-        return times.entrySet().stream()
-                .filter(entry -> entry.getValue().isAfter(deadline))
-                .map(Map.Entry::getKey)
-                .sorted()
-                .findFirst()
-                .map(type -> eventOf(type, clock));
+        for (var entry : times.entrySet()) {
+            if (entry.getValue().isAfter(deadline)) {
+                return Optional.of(eventOf(entry.getKey(), clock));
+            }
+        }
+        return Optional.empty();
     }
 
     /**
@@ -56,11 +55,7 @@ public class SunEphemeris {
      * @return event
      */
     public SunEphemerisEvent firstEventOfDay(Clock clock) {
-        var firstType = times.keySet().stream()
-                .sorted()
-                .findFirst()
-                .orElseThrow();
-        return eventOf(firstType, clock);
+        return eventOf(times.keySet().iterator().next(), clock);
     }
 
     /**
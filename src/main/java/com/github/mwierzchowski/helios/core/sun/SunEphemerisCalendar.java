@@ -0,0 +1,101 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Calendar of sun events backed by {@link SunEphemerisTable} of the current and the next day, built from
+ * {@link SunEphemerisProvider}. Table is rebuilt when it does not cover requested days or when some of its ephemerides
+ * were approximated (so they are replaced as soon as provider has them). Calendar is meant to be used by all
+ * components that need times of sun events.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SunEphemerisCalendar {
+    /**
+     * Number of days in the table
+     */
+    public static final int TABLE_DAYS = 2;
+
+    /**
+     * Ephemeris provider
+     */
+    private final SunEphemerisProvider ephemerisProvider;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Current table
+     */
+    private volatile SunEphemerisTable table;
+
+    /**
+     * Provides ephemeris of the day.
+     * @param day day
+     * @return ephemeris
+     */
+    public SunEphemeris ephemerisOf(LocalDate day) {
+        return tableOf(day).ephemerisOf(day);
+    }
+
+    /**
+     * Finds the first event that happens after given instant (on the same or the next day).
+     * @param instant instant
+     * @return event
+     */
+    public Optional<SunEphemerisEvent> nextEventAfter(Instant instant) {
+        var currentTable = tableOf(LocalDate.ofInstant(instant, clock.getZone()));
+        var index = currentTable.nextIndexAfter(instant);
+        if (index == SunEphemerisTable.NO_EVENT) {
+            return Optional.empty();
+        }
+        return Optional.of(new SunEphemerisEvent(currentTable.typeAt(index), currentTable.instantAt(index)));
+    }
+
+    /**
+     * Helper method that provides table covering given day and the following ones. Table is rebuilt if needed.
+     * @param day day
+     * @return table
+     */
+    private SunEphemerisTable tableOf(LocalDate day) {
+        var currentTable = table;
+        if (isValid(currentTable, day)) {
+            return currentTable;
+        }
+        synchronized (this) {
+            currentTable = table;
+            if (!isValid(currentTable, day)) {
+                log.debug("Building ephemeris table since {}", day);
+                currentTable = SunEphemerisTable.of(day, TABLE_DAYS, clock.getZone(),
+                        ephemerisProvider::sunEphemerisFor);
+                table = currentTable;
+            }
+            return currentTable;
+        }
+    }
+
+    /**
+     * Helper method that checks if table may be used for given day.
+     * @param currentTable table
+     * @param day day
+     * @return result of the check
+     */
+    private boolean isValid(SunEphemerisTable currentTable, LocalDate day) {
+        return currentTable != null
+                && currentTable.covers(day)
+                && currentTable.covers(day.plusDays(TABLE_DAYS - 1))
+                && currentTable.isComplete()
+                && currentTable.getZone().equals(clock.getZone());
+    }
+}
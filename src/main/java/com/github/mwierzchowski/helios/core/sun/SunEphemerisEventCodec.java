@@ -0,0 +1,47 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.journal.EventCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.readEnum;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.readInstant;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.writeEnum;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.writeInstant;
+
+/**
+ * Journal codec of {@link SunEphemerisEvent}. Events are replayed on startup, so the last sun event is known without
+ * waiting for the next one.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class SunEphemerisEventCodec implements EventCodec<SunEphemerisEvent> {
+    @Override
+    public byte getTypeId() {
+        return 3;
+    }
+
+    @Override
+    public Class<SunEphemerisEvent> getEventClass() {
+        return SunEphemerisEvent.class;
+    }
+
+    @Override
+    public boolean isReplayed() {
+        return true;
+    }
+
+    @Override
+    public void encode(SunEphemerisEvent event, DataOutput output) throws IOException {
+        writeEnum(output, event.getSubject());
+        writeInstant(output, event.getTimestamp());
+    }
+
+    @Override
+    public SunEphemerisEvent decode(DataInput input) throws IOException {
+        return new SunEphemerisEvent(readEnum(input, SunEphemerisType.class), readInstant(input));
+    }
+}
@@ -17,9 +17,9 @@ import java.util.TreeMap;
 @RequiredArgsConstructor
 public class SunEphemerisInfoContributor implements InfoContributor {
     /**
-     * Ephemeris provider
+     * Ephemeris calendar
      */
-    private final SunEphemerisProvider ephemerisProvider;
+    private final SunEphemerisCalendar ephemerisCalendar;
 
     /**
      * Main contributor method
@@ -27,7 +27,7 @@ public class SunEphemerisInfoContributor implements InfoContributor {
      */
     @Override
     public void contribute(Info.Builder builder) {
-        SunEphemeris ephemeris = ephemerisProvider.sunEphemerisFor(LocalDate.now());
+        SunEphemeris ephemeris = ephemerisCalendar.ephemerisOf(LocalDate.now());
         builder.withDetail("sunEphemeris", detailsOf(ephemeris));
     }
 
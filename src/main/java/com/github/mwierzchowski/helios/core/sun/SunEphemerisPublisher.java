@@ -1,6 +1,8 @@
 package com.github.mwierzchowski.helios.core.sun;
 
+import com.github.mwierzchowski.helios.core.commons.AlertMetrics;
 import com.github.mwierzchowski.helios.core.commons.EventStore;
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -8,8 +10,6 @@ import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.time.Clock;
-import java.time.LocalDate;
-import java.util.concurrent.ScheduledExecutorService;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
@@ -27,20 +27,25 @@ public class SunEphemerisPublisher {
     private final Clock clock;
 
     /**
-     * Ephemeris provider
+     * Ephemeris calendar
      */
-    private final SunEphemerisProvider ephemerisProvider;
+    private final SunEphemerisCalendar ephemerisCalendar;
 
     /**
-     * Executor service
+     * Executor provider
      */
-    private final ScheduledExecutorService executorService;
+    private final ExecutorProvider executorProvider;
 
     /**
      * Event store
      */
     private final EventStore eventStore;
 
+    /**
+     * Alerts instrumentation
+     */
+    private final AlertMetrics alertMetrics;
+
     /**
      * Next event to happen
      */
@@ -59,21 +64,24 @@ public class SunEphemerisPublisher {
      * Helper method that configures schedule of next event.
      */
     private void scheduleNextEventPublish() {
-        var today = LocalDate.now(clock);
-        event = ephemerisProvider.sunEphemerisFor(today).firstEventAfterPreviousOrNow(event, clock)
-                .orElseGet(() -> ephemerisProvider.sunEphemerisFor(today.plusDays(1)).firstEventOfDay(clock));
+        var after = event != null ? event.getTimestamp() : clock.instant();
+        event = ephemerisCalendar.nextEventAfter(after)
+                .orElseThrow(() -> new IllegalStateException("No sun events after " + after));
         var delay = event.getDelay(clock);
         log.debug("Next event will be {} in {}h {}min {}s", event.getSubject(),
                 delay.toHoursPart(), delay.toMinutesPart(), delay.toSecondsPart());
-        executorService.schedule(this::publishEvent, delay.toMillis(), MILLISECONDS);
+        executorProvider.scheduler().schedule(this::publishEvent, delay.toMillis(), MILLISECONDS);
     }
 
     /**
-     * Publish event.
+     * Publish event. Lateness of firing and publishing are recorded (see {@link AlertMetrics}).
      */
     private synchronized void publishEvent() {
         log.info("Publishing {} event", event.getSubject());
-        eventStore.publish(event);
+        var eventType = event.getSubject().name();
+        var publishedEvent = event;
+        alertMetrics.recordLateness(eventType, AlertMetrics.NO_TIMER, publishedEvent.getTimestamp());
+        alertMetrics.recordPublish(eventType, AlertMetrics.NO_TIMER, () -> eventStore.publish(publishedEvent));
         scheduleNextEventPublish();
     }
 }
@@ -0,0 +1,242 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Compact, immutable table of sun ephemerides of consecutive days (e.g. the whole year). Times of events are kept in
+ * primitive arrays: seconds of day per event type per day (for lookups by day) and seconds since the start of the
+ * table sorted ascending (for lookups by instant with binary search). Lookups do not allocate, events are addressed
+ * with indexes (see {@link #nextIndexAfter(Instant)}, {@link #typeAt(int)} and {@link #instantAt(int)}).
+ * @author Marcin Wierzchowski
+ */
+public final class SunEphemerisTable {
+    /**
+     * Marker of event that does not happen
+     */
+    public static final int NO_EVENT = -1;
+
+    /**
+     * Types of events (ordered)
+     */
+    private static final SunEphemerisType[] TYPES = SunEphemerisType.values();
+
+    /**
+     * First day of the table
+     */
+    @Getter
+    private final LocalDate firstDay;
+
+    /**
+     * Number of days in the table
+     */
+    @Getter
+    private final int days;
+
+    /**
+     * Zone of the table
+     */
+    @Getter
+    private final ZoneId zone;
+
+    /**
+     * Epoch second of the start of the first day
+     */
+    private final long start;
+
+    /**
+     * Seconds of day of events, indexed by day and type
+     */
+    private final int[] secondsOfDay;
+
+    /**
+     * Flags of days with approximated (or missing) ephemeris
+     */
+    private final boolean[] approximated;
+
+    /**
+     * Seconds since the start of the table of all events, sorted ascending
+     */
+    private final int[] offsets;
+
+    /**
+     * Types of events in order of offsets
+     */
+    private final byte[] types;
+
+    /**
+     * Creates table with given data (see {@link #of(LocalDate, int, ZoneId, Function)}).
+     * @param firstDay first day
+     * @param days number of days
+     * @param zone zone of ephemeris times
+     * @param secondsOfDay seconds of day of events, indexed by day and type
+     * @param approximated flags of approximated days
+     */
+    private SunEphemerisTable(LocalDate firstDay, int days, ZoneId zone, int[] secondsOfDay, boolean[] approximated) {
+        this.firstDay = firstDay;
+        this.days = days;
+        this.zone = zone;
+        this.start = firstDay.atStartOfDay(zone).toEpochSecond();
+        this.secondsOfDay = secondsOfDay;
+        this.approximated = approximated;
+        var keys = new long[secondsOfDay.length];
+        var size = 0;
+        for (int i = 0; i < secondsOfDay.length; i++) {
+            if (secondsOfDay[i] != NO_EVENT) {
+                var day = firstDay.plusDays(i / TYPES.length);
+                var offset = day.atTime(LocalTime.ofSecondOfDay(secondsOfDay[i])).atZone(zone).toEpochSecond() - start;
+                keys[size++] = offset * TYPES.length + i % TYPES.length;
+            }
+        }
+        Arrays.sort(keys, 0, size);
+        this.offsets = new int[size];
+        this.types = new byte[size];
+        for (int i = 0; i < size; i++) {
+            offsets[i] = (int) Math.floorDiv(keys[i], TYPES.length);
+            types[i] = (byte) Math.floorMod(keys[i], TYPES.length);
+        }
+    }
+
+    /**
+     * Creates table of consecutive days with ephemerides from given source (e.g. {@link SunEphemerisProvider}).
+     * Missing (null) ephemerides are treated as approximated days without events.
+     * @param firstDay first day
+     * @param days number of days
+     * @param zone zone of ephemeris times
+     * @param source source of ephemerides
+     * @return table
+     */
+    public static SunEphemerisTable of(LocalDate firstDay, int days, ZoneId zone,
+                                       Function<LocalDate, SunEphemeris> source) {
+        var secondsOfDay = new int[days * TYPES.length];
+        var approximated = new boolean[days];
+        Arrays.fill(secondsOfDay, NO_EVENT);
+        for (int day = 0; day < days; day++) {
+            var ephemeris = source.apply(firstDay.plusDays(day));
+            if (ephemeris == null) {
+                approximated[day] = true;
+                continue;
+            }
+            approximated[day] = Boolean.TRUE.equals(ephemeris.getApproximated());
+            for (var entry : ephemeris.getTimes().entrySet()) {
+                secondsOfDay[day * TYPES.length + entry.getKey().ordinal()] = entry.getValue().toSecondOfDay();
+            }
+        }
+        return new SunEphemerisTable(firstDay, days, zone, secondsOfDay, approximated);
+    }
+
+    /**
+     * Returns true if table contains given day.
+     * @param day day
+     * @return result of the check
+     */
+    public boolean covers(LocalDate day) {
+        var index = day.toEpochDay() - firstDay.toEpochDay();
+        return index >= 0 && index < days;
+    }
+
+    /**
+     * Returns true if ephemerides of all days are available and not approximated.
+     * @return result of the check
+     */
+    public boolean isComplete() {
+        for (boolean dayApproximated : approximated) {
+            if (dayApproximated) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Provides number of events in the table.
+     * @return number of events
+     */
+    public int size() {
+        return offsets.length;
+    }
+
+    /**
+     * Provides second of day of the event on given day.
+     * @param day day (covered by the table)
+     * @param type type of event
+     * @return second of day or {@link #NO_EVENT} if event does not happen
+     */
+    public int secondOfDay(LocalDate day, SunEphemerisType type) {
+        if (!covers(day)) {
+            throw new IllegalArgumentException("Day " + day + " is not covered by ephemeris table");
+        }
+        return secondsOfDay[(int) (day.toEpochDay() - firstDay.toEpochDay()) * TYPES.length + type.ordinal()];
+    }
+
+    /**
+     * Finds the first event that happens after given instant (binary search).
+     * @param instant instant
+     * @return index of event or {@link #NO_EVENT} if there are no more events in the table
+     */
+    public int nextIndexAfter(Instant instant) {
+        var target = instant.getEpochSecond() - start;
+        var low = 0;
+        var high = offsets.length;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (offsets[middle] <= target) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low < offsets.length ? low : NO_EVENT;
+    }
+
+    /**
+     * Provides type of the event.
+     * @param index index of event
+     * @return type of event
+     */
+    public SunEphemerisType typeAt(int index) {
+        return TYPES[types[index]];
+    }
+
+    /**
+     * Provides epoch second of the event.
+     * @param index index of event
+     * @return epoch second
+     */
+    public long epochSecondAt(int index) {
+        return start + offsets[index];
+    }
+
+    /**
+     * Provides instant of the event.
+     * @param index index of event
+     * @return instant
+     */
+    public Instant instantAt(int index) {
+        return Instant.ofEpochSecond(epochSecondAt(index));
+    }
+
+    /**
+     * Provides ephemeris of the day (as a new {@link SunEphemeris}).
+     * @param day day (covered by the table)
+     * @return ephemeris
+     */
+    public SunEphemeris ephemerisOf(LocalDate day) {
+        var ephemeris = new SunEphemeris();
+        ephemeris.setDay(day);
+        for (SunEphemerisType type : TYPES) {
+            var secondOfDay = secondOfDay(day, type);
+            if (secondOfDay != NO_EVENT) {
+                ephemeris.getTimes().put(type, LocalTime.ofSecondOfDay(secondOfDay));
+            }
+        }
+        ephemeris.setApproximated(approximated[(int) (day.toEpochDay() - firstDay.toEpochDay())]);
+        return ephemeris;
+    }
+}
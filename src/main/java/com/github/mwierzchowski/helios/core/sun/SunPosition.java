@@ -0,0 +1,27 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Position of the sun in the sky at the given instant.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class SunPosition {
+    /**
+     * Instant of the position
+     */
+    private final Instant timestamp;
+
+    /**
+     * Azimuth in degrees, measured clockwise from the north (0 - north, 90 - east, 180 - south, 270 - west)
+     */
+    private final double azimuth;
+
+    /**
+     * Elevation above the horizon in degrees (negative when the sun is below the horizon)
+     */
+    private final double elevation;
+}
@@ -0,0 +1,30 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * Sun position event, published when azimuth or elevation of the sun crosses a bucket (see
+ * {@link SunPositionPublisher}).
+ * @author Marcin Wierzchowski
+ */
+@Data
+@RequiredArgsConstructor
+public class SunPositionEvent implements HeliosEvent<SunPosition> {
+    /**
+     * Position of the sun
+     */
+    private final SunPosition subject;
+
+    /**
+     * Timestamp of the event (instant of the position).
+     * @return timestamp
+     */
+    @Override
+    public Instant getTimestamp() {
+        return subject.getTimestamp();
+    }
+}
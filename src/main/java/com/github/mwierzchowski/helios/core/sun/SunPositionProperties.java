@@ -0,0 +1,31 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sun position properties.
+ * @author Marcin Wierzchowski
+ */
+@Data
+@Component
+@ConfigurationProperties("helios.sun.position")
+public class SunPositionProperties {
+    /**
+     * Interval of checking position of the sun
+     */
+    private Duration checkInterval = Duration.ofMinutes(1);
+
+    /**
+     * Size of azimuth bucket in degrees. Event is published when azimuth moves to other bucket.
+     */
+    private Double azimuthBucket = 10.0;
+
+    /**
+     * Size of elevation bucket in degrees. Event is published when elevation moves to other bucket.
+     */
+    private Double elevationBucket = 5.0;
+}
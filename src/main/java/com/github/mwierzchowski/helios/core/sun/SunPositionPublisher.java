@@ -0,0 +1,159 @@
+package com.github.mwierzchowski.helios.core.sun;
+
+import com.github.mwierzchowski.helios.core.commons.EventStore;
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
+import com.github.mwierzchowski.helios.core.commons.LocationProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.time.temporal.ChronoUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Publisher of sun position events. Position of the sun is calculated locally (see {@link SolarCalculator}) with
+ * configured interval and event is published only when azimuth or elevation moves to other bucket (e.g. every 10
+ * degrees of azimuth), so consumers are not flooded with insignificant changes. Position is calculated once per
+ * minute and cached, so current position may be read by any number of consumers (see {@link #currentPosition()}).
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SunPositionPublisher {
+    /**
+     * Marker of bucket of position that was not published yet
+     */
+    private static final int NO_BUCKET = Integer.MIN_VALUE;
+
+    /**
+     * Sun position properties
+     */
+    private final SunPositionProperties positionProperties;
+
+    /**
+     * Solar calculator
+     */
+    private final SolarCalculator solarCalculator;
+
+    /**
+     * Location provider
+     */
+    private final LocationProvider locationProvider;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Executor provider
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Event store
+     */
+    private final EventStore eventStore;
+
+    /**
+     * Position of the sun in the current minute
+     */
+    private volatile SunPosition cachedPosition;
+
+    /**
+     * Azimuth bucket of the last published position
+     */
+    private int azimuthBucket = NO_BUCKET;
+
+    /**
+     * Elevation bucket of the last published position
+     */
+    private int elevationBucket = NO_BUCKET;
+
+    /**
+     * Publishing task
+     */
+    private ScheduledFuture<?> publishing;
+
+    /**
+     * Starts publishing events. Method could be automatically called on application startup.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class, condition = "@commonProperties.processingOnStartupEnabled")
+    public synchronized void startPublishingEvents() {
+        log.info("Starting sun position events");
+        var interval = positionProperties.getCheckInterval().toMillis();
+        publishing = executorProvider.scheduler().scheduleAtFixedRate(this::publishSafely, 0, interval, MILLISECONDS);
+    }
+
+    /**
+     * Stops publishing events.
+     */
+    @PreDestroy
+    public synchronized void stopPublishingEvents() {
+        if (publishing != null) {
+            publishing.cancel(false);
+            publishing = null;
+        }
+    }
+
+    /**
+     * Provides position of the sun at the beginning of the current minute. Position is calculated by the first call in
+     * the minute and cached, next calls in the same minute return cached position.
+     * @return position of the sun
+     */
+    public SunPosition currentPosition() {
+        var minute = clock.instant().truncatedTo(MINUTES);
+        var position = cachedPosition;
+        if (position == null || !position.getTimestamp().equals(minute)) {
+            position = solarCalculator.sunPositionAt(minute, locationProvider.locate());
+            cachedPosition = position;
+        }
+        return position;
+    }
+
+    /**
+     * Checks current position of the sun and publishes event when azimuth or elevation moved to other bucket since
+     * previously published position (or when position was not published yet).
+     */
+    public synchronized void publishPosition() {
+        var position = currentPosition();
+        var currentAzimuthBucket = bucketOf(position.getAzimuth(), positionProperties.getAzimuthBucket());
+        var currentElevationBucket = bucketOf(position.getElevation(), positionProperties.getElevationBucket());
+        if (currentAzimuthBucket == azimuthBucket && currentElevationBucket == elevationBucket) {
+            log.debug("Sun position has not crossed any bucket: {}", position);
+            return;
+        }
+        log.debug("Publishing sun position: {}", position);
+        eventStore.publish(new SunPositionEvent(position));
+        azimuthBucket = currentAzimuthBucket;
+        elevationBucket = currentElevationBucket;
+    }
+
+    /**
+     * Helper method that provides bucket of the angle.
+     * @param angle angle in degrees
+     * @param bucketSize size of bucket in degrees
+     * @return bucket
+     */
+    private int bucketOf(double angle, double bucketSize) {
+        return (int) Math.floor(angle / bucketSize);
+    }
+
+    /**
+     * Helper method that publishes position and logs failures, so periodic publishing is not cancelled.
+     */
+    private void publishSafely() {
+        try {
+            publishPosition();
+        } catch (Exception ex) {
+            log.error("Publishing of sun position failed", ex);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import java.time.DayOfWeek;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Set of week days backed by 7 bit mask, where {@link DayOfWeek#MONDAY} is the lowest bit and
+ * {@link DayOfWeek#SUNDAY} is the highest one. Iteration order is the order of week days.
+ * @author Marcin Wierzchowski
+ */
+public class DaySet extends AbstractSet<DayOfWeek> {
+    /**
+     * Number of days in a week
+     */
+    public static final int DAYS = 7;
+
+    /**
+     * Mask with all days of week
+     */
+    public static final int ALL_DAYS = (1 << DAYS) - 1;
+
+    /**
+     * Cached days of week (to avoid copying {@link DayOfWeek#values()})
+     */
+    private static final DayOfWeek[] DAYS_OF_WEEK = DayOfWeek.values();
+
+    /**
+     * Bit mask of days
+     */
+    private int mask;
+
+    /**
+     * Creates empty set.
+     */
+    public DaySet() {
+        this(0);
+    }
+
+    /**
+     * Creates set from the mask.
+     * @throws IllegalArgumentException when mask has bits other than week days
+     * @param mask bit mask of days
+     */
+    public DaySet(int mask) {
+        if ((mask & ~ALL_DAYS) != 0) {
+            throw new IllegalArgumentException("Invalid days mask " + mask);
+        }
+        this.mask = mask;
+    }
+
+    /**
+     * Provides mask of given days. Masks of {@link DaySet} is returned directly, for other collections it is
+     * calculated.
+     * @param days days
+     * @return bit mask of days
+     */
+    public static int maskOf(Collection<DayOfWeek> days) {
+        if (days instanceof DaySet) {
+            return ((DaySet) days).mask;
+        }
+        var result = 0;
+        for (DayOfWeek day : days) {
+            result |= bitOf(day);
+        }
+        return result;
+    }
+
+    /**
+     * Provides bit of given day.
+     * @param day day of week
+     * @return bit of the day
+     */
+    public static int bitOf(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    /**
+     * Provides number of days from given day of week (exclusive) till the next day of week in the mask. Lookup is
+     * made by rotating the mask, so that day after given one becomes the lowest bit, and counting trailing zeros.
+     * @throws NoSuchElementException when mask is empty
+     * @param mask bit mask of days
+     * @param dayIndex index of day of week (0 for {@link DayOfWeek#MONDAY})
+     * @return number of days (from 1 to 7)
+     */
+    public static int daysUntilNext(int mask, int dayIndex) {
+        if (mask == 0) {
+            throw new NoSuchElementException("Days mask is empty");
+        }
+        var shift = (dayIndex + 1) % DAYS;
+        var rotated = ((mask >>> shift) | (mask << (DAYS - shift))) & ALL_DAYS;
+        return Integer.numberOfTrailingZeros(rotated) + 1;
+    }
+
+    /**
+     * Provides bit mask of days.
+     * @return bit mask
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * Returns true if this set has at least one day in common with the other one.
+     * @param other other set of days
+     * @return result of the check
+     */
+    public boolean overlaps(Collection<DayOfWeek> other) {
+        return (mask & maskOf(other)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return Integer.bitCount(mask);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return mask == 0;
+    }
+
+    @Override
+    public boolean contains(Object object) {
+        return object instanceof DayOfWeek && (mask & bitOf((DayOfWeek) object)) != 0;
+    }
+
+    @Override
+    public boolean add(DayOfWeek day) {
+        var previous = mask;
+        mask |= bitOf(day);
+        return mask != previous;
+    }
+
+    @Override
+    public boolean remove(Object object) {
+        if (!contains(object)) {
+            return false;
+        }
+        mask &= ~bitOf((DayOfWeek) object);
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        mask = 0;
+    }
+
+    @Override
+    public Iterator<DayOfWeek> iterator() {
+        return new Iterator<>() {
+            private int remaining = mask;
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            @Override
+            public DayOfWeek next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                last = Integer.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return DAYS_OF_WEEK[last];
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                mask &= ~(1 << last);
+                last = -1;
+            }
+        };
+    }
+}
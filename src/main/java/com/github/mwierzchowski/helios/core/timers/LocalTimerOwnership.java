@@ -0,0 +1,30 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/**
+ * Ownership of standalone node, which fires all timers.
+ * @author Marcin Wierzchowski
+ */
+@Component
+@ConditionalOnProperty(name = "helios.timers.cluster.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalTimerOwnership implements TimerOwnership {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean owns(Timer timer) {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Firing claimFiring(TimerSchedule schedule, Instant occurrence) {
+        return Firing.GRANTED;
+    }
+}
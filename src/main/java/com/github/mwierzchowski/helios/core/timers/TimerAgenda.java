@@ -0,0 +1,132 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+
+/**
+ * Agenda of timer alerts in the given time window. Occurrences of every schedule are iterated lazily (see
+ * {@link TimerSchedule#occurrencesSince(Instant, ZoneId)}) and merged with a heap holding only the next occurrence of
+ * each schedule, so memory used by the agenda depends on the number of schedules, not on the length of the window.
+ * Alerts are provided ordered by instant and then by schedule id.
+ * @author Marcin Wierzchowski
+ */
+public class TimerAgenda implements Iterator<TimerAgenda.Entry> {
+    /**
+     * Order of heads (by instant and then by schedule id)
+     */
+    private static final Comparator<Head> ORDER = Comparator
+            .comparing((Head head) -> head.instant)
+            .thenComparing(head -> head.schedule.getId(), nullsLast(naturalOrder()));
+
+    /**
+     * Next occurrences of schedules
+     */
+    private final PriorityQueue<Head> heads;
+
+    /**
+     * End of the window (exclusive)
+     */
+    private final Instant to;
+
+    /**
+     * Creates agenda of given schedules.
+     * @param schedules schedules
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @param zone zone in which schedules are defined
+     */
+    public TimerAgenda(Collection<TimerSchedule> schedules, Instant from, Instant to, ZoneId zone) {
+        this.to = to;
+        this.heads = new PriorityQueue<>(Math.max(1, schedules.size()), ORDER);
+        for (TimerSchedule schedule : schedules) {
+            var occurrences = schedule.occurrencesSince(from, zone);
+            if (occurrences.hasNext()) {
+                heads.add(new Head(schedule, occurrences, occurrences.next()));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasNext() {
+        var head = heads.peek();
+        return head != null && head.instant.isBefore(to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more alerts in agenda");
+        }
+        var head = heads.poll();
+        var entry = new Entry(head.schedule, head.instant);
+        head.instant = head.occurrences.next();
+        heads.add(head);
+        return entry;
+    }
+
+    /**
+     * Alert of the agenda.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        /**
+         * Schedule of the alert
+         */
+        private final TimerSchedule schedule;
+
+        /**
+         * Instant of the alert
+         */
+        private final Instant instant;
+    }
+
+    /**
+     * Next occurrence of the schedule with iterator of the following ones.
+     */
+    private static class Head {
+        /**
+         * Schedule
+         */
+        private final TimerSchedule schedule;
+
+        /**
+         * Following occurrences of the schedule
+         */
+        private final Iterator<Instant> occurrences;
+
+        /**
+         * Next occurrence of the schedule
+         */
+        private Instant instant;
+
+        /**
+         * Creates head with given next occurrence.
+         * @param schedule schedule
+         * @param occurrences following occurrences
+         * @param instant next occurrence
+         */
+        Head(TimerSchedule schedule, Iterator<Instant> occurrences, Instant instant) {
+            this.schedule = schedule;
+            this.occurrences = occurrences;
+            this.instant = instant;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import com.github.mwierzchowski.helios.core.journal.EventCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Journal codec of {@link TimerAlertEvent}. Only id and description of the timer are journaled. Alerts are not
+ * replayed on startup, since they are bound to the moment when they were fired.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class TimerAlertEventCodec implements EventCodec<TimerAlertEvent> {
+    @Override
+    public byte getTypeId() {
+        return 4;
+    }
+
+    @Override
+    public Class<TimerAlertEvent> getEventClass() {
+        return TimerAlertEvent.class;
+    }
+
+    @Override
+    public void encode(TimerAlertEvent event, DataOutput output) throws IOException {
+        var timer = event.getSubject();
+        output.writeInt(timer.getId() == null ? -1 : timer.getId());
+        output.writeUTF(timer.getDescription() == null ? "" : timer.getDescription());
+    }
+
+    @Override
+    public TimerAlertEvent decode(DataInput input) throws IOException {
+        var timer = new Timer();
+        var id = input.readInt();
+        timer.setId(id < 0 ? null : id);
+        timer.setDescription(input.readUTF());
+        return new TimerAlertEvent(timer);
+    }
+}
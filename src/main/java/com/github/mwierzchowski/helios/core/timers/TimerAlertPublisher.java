@@ -1,21 +1,30 @@
 package com.github.mwierzchowski.helios.core.timers;
 
+import com.github.mwierzchowski.helios.core.commons.AlertMetrics;
 import com.github.mwierzchowski.helios.core.commons.EventStore;
 import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.TaskScheduler;
-import org.springframework.scheduling.Trigger;
-import org.springframework.scheduling.TriggerContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.Date;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
- * Component responsible for publishing timer alerts.
+ * Component responsible for publishing timer alerts. Deadlines of alerts are kept in the {@link TimerWheel} under
+ * the id of the schedule, so starting alert for the same schedule again replaces the previous one.
  * @author Marcin Wierzchowski
  */
 @Slf4j
@@ -23,15 +32,30 @@ import java.util.Date;
 @Transactional
 @RequiredArgsConstructor
 public class TimerAlertPublisher {
+    /**
+     * Timers properties
+     */
+    private final TimerProperties timerProperties;
+
     /**
      * Timer repository
      */
     private final TimerRepository timerRepository;
 
     /**
-     * Tasks scheduler
+     * Timer wheel
+     */
+    private final TimerWheel timerWheel;
+
+    /**
+     * Index of next occurrences
+     */
+    private final TimerOccurrenceIndex occurrenceIndex;
+
+    /**
+     * Registry of live schedules
      */
-    private final TaskScheduler taskScheduler;
+    private final TimerScheduleRegistry scheduleRegistry;
 
     /**
      * Events store
@@ -39,12 +63,61 @@ public class TimerAlertPublisher {
     private final EventStore eventStore;
 
     /**
-     * Callback method called on application start. It starts alert tasks for all timers.
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Meter registry
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Alerts instrumentation
+     */
+    private final AlertMetrics alertMetrics;
+
+    /**
+     * Ownership of timers (all timers are owned unless node is clustered)
+     */
+    private final TimerOwnership ownership;
+
+    /**
+     * Callback method called on application start. It starts alert tasks for all timers. Timers are loaded in
+     * batches (keyset pages with schedules fetched in the same query) outside of any surrounding transaction, so
+     * persistence context does not accumulate loaded timers and only one batch is kept in memory at a time.
+     * Occurrences are calculated relative to the moment when bootstrap started, so alerts that became due while
+     * bootstrap was running are fired immediately instead of being moved to the next week. Duration and number of
+     * started timers are reported as metrics.
      */
+    @Transactional(propagation = NOT_SUPPORTED)
     @EventListener(classes = ApplicationReadyEvent.class, condition = "@commonProperties.processingOnStartupEnabled")
     public void startAlerts() {
         log.debug("Starting all alert tasks");
-        timerRepository.findAll().forEach(this::startAlertFor);
+        var durationSample = io.micrometer.core.instrument.Timer.start(meterRegistry);
+        var startedTimers = meterRegistry.counter("helios.timers.bootstrap.timers");
+        var bootstrapClock = Clock.fixed(clock.instant(), clock.getZone());
+        var page = PageRequest.of(0, timerProperties.getBootstrapBatchSize());
+        var lastId = 0;
+        var count = 0;
+        while (true) {
+            var ids = timerRepository.findIdsAfter(lastId, page);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Timer timer : timerRepository.findAllWithSchedulesByIdIn(ids)) {
+                startAlertFor(timer, bootstrapClock);
+            }
+            startedTimers.increment(ids.size());
+            count += ids.size();
+            lastId = ids.get(ids.size() - 1);
+            log.debug("Started alert tasks for {} timers", count);
+            if (ids.size() < page.getPageSize()) {
+                break;
+            }
+        }
+        var nanos = durationSample.stop(meterRegistry.timer("helios.timers.bootstrap.duration"));
+        log.info("Started alert tasks for {} timers in {}ms", count, nanos / 1_000_000);
     }
 
     /**
@@ -52,58 +125,141 @@ public class TimerAlertPublisher {
      * @param timer timer
      */
     public void startAlertFor(Timer timer) {
-        log.info("Starting '{}' timer task", timer.getDescription());
-        timer.getSchedules().forEach(this::scheduleTask);
+        startAlertFor(timer, clock);
+    }
+
+    /**
+     * Start alert tasks for all schedules of given timers (e.g. after bulk import). Occurrences are calculated
+     * relative to the same moment for all timers.
+     * @param timers timers
+     */
+    public void startAlertsFor(List<Timer> timers) {
+        var occurrenceClock = Clock.fixed(clock.instant(), clock.getZone());
+        timers.forEach(timer -> startAlertFor(timer, occurrenceClock));
+        log.info("Started alert tasks for {} timers", timers.size());
+    }
+
+    /**
+     * Starts alert tasks for all schedules of given timers after commit of the current transaction (or immediately,
+     * if there is no transaction), so alerts are never started for timers that were not stored.
+     * @param timers timers
+     */
+    public void startAlertsAfterCommit(List<Timer> timers) {
+        afterCommit(() -> startAlertsFor(timers));
+    }
+
+    /**
+     * Start alert tasks for timers of given partitions that were changed after given time (see
+     * {@link TimerCluster}). Timers are loaded in batches.
+     * @param partitions partitions of timers
+     * @param partitionCount number of partitions
+     * @param since time of change (exclusive), {@link Instant#EPOCH} for all timers
+     */
+    public void startAlertsIn(Collection<Integer> partitions, int partitionCount, Instant since) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        var ids = timerRepository.findIdsInPartitionsChangedSince(partitionCount, partitions, since);
+        var batchSize = timerProperties.getBootstrapBatchSize();
+        for (var from = 0; from < ids.size(); from += batchSize) {
+            var batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            timerRepository.findAllWithSchedulesByIdIn(batch).forEach(timer -> startAlertFor(timer, clock));
+        }
+        log.debug("Started alert tasks for {} timers of partitions {}", ids.size(), partitions);
     }
 
     /**
-     * Helper method that creates schedule tasks/trigger for schedule and registers them in the scheduler.
+     * Stops alert task of given schedule.
      * @param schedule schedule of the timer
      */
-    private void scheduleTask(TimerSchedule schedule) {
-        TaskTrigger trigger = new TaskTrigger(schedule);
-        Task task = new Task(schedule.getTimer(), schedule, trigger);
-        taskScheduler.schedule(task, trigger);
+    public void stopAlertFor(TimerSchedule schedule) {
+        scheduleRegistry.unregister(schedule);
+        occurrenceIndex.remove(schedule);
+        if (timerWheel.cancel(schedule.getId())) {
+            log.info("Stopped alert task for schedule {}", schedule.getId());
+        }
     }
 
     /**
-     * Class of alert task triggers.
+     * Stops alert tasks for all schedules of given timer and removes the timer from index of occurrences.
+     * @param timer timer
      */
-    @RequiredArgsConstructor
-    static class TaskTrigger implements Trigger {
-        /**
-         * Schedule
-         */
-        private final TimerSchedule schedule;
+    public void stopAlertsFor(Timer timer) {
+        timer.getSchedules().forEach(this::stopAlertFor);
+        occurrenceIndex.remove(timer);
+    }
 
-        /**
-         * Flag informing if trigger is stopped
-         */
-        private boolean stopped = false;
+    /**
+     * Stops alert tasks of given schedules after commit of the current transaction (or immediately, if there is no
+     * transaction), so alerts are never stopped for schedules which removal was rolled back.
+     * @param schedules schedules of timers
+     */
+    public void stopAlertsAfterCommit(List<TimerSchedule> schedules) {
+        afterCommit(() -> schedules.forEach(this::stopAlertFor));
+    }
 
-        /**
-         * Main trigger method.
-         * @param triggerContext trigger context
-         * @return date of next execution or null when trigger is stopped
-         */
-        @Override
-        public synchronized Date nextExecutionTime(TriggerContext triggerContext) {
-            return stopped ? null : Date.from(schedule.nearestOccurrence());
+    /**
+     * Stops alert tasks for all schedules of given timer after commit of the current transaction (or immediately, if
+     * there is no transaction), so alerts are never stopped for timer which removal was rolled back.
+     * @param timer timer
+     */
+    public void stopAlertsAfterCommit(Timer timer) {
+        afterCommit(() -> stopAlertsFor(timer));
+    }
+
+    /**
+     * Helper method that runs given action after commit of the current transaction, or immediately if there is no
+     * transaction. Registry, wheel and index are updated only by committed changes, since alerts are validated
+     * against them without reaching the database.
+     * @param action action
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
 
-        /**
-         * Stops trigger (next call to {@link TaskTrigger#nextExecutionTime(TriggerContext)} will give null).
-         */
-        public synchronized void stop() {
-            this.stopped = true;
+    /**
+     * Helper method that starts alert tasks for all schedules of given timer.
+     * @param timer timer
+     * @param occurrenceClock clock used to calculate the nearest occurrences
+     */
+    private void startAlertFor(Timer timer, Clock occurrenceClock) {
+        if (!ownership.owns(timer)) {
+            log.debug("Timer '{}' is owned by other node", timer.getDescription());
+            return;
         }
+        log.info("Starting '{}' timer task", timer.getDescription());
+        occurrenceIndex.describe(timer);
+        timer.getSchedules().forEach(schedule -> scheduleAlert(schedule, occurrenceClock));
+    }
+
+    /**
+     * Helper method that registers alert of the schedule in the wheel. Alert registered earlier for the same
+     * schedule is replaced.
+     * @param schedule schedule of the timer
+     * @param occurrenceClock clock used to calculate the nearest occurrence
+     */
+    private void scheduleAlert(TimerSchedule schedule, Clock occurrenceClock) {
+        scheduleRegistry.register(schedule);
+        var occurrence = schedule.nearestOccurrence(occurrenceClock);
+        var alert = new Alert(schedule.getTimer(), schedule, occurrence);
+        timerWheel.schedule(schedule.getId(), occurrence, alert);
+        occurrenceIndex.update(schedule, occurrence);
     }
 
     /**
      * Class of alert tasks.
      */
     @RequiredArgsConstructor
-    class Task implements Runnable {
+    class Alert implements Runnable {
         /**
          * Timer
          */
@@ -115,36 +271,97 @@ public class TimerAlertPublisher {
         private final TimerSchedule schedule;
 
         /**
-         * Trigger
+         * Occurrence for which alert was registered
          */
-        private final TaskTrigger trigger;
+        private final Instant occurrence;
 
         /**
-         * Main task method. On the beginning, method checks if given schedule is still valid. If not, trigger is
-         * being stopped.
+         * Main task method. On the beginning, method checks if given schedule is still live (see
+         * {@link TimerScheduleRegistry}), so database is not involved in validation. If it is not, alert is not
+         * published and it is not registered again. Otherwise, after publishing, alert is registered for the next
+         * occurrence (unless alert for the schedule was replaced in the meantime). Index of occurrences is updated
+         * accordingly. Before publishing, firing of the occurrence is claimed (see {@link TimerOwnership}), so in
+         * clustered mode alert is published exactly once and alerts of timers owned by other nodes are dropped.
+         * When claim fails, it is retried after configured delay (or next occurrence is registered if it comes
+         * earlier), so alerts of the schedule are never lost. Lateness of firing, validation and publishing are
+         * recorded (see {@link AlertMetrics}).
          */
         @Override
         public void run() {
-            if (!isValid()) {
+            var eventType = TimerAlertEvent.class.getSimpleName();
+            var timerTag = String.valueOf(timer.getId());
+            alertMetrics.recordLateness(eventType, timerTag, occurrence);
+            if (!alertMetrics.recordValidation(eventType, timerTag, () -> scheduleRegistry.isLive(schedule))) {
                 log.debug("Schedule {} for timer {} is invalid", schedule.getId(), timer.getId());
-                trigger.stop();
+                occurrenceIndex.remove(schedule);
+                return;
+            }
+            TimerOwnership.Firing firing;
+            try {
+                firing = ownership.claimFiring(schedule, occurrence);
+            } catch (DataAccessException ex) {
+                log.error("Claim of alert of schedule {} for timer {} failed", schedule.getId(), timer.getId(), ex);
+                meterRegistry.counter("helios.timers.alerts.claim.failed").increment();
+                retryClaim();
+                return;
+            }
+            if (firing == TimerOwnership.Firing.REVOKED) {
+                log.debug("Alert of schedule {} for timer {} was revoked", schedule.getId(), timer.getId());
+                scheduleRegistry.unregister(schedule);
+                occurrenceIndex.remove(schedule);
                 return;
             }
-            log.info("Publishing alert for timer '{}' (id: {})", timer.getDescription(), timer.getId());
-            HeliosEvent event = new TimerAlertEvent(timer);
-            eventStore.publish(event);
+            if (firing == TimerOwnership.Firing.GRANTED) {
+                log.info("Publishing alert for timer '{}' (id: {})", timer.getDescription(), timer.getId());
+                HeliosEvent event = new TimerAlertEvent(timer);
+                alertMetrics.recordPublish(eventType, timerTag, () -> eventStore.publish(event));
+            } else {
+                log.debug("Alert of schedule {} for timer {} was already fired", schedule.getId(), timer.getId());
+            }
+            scheduleNextAlert(nextOccurrence());
         }
 
         /**
-         * Helper method that checks if task is still valid.
-         * @return result of the check
+         * Helper method that registers alert of the same occurrence after retry delay, or alert of the next
+         * occurrence if it comes earlier (unless alert for the schedule was replaced in the meantime).
          */
-        private boolean isValid() {
-            return timerRepository.findById(timer.getId())
-                    .flatMap(foundTimer -> foundTimer.getSchedule(schedule.getId()))
-                    .map(TimerSchedule::getVersion)
-                    .map(foundVersion -> foundVersion.equals(schedule.getVersion()))
-                    .orElse(false);
+        private void retryClaim() {
+            var nextOccurrence = nextOccurrence();
+            var retry = clock.instant().plus(timerProperties.getCluster().getClaimRetryDelay());
+            if (!retry.isBefore(nextOccurrence)) {
+                scheduleNextAlert(nextOccurrence);
+                return;
+            }
+            if (timerWheel.scheduleIfAbsent(schedule.getId(), retry, new Alert(timer, schedule, occurrence))) {
+                log.debug("Claim of alert of schedule {} for timer {} will be retried at {}", schedule.getId(),
+                        timer.getId(), retry);
+            }
+        }
+
+        /**
+         * Helper method that registers alert for the next occurrence (unless alert for the schedule was replaced
+         * in the meantime) and updates index of occurrences accordingly.
+         * @param nextOccurrence next occurrence
+         */
+        private void scheduleNextAlert(Instant nextOccurrence) {
+            var nextAlert = new Alert(timer, schedule, nextOccurrence);
+            if (timerWheel.scheduleIfAbsent(schedule.getId(), nextOccurrence, nextAlert)) {
+                occurrenceIndex.update(schedule, nextOccurrence);
+            }
+        }
+
+        /**
+         * Helper method that calculates next occurrence of the schedule. It is always later than the current
+         * occurrence, even if alert was fired before its time according to the clock.
+         * @return next occurrence
+         */
+        private Instant nextOccurrence() {
+            var nextOccurrence = schedule.nearestOccurrence(clock);
+            if (nextOccurrence.isAfter(occurrence)) {
+                return nextOccurrence;
+            }
+            var afterOccurrence = Clock.fixed(occurrence.plusMillis(1), clock.getZone());
+            return schedule.nearestOccurrence(afterOccurrence);
         }
     }
 }
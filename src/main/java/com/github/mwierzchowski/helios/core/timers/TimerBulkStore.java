@@ -0,0 +1,90 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.springframework.transaction.annotation.Propagation.MANDATORY;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
+
+/**
+ * Store for bulk operations on timers. Writes are flushed in batches (see {@link TimerProperties#getBulkBatchSize()}),
+ * so Hibernate sends inserts of timers and schedules as JDBC batches, with ids taken from pooled sequences
+ * (allocation size 10) instead of querying sequence for each row. Persistence context is cleared after every batch,
+ * so its size does not grow with the number of timers.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimerBulkStore {
+    /**
+     * Timers properties
+     */
+    private final TimerProperties timerProperties;
+
+    /**
+     * Timer repository
+     */
+    private final TimerRepository timerRepository;
+
+    /**
+     * Entity manager
+     */
+    private final EntityManager entityManager;
+
+    /**
+     * Persists new timers with their schedules. It has to be called in the transaction. Timers are detached after
+     * this call.
+     * @param timers new timers
+     */
+    @Transactional(propagation = MANDATORY)
+    public void persistAll(List<Timer> timers) {
+        var batchSize = timerProperties.getBulkBatchSize();
+        for (int i = 0; i < timers.size(); i++) {
+            entityManager.persist(timers.get(i));
+            if ((i + 1) % batchSize == 0) {
+                flushAndClear();
+            }
+        }
+        flushAndClear();
+        log.debug("Persisted {} timers", timers.size());
+    }
+
+    /**
+     * Passes all timers (with schedules) to the consumer in order of ids. Timers are loaded in batches (keyset pages)
+     * outside of any surrounding transaction, so persistence context does not accumulate loaded timers and only one
+     * batch is kept in memory at a time.
+     * @param consumer consumer of timers
+     */
+    @Transactional(propagation = NOT_SUPPORTED)
+    public void forEach(Consumer<Timer> consumer) {
+        var page = PageRequest.of(0, timerProperties.getBulkBatchSize());
+        var lastId = 0;
+        while (true) {
+            var ids = timerRepository.findIdsAfter(lastId, page);
+            if (ids.isEmpty()) {
+                return;
+            }
+            timerRepository.findAllWithSchedulesByIdIn(ids).forEach(consumer);
+            lastId = ids.get(ids.size() - 1);
+            if (ids.size() < page.getPageSize()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Helper method that sends pending inserts and detaches persisted entities.
+     */
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+
+import static java.util.Comparator.reverseOrder;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toSet;
+
+/**
+ * Coordinator of clustered mode, in which many nodes share the same database and each timer is fired by only one of
+ * them. Timers are split into a fixed number of partitions (by timer id) and every node periodically renews leases of
+ * its partitions (see {@link TimerLeaseStore}). Each node aims at the fair share of partitions based on the number of
+ * live nodes, so partitions are released when node joins and taken over when node dies (after lease expiration).
+ * Alerts of acquired partitions are started, while alerts of lost partitions are dropped when they are due. Every
+ * occurrence is additionally recorded in the database before firing, so it is fired exactly once, even if two nodes
+ * own the same partition for a moment.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.timers.cluster.enabled", havingValue = "true")
+public class TimerCluster implements TimerOwnership {
+    /**
+     * Timers properties
+     */
+    private final TimerProperties timerProperties;
+
+    /**
+     * Lease store
+     */
+    private final TimerLeaseStore leaseStore;
+
+    /**
+     * Executor provider
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Global version of timers
+     */
+    private final TimersVersion timersVersion;
+
+    /**
+     * Alert publisher (provided lazily, since publisher depends on ownership)
+     */
+    private final ObjectProvider<TimerAlertPublisher> alertPublisher;
+
+    /**
+     * Partitions owned by the node
+     */
+    private volatile Set<Integer> owned = Set.of();
+
+    /**
+     * Time until owned partitions are valid (leases are not renewed after that time)
+     */
+    private volatile Instant ownedUntil = Instant.MIN;
+
+    /**
+     * Time of the last successful renewal
+     */
+    private Instant lastRenewal;
+
+    /**
+     * Renewal task
+     */
+    private ScheduledFuture<?> renewal;
+
+    /**
+     * Provides partition of the timer.
+     * @param timerId id of timer
+     * @param partitions number of partitions
+     * @return partition
+     */
+    public static int partitionOf(int timerId, int partitions) {
+        return Math.floorMod(timerId, partitions);
+    }
+
+    /**
+     * Joins the cluster on application start. Leases are renewed periodically afterwards.
+     */
+    @EventListener(classes = ApplicationReadyEvent.class, condition = "@commonProperties.processingOnStartupEnabled")
+    public synchronized void join() {
+        var cluster = timerProperties.getCluster();
+        log.info("Joining timers cluster as node {}", cluster.getNodeId());
+        leaseStore.initialize(cluster.getPartitions());
+        var interval = cluster.getRenewInterval().toMillis();
+        renewal = executorProvider.scheduler().scheduleAtFixedRate(this::renewSafely, 0, interval, MILLISECONDS);
+    }
+
+    /**
+     * Leaves the cluster, so partitions of the node are taken over by other nodes without waiting for expiration.
+     */
+    @PreDestroy
+    public synchronized void leave() {
+        if (renewal == null) {
+            return;
+        }
+        renewal.cancel(false);
+        renewal = null;
+        owned = Set.of();
+        leaseStore.leave(timerProperties.getCluster().getNodeId());
+        log.info("Left timers cluster");
+    }
+
+    /**
+     * Renews leases of the node, releases or claims partitions to reach fair share, starts alerts of acquired
+     * partitions and of timers changed since previous renewal (e.g. on other nodes), refreshes version of timers with
+     * writes done on all nodes and purges old firings.
+     */
+    public synchronized void renew() {
+        var cluster = timerProperties.getCluster();
+        var node = cluster.getNodeId();
+        var now = clock.instant();
+        var expires = now.plus(cluster.getLeaseDuration());
+        leaseStore.heartbeat(node, expires);
+        var previous = ownedPartitions();
+        var current = leaseStore.renew(node, expires);
+        var partitions = cluster.getPartitions();
+        var nodes = Math.max(1, leaseStore.liveNodes(now));
+        var fairShare = (partitions + nodes - 1) / nodes;
+        if (current.size() > fairShare) {
+            var released = current.stream()
+                    .sorted(reverseOrder())
+                    .limit(current.size() - fairShare)
+                    .collect(toSet());
+            leaseStore.release(node, released);
+            current.removeAll(released);
+            log.info("Released timer partitions {}", released);
+        } else if (current.size() < fairShare) {
+            current.addAll(leaseStore.claim(node, fairShare - current.size(), now, expires));
+        }
+        var acquired = new HashSet<>(current);
+        acquired.removeAll(previous);
+        var kept = new HashSet<>(current);
+        kept.removeAll(acquired);
+        owned = Set.copyOf(current);
+        ownedUntil = expires;
+        if (!acquired.isEmpty()) {
+            log.info("Acquired timer partitions {}", acquired);
+        }
+        var publisher = alertPublisher.getObject();
+        publisher.startAlertsIn(acquired, partitions, Instant.EPOCH);
+        if (lastRenewal != null) {
+            publisher.startAlertsIn(kept, partitions, lastRenewal.minus(cluster.getLeaseDuration()));
+        }
+        lastRenewal = now;
+        timersVersion.updateShared(leaseStore.timersVersion());
+        leaseStore.purgeFirings(now.minus(cluster.getFiringRetention()));
+    }
+
+    /**
+     * Provides partitions owned by the node.
+     * @return owned partitions
+     */
+    public Set<Integer> ownedPartitions() {
+        return clock.instant().isBefore(ownedUntil) ? owned : Set.of();
+    }
+
+    /**
+     * Returns true if timer belongs to partition which lease is owned and valid.
+     * @param timer timer
+     * @return result of the check
+     */
+    @Override
+    public boolean owns(Timer timer) {
+        return ownedPartitions().contains(partitionOf(timer.getId(), timerProperties.getCluster().getPartitions()));
+    }
+
+    /**
+     * Claims firing of the occurrence in the database. Alert is revoked when timer is not owned anymore or when
+     * schedule was changed or removed (e.g. on other node).
+     * @param schedule schedule
+     * @param occurrence occurrence
+     * @return result of the claim
+     */
+    @Override
+    public Firing claimFiring(TimerSchedule schedule, Instant occurrence) {
+        if (!owns(schedule.getTimer())) {
+            return Firing.REVOKED;
+        }
+        var node = timerProperties.getCluster().getNodeId();
+        if (leaseStore.recordFiring(schedule, occurrence, node, clock.instant())) {
+            return Firing.GRANTED;
+        }
+        return leaseStore.isCurrent(schedule) ? Firing.ALREADY_FIRED : Firing.REVOKED;
+    }
+
+    /**
+     * Helper method that renews leases and logs failures, so periodic renewal is not cancelled. Owned partitions
+     * become invalid when leases could not be renewed before expiration.
+     */
+    private void renewSafely() {
+        try {
+            renew();
+        } catch (Exception ex) {
+            log.error("Renewal of timer leases failed, owned partitions are valid until {}", ownedUntil, ex);
+        }
+    }
+}
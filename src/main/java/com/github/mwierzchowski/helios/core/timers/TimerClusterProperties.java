@@ -0,0 +1,51 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Properties of clustered firing of timers.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class TimerClusterProperties {
+    /**
+     * Flag enabling clustered mode, in which timers are partitioned across nodes sharing the same database
+     */
+    private boolean enabled = false;
+
+    /**
+     * Unique id of the node (random by default)
+     */
+    private String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Number of partitions of timers. It has to be the same on all nodes and should be much higher than the number
+     * of nodes.
+     */
+    private Integer partitions = 32;
+
+    /**
+     * Duration of partition leases and node heartbeats. When node dies, its partitions are taken over by other nodes
+     * after that time.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(30);
+
+    /**
+     * Interval of lease renewal. It is also the maximal delay of starting alerts of timers changed on other nodes.
+     */
+    private Duration renewInterval = Duration.ofSeconds(10);
+
+    /**
+     * Period for which fired occurrences are remembered to prevent firing them twice
+     */
+    private Duration firingRetention = Duration.ofDays(1);
+
+    /**
+     * Delay of retry of claim of alert firing that failed (e.g. when database is not available). Claim is retried
+     * until the next occurrence of the schedule, which is scheduled instead.
+     */
+    private Duration claimRetryDelay = Duration.ofSeconds(5);
+}
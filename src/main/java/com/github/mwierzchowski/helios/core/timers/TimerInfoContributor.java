@@ -5,21 +5,18 @@ import org.springframework.boot.actuate.info.Info;
 import org.springframework.boot.actuate.info.InfoContributor;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 /**
- * Info contributor for timers. Provides list of timers made of description and the timestamp of next alert.
+ * Info contributor for timers. Provides list of timers made of description and the timestamp of next alert. Details
+ * are read from the snapshot of {@link TimerOccurrenceIndex}, so timers are neither loaded nor evaluated.
  * @author Marcin Wierzchowski
  */
 @Component
 @RequiredArgsConstructor
 public class TimerInfoContributor implements InfoContributor {
     /**
-     * Timers repository
+     * Index of next timer occurrences
      */
-    private final TimerRepository timerRepository;
+    private final TimerOccurrenceIndex occurrenceIndex;
 
     /**
      * Main contributions method
@@ -27,24 +24,7 @@ public class TimerInfoContributor implements InfoContributor {
      */
     @Override
     public void contribute(Info.Builder builder) {
-        List<Timer> timers = timerRepository.findAll();
-        builder.withDetail("timers", timers.isEmpty() ? "none" : detailsOf(timers));
-    }
-
-    /**
-     * Builds details of for all timers.
-     * @param timers list of timers
-     * @return details map
-     */
-    private Map<String, Object> detailsOf(List<Timer> timers) {
-        var details = new HashMap<String, Object>();
-        for (Timer timer : timers) {
-            Object nearestOccurrence = timer.getNearestOccurrence().orElse(null);
-            if (nearestOccurrence == null) {
-                nearestOccurrence = "not scheduled";
-            }
-            details.put(timer.getDescription(), nearestOccurrence);
-        }
-        return details;
+        var details = occurrenceIndex.details();
+        builder.withDetail("timers", details.isEmpty() ? "none" : details);
     }
 }
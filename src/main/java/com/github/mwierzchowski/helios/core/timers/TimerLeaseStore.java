@@ -0,0 +1,172 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Database store of nodes, partition leases and fired occurrences used in clustered mode (see {@link TimerCluster}).
+ * Leases are claimed with <code>SELECT ... FOR UPDATE SKIP LOCKED</code>, so nodes claiming at the same time never
+ * wait for each other nor claim the same partition. Fired occurrences are recorded with the primary key on schedule
+ * and occurrence, so each occurrence is fired exactly once.
+ * @author Marcin Wierzchowski
+ */
+@Component
+@Transactional
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "helios.timers.cluster.enabled", havingValue = "true")
+public class TimerLeaseStore {
+    /**
+     * JDBC template
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates leases of partitions that do not exist yet.
+     * @param partitions number of partitions
+     */
+    public void initialize(int partitions) {
+        jdbcTemplate.update("insert into timer_lease (partition_id) select generate_series(0, ? - 1) "
+                + "on conflict do nothing", partitions);
+    }
+
+    /**
+     * Registers heartbeat of the node.
+     * @param node id of node
+     * @param expires expiration of heartbeat
+     */
+    public void heartbeat(String node, Instant expires) {
+        jdbcTemplate.update("insert into timer_node (id, expires) values (?, ?) "
+                + "on conflict (id) do update set expires = excluded.expires", node, Timestamp.from(expires));
+    }
+
+    /**
+     * Removes the node and releases all its leases.
+     * @param node id of node
+     */
+    public void leave(String node) {
+        jdbcTemplate.update("update timer_lease set owner = null, expires = null where owner = ?", node);
+        jdbcTemplate.update("delete from timer_node where id = ?", node);
+    }
+
+    /**
+     * Provides number of live nodes. Nodes with expired heartbeats are removed.
+     * @param now current time
+     * @return number of live nodes
+     */
+    public int liveNodes(Instant now) {
+        jdbcTemplate.update("delete from timer_node where expires <= ?", Timestamp.from(now));
+        return jdbcTemplate.queryForObject("select count(*) from timer_node", Integer.class);
+    }
+
+    /**
+     * Renews all leases owned by the node.
+     * @param node id of node
+     * @param expires new expiration of leases
+     * @return owned partitions
+     */
+    public Set<Integer> renew(String node, Instant expires) {
+        jdbcTemplate.update("update timer_lease set expires = ? where owner = ?", Timestamp.from(expires), node);
+        return new TreeSet<>(jdbcTemplate.queryForList(
+                "select partition_id from timer_lease where owner = ?", Integer.class, node));
+    }
+
+    /**
+     * Claims free (never owned, released or expired) partitions. Partitions locked by other nodes are skipped.
+     * @param node id of node
+     * @param count maximal number of claimed partitions
+     * @param now current time
+     * @param expires expiration of claimed leases
+     * @return claimed partitions
+     */
+    public Set<Integer> claim(String node, int count, Instant now, Instant expires) {
+        var partitions = jdbcTemplate.queryForList("select partition_id from timer_lease "
+                + "where owner is null or expires <= ? order by partition_id limit ? for update skip locked",
+                Integer.class, Timestamp.from(now), count);
+        updateOwner(partitions, node, Timestamp.from(expires));
+        return new TreeSet<>(partitions);
+    }
+
+    /**
+     * Releases given partitions owned by the node.
+     * @param node id of node
+     * @param partitions partitions
+     */
+    public void release(String node, Collection<Integer> partitions) {
+        var args = new ArrayList<Object[]>();
+        partitions.forEach(partition -> args.add(new Object[] {partition, node}));
+        jdbcTemplate.batchUpdate("update timer_lease set owner = null, expires = null "
+                + "where partition_id = ? and owner = ?", args);
+    }
+
+    /**
+     * Records firing of the occurrence, only if the schedule still exists with given version.
+     * @param schedule schedule
+     * @param occurrence occurrence
+     * @param node id of node
+     * @param now current time
+     * @return true if occurrence was recorded by this call
+     */
+    public boolean recordFiring(TimerSchedule schedule, Instant occurrence, String node, Instant now) {
+        return jdbcTemplate.update("insert into timer_firing (schedule_id, occurrence, node, fired) "
+                + "select ?, ?, ?, ? where exists (select 1 from timer_schedule where id = ? and version = ?) "
+                + "on conflict do nothing", schedule.getId(), Timestamp.from(occurrence), node,
+                Timestamp.from(now), schedule.getId(), schedule.getVersion()) == 1;
+    }
+
+    /**
+     * Returns true if the schedule exists with given version.
+     * @param schedule schedule
+     * @return result of the check
+     */
+    public boolean isCurrent(TimerSchedule schedule) {
+        return jdbcTemplate.queryForObject("select count(*) from timer_schedule where id = ? and version = ?",
+                Integer.class, schedule.getId(), schedule.getVersion()) > 0;
+    }
+
+    /**
+     * Increments shared counter of writes of timers (see {@link TimersVersion}). It has to be called in the
+     * transaction of the write, so counter is incremented only when the write is committed.
+     */
+    public void bumpTimersVersion() {
+        jdbcTemplate.update("update timers_version set writes = writes + 1 where id = 1");
+    }
+
+    /**
+     * Provides shared counter of writes of timers.
+     * @return number of writes
+     */
+    public long timersVersion() {
+        return jdbcTemplate.queryForObject("select writes from timers_version where id = 1", Long.class);
+    }
+
+    /**
+     * Removes fired occurrences older than given time.
+     * @param before time
+     */
+    public void purgeFirings(Instant before) {
+        jdbcTemplate.update("delete from timer_firing where occurrence < ?", Timestamp.from(before));
+    }
+
+    /**
+     * Helper method that sets owner of given partitions.
+     * @param partitions partitions
+     * @param node id of node
+     * @param expires expiration of leases
+     */
+    private void updateOwner(List<Integer> partitions, String node, Timestamp expires) {
+        var args = new ArrayList<Object[]>();
+        partitions.forEach(partition -> args.add(new Object[] {node, expires, partition}));
+        jdbcTemplate.batchUpdate("update timer_lease set owner = ?, expires = ? where partition_id = ?", args);
+    }
+}
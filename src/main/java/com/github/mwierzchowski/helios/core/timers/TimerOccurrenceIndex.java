@@ -0,0 +1,222 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * In-memory index of next occurrences of all scheduled timers. Index is updated incrementally by
+ * {@link TimerAlertPublisher} when alerts are started, fired or stopped, so queries do not need to load timers nor
+ * to calculate occurrences of their schedules. Occurrences are ordered by instant, so finding the nearest one
+ * (globally or for given timer) is O(log n). Details of all timers are served from snapshot that is rebuilt only after
+ * index was changed.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class TimerOccurrenceIndex {
+    /**
+     * Order of occurrences (by instant and then by schedule id)
+     */
+    private static final Comparator<Occurrence> ORDER = Comparator
+            .comparing(Occurrence::getInstant)
+            .thenComparing(Occurrence::getScheduleId);
+
+    /**
+     * All occurrences ordered by instant
+     */
+    private final NavigableSet<Occurrence> occurrences = new TreeSet<>(ORDER);
+
+    /**
+     * Occurrences by schedule id
+     */
+    private final Map<Integer, Occurrence> scheduleOccurrences = new HashMap<>();
+
+    /**
+     * Occurrences by timer id ordered by instant
+     */
+    private final Map<Integer, NavigableSet<Occurrence>> timerOccurrences = new HashMap<>();
+
+    /**
+     * Descriptions of timers by timer id
+     */
+    private final Map<Integer, String> descriptions = new HashMap<>();
+
+    /**
+     * Snapshot of details (null when index was changed since snapshot was made)
+     */
+    private volatile Map<String, Object> details;
+
+    /**
+     * Number of changes of the index
+     */
+    private volatile long modifications;
+
+    /**
+     * Registers description of the timer. Timer without schedules is known to the index as not scheduled.
+     * @param timer timer
+     */
+    public synchronized void describe(Timer timer) {
+        descriptions.put(timer.getId(), timer.getDescription());
+        changed();
+    }
+
+    /**
+     * Registers next occurrence of the schedule. Occurrence registered earlier for the same schedule is replaced.
+     * @param schedule schedule
+     * @param instant next occurrence of the schedule
+     */
+    public synchronized void update(TimerSchedule schedule, Instant instant) {
+        removeSchedule(schedule.getId());
+        var timer = schedule.getTimer();
+        var occurrence = new Occurrence(timer.getId(), schedule.getId(), instant);
+        occurrences.add(occurrence);
+        scheduleOccurrences.put(schedule.getId(), occurrence);
+        timerOccurrences.computeIfAbsent(timer.getId(), id -> new TreeSet<>(ORDER)).add(occurrence);
+        descriptions.putIfAbsent(timer.getId(), timer.getDescription());
+        changed();
+    }
+
+    /**
+     * Removes occurrence of the schedule.
+     * @param schedule schedule
+     */
+    public synchronized void remove(TimerSchedule schedule) {
+        if (removeSchedule(schedule.getId())) {
+            changed();
+        }
+    }
+
+    /**
+     * Removes timer with all its occurrences.
+     * @param timer timer
+     */
+    public synchronized void remove(Timer timer) {
+        var removed = timerOccurrences.remove(timer.getId());
+        if (removed != null) {
+            removed.forEach(occurrence -> {
+                occurrences.remove(occurrence);
+                scheduleOccurrences.remove(occurrence.getScheduleId());
+            });
+        }
+        descriptions.remove(timer.getId());
+        changed();
+    }
+
+    /**
+     * Provides nearest occurrence of any timer.
+     * @return nearest occurrence or empty if no timer is scheduled
+     */
+    public synchronized Optional<Occurrence> nearestOccurrence() {
+        return occurrences.isEmpty() ? Optional.empty() : Optional.of(occurrences.first());
+    }
+
+    /**
+     * Provides nearest occurrence of given timer.
+     * @param timerId id of timer
+     * @return instant of nearest occurrence or empty if timer is not scheduled
+     */
+    public synchronized Optional<Instant> nearestOccurrenceOf(Integer timerId) {
+        var found = timerOccurrences.get(timerId);
+        return found == null ? Optional.empty() : Optional.of(found.first().getInstant());
+    }
+
+    /**
+     * Provides details of all known timers, which is description with the nearest occurrence (or "not scheduled").
+     * @return unmodifiable details map
+     */
+    public Map<String, Object> details() {
+        var snapshot = details;
+        if (snapshot == null) {
+            synchronized (this) {
+                snapshot = details;
+                if (snapshot == null) {
+                    snapshot = Collections.unmodifiableMap(detailsOfAllTimers());
+                    details = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Provides number of changes of the index. It allows to detect that next occurrences may have changed.
+     * @return number of changes
+     */
+    public long getModifications() {
+        return modifications;
+    }
+
+    /** Helpers *******************************************************************************************************/
+
+    /**
+     * Helper method that invalidates details snapshot and counts the change.
+     */
+    private void changed() {
+        details = null;
+        modifications++;
+    }
+
+    /**
+     * Helper method that removes occurrence of the schedule.
+     * @param scheduleId id of schedule
+     * @return true if occurrence was removed, false if it did not exist
+     */
+    private boolean removeSchedule(Integer scheduleId) {
+        var occurrence = scheduleOccurrences.remove(scheduleId);
+        if (occurrence == null) {
+            return false;
+        }
+        occurrences.remove(occurrence);
+        var ofTimer = timerOccurrences.get(occurrence.getTimerId());
+        ofTimer.remove(occurrence);
+        if (ofTimer.isEmpty()) {
+            timerOccurrences.remove(occurrence.getTimerId());
+        }
+        return true;
+    }
+
+    /**
+     * Helper method that builds details of all timers.
+     * @return details map
+     */
+    private Map<String, Object> detailsOfAllTimers() {
+        var result = new LinkedHashMap<String, Object>();
+        descriptions.forEach((timerId, description) -> {
+            var found = timerOccurrences.get(timerId);
+            result.put(description, found == null ? "not scheduled" : found.first().getInstant());
+        });
+        return result;
+    }
+
+    /**
+     * Occurrence of the timer schedule.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Occurrence {
+        /**
+         * Id of timer
+         */
+        private final Integer timerId;
+
+        /**
+         * Id of schedule
+         */
+        private final Integer scheduleId;
+
+        /**
+         * Instant of occurrence
+         */
+        private final Instant instant;
+    }
+}
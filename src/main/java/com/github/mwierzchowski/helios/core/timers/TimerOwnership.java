@@ -0,0 +1,45 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import java.time.Instant;
+
+/**
+ * Decides which timers are fired by this node. In standalone mode node owns all timers (see
+ * {@link LocalTimerOwnership}), in clustered mode timers are partitioned across nodes (see {@link TimerCluster}).
+ * @author Marcin Wierzchowski
+ */
+public interface TimerOwnership {
+    /**
+     * Result of firing claim.
+     */
+    enum Firing {
+        /**
+         * Occurrence should be fired by this node
+         */
+        GRANTED,
+
+        /**
+         * Occurrence was already fired (e.g. by other node during partition handover), next occurrence is still owned
+         */
+        ALREADY_FIRED,
+
+        /**
+         * Node does not own the timer anymore or schedule was changed on other node, alert should be dropped
+         */
+        REVOKED
+    }
+
+    /**
+     * Returns true if alerts of given timer should be started by this node.
+     * @param timer timer
+     * @return result of the check
+     */
+    boolean owns(Timer timer);
+
+    /**
+     * Claims firing of the schedule occurrence. Every occurrence is granted at most once.
+     * @param schedule schedule
+     * @param occurrence occurrence
+     * @return result of the claim
+     */
+    Firing claimFiring(TimerSchedule schedule, Instant occurrence);
+}
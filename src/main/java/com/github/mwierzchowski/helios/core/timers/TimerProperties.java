@@ -0,0 +1,44 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timers properties.
+ * @author Marcin Wierzchowski
+ */
+@Data
+@Component
+@ConfigurationProperties("helios.timers")
+public class TimerProperties {
+    /**
+     * Duration in ms of a single tick of the timer wheel (see {@link TimerWheel}). It is also the precision of the
+     * timer alerts. Minute has to be a multiple of it.
+     */
+    private Long wheelTick = 100L;
+
+    /**
+     * Number of daily slots in the week tier of timer wheel. Alerts further in the future than that number of days
+     * are cascaded through the same slot until they are due.
+     */
+    private Integer wheelDays = 8;
+
+    /**
+     * Number of timers loaded in one batch when alerts are started on application startup.
+     */
+    private Integer bootstrapBatchSize = 500;
+
+    /**
+     * Number of timers written or read in one batch by bulk import and export. It should be aligned with
+     * hibernate.jdbc.batch_size.
+     */
+    private Integer bulkBatchSize = 50;
+
+    /**
+     * Properties of clustered firing of timers (see {@link TimerCluster}).
+     */
+    @NestedConfigurationProperty
+    private TimerClusterProperties cluster = new TimerClusterProperties();
+}
@@ -1,7 +1,12 @@
 package com.github.mwierzchowski.helios.core.timers;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.RepositoryDefinition;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +22,53 @@ public interface TimerRepository {
      */
     List<Timer> findAll();
 
+    /**
+     * Finds ids of timers greater than given one (ordered by id). Together with
+     * {@link TimerRepository#findAllWithSchedulesByIdIn(Collection)} it allows to iterate timers in pages based on
+     * the last seen id, without hydrating all timers at once.
+     * @param lastId last seen id
+     * @param pageable page (only size is used)
+     * @return list of ids
+     */
+    @Query("select t.id from Timer t where t.id > :lastId order by t.id")
+    List<Integer> findIdsAfter(@Param("lastId") Integer lastId, Pageable pageable);
+
+    /**
+     * Finds timers of given ids, fetching their schedules in the same query.
+     * @param ids ids of timers
+     * @return list of timers ordered by id
+     */
+    @Query("select distinct t from Timer t left join fetch t.schedules where t.id in :ids order by t.id")
+    List<Timer> findAllWithSchedulesByIdIn(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Finds timers that have schedules, fetching their schedules in the same query.
+     * @return list of scheduled timers
+     */
+    @Query("select distinct t from Timer t join fetch t.schedules")
+    List<Timer> findAllScheduled();
+
+    /**
+     * Finds ids of timers from given partitions (see {@link TimerCluster}) that were created or changed (including
+     * their schedules) after given time.
+     * @param partitions number of partitions
+     * @param owned partitions of timers
+     * @param since time of change (exclusive)
+     * @return list of ids ordered by id
+     */
+    @Query("select distinct t.id from Timer t left join t.schedules s where mod(t.id, :partitions) in :owned "
+            + "and (t.updated > :since or s.updated > :since) order by t.id")
+    List<Integer> findIdsInPartitionsChangedSince(@Param("partitions") Integer partitions,
+                                                  @Param("owned") Collection<Integer> owned,
+                                                  @Param("since") Instant since);
+
+    /**
+     * Finds descriptions of all timers.
+     * @return list of descriptions
+     */
+    @Query("select t.description from Timer t")
+    List<String> findAllDescriptions();
+
     /**
      * Finds the timer by its id.
      * @param id id of the timer
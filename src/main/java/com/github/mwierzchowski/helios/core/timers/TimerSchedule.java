@@ -1,8 +1,9 @@
 package com.github.mwierzchowski.helios.core.timers;
 
-import com.github.mwierzchowski.helios.core.timers.converter.DaySetToStringConverter;
+import com.github.mwierzchowski.helios.core.timers.converter.DaySetToMaskConverter;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
@@ -15,16 +16,18 @@ import javax.persistence.Id;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Version;
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TreeSet;
 
-import static java.time.LocalDate.now;
-import static java.time.ZoneId.systemDefault;
+import static java.time.temporal.ChronoUnit.MILLIS;
 import static lombok.AccessLevel.NONE;
 
 /**
@@ -35,6 +38,16 @@ import static lombok.AccessLevel.NONE;
 @Entity
 @SequenceGenerator(name = "timer_schedule_id_generator", sequenceName = "timer_schedule_id_seq", allocationSize = 10)
 public class TimerSchedule {
+    /**
+     * Milliseconds in a day
+     */
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    /**
+     * Index of the week day of epoch day 0 (1970-01-01 was Thursday)
+     */
+    private static final long EPOCH_DAY_INDEX = 3;
+
     /**
      * Id of the entity
      */
@@ -59,8 +72,8 @@ public class TimerSchedule {
      * Days when alert should occur
      */
     @Setter(NONE)
-    @Convert(converter = DaySetToStringConverter.class)
-    private Set<DayOfWeek> days = new TreeSet<>();
+    @Convert(converter = DaySetToMaskConverter.class)
+    private Set<DayOfWeek> days = new DaySet();
 
     /**
      * Timestamp of the creation for auditing purposes.
@@ -98,63 +111,220 @@ public class TimerSchedule {
      * @return result
      */
     public boolean isOverlapping(TimerSchedule other) {
-        return this.days.stream().anyMatch(other.days::contains);
+        return (DaySet.maskOf(this.days) & DaySet.maskOf(other.days)) != 0;
     }
 
     /**
-     * Provides timestamp of the nearest timer alert.
+     * Provides timestamp of the nearest timer alert, using system clock.
      * @return timestamp
      */
     public Instant nearestOccurrence() {
-        var occurrenceDay = isToday() && isTimeNotOver() ? now() : nextDay();
-        return occurrenceDay.atTime(time).atZone(systemDefault()).toInstant();
+        return nearestOccurrence(Clock.systemDefaultZone());
     }
 
     /**
-     * Returns true if schedule is for today, but it does not take into account current time of the day (e.g. if
-     * schedule time today already passed). That check is made by {@link TimerSchedule#isTimeNotOver()}.
-     * @return check result
+     * Provides timestamp of the nearest timer alert (with millisecond precision).
+     * @param clock clock
+     * @return timestamp
      */
-    private boolean isToday() {
-        var thisDayOfWeek = LocalDate.now().getDayOfWeek();
-        return days.contains(thisDayOfWeek);
+    public Instant nearestOccurrence(Clock clock) {
+        return Instant.ofEpochMilli(nearestOccurrenceMillis(clock));
     }
 
     /**
-     * Returns true if time of the schedule already passed today, but it does not take into account if schedule was
-     * planned today. That check is made by {@link TimerSchedule#isToday()}}.
-     * @return check result
+     * Provides epoch milliseconds of the nearest timer alert. Calculation is made on primitives with the zone offset
+     * cached until the next transition of the zone rules, so it does not allocate objects. Only when the occurrence
+     * is close to the offset transition (e.g. DST change), calculation falls back to {@link java.time} types.
+     * @throws java.util.NoSuchElementException when schedule has no days
+     * @param clock clock
+     * @return epoch milliseconds of the nearest alert
      */
-    private boolean isTimeNotOver() {
-        return LocalTime.now().isBefore(time);
+    public long nearestOccurrenceMillis(Clock clock) {
+        var nowMillis = clock.millis();
+        var zone = clock.getZone();
+        var window = OffsetWindow.of(zone, nowMillis);
+        var localMillis = nowMillis + window.offsetMillis;
+        var epochDay = Math.floorDiv(localMillis, DAY_MILLIS);
+        var millisOfDay = Math.floorMod(localMillis, DAY_MILLIS);
+        var dayIndex = (int) Math.floorMod(epochDay + EPOCH_DAY_INDEX, (long) DaySet.DAYS);
+        var timeMillis = time.toNanoOfDay() / 1_000_000;
+        var mask = DaySet.maskOf(days);
+        var isToday = (mask & (1 << dayIndex)) != 0;
+        var daysAhead = isToday && millisOfDay < timeMillis ? 0 : DaySet.daysUntilNext(mask, dayIndex);
+        var occurrenceDay = epochDay + daysAhead;
+        var occurrenceMillis = occurrenceDay * DAY_MILLIS + timeMillis - window.offsetMillis;
+        if (window.covers(occurrenceMillis - DAY_MILLIS) && window.covers(occurrenceMillis + DAY_MILLIS)) {
+            return occurrenceMillis;
+        }
+        return LocalDate.ofEpochDay(occurrenceDay).atTime(time.truncatedTo(MILLIS)).atZone(zone)
+                .toInstant().toEpochMilli();
     }
 
     /**
-     * Finds the next day, after today, when schedule should fire.
-     * @return next day
+     * Provides lazy iterator of timer alerts, starting from the first alert at or after given instant. Occurrences
+     * are calculated one by one, so iterator does not hold more than the next occurrence.
+     * @param since instant of the first possible occurrence (inclusive)
+     * @param zone zone in which schedule time is defined
+     * @return infinite iterator of occurrences (empty when schedule has no days)
      */
-    private LocalDate nextDay() {
-        var thisDay = LocalDate.now();
-        var thisDayOfWeek = (long) thisDay.getDayOfWeek().getValue();
-        var nextDayOfWeek = (long) days.stream()
-                .map(DayOfWeek::getValue)
-                .filter(day -> day > thisDayOfWeek)
-                .sorted()
-                .findFirst()
-                .orElse(7 + firstDayNextWeek());
-        return thisDay.plusDays(nextDayOfWeek - thisDayOfWeek);
+    public Iterator<Instant> occurrencesSince(Instant since, ZoneId zone) {
+        return new OccurrenceIterator(DaySet.maskOf(days), time.truncatedTo(MILLIS), zone, since);
+    }
+
+    /**
+     * Iterator of schedule occurrences that walks through the days of schedule.
+     */
+    private static class OccurrenceIterator implements Iterator<Instant> {
+        /**
+         * Bit mask of schedule days
+         */
+        private final int mask;
+
+        /**
+         * Time of schedule
+         */
+        private final LocalTime time;
+
+        /**
+         * Zone of schedule
+         */
+        private final ZoneId zone;
+
+        /**
+         * First day that was not checked yet
+         */
+        private LocalDate date;
+
+        /**
+         * Next occurrence (null when there are no occurrences)
+         */
+        private Instant next;
+
+        /**
+         * Creates iterator and moves it to the first occurrence at or after given instant.
+         * @param mask bit mask of days
+         * @param time time
+         * @param zone zone
+         * @param since instant of the first possible occurrence
+         */
+        OccurrenceIterator(int mask, LocalTime time, ZoneId zone, Instant since) {
+            this.mask = mask;
+            this.time = time;
+            this.zone = zone;
+            this.date = LocalDate.ofInstant(since, zone);
+            advance();
+            while (next != null && next.isBefore(since)) {
+                advance();
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Instant next() {
+            if (next == null) {
+                throw new NoSuchElementException("Schedule has no days");
+            }
+            var result = next;
+            advance();
+            return result;
+        }
+
+        /**
+         * Helper method that calculates occurrence on the nearest schedule day starting from the current date.
+         */
+        private void advance() {
+            if (mask == 0) {
+                next = null;
+                return;
+            }
+            var dayIndex = date.getDayOfWeek().ordinal();
+            if ((mask & (1 << dayIndex)) == 0) {
+                date = date.plusDays(DaySet.daysUntilNext(mask, dayIndex));
+            }
+            next = date.atTime(time).atZone(zone).toInstant();
+            date = date.plusDays(1);
+        }
     }
 
     /**
-     * Finds the earliest day a week when schedule should fire in general (does not take into account current day of
-     * week).
-     * @return earliest day next week
+     * Zone offset valid between 2 transitions of zone rules. The most recently used window is cached.
      */
-    private Integer firstDayNextWeek() {
-        return days.stream()
-                .map(DayOfWeek::getValue)
-                .sorted()
-                .findFirst()
-                .orElseThrow();
+    @RequiredArgsConstructor
+    private static class OffsetWindow {
+        /**
+         * Most recently used window
+         */
+        private static volatile OffsetWindow cached;
+
+        /**
+         * Zone
+         */
+        private final ZoneId zone;
+
+        /**
+         * Offset of the zone in milliseconds
+         */
+        private final long offsetMillis;
+
+        /**
+         * Epoch millis since offset is valid (inclusive)
+         */
+        private final long validFrom;
+
+        /**
+         * Epoch millis till offset is valid (exclusive)
+         */
+        private final long validTo;
+
+        /**
+         * Provides window of given zone valid at given time. Cached window is used when possible.
+         * @param zone zone
+         * @param epochMillis epoch milliseconds
+         * @return offset window
+         */
+        static OffsetWindow of(ZoneId zone, long epochMillis) {
+            var window = cached;
+            if (window == null || !window.zone.equals(zone) || !window.covers(epochMillis)) {
+                window = create(zone, epochMillis);
+                cached = window;
+            }
+            return window;
+        }
+
+        /**
+         * Creates window of given zone valid at given time.
+         * @param zone zone
+         * @param epochMillis epoch milliseconds
+         * @return offset window
+         */
+        private static OffsetWindow create(ZoneId zone, long epochMillis) {
+            var rules = zone.getRules();
+            var instant = Instant.ofEpochMilli(epochMillis);
+            var offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+            var previous = rules.previousTransition(instant.plusMillis(1));
+            var next = rules.nextTransition(instant);
+            var validFrom = previous == null ? Long.MIN_VALUE : previous.getInstant().toEpochMilli();
+            var validTo = next == null ? Long.MAX_VALUE : next.getInstant().toEpochMilli();
+            return new OffsetWindow(zone, offsetMillis, validFrom, validTo);
+        }
+
+        /**
+         * Returns true if offset is valid at given time.
+         * @param epochMillis epoch milliseconds
+         * @return result of the check
+         */
+        boolean covers(long epochMillis) {
+            return epochMillis >= validFrom && epochMillis < validTo;
+        }
     }
 }
@@ -0,0 +1,56 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory registry of live timer schedules and their versions. It is used to validate alerts at the time of firing
+ * without reaching the database, so alerts keep firing even when database is slow or unavailable. Registry is updated
+ * when alerts are started or stopped, after commit of changes made by timers service (see
+ * {@link TimerAlertPublisher}).
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class TimerScheduleRegistry {
+    /**
+     * Versions of live schedules by schedule id
+     */
+    private final Map<Integer, Integer> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Registers schedule with its current version. Registration of the same schedule replaces the version.
+     * @param schedule schedule
+     */
+    public void register(TimerSchedule schedule) {
+        versions.put(schedule.getId(), schedule.getVersion());
+    }
+
+    /**
+     * Removes schedule from the registry.
+     * @param schedule schedule
+     */
+    public void unregister(TimerSchedule schedule) {
+        versions.remove(schedule.getId());
+    }
+
+    /**
+     * Returns true if schedule is registered with the same version.
+     * @param schedule schedule
+     * @return result of the check
+     */
+    public boolean isLive(TimerSchedule schedule) {
+        var version = versions.get(schedule.getId());
+        return version != null && Objects.equals(version, schedule.getVersion());
+    }
+
+    /**
+     * Provides number of live schedules.
+     * @return number of schedules
+     */
+    public int size() {
+        return versions.size();
+    }
+}
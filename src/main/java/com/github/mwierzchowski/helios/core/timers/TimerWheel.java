@@ -0,0 +1,418 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Hierarchical timing wheel that owns deadlines of all timer alerts. Wheel is made of 3 tiers: minute tier (slots of
+ * one tick), day tier (slots of one minute) and week tier (slots of one day). Deadlines are put into the lowest tier
+ * that covers them and are cascaded down when the slot of higher tier is reached. Thanks to that, both scheduling and
+ * cancelling are O(1) regardless of number of registered deadlines. Single ticking thread advances the wheel, while
+ * due tasks are executed by the executor (see {@link ExecutorProvider}).
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TimerWheel {
+    /**
+     * Milliseconds in a minute
+     */
+    private static final long MINUTE = 60_000L;
+
+    /**
+     * Minutes in a day
+     */
+    private static final int MINUTES_PER_DAY = 1440;
+
+    /**
+     * Timers properties
+     */
+    private final TimerProperties timerProperties;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Provider of executor running due tasks
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Registered entries by their keys
+     */
+    private final Map<Object, Entry> entries = new HashMap<>();
+
+    /**
+     * Tier with slots of one tick
+     */
+    private Tier minuteTier;
+
+    /**
+     * Tier with slots of one minute
+     */
+    private Tier dayTier;
+
+    /**
+     * Tier with slots of one day
+     */
+    private Tier weekTier;
+
+    /**
+     * Duration of tick in ms
+     */
+    private long tickMillis;
+
+    /**
+     * Last processed tick (number of ticks since epoch)
+     */
+    private long tick;
+
+    /**
+     * Ticking thread
+     */
+    private Thread ticker;
+
+    /**
+     * Flag informing if wheel is running
+     */
+    private volatile boolean running;
+
+    /**
+     * Initializes tiers and starts ticking thread.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        tickMillis = timerProperties.getWheelTick();
+        if (tickMillis <= 0 || MINUTE % tickMillis != 0) {
+            throw new IllegalStateException("Minute has to be a multiple of wheel tick, was " + tickMillis + "ms");
+        }
+        var ticksPerMinute = MINUTE / tickMillis;
+        var ticksPerDay = ticksPerMinute * MINUTES_PER_DAY;
+        minuteTier = new Tier(1, (int) ticksPerMinute);
+        dayTier = new Tier(ticksPerMinute, MINUTES_PER_DAY);
+        weekTier = new Tier(ticksPerDay, timerProperties.getWheelDays());
+        tick = clock.millis() / tickMillis;
+        running = true;
+        ticker = new Thread(this::run, "helios-timer-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+        log.debug("Timer wheel started with {}ms tick", tickMillis);
+    }
+
+    /**
+     * Stops ticking thread. Registered entries are kept but they will not be executed.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+    }
+
+    /**
+     * Schedules task to be executed at given deadline. Task already registered with the same key is cancelled.
+     * Deadline from the past makes task to be executed immediately.
+     * @param key unique key of the task
+     * @param deadline timestamp of execution
+     * @param task task
+     */
+    public void schedule(Object key, Instant deadline, Runnable task) {
+        List<Entry> due = new ArrayList<>(1);
+        synchronized (this) {
+            cancel(key);
+            register(key, deadline, task, due);
+        }
+        due.forEach(this::execute);
+    }
+
+    /**
+     * Schedules task to be executed at given deadline only if there is no task registered with the same key.
+     * @param key unique key of the task
+     * @param deadline timestamp of execution
+     * @param task task
+     * @return true if task was scheduled, false otherwise
+     */
+    public boolean scheduleIfAbsent(Object key, Instant deadline, Runnable task) {
+        List<Entry> due = new ArrayList<>(1);
+        synchronized (this) {
+            if (entries.containsKey(key)) {
+                return false;
+            }
+            register(key, deadline, task, due);
+        }
+        due.forEach(this::execute);
+        return true;
+    }
+
+    /**
+     * Cancels task registered with given key.
+     * @param key key of the task
+     * @return true if task was cancelled, false when it was not registered
+     */
+    public synchronized boolean cancel(Object key) {
+        var entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.tier.unlink(entry);
+        return true;
+    }
+
+    /**
+     * Provides number of registered tasks.
+     * @return number of tasks
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Helpers *******************************************************************************************************/
+
+    /**
+     * Main method of ticking thread. It advances the wheel every tick and executes due tasks.
+     */
+    private void run() {
+        List<Entry> due = new ArrayList<>();
+        while (running) {
+            synchronized (this) {
+                var currentTick = clock.millis() / tickMillis;
+                while (tick < currentTick) {
+                    advance(++tick, due);
+                }
+            }
+            due.forEach(this::execute);
+            due.clear();
+            try {
+                var sleepMillis = (tick + 1) * tickMillis - clock.millis();
+                if (sleepMillis > 0) {
+                    Thread.sleep(sleepMillis);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        log.debug("Timer wheel stopped");
+    }
+
+    /**
+     * Processes given tick. Higher tiers are cascaded when their slot boundary is reached and then entries from the
+     * minute tier slot are collected as due.
+     * @param currentTick tick to process
+     * @param due list of due entries
+     */
+    private void advance(long currentTick, List<Entry> due) {
+        if (currentTick % weekTier.span == 0) {
+            cascade(weekTier.detach(currentTick), due);
+        }
+        if (currentTick % dayTier.span == 0) {
+            cascade(dayTier.detach(currentTick), due);
+        }
+        var entry = minuteTier.detach(currentTick);
+        while (entry != null) {
+            var next = entry.next;
+            entries.remove(entry.key);
+            due.add(entry);
+            entry = next;
+        }
+    }
+
+    /**
+     * Places entries detached from higher tier slot once again in the wheel.
+     * @param head first entry of detached slot
+     * @param due list of due entries
+     */
+    private void cascade(Entry head, List<Entry> due) {
+        var entry = head;
+        while (entry != null) {
+            var next = entry.next;
+            entry.prev = null;
+            entry.next = null;
+            place(entry, due);
+            entry = next;
+        }
+    }
+
+    /**
+     * Creates new entry and places it in the wheel.
+     * @param key unique key of the task
+     * @param deadline timestamp of execution
+     * @param task task
+     * @param due list of due entries
+     */
+    private void register(Object key, Instant deadline, Runnable task, List<Entry> due) {
+        if (minuteTier == null) {
+            throw new IllegalStateException("Timer wheel was not started");
+        }
+        var deadlineTick = Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis);
+        var entry = new Entry(key, deadlineTick, task);
+        entries.put(key, entry);
+        place(entry, due);
+    }
+
+    /**
+     * Places entry in the lowest tier that covers its deadline or marks it as due.
+     * @param entry entry
+     * @param due list of due entries
+     */
+    private void place(Entry entry, List<Entry> due) {
+        var delta = entry.deadlineTick - tick;
+        if (delta <= 0) {
+            entries.remove(entry.key);
+            due.add(entry);
+        } else if (delta < minuteTier.range) {
+            minuteTier.link(entry);
+        } else if (delta < dayTier.range) {
+            dayTier.link(entry);
+        } else {
+            weekTier.link(entry);
+        }
+    }
+
+    /**
+     * Executes due entry with the executor.
+     * @param entry due entry
+     */
+    private void execute(Entry entry) {
+        try {
+            executorProvider.executor().execute(entry.task);
+        } catch (RejectedExecutionException ex) {
+            log.error("Could not execute timer wheel task {}", entry.key, ex);
+        }
+    }
+
+    /**
+     * Single tier of the wheel. Each slot keeps doubly linked list of entries.
+     */
+    @RequiredArgsConstructor
+    static class Tier {
+        /**
+         * Number of ticks covered by single slot
+         */
+        private final long span;
+
+        /**
+         * Heads of slot lists
+         */
+        private final Entry[] heads;
+
+        /**
+         * Number of ticks covered by whole tier
+         */
+        private final long range;
+
+        /**
+         * Constructor
+         * @param span number of ticks covered by single slot
+         * @param slots number of slots
+         */
+        Tier(long span, int slots) {
+            this(span, new Entry[slots], span * slots);
+        }
+
+        /**
+         * Links entry with the slot that covers its deadline.
+         * @param entry entry
+         */
+        void link(Entry entry) {
+            var slot = slotOf(entry.deadlineTick);
+            var head = heads[slot];
+            entry.tier = this;
+            entry.next = head;
+            if (head != null) {
+                head.prev = entry;
+            }
+            heads[slot] = entry;
+        }
+
+        /**
+         * Unlinks entry from its slot.
+         * @param entry entry
+         */
+        void unlink(Entry entry) {
+            if (entry.prev == null) {
+                heads[slotOf(entry.deadlineTick)] = entry.next;
+            } else {
+                entry.prev.next = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+        }
+
+        /**
+         * Detaches all entries of the slot that covers given tick.
+         * @param currentTick tick
+         * @return first entry of the slot or null if slot is empty
+         */
+        Entry detach(long currentTick) {
+            var slot = slotOf(currentTick);
+            var head = heads[slot];
+            heads[slot] = null;
+            return head;
+        }
+
+        /**
+         * Helper method that finds slot covering given tick.
+         * @param tick tick
+         * @return slot index
+         */
+        private int slotOf(long tick) {
+            return (int) ((tick / span) % heads.length);
+        }
+    }
+
+    /**
+     * Entry of the wheel.
+     */
+    @RequiredArgsConstructor
+    static class Entry {
+        /**
+         * Unique key
+         */
+        private final Object key;
+
+        /**
+         * Tick when entry is due
+         */
+        private final long deadlineTick;
+
+        /**
+         * Task
+         */
+        private final Runnable task;
+
+        /**
+         * Tier where entry is linked
+         */
+        private Tier tier;
+
+        /**
+         * Previous entry in the slot
+         */
+        private Entry prev;
+
+        /**
+         * Next entry in the slot
+         */
+        private Entry next;
+    }
+}
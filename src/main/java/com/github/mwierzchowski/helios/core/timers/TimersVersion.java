@@ -0,0 +1,83 @@
+package com.github.mwierzchowski.helios.core.timers;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Global version of timers. It is bumped after every committed write of timers or schedules (which increments their
+ * {@link Timer#getVersion()} and {@link TimerSchedule#getVersion()}) and it includes number of changes of
+ * {@link TimerOccurrenceIndex}, since next alerts are part of timers representation. Version is prefixed with the
+ * moment of application start, so versions from before restart are never equal to the current one. In clustered mode
+ * writes are also counted in the database in the same transaction (see {@link TimerLeaseStore#bumpTimersVersion()})
+ * and the shared counter is read on every renewal of leases (see {@link TimerCluster#renew()}), so writes done on
+ * other nodes change the version as well (after the next renewal).
+ * @author Marcin Wierzchowski
+ */
+@Component
+@RequiredArgsConstructor
+public class TimersVersion {
+    /**
+     * Moment of application start (base 36)
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    /**
+     * Number of committed writes
+     */
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Number of committed writes on all nodes (in clustered mode)
+     */
+    private volatile long sharedWrites;
+
+    /**
+     * Index of next occurrences
+     */
+    private final TimerOccurrenceIndex occurrenceIndex;
+
+    /**
+     * Lease store (available only in clustered mode)
+     */
+    private final ObjectProvider<TimerLeaseStore> leaseStore;
+
+    /**
+     * Provides current version.
+     * @return version
+     */
+    public String current() {
+        return epoch + "-" + writes.get() + "-" + sharedWrites + "-" + occurrenceIndex.getModifications();
+    }
+
+    /**
+     * Updates number of committed writes on all nodes.
+     * @param sharedWrites number of writes read from the database
+     */
+    public void updateShared(long sharedWrites) {
+        this.sharedWrites = sharedWrites;
+    }
+
+    /**
+     * Bumps version after commit of the current transaction (or immediately, if there is no transaction), so
+     * version is never bumped before changes are visible to readers. In clustered mode shared counter is bumped in
+     * the current transaction.
+     */
+    public void bumpAfterCommit() {
+        leaseStore.ifAvailable(TimerLeaseStore::bumpTimersVersion);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writes.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                writes.incrementAndGet();
+            }
+        });
+    }
+}
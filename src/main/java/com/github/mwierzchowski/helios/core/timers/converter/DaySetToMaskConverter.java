@@ -0,0 +1,43 @@
+package com.github.mwierzchowski.helios.core.timers.converter;
+
+import com.github.mwierzchowski.helios.core.timers.DaySet;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+import java.time.DayOfWeek;
+import java.util.Set;
+
+/**
+ * Converts set of {@link DayOfWeek} objects into a bit mask where each of days is represented by a bit
+ * (e.g. {@link DayOfWeek#MONDAY} is the lowest bit), see {@link DaySet}.
+ */
+@Converter
+public class DaySetToMaskConverter implements AttributeConverter<Set<DayOfWeek>, Short> {
+    /**
+     * Converts set to mask
+     * @param days days set
+     * @return mask
+     */
+    @Override
+    public Short convertToDatabaseColumn(Set<DayOfWeek> days) {
+        if (days == null) {
+            return null;
+        } else {
+            return (short) DaySet.maskOf(days);
+        }
+    }
+
+    /**
+     * Converts mask to days set
+     * @param mask mask
+     * @return set of days
+     */
+    @Override
+    public Set<DayOfWeek> convertToEntityAttribute(Short mask) {
+        if (mask == null) {
+            return new DaySet();
+        } else {
+            return new DaySet(mask);
+        }
+    }
+}
@@ -1,31 +1,129 @@
 package com.github.mwierzchowski.helios.core.weather;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
 
-import javax.validation.constraints.Min;
-import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 /**
- * Represents speed value in given units (see {@link SpeedUnit}).
+ * Represents speed value in given units (see {@link SpeedUnit}). Value is normalized on creation to the fixed-point
+ * number of millimeters per second, which is used for equality and comparisons, so e.g. 36km/h and 10m/s are equal.
+ * Unit is kept only to present the value in the unit it was provided with.
  * @author Marcin Wierzchowski
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class Speed {
+public final class Speed implements Comparable<Speed> {
     /**
-     * Speed value.
+     * Speed in millimeters per second.
      */
-    @NotNull
-    @Min(0)
-    private BigDecimal value;
+    private final long millimetersPerSecond;
 
     /**
      * Speed unit (see {@link SpeedUnit}).
      */
-    @NotNull
-    private SpeedUnit unit;
+    @Getter
+    private final SpeedUnit unit;
+
+    /**
+     * Creates speed of given value in given unit.
+     * @param value speed value
+     * @param unit speed unit
+     * @throws IllegalArgumentException when value is negative
+     */
+    public Speed(@NonNull BigDecimal value, @NonNull SpeedUnit unit) {
+        this(unit, unit.toMillimetersPerSecond(value));
+    }
+
+    /**
+     * Creates speed of given millimeters per second presented in given unit.
+     * @param unit speed unit
+     * @param millimetersPerSecond speed in millimeters per second
+     * @throws IllegalArgumentException when value is negative
+     */
+    private Speed(SpeedUnit unit, long millimetersPerSecond) {
+        if (millimetersPerSecond < 0) {
+            throw new IllegalArgumentException("Speed can not be negative");
+        }
+        this.millimetersPerSecond = millimetersPerSecond;
+        this.unit = unit;
+    }
+
+    /**
+     * Creates speed of given millimeters per second presented in given unit.
+     * @param millimetersPerSecond speed in millimeters per second
+     * @param unit speed unit
+     * @return speed
+     * @throws IllegalArgumentException when value is negative
+     */
+    public static Speed ofMillimetersPerSecond(long millimetersPerSecond, @NonNull SpeedUnit unit) {
+        return new Speed(unit, millimetersPerSecond);
+    }
+
+    /**
+     * Provides speed value in its unit.
+     * @return speed value
+     */
+    public BigDecimal getValue() {
+        return unit.fromMillimetersPerSecond(millimetersPerSecond);
+    }
+
+    /**
+     * Provides speed value in given unit.
+     * @param unit speed unit
+     * @return speed value
+     */
+    public BigDecimal getValue(@NonNull SpeedUnit unit) {
+        return unit.fromMillimetersPerSecond(millimetersPerSecond);
+    }
+
+    /**
+     * Provides speed in millimeters per second.
+     * @return millimeters per second
+     */
+    public long toMillimetersPerSecond() {
+        return millimetersPerSecond;
+    }
+
+    /**
+     * Provides the same speed presented in given unit.
+     * @param unit speed unit
+     * @return speed
+     */
+    public Speed to(@NonNull SpeedUnit unit) {
+        return new Speed(unit, millimetersPerSecond);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Speed other) {
+        return Long.compare(millimetersPerSecond, other.millimetersPerSecond);
+    }
+
+    /**
+     * Compares speeds regardless of units.
+     * @param other other object
+     * @return true if speeds are equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Speed
+                && millimetersPerSecond == ((Speed) other).millimetersPerSecond;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(millimetersPerSecond);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Speed(value=" + getValue() + ", unit=" + unit + ")";
+    }
 }
@@ -2,18 +2,23 @@ package com.github.mwierzchowski.helios.core.weather;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NonNull;
 
+import java.math.BigDecimal;
 import java.util.stream.Stream;
 
+import static java.math.RoundingMode.HALF_UP;
+
 /**
- * Enumeration that represents speed unit.
+ * Enumeration that represents speed unit. Every unit has a conversion to the canonical unit, which is millimeter per
+ * second (see {@link Speed}): <code>mm/s = value * numerator / denominator</code>.
  * @author Marcin Wierzchowski
  */
 @AllArgsConstructor
 public enum SpeedUnit {
-    KILOMETERS_PER_HOUR("km/h"),
-    METERS_PER_SECOND("m/s"),
-    MILES_PER_HOUR("mph");
+    KILOMETERS_PER_HOUR("km/h", 5_000, 18),
+    METERS_PER_SECOND("m/s", 1_000, 1),
+    MILES_PER_HOUR("mph", 11_176, 25);
 
     /**
      * Symbol of unit.
@@ -21,6 +26,16 @@ public enum SpeedUnit {
     @Getter
     private String symbol;
 
+    /**
+     * Numerator of the scale
+     */
+    private long numerator;
+
+    /**
+     * Denominator of the scale
+     */
+    private long denominator;
+
     /**
      * Provides enumeration for given symbol.
      * @param symbol speed unit symbol
@@ -33,4 +48,28 @@ public enum SpeedUnit {
                 .findAny()
                 .orElseThrow(() -> new IllegalArgumentException("Speed unit '" + symbol + "' is not supported"));
     }
+
+    /**
+     * Converts value in this unit to millimeters per second (rounded half up).
+     * @param value value
+     * @return millimeters per second
+     */
+    public long toMillimetersPerSecond(@NonNull BigDecimal value) {
+        return value.multiply(BigDecimal.valueOf(numerator))
+                .divide(BigDecimal.valueOf(denominator), 0, HALF_UP)
+                .longValueExact();
+    }
+
+    /**
+     * Converts millimeters per second to value in this unit, with at most 3 decimal places.
+     * @param millimetersPerSecond millimeters per second
+     * @return value
+     */
+    public BigDecimal fromMillimetersPerSecond(long millimetersPerSecond) {
+        var value = BigDecimal.valueOf(millimetersPerSecond)
+                .multiply(BigDecimal.valueOf(denominator))
+                .divide(BigDecimal.valueOf(numerator), 3, HALF_UP)
+                .stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
 }
@@ -1,29 +1,122 @@
 package com.github.mwierzchowski.helios.core.weather;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
 
-import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
 /**
- * Represents temperature value in given units (see {@link TemperatureUnit}).
+ * Represents temperature value in given units (see {@link TemperatureUnit}). Value is normalized on creation to the
+ * fixed-point number of millikelvins, which is used for equality and comparisons, so e.g. 20.0&deg;C, 20.00&deg;C and
+ * 293.15K are equal. Unit is kept only to present the value in the unit it was provided with.
  * @author Marcin Wierzchowski
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-public class Temperature {
+public final class Temperature implements Comparable<Temperature> {
     /**
-     * Temperature value.
+     * Temperature in millikelvins.
      */
-    @NotNull
-    private BigDecimal value;
+    private final long milliKelvins;
 
     /**
      * Temperature unit (see {@link TemperatureUnit}).
      */
-    @NotNull
-    private TemperatureUnit unit;
+    @Getter
+    private final TemperatureUnit unit;
+
+    /**
+     * Creates temperature of given value in given unit.
+     * @param value temperature value
+     * @param unit temperature unit
+     */
+    public Temperature(@NonNull BigDecimal value, @NonNull TemperatureUnit unit) {
+        this(unit, unit.toMilliKelvins(value));
+    }
+
+    /**
+     * Creates temperature of given millikelvins presented in given unit.
+     * @param unit temperature unit
+     * @param milliKelvins temperature in millikelvins
+     */
+    private Temperature(TemperatureUnit unit, long milliKelvins) {
+        this.milliKelvins = milliKelvins;
+        this.unit = unit;
+    }
+
+    /**
+     * Creates temperature of given millikelvins presented in given unit.
+     * @param milliKelvins temperature in millikelvins
+     * @param unit temperature unit
+     * @return temperature
+     */
+    public static Temperature ofMilliKelvins(long milliKelvins, @NonNull TemperatureUnit unit) {
+        return new Temperature(unit, milliKelvins);
+    }
+
+    /**
+     * Provides temperature value in its unit.
+     * @return temperature value
+     */
+    public BigDecimal getValue() {
+        return unit.fromMilliKelvins(milliKelvins);
+    }
+
+    /**
+     * Provides temperature value in given unit.
+     * @param unit temperature unit
+     * @return temperature value
+     */
+    public BigDecimal getValue(@NonNull TemperatureUnit unit) {
+        return unit.fromMilliKelvins(milliKelvins);
+    }
+
+    /**
+     * Provides temperature in millikelvins.
+     * @return millikelvins
+     */
+    public long toMilliKelvins() {
+        return milliKelvins;
+    }
+
+    /**
+     * Provides the same temperature presented in given unit.
+     * @param unit temperature unit
+     * @return temperature
+     */
+    public Temperature to(@NonNull TemperatureUnit unit) {
+        return new Temperature(unit, milliKelvins);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int compareTo(Temperature other) {
+        return Long.compare(milliKelvins, other.milliKelvins);
+    }
+
+    /**
+     * Compares temperatures regardless of units.
+     * @param other other object
+     * @return true if temperatures are equal
+     */
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof Temperature && milliKelvins == ((Temperature) other).milliKelvins;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return Long.hashCode(milliKelvins);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return "Temperature(value=" + getValue() + ", unit=" + unit + ")";
+    }
 }
@@ -4,17 +4,21 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 
+import java.math.BigDecimal;
 import java.util.stream.Stream;
 
+import static java.math.RoundingMode.HALF_UP;
+
 /**
- * Enumeration that represents temperature units.
+ * Enumeration that represents temperature units. Every unit has a conversion to the canonical unit, which is
+ * millikelvin (see {@link Temperature}): <code>mK = (value * 1000 + shift) * numerator / denominator + offset</code>.
  * @author Marcin Wierzchowski
  */
 @AllArgsConstructor
 public enum TemperatureUnit {
-    CELSIUS('C'),
-    FAHRENHEIT('F'),
-    KELVIN('K');
+    CELSIUS('C', 0, 1, 1, 273_150),
+    FAHRENHEIT('F', -32_000, 5, 9, 273_150),
+    KELVIN('K', 0, 1, 1, 0);
 
     /**
      * Upper case symbol of the unit.
@@ -22,6 +26,26 @@ public enum TemperatureUnit {
     @Getter
     private Character symbol;
 
+    /**
+     * Shift of the value (in thousandths of the unit) applied before scaling
+     */
+    private long shift;
+
+    /**
+     * Numerator of the scale
+     */
+    private long numerator;
+
+    /**
+     * Denominator of the scale
+     */
+    private long denominator;
+
+    /**
+     * Offset in millikelvins applied after scaling
+     */
+    private long offset;
+
     /**
      * Provides enumeration for given symbol.
      * @param symbol temperature unit symbol
@@ -35,4 +59,32 @@ public enum TemperatureUnit {
                 .findAny()
                 .orElseThrow(() -> new IllegalArgumentException("Temperature unit '" + symbol + "' is not supported"));
     }
+
+    /**
+     * Converts value in this unit to millikelvins (rounded half up).
+     * @param value value
+     * @return millikelvins
+     */
+    public long toMilliKelvins(@NonNull BigDecimal value) {
+        return value.movePointRight(3)
+                .add(BigDecimal.valueOf(shift))
+                .multiply(BigDecimal.valueOf(numerator))
+                .divide(BigDecimal.valueOf(denominator), 0, HALF_UP)
+                .longValueExact() + offset;
+    }
+
+    /**
+     * Converts millikelvins to value in this unit, with at most 3 decimal places.
+     * @param milliKelvins millikelvins
+     * @return value
+     */
+    public BigDecimal fromMilliKelvins(long milliKelvins) {
+        var value = BigDecimal.valueOf(milliKelvins - offset)
+                .multiply(BigDecimal.valueOf(denominator))
+                .divide(BigDecimal.valueOf(numerator), 0, HALF_UP)
+                .subtract(BigDecimal.valueOf(shift))
+                .movePointLeft(3)
+                .stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
 }
@@ -64,19 +64,6 @@ public class Weather {
         this.sources.add(source);
     }
 
-    /**
-     * Checks if given weather observation is same as other. Timestamp is ignored as its irrelevant in the
-     * context of weather observation.
-     * @param other weather
-     * @return true if weather observations are the same, otherwise false
-     */
-    public boolean isSameAs(Weather other) {
-        return other != null
-                && this.temperature.equals(other.temperature)
-                && this.wind.equals(other.wind)
-                && this.cloudsCoverage.equals(other.cloudsCoverage);
-    }
-
     /**
      * Updates given weather with other weather conditions.
      * @param other weather to update given one
@@ -0,0 +1,97 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Detector of significant changes of weather. Every metric (see {@link WeatherMetric}) has a deadband, i.e. minimal
+ * change since previously published observation that is significant, and hysteresis, i.e. additional change required
+ * when metric reverses direction of its previously published change (see {@link WeatherProperties#getThresholds()}).
+ * Thanks to that, fluctuations around the value do not cause storm of observations. Metric that appears or disappears
+ * is always a significant change.
+ * @author Marcin Wierzchowski
+ */
+@Component
+@RequiredArgsConstructor
+public class WeatherChangeDetector {
+    /**
+     * Weather properties
+     */
+    private final WeatherProperties weatherProperties;
+
+    /**
+     * Directions (signs) of previously published changes of metrics
+     */
+    private final Map<WeatherMetric, Long> trends = new EnumMap<>(WeatherMetric.class);
+
+    /**
+     * Checks if current weather differs significantly from previously published one.
+     * @param previous previously published weather or null
+     * @param current current weather
+     * @return true if change is significant
+     */
+    public synchronized boolean isChanged(Weather previous, Weather current) {
+        if (previous == null) {
+            return true;
+        }
+        for (var metric : WeatherMetric.values()) {
+            var previousValue = metric.valueOf(previous);
+            var currentValue = metric.valueOf(current);
+            if (previousValue.isEmpty() || currentValue.isEmpty()) {
+                if (previousValue.isPresent() != currentValue.isPresent()) {
+                    return true;
+                }
+                continue;
+            }
+            var change = metric.difference(previousValue.get(), currentValue.get());
+            if (change != 0 && Math.abs(change) >= thresholdOf(metric, change)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Registers published weather, so directions of changes are known for hysteresis.
+     * @param previous previously published weather or null
+     * @param current published weather
+     */
+    public synchronized void published(Weather previous, Weather current) {
+        if (previous == null) {
+            trends.clear();
+            return;
+        }
+        for (var metric : WeatherMetric.values()) {
+            var previousValue = metric.valueOf(previous);
+            var currentValue = metric.valueOf(current);
+            if (previousValue.isPresent() && currentValue.isPresent()) {
+                var change = metric.difference(previousValue.get(), currentValue.get());
+                if (change != 0) {
+                    trends.put(metric, Long.signum(change));
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method that provides minimal significant change of the metric.
+     * @param metric metric
+     * @param change change of the metric
+     * @return deadband, increased by hysteresis when change reverses direction of the previous one
+     */
+    private long thresholdOf(WeatherMetric metric, long change) {
+        var threshold = weatherProperties.getThresholds().get(metric);
+        if (threshold == null) {
+            return 0;
+        }
+        var minimalChange = metric.toCanonical(threshold.getDeadband());
+        var trend = trends.get(metric);
+        if (trend != null && trend != Long.signum(change)) {
+            minimalChange += metric.toCanonical(threshold.getHysteresis());
+        }
+        return minimalChange;
+    }
+}
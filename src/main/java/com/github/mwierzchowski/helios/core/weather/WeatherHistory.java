@@ -0,0 +1,96 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import com.github.mwierzchowski.helios.core.rules.FactSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * History of weather observations kept in memory as time series of every metric (see {@link WeatherMetric} and
+ * {@link WeatherSeries}). Every reading of providers is recorded (see {@link WeatherPublisher#publishWeather()}), not
+ * only published observations. Series are preallocated with the configured capacity, so memory used by the history is
+ * fixed. History is available to rules as a fact.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class WeatherHistory implements FactSource {
+    /**
+     * Name of the fact
+     */
+    public static final String FACT_NAME = WeatherHistory.class.getSimpleName();
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Series of metrics
+     */
+    private final Map<WeatherMetric, WeatherSeries> series = new EnumMap<>(WeatherMetric.class);
+
+    /**
+     * Creates history with series of configured capacity.
+     * @param weatherProperties weather properties
+     * @param clock clock
+     */
+    public WeatherHistory(WeatherProperties weatherProperties, Clock clock) {
+        this.clock = clock;
+        for (var metric : WeatherMetric.values()) {
+            series.put(metric, new WeatherSeries(weatherProperties.getHistoryCapacity(), metric.getPeriod()));
+        }
+    }
+
+    /**
+     * Appends metrics of weather reading to series. Readings without timestamp are skipped.
+     * @param weather weather reading
+     */
+    public void record(Weather weather) {
+        var timestamp = weather.getTimestamp();
+        if (timestamp == null) {
+            return;
+        }
+        series.forEach((metric, metricSeries) -> metric.valueOf(weather)
+                .ifPresent(value -> metricSeries.append(timestamp, value)));
+    }
+
+    /**
+     * Provides series of given metric.
+     * @param metric metric
+     * @return series
+     */
+    public WeatherSeries seriesOf(WeatherMetric metric) {
+        return series.get(metric);
+    }
+
+    /**
+     * Summarizes given metric in the window ending now (inclusive). Convenience method for rules.
+     * @param metric metric
+     * @param window length of the window
+     * @return summary or empty optional if there are no samples in the window
+     */
+    public Optional<WeatherSeries.Summary> summarize(WeatherMetric metric, Duration window) {
+        var to = clock.instant().plusMillis(1);
+        return seriesOf(metric).summarize(to.minus(window), to);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getFactName() {
+        return FACT_NAME;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Object getFact() {
+        return this;
+    }
+}
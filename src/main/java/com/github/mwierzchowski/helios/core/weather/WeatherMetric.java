@@ -0,0 +1,82 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static java.math.RoundingMode.HALF_UP;
+import static java.util.Optional.ofNullable;
+
+/**
+ * Enumeration of weather metrics kept in {@link WeatherHistory}. Values of metrics are fixed-point numbers in
+ * canonical units: temperature in millikelvins (see {@link Temperature}), wind speed in millimeters per second (see
+ * {@link Speed}), wind direction in degrees and clouds coverage in percents.
+ * @author Marcin Wierzchowski
+ */
+@AllArgsConstructor
+public enum WeatherMetric {
+    TEMPERATURE(weather -> ofNullable(weather.getTemperature())
+            .map(Temperature::toMilliKelvins), 3, 0),
+    WIND_SPEED(weather -> ofNullable(weather.getWind())
+            .map(Wind::getSpeed)
+            .map(Speed::toMillimetersPerSecond), 3, 0),
+    WIND_DIRECTION(weather -> ofNullable(weather.getWind())
+            .map(Wind::getDirection)
+            .map(Integer::longValue), 0, 360),
+    CLOUDS_COVERAGE(weather -> ofNullable(weather.getCloudsCoverage())
+            .map(Integer::longValue), 0, 0);
+
+    /**
+     * Function that provides value of the metric from weather
+     */
+    private Function<Weather, Optional<Long>> extractor;
+
+    /**
+     * Number of decimal places of the canonical value (e.g. 3 for millikelvins of kelvins)
+     */
+    private int scale;
+
+    /**
+     * Period of circular metric (e.g. 360 degrees of direction) or 0 if metric is not circular
+     */
+    @Getter
+    private long period;
+
+    /**
+     * Provides value of the metric in canonical unit.
+     * @param weather weather
+     * @return value or empty optional if weather does not provide the metric
+     */
+    public Optional<Long> valueOf(Weather weather) {
+        return extractor.apply(weather);
+    }
+
+    /**
+     * Converts value in base unit of the metric (kelvins or Celsius degrees, meters per second, degrees, percents) to
+     * the canonical fixed-point value.
+     * @param value value in base unit
+     * @return canonical value (rounded half up)
+     */
+    public long toCanonical(BigDecimal value) {
+        return value.movePointRight(scale).setScale(0, HALF_UP).longValueExact();
+    }
+
+    /**
+     * Provides signed change between canonical values. Change of circular metric is the shortest one (e.g. from 350 to
+     * 10 degrees is 20).
+     * @param from previous value
+     * @param to current value
+     * @return change
+     */
+    public long difference(long from, long to) {
+        var difference = to - from;
+        if (period == 0) {
+            return difference;
+        }
+        var half = period / 2;
+        return Math.floorMod(difference + half, period) - half;
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import com.github.mwierzchowski.helios.core.journal.EventCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.readDecimal;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.readEnum;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.readInstant;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.writeDecimal;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.writeEnum;
+import static com.github.mwierzchowski.helios.core.journal.EventCodec.writeInstant;
+
+/**
+ * Journal codec of {@link WeatherObservationEvent}. Events are replayed on startup, so the last observation is known
+ * before weather is fetched again.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class WeatherObservationEventCodec implements EventCodec<WeatherObservationEvent> {
+    @Override
+    public byte getTypeId() {
+        return 1;
+    }
+
+    @Override
+    public Class<WeatherObservationEvent> getEventClass() {
+        return WeatherObservationEvent.class;
+    }
+
+    @Override
+    public boolean isReplayed() {
+        return true;
+    }
+
+    @Override
+    public void encode(WeatherObservationEvent event, DataOutput output) throws IOException {
+        writeWeather(event.getSubject(), output);
+    }
+
+    @Override
+    public WeatherObservationEvent decode(DataInput input) throws IOException {
+        return new WeatherObservationEvent(readWeather(input));
+    }
+
+    /**
+     * Helper method that writes weather.
+     * @param weather weather
+     * @param output output
+     * @throws IOException when output can not be written
+     */
+    static void writeWeather(Weather weather, DataOutput output) throws IOException {
+        output.writeByte(weather.getSources().size());
+        for (String source : weather.getSources()) {
+            output.writeUTF(source);
+        }
+        writeInstant(output, weather.getTimestamp());
+        var temperature = weather.getTemperature();
+        output.writeBoolean(temperature != null);
+        if (temperature != null) {
+            writeDecimal(output, temperature.getValue());
+            writeEnum(output, temperature.getUnit());
+        }
+        var wind = weather.getWind();
+        output.writeBoolean(wind != null);
+        if (wind != null) {
+            var speed = wind.getSpeed();
+            output.writeBoolean(speed != null);
+            if (speed != null) {
+                writeDecimal(output, speed.getValue());
+                writeEnum(output, speed.getUnit());
+            }
+            output.writeShort(wind.getDirection() == null ? -1 : wind.getDirection());
+        }
+        output.writeByte(weather.getCloudsCoverage() == null ? -1 : weather.getCloudsCoverage());
+    }
+
+    /**
+     * Helper method that reads weather.
+     * @param input input
+     * @return weather
+     * @throws IOException when input can not be read
+     */
+    static Weather readWeather(DataInput input) throws IOException {
+        var weather = new Weather();
+        var sources = input.readUnsignedByte();
+        for (int i = 0; i < sources; i++) {
+            weather.setSource(input.readUTF());
+        }
+        weather.setTimestamp(readInstant(input));
+        if (input.readBoolean()) {
+            weather.setTemperature(new Temperature(readDecimal(input), readEnum(input, TemperatureUnit.class)));
+        }
+        if (input.readBoolean()) {
+            var wind = new Wind();
+            if (input.readBoolean()) {
+                wind.setSpeed(new Speed(readDecimal(input), readEnum(input, SpeedUnit.class)));
+            }
+            var direction = input.readShort();
+            wind.setDirection(direction < 0 ? null : (int) direction);
+            weather.setWind(wind);
+        }
+        var cloudsCoverage = input.readByte();
+        weather.setCloudsCoverage(cloudsCoverage < 0 ? null : (int) cloudsCoverage);
+        return weather;
+    }
+}
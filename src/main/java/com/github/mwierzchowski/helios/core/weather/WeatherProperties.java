@@ -1,9 +1,20 @@
 package com.github.mwierzchowski.helios.core.weather;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.CLOUDS_COVERAGE;
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.TEMPERATURE;
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.WIND_DIRECTION;
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.WIND_SPEED;
+
 /**
  * Weather properties.
  * @author Marcin Wierzchowski
@@ -26,4 +37,59 @@ public class WeatherProperties {
      * Deadline in ms for weather observation to be available. After that time, warning will be issued.
      */
     private Long observationDeadline = 15L * 60000; // 15 mins
+
+    /**
+     * Timeout in ms of a single weather provider. Providers are queried concurrently.
+     */
+    private Long providerTimeout = 10000L; // 10 s
+
+    /**
+     * Deadline in ms for all weather providers. Results provided later are discarded.
+     */
+    private Long providersDeadline = 20000L; // 20 s
+
+    /**
+     * Number of samples of every metric kept in weather history. Memory of history is preallocated (16 bytes per
+     * sample of each metric), default keeps a week of readings checked every minute.
+     */
+    private Integer historyCapacity = 7 * 24 * 60;
+
+    /**
+     * Minimal interval in ms between published observations. Significant changes observed earlier are suppressed.
+     */
+    private Long minPublishInterval = 5L * 60000; // 5 mins
+
+    /**
+     * Thresholds of significant changes of metrics (see {@link WeatherChangeDetector}). Values are in kelvins (or
+     * Celsius degrees), meters per second, degrees and percents.
+     */
+    private Map<WeatherMetric, Threshold> thresholds = new EnumMap<>(WeatherMetric.class);
+
+    /**
+     * Creates properties with default thresholds.
+     */
+    public WeatherProperties() {
+        thresholds.put(TEMPERATURE, new Threshold(new BigDecimal("0.5"), new BigDecimal("0.2")));
+        thresholds.put(WIND_SPEED, new Threshold(new BigDecimal("1.0"), new BigDecimal("0.5")));
+        thresholds.put(WIND_DIRECTION, new Threshold(new BigDecimal(20), new BigDecimal(10)));
+        thresholds.put(CLOUDS_COVERAGE, new Threshold(new BigDecimal(10), new BigDecimal(5)));
+    }
+
+    /**
+     * Threshold of significant change of the metric.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Threshold {
+        /**
+         * Minimal significant change since previously published value
+         */
+        private BigDecimal deadband = BigDecimal.ZERO;
+
+        /**
+         * Additional change required when direction of change reverses
+         */
+        private BigDecimal hysteresis = BigDecimal.ZERO;
+    }
 }
@@ -1,7 +1,9 @@
 package com.github.mwierzchowski.helios.core.weather;
 
 import com.github.mwierzchowski.helios.core.commons.EventStore;
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider;
 import com.github.mwierzchowski.helios.core.commons.HeliosEvent;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -9,11 +11,20 @@ import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
- * Component responsible for periodical weather conditions checking and publishing them if conditions change.
+ * Component responsible for periodical weather conditions checking and publishing them if conditions change
+ * significantly.
  * @author Marcin Wierzchowski
  */
 @Component
@@ -35,11 +46,41 @@ public class WeatherPublisher {
      */
     private final EventStore eventStore;
 
+    /**
+     * Executor provider
+     */
+    private final ExecutorProvider executorProvider;
+
+    /**
+     * Meter registry
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Detector of significant weather changes
+     */
+    private final WeatherChangeDetector changeDetector;
+
+    /**
+     * History of weather readings
+     */
+    private final WeatherHistory weatherHistory;
+
     /**
      * Last published event or null when its not available
      */
     private HeliosEvent<Weather> lastEvent;
 
+    /**
+     * Time of the last published event
+     */
+    private Instant lastPublished;
+
+    /**
+     * Last provided weather (published or not) or null when weather was not provided yet
+     */
+    private Weather lastReading;
+
     @PostConstruct
     public void initialize() {
         if (providersNotAvailable()) {
@@ -48,8 +89,9 @@ public class WeatherPublisher {
     }
 
     /**
-     * Scheduled method that executes weather check and publish event. New weather event is published when conditions
-     * have changed. Otherwise no event is published.
+     * Scheduled method that executes weather check and publish event. Every reading is recorded in weather history and
+     * new weather event is published when conditions have changed. Otherwise no event is published. Providers are
+     * queried concurrently, see {@link WeatherPublisher#currentWeather()}.
      */
     @Scheduled(fixedRateString = "#{weatherProperties.checkInterval}",
             initialDelayString = "#{weatherProperties.checkDelayAfterStartup}")
@@ -57,12 +99,11 @@ public class WeatherPublisher {
         if (providersNotAvailable()) {
             return;
         }
-        Weather currentWeather = new Weather();
-        for (var weatherProvider :  weatherProviders) {
-            weatherProvider.currentWeather().ifPresent(currentWeather::update);
-        }
+        Weather currentWeather = currentWeather();
         Optional<HeliosEvent<Weather>> event;
         if (currentWeather.isProvided()) {
+            weatherHistory.record(currentWeather);
+            lastReading = currentWeather;
             event = weatherNotification(currentWeather);
         } else {
             event = missingNotification();
@@ -70,11 +111,72 @@ public class WeatherPublisher {
         event.ifPresent(this::send);
     }
 
+    /**
+     * Helper method that queries all providers concurrently, each with its own timeout, and waits until all of them
+     * respond or the overall deadline passes. Results are merged in order of providers (see
+     * {@link org.springframework.core.annotation.Order}), so later providers take precedence. Results that did not
+     * make it before timeout or deadline are discarded and counted, failures of providers are counted as well.
+     * @return merged weather
+     */
+    private Weather currentWeather() {
+        var futures = new ArrayList<CompletableFuture<Optional<Weather>>>(weatherProviders.size());
+        for (var weatherProvider : weatherProviders) {
+            futures.add(CompletableFuture
+                    .supplyAsync(weatherProvider::currentWeather, executorProvider.ioExecutor())
+                    .orTimeout(weatherProperties.getProviderTimeout(), MILLISECONDS));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(weatherProperties.getProvidersDeadline(), MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.debug("Not all weather providers responded on time: {}", ex.toString());
+        }
+        var weather = new Weather();
+        for (var i = 0; i < futures.size(); i++) {
+            var provider = weatherProviders.get(i).getClass().getSimpleName();
+            var future = futures.get(i);
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+            try {
+                future.getNow(Optional.empty()).ifPresent(weather::update);
+            } catch (CancellationException | CompletionException ex) {
+                if (future.isCancelled() || ex.getCause() instanceof TimeoutException) {
+                    log.warn("Weather provider {} did not respond on time, its result is discarded", provider);
+                    meterRegistry.counter("helios.weather.providers.late", "provider", provider).increment();
+                } else {
+                    log.warn("Weather provider {} failed", provider, ex.getCause());
+                    meterRegistry.counter("helios.weather.providers.failed", "provider", provider).increment();
+                }
+            }
+        }
+        return weather;
+    }
+
+    /**
+     * Helper method that provides observation event when weather has changed significantly (see
+     * {@link WeatherChangeDetector}) and minimal interval since previous observation has passed. Suppressed and
+     * published observations are counted.
+     * @param currentWeather current weather
+     * @return observation event or empty optional when observation is suppressed
+     */
     private Optional<HeliosEvent<Weather>> weatherNotification(Weather currentWeather) {
-        if (currentWeather.isSameAs(previousWeather())) {
-            log.debug("Weather has not changed.");
+        var previousWeather = previousWeather();
+        if (!changeDetector.isChanged(previousWeather, currentWeather)) {
+            log.debug("Weather has not changed significantly.");
+            meterRegistry.counter("helios.weather.observations.suppressed", "reason", "deadband").increment();
+            return Optional.empty();
+        }
+        if (previousWeather != null && Instant.now().isBefore(lastPublished.plusMillis(
+                weatherProperties.getMinPublishInterval()))) {
+            log.debug("Weather has changed, but previous observation was published recently");
+            meterRegistry.counter("helios.weather.observations.suppressed", "reason", "interval").increment();
             return Optional.empty();
         }
+        changeDetector.published(previousWeather, currentWeather);
+        meterRegistry.counter("helios.weather.observations.published").increment();
         log.debug("Weather has changed. New observation: {}", currentWeather);
         HeliosEvent<Weather> event = new WeatherObservationEvent(currentWeather);
         return Optional.of(event);
@@ -86,19 +188,19 @@ public class WeatherPublisher {
             return Optional.empty();
         }
         Instant deadline = Instant.now().minusMillis(weatherProperties.getObservationDeadline());
-        Weather previousWeather = previousWeather();
-        if (previousWeather != null && previousWeather.getTimestamp().isAfter(deadline)) {
+        if (lastReading != null && lastReading.getTimestamp().isAfter(deadline)) {
             log.debug("Weather observation is missing but warning deadline has not been passed yet");
             return Optional.empty();
         }
         log.error("Weather observation is stale");
-        HeliosEvent<Weather> event = new WeatherStaleEvent(previousWeather);
+        HeliosEvent<Weather> event = new WeatherStaleEvent(previousWeather());
         return Optional.of(event);
     }
 
     private void send(HeliosEvent<Weather> event) {
         eventStore.publish(event);
         this.lastEvent = event;
+        this.lastPublished = Instant.now();
     }
 
     private Weather previousWeather() {
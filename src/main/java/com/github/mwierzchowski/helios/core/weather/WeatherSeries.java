@@ -0,0 +1,279 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Time series of a single weather metric (see {@link WeatherMetric}), backed by preallocated ring buffers of primitive
+ * timestamps and fixed-point values. Append is O(1) and overwrites the oldest sample when the buffer is full, so memory
+ * used by the series is fixed. Samples are kept in order of timestamps, so samples of any window are found with binary
+ * search and summarized in a single pass. Values of circular series (e.g. wind direction) are summarized along the
+ * circle, so average is the circular mean and min/max are bounds of the arc of samples around it.
+ * @author Marcin Wierzchowski
+ */
+public class WeatherSeries {
+    /**
+     * Timestamps of samples (epoch millis)
+     */
+    private final long[] timestamps;
+
+    /**
+     * Values of samples
+     */
+    private final long[] values;
+
+    /**
+     * Period of circular values (e.g. 360 degrees of direction) or 0 if values are not circular
+     */
+    private final long period;
+
+    /**
+     * Index of the slot of the next sample
+     */
+    private int next = 0;
+
+    /**
+     * Number of samples in the series
+     */
+    private int size = 0;
+
+    /**
+     * Creates series of given capacity with values that are not circular.
+     * @param capacity maximal number of samples
+     * @throws IllegalArgumentException when capacity is not positive
+     */
+    public WeatherSeries(int capacity) {
+        this(capacity, 0);
+    }
+
+    /**
+     * Creates series of given capacity.
+     * @param capacity maximal number of samples
+     * @param period period of circular values or 0 if values are not circular
+     * @throws IllegalArgumentException when capacity is not positive or period is negative
+     */
+    public WeatherSeries(int capacity, long period) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity of weather series must be positive");
+        }
+        if (period < 0) {
+            throw new IllegalArgumentException("Period of weather series must not be negative");
+        }
+        this.timestamps = new long[capacity];
+        this.values = new long[capacity];
+        this.period = period;
+    }
+
+    /**
+     * Appends sample to the series. Sample older than the latest one is rejected, so the series is always ordered.
+     * @param timestamp timestamp of sample
+     * @param value value of sample
+     * @return true if sample was appended
+     */
+    public synchronized boolean append(Instant timestamp, long value) {
+        var millis = timestamp.toEpochMilli();
+        if (size > 0 && millis < timestampAt(size - 1)) {
+            return false;
+        }
+        timestamps[next] = millis;
+        values[next] = value;
+        next = (next + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * Provides number of samples in the series.
+     * @return number of samples
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Provides maximal number of samples in the series.
+     * @return capacity
+     */
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * Summarizes samples in the given window.
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @return summary or empty optional if there are no samples in the window
+     */
+    public Optional<Summary> summarize(Instant from, Instant to) {
+        return downsample(from, to, 1).stream().findFirst();
+    }
+
+    /**
+     * Splits the given window into equal buckets and summarizes samples in each of them. Buckets without samples are
+     * skipped.
+     * @param from start of the window (inclusive)
+     * @param to end of the window (exclusive)
+     * @param points maximal number of buckets
+     * @return summaries of buckets ordered by time
+     * @throws IllegalArgumentException when number of buckets is not positive
+     */
+    public synchronized List<Summary> downsample(Instant from, Instant to, int points) {
+        if (points < 1) {
+            throw new IllegalArgumentException("Number of points must be positive");
+        }
+        var result = new ArrayList<Summary>();
+        var fromMillis = from.toEpochMilli();
+        var toMillis = to.toEpochMilli();
+        if (toMillis <= fromMillis) {
+            return result;
+        }
+        var step = Math.max(1, (toMillis - fromMillis + points - 1) / points);
+        var end = lowerBound(toMillis);
+        var start = lowerBound(fromMillis);
+        var bucket = Long.MIN_VALUE;
+        for (var i = start; i < end; i++) {
+            var sampleBucket = fromMillis + (timestampAt(i) - fromMillis) / step * step;
+            if (sampleBucket != bucket) {
+                if (i > start) {
+                    result.add(summaryOf(bucket, Math.min(bucket + step, toMillis), start, i));
+                }
+                bucket = sampleBucket;
+                start = i;
+            }
+        }
+        if (end > start) {
+            result.add(summaryOf(bucket, Math.min(bucket + step, toMillis), start, end));
+        }
+        return result;
+    }
+
+    /**
+     * Helper method that summarizes samples of the bucket.
+     * @param from start of the bucket (epoch millis)
+     * @param to end of the bucket (epoch millis)
+     * @param start index of the first sample of the bucket
+     * @param end index of the sample after the last one of the bucket
+     * @return summary
+     */
+    private Summary summaryOf(long from, long to, int start, int end) {
+        var count = end - start;
+        if (period == 0) {
+            long min = Long.MAX_VALUE, max = Long.MIN_VALUE, sum = 0;
+            for (var i = start; i < end; i++) {
+                var value = valueAt(i);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+                sum += value;
+            }
+            return new Summary(from, to, count, min, max, Math.round((double) sum / count));
+        }
+        double sin = 0, cos = 0;
+        for (var i = start; i < end; i++) {
+            var angle = 2 * Math.PI * valueAt(i) / period;
+            sin += Math.sin(angle);
+            cos += Math.cos(angle);
+        }
+        var average = Math.floorMod(Math.round(Math.atan2(sin, cos) * period / (2 * Math.PI)), period);
+        var half = period / 2;
+        long below = 0, above = 0;
+        for (var i = start; i < end; i++) {
+            var deviation = Math.floorMod(valueAt(i) - average + half, period) - half;
+            below = Math.min(below, deviation);
+            above = Math.max(above, deviation);
+        }
+        return new Summary(from, to, count, Math.floorMod(average + below, period),
+                Math.floorMod(average + above, period), average);
+    }
+
+    /**
+     * Helper method that provides timestamp of the sample.
+     * @param index index of sample (0 is the oldest one)
+     * @return timestamp in epoch millis
+     */
+    private long timestampAt(int index) {
+        return timestamps[slotOf(index)];
+    }
+
+    /**
+     * Helper method that provides value of the sample.
+     * @param index index of sample (0 is the oldest one)
+     * @return value
+     */
+    private long valueAt(int index) {
+        return values[slotOf(index)];
+    }
+
+    /**
+     * Helper method that provides slot of the sample in buffers.
+     * @param index index of sample (0 is the oldest one)
+     * @return slot
+     */
+    private int slotOf(int index) {
+        return (next - size + index + timestamps.length) % timestamps.length;
+    }
+
+    /**
+     * Helper method that finds the first sample not older than given timestamp.
+     * @param millis timestamp in epoch millis
+     * @return index of sample or size of the series when there is no such sample
+     */
+    private int lowerBound(long millis) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            var middle = (low + high) >>> 1;
+            if (timestampAt(middle) < millis) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Summary of samples in the window.
+     */
+    @Getter
+    @ToString
+    @RequiredArgsConstructor
+    public static class Summary {
+        /**
+         * Start of the window (epoch millis)
+         */
+        private final long from;
+
+        /**
+         * End of the window (epoch millis)
+         */
+        private final long to;
+
+        /**
+         * Number of samples
+         */
+        private final int count;
+
+        /**
+         * Minimal value (start of the arc of samples for circular series)
+         */
+        private final long min;
+
+        /**
+         * Maximal value (end of the arc of samples for circular series)
+         */
+        private final long max;
+
+        /**
+         * Average value (rounded half up), circular mean for circular series
+         */
+        private final long average;
+    }
+}
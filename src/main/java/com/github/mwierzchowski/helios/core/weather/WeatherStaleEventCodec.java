@@ -0,0 +1,43 @@
+package com.github.mwierzchowski.helios.core.weather;
+
+import com.github.mwierzchowski.helios.core.journal.EventCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import static com.github.mwierzchowski.helios.core.weather.WeatherObservationEventCodec.readWeather;
+import static com.github.mwierzchowski.helios.core.weather.WeatherObservationEventCodec.writeWeather;
+
+/**
+ * Journal codec of {@link WeatherStaleEvent}. Events are replayed on startup, so stale observation is not restored.
+ * @author Marcin Wierzchowski
+ */
+@Component
+public class WeatherStaleEventCodec implements EventCodec<WeatherStaleEvent> {
+    @Override
+    public byte getTypeId() {
+        return 2;
+    }
+
+    @Override
+    public Class<WeatherStaleEvent> getEventClass() {
+        return WeatherStaleEvent.class;
+    }
+
+    @Override
+    public boolean isReplayed() {
+        return true;
+    }
+
+    @Override
+    public void encode(WeatherStaleEvent event, DataOutput output) throws IOException {
+        writeWeather(event.getSubject(), output);
+    }
+
+    @Override
+    public WeatherStaleEvent decode(DataInput input) throws IOException {
+        return new WeatherStaleEvent(readWeather(input));
+    }
+}
@@ -1,17 +1,30 @@
 package com.github.mwierzchowski.helios.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.mwierzchowski.helios.core.commons.EventStore;
 import com.github.mwierzchowski.helios.core.commons.NotFoundException;
 import com.github.mwierzchowski.helios.core.timers.Timer;
+import com.github.mwierzchowski.helios.core.timers.TimerAgenda;
 import com.github.mwierzchowski.helios.core.timers.TimerAlertPublisher;
+import com.github.mwierzchowski.helios.core.timers.TimerBulkStore;
+import com.github.mwierzchowski.helios.core.timers.TimerOccurrenceIndex;
 import com.github.mwierzchowski.helios.core.timers.TimerRemovedEvent;
 import com.github.mwierzchowski.helios.core.timers.TimerRepository;
 import com.github.mwierzchowski.helios.core.timers.TimerSchedule;
+import com.github.mwierzchowski.helios.core.timers.TimersVersion;
 import com.github.mwierzchowski.helios.service.constraint.TimerDescription;
+import com.github.mwierzchowski.helios.service.constraint.Timestamp;
 import com.github.mwierzchowski.helios.service.dto.RequestErrorDto;
 import com.github.mwierzchowski.helios.service.dto.ServiceErrorDto;
+import com.github.mwierzchowski.helios.service.dto.TimerAgendaEntryDto;
 import com.github.mwierzchowski.helios.service.dto.TimerDto;
+import com.github.mwierzchowski.helios.service.dto.TimerImportErrorDto;
+import com.github.mwierzchowski.helios.service.dto.TimerImportReportDto;
+import com.github.mwierzchowski.helios.service.dto.TimerRecordDto;
 import com.github.mwierzchowski.helios.service.dto.TimerScheduleDto;
+import com.github.mwierzchowski.helios.service.ext.ConditionalGet;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -31,7 +44,11 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.validation.annotation.Validated;
 
 import javax.validation.Valid;
+import javax.validation.Validator;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -40,12 +57,28 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.StreamingOutput;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.text.MessageFormat.format;
+import static java.util.stream.Collectors.joining;
 import static java.util.stream.Collectors.toList;
 import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
 import static org.mapstruct.ReportingPolicy.IGNORE;
+import static org.springframework.transaction.annotation.Propagation.NOT_SUPPORTED;
 
 /**
  * Management service for timers.
@@ -73,32 +106,73 @@ public class TimerService {
      */
     private static final TimerMapper MAPPER = Mappers.getMapper(TimerMapper.class);
 
+    /**
+     * Media type of newline delimited JSON used by bulk import and export
+     */
+    private static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Default length of agenda window
+     */
+    private static final Duration AGENDA_WINDOW = Duration.ofDays(1);
+
     /**
      * Timer repository
      */
     private final TimerRepository timerRepository;
 
+    /**
+     * Store for bulk operations on timers
+     */
+    private final TimerBulkStore timerBulkStore;
+
     /**
      * Timer alerts starter
      */
     private final TimerAlertPublisher alertPublisher;
 
+    /**
+     * Index of next timer occurrences
+     */
+    private final TimerOccurrenceIndex occurrenceIndex;
+
+    /**
+     * Global version of timers
+     */
+    private final TimersVersion timersVersion;
+
     /**
      * Events publisher
      */
     private final EventStore eventStore;
 
     /**
-     * Provides list of all registered timers.
+     * Object mapper used by bulk import and export
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Validator of imported timers
+     */
+    private final Validator validator;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Provides list of all registered timers. Response is tagged with timers version (see {@link ConditionalGet}).
      * @return list of timers
      */
     @GET
+    @ConditionalGet
     @Tag(name = "Timers")
     @Operation(summary = "List of timers", description = "Provides list of defined timers")
     public List<TimerDto> getTimers() {
         log.debug("Searching for timers");
         return timerRepository.findAll().stream()
-                .map(MAPPER::toTimerDto)
+                .map(this::toTimerDto)
                 .collect(toList());
     }
 
@@ -119,6 +193,8 @@ public class TimerService {
         }
         var timer = MAPPER.toTimer(timerDto);
         timerRepository.save(timer);
+        occurrenceIndex.describe(timer);
+        timersVersion.bumpAfterCommit();
     }
 
     /**
@@ -139,6 +215,8 @@ public class TimerService {
         }
         var timer = foundTimer.get();
         timerRepository.delete(timer);
+        timersVersion.bumpAfterCommit();
+        alertPublisher.stopAlertsAfterCommit(timer);
         var timerRemovedEvent = new TimerRemovedEvent(timer);
         eventStore.publish(timerRemovedEvent);
     }
@@ -172,14 +250,56 @@ public class TimerService {
         }
         timer.setDescription(newDescription);
         timerRepository.save(timer);
+        occurrenceIndex.describe(timer);
+        timersVersion.bumpAfterCommit();
     }
 
     /**
-     * Provides list of timer schedules.
+     * Provides upcoming alerts of all timers in the given window, ordered by time. Alerts are computed lazily and
+     * streamed, so only the requested number of alerts is computed.
+     * @param from start of the window (inclusive), now by default
+     * @param to end of the window (exclusive), 24h after start by default
+     * @param limit maximal number of alerts
+     * @return streamed list of alerts
+     */
+    @GET
+    @Path("/agenda")
+    @Tag(name = "Timers")
+    @Operation(summary = "Agenda of timers", description = "Provides upcoming alerts of all timers ordered by time")
+    public StreamingOutput getAgenda(
+            @QueryParam("from") @Timestamp
+            @Parameter(description = "Start of window (default now)", example = "2020-04-06T00:00:00Z") String from,
+            @QueryParam("to") @Timestamp
+            @Parameter(description = "End of window (default 24h after start)", example = "2020-04-07T00:00:00Z")
+                    String to,
+            @QueryParam("limit") @DefaultValue("100") @Min(1) @Max(10000)
+            @Parameter(description = "Maximal number of alerts", example = "100") Integer limit) {
+        var fromInstant = from == null ? clock.instant() : Instant.parse(from);
+        var toInstant = to == null ? fromInstant.plus(AGENDA_WINDOW) : Instant.parse(to);
+        log.debug("Searching for agenda of timers between {} and {}", fromInstant, toInstant);
+        var schedules = timerRepository.findAllScheduled().stream()
+                .flatMap(timer -> timer.getSchedules().stream())
+                .collect(toList());
+        var agenda = new TimerAgenda(schedules, fromInstant, toInstant, clock.getZone());
+        return output -> {
+            try (var generator = objectMapper.getFactory().createGenerator(output)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.writeStartArray();
+                for (var count = 0; count < limit && agenda.hasNext(); count++) {
+                    generator.writeObject(toAgendaEntryDto(agenda.next()));
+                }
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    /**
+     * Provides list of timer schedules. Response is tagged with timers version (see {@link ConditionalGet}).
      * @param timerId id of timer
      * @return list of schedules
      */
     @GET
+    @ConditionalGet
     @Path("/{timerId}/schedules")
     @Tag(name = "Timer Schedules")
     @Operation(summary = "List of timer's schedules", description = "Provides list of timer's schedules")
@@ -221,7 +341,8 @@ public class TimerService {
         }
         timer.add(schedule);
         timerRepository.save(timer);
-        alertPublisher.startAlertFor(timer);
+        timersVersion.bumpAfterCommit();
+        alertPublisher.startAlertsAfterCommit(List.of(timer));
     }
 
     /**
@@ -246,6 +367,145 @@ public class TimerService {
         }
         timer.getSchedules().remove(foundSchedule.get());
         timerRepository.save(timer);
+        timersVersion.bumpAfterCommit();
+        alertPublisher.stopAlertsAfterCommit(List.of(foundSchedule.get()));
+    }
+
+    /**
+     * Streams all timers with their schedules as newline delimited JSON (one timer per line). Timers are loaded in
+     * batches while the response is written, so the whole list is never kept in memory.
+     * @return streamed timers
+     */
+    @GET
+    @Path("/export")
+    @Produces(NDJSON)
+    @Tag(name = "Timers")
+    @Transactional(propagation = NOT_SUPPORTED)
+    @Operation(summary = "Export timers", description = "Streams timers with schedules as NDJSON (timer per line)")
+    public StreamingOutput exportTimers() {
+        log.debug("Exporting timers");
+        return output -> {
+            timerBulkStore.forEach(timer -> {
+                try {
+                    output.write(objectMapper.writeValueAsBytes(MAPPER.toTimerRecordDto(timer)));
+                    output.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            output.flush();
+        };
+    }
+
+    /**
+     * Imports timers with their schedules from newline delimited JSON (one timer per line, in the format of
+     * export). Lines are parsed, validated and checked for overlapping schedules in memory. Invalid lines and lines
+     * with timers that already exist are rejected and reported, other timers are persisted in JDBC batches and their
+     * alerts are started once, after the import is committed.
+     * @param input timers in NDJSON format
+     * @return import report
+     * @throws IOException when input can not be read
+     */
+    @POST
+    @Path("/import")
+    @Consumes(NDJSON)
+    @Tag(name = "Timers")
+    @Operation(summary = "Import timers", description = "Imports timers with schedules from NDJSON (timer per line)")
+    public TimerImportReportDto importTimers(@RequestBody(description = "Timers to be imported") InputStream input)
+            throws IOException {
+        log.debug("Importing timers");
+        var report = new TimerImportReportDto();
+        var descriptions = new HashSet<>(timerRepository.findAllDescriptions());
+        var timers = new ArrayList<Timer>();
+        var reader = new BufferedReader(new InputStreamReader(input, UTF_8));
+        var lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                var timer = timerOf(line, descriptions);
+                descriptions.add(timer.getDescription());
+                timers.add(timer);
+                report.setImportedSchedules(report.getImportedSchedules() + timer.getSchedules().size());
+            } catch (IllegalArgumentException ex) {
+                log.warn("Rejected line {} of timers import: {}", lineNumber, ex.getMessage());
+                report.getErrors().add(new TimerImportErrorDto(lineNumber, ex.getMessage()));
+            }
+        }
+        timerBulkStore.persistAll(timers);
+        alertPublisher.startAlertsAfterCommit(timers);
+        timersVersion.bumpAfterCommit();
+        report.setImportedTimers(timers.size());
+        log.info("Imported {} timers with {} schedules, rejected {} lines", report.getImportedTimers(),
+                report.getImportedSchedules(), report.getErrors().size());
+        return report;
+    }
+
+    /**
+     * Helper method that creates new timer from the line of import.
+     * @throws IllegalArgumentException when line is invalid, timer exists or its schedules are overlapping
+     * @param line line with timer in JSON format
+     * @param descriptions descriptions of existing timers
+     * @return timer
+     */
+    private Timer timerOf(String line, Set<String> descriptions) {
+        TimerRecordDto recordDto;
+        try {
+            recordDto = objectMapper.readValue(line, TimerRecordDto.class);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+        var violations = validator.validate(recordDto);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(joining(", ")));
+        }
+        if (descriptions.contains(recordDto.getDescription())) {
+            throw new IllegalArgumentException(format("Timer ''{0}'' already exists", recordDto.getDescription()));
+        }
+        var timer = MAPPER.toTimer(recordDto);
+        for (TimerScheduleDto scheduleDto : recordDto.getSchedules()) {
+            var schedule = MAPPER.toTimerSchedule(scheduleDto);
+            if (timer.hasSame(schedule)) {
+                continue;
+            }
+            if (timer.hasOverlapping(schedule)) {
+                throw new IllegalArgumentException(format("Schedules of timer ''{0}'' are overlapping: {1}",
+                        recordDto.getDescription(), schedule.getDays()));
+            }
+            timer.add(schedule);
+        }
+        return timer;
+    }
+
+    /**
+     * Helper method that maps timer to DTO with the next alert taken from occurrence index.
+     * @param timer timer
+     * @return timer DTO
+     */
+    private TimerDto toTimerDto(Timer timer) {
+        var timerDto = MAPPER.toTimerDto(timer);
+        timerDto.setNextAlert(occurrenceIndex.nearestOccurrenceOf(timer.getId()).orElse(null));
+        return timerDto;
+    }
+
+    /**
+     * Helper method that maps alert of agenda to DTO.
+     * @param entry alert of agenda
+     * @return agenda entry DTO
+     */
+    private TimerAgendaEntryDto toAgendaEntryDto(TimerAgenda.Entry entry) {
+        var entryDto = new TimerAgendaEntryDto();
+        entryDto.setTimerId(entry.getSchedule().getTimer().getId());
+        entryDto.setDescription(entry.getSchedule().getTimer().getDescription());
+        entryDto.setScheduleId(entry.getSchedule().getId());
+        entryDto.setAlert(entry.getInstant());
+        return entryDto;
     }
 
     /**
@@ -256,6 +516,10 @@ public class TimerService {
         @Mapping(target = "id", ignore = true)
         Timer toTimer(TimerDto timerDto);
 
+        @Mapping(target = "id", ignore = true)
+        @Mapping(target = "schedules", ignore = true)
+        Timer toTimer(TimerRecordDto recordDto);
+
         @Mapping(target = "id", ignore = true)
         TimerSchedule toTimerSchedule(TimerScheduleDto scheduleDto);
 
@@ -263,5 +527,7 @@ public class TimerService {
         TimerDto toTimerDto(Timer timer);
 
         TimerScheduleDto toTimerScheduleDto(TimerSchedule schedule);
+
+        TimerRecordDto toTimerRecordDto(Timer timer);
     }
 }
@@ -0,0 +1,150 @@
+package com.github.mwierzchowski.helios.service;
+
+import com.github.mwierzchowski.helios.core.weather.SpeedUnit;
+import com.github.mwierzchowski.helios.core.weather.TemperatureUnit;
+import com.github.mwierzchowski.helios.core.weather.WeatherHistory;
+import com.github.mwierzchowski.helios.core.weather.WeatherMetric;
+import com.github.mwierzchowski.helios.core.weather.WeatherSeries;
+import com.github.mwierzchowski.helios.service.constraint.Timestamp;
+import com.github.mwierzchowski.helios.service.dto.RequestErrorDto;
+import com.github.mwierzchowski.helios.service.dto.ServiceErrorDto;
+import com.github.mwierzchowski.helios.service.dto.WeatherSummaryDto;
+import io.swagger.v3.oas.annotations.OpenAPIDefinition;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND;
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS;
+import static java.util.stream.Collectors.toList;
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON;
+
+/**
+ * Service for weather observations.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Service
+@Validated
+@RequiredArgsConstructor
+@OpenAPIDefinition(tags = {@Tag(name = "Weather", description = "Weather observations")})
+@ApiResponse(description = "Success")
+@ApiResponse(description = "Bad request", responseCode = "4xx",
+        content = @Content(schema = @Schema(implementation = RequestErrorDto.class)))
+@ApiResponse(description = "Service failure", responseCode = "5xx",
+        content = @Content(schema = @Schema(implementation = ServiceErrorDto.class)))
+@Path("/v1/weather")
+@Produces(APPLICATION_JSON)
+public class WeatherService {
+    /**
+     * Default length of history window
+     */
+    private static final Duration HISTORY_WINDOW = Duration.ofDays(1);
+
+    /**
+     * Weather history
+     */
+    private final WeatherHistory weatherHistory;
+
+    /**
+     * Clock
+     */
+    private final Clock clock;
+
+    /**
+     * Provides history of weather metric downsampled to the requested number of points. Temperatures and wind speeds
+     * are provided in the requested unit (Celsius and meters per second by default), wind direction in degrees and
+     * clouds coverage in percents.
+     * @param metric weather metric
+     * @param from start of the window (inclusive), 24h before end by default
+     * @param to end of the window (exclusive), now by default
+     * @param points maximal number of points
+     * @param unit unit of temperature or wind speed
+     * @return summaries of metric ordered by time
+     */
+    @GET
+    @Path("/history/{metric}")
+    @Tag(name = "Weather")
+    @Operation(summary = "History of weather", description = "Provides downsampled history of weather metric")
+    public List<WeatherSummaryDto> getHistory(
+            @PathParam("metric") @Parameter(description = "Weather metric", example = "TEMPERATURE")
+                    WeatherMetric metric,
+            @QueryParam("from") @Timestamp
+            @Parameter(description = "Start of window (default 24h before end)", example = "2020-04-06T00:00:00Z")
+                    String from,
+            @QueryParam("to") @Timestamp
+            @Parameter(description = "End of window (default now)", example = "2020-04-07T00:00:00Z") String to,
+            @QueryParam("points") @DefaultValue("100") @Min(1) @Max(1000)
+            @Parameter(description = "Maximal number of points", example = "100") Integer points,
+            @QueryParam("unit") @Pattern(regexp = "C|F|K|km/h|m/s|mph")
+            @Parameter(description = "Unit of temperature or wind speed", example = "C") String unit) {
+        var toInstant = to == null ? clock.instant() : Instant.parse(to);
+        var fromInstant = from == null ? toInstant.minus(HISTORY_WINDOW) : Instant.parse(from);
+        log.debug("Searching for history of {} between {} and {}", metric, fromInstant, toInstant);
+        var converter = converterOf(metric, unit);
+        return weatherHistory.seriesOf(metric).downsample(fromInstant, toInstant, points).stream()
+                .map(summary -> toSummaryDto(summary, converter))
+                .collect(toList());
+    }
+
+    /**
+     * Helper method that provides converter of metric values to the requested unit. Unit that does not apply to the
+     * metric is ignored.
+     * @param metric weather metric
+     * @param unit symbol of unit or null
+     * @return converter
+     */
+    private LongFunction<BigDecimal> converterOf(WeatherMetric metric, String unit) {
+        switch (metric) {
+            case TEMPERATURE:
+                var temperatureUnit = unit != null && unit.length() == 1
+                        ? TemperatureUnit.ofSymbol(unit.charAt(0)) : CELSIUS;
+                return temperatureUnit::fromMilliKelvins;
+            case WIND_SPEED:
+                var speedUnit = unit != null && unit.length() > 1 ? SpeedUnit.ofSymbol(unit) : METERS_PER_SECOND;
+                return speedUnit::fromMillimetersPerSecond;
+            default:
+                return BigDecimal::valueOf;
+        }
+    }
+
+    /**
+     * Helper method that maps summary to DTO.
+     * @param summary summary of metric
+     * @param converter converter of values
+     * @return summary DTO
+     */
+    private WeatherSummaryDto toSummaryDto(WeatherSeries.Summary summary, LongFunction<BigDecimal> converter) {
+        var summaryDto = new WeatherSummaryDto();
+        summaryDto.setFrom(Instant.ofEpochMilli(summary.getFrom()));
+        summaryDto.setTo(Instant.ofEpochMilli(summary.getTo()));
+        summaryDto.setCount(summary.getCount());
+        summaryDto.setMin(converter.apply(summary.getMin()));
+        summaryDto.setMax(converter.apply(summary.getMax()));
+        summaryDto.setAverage(converter.apply(summary.getAverage()));
+        return summaryDto;
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.mwierzchowski.helios.service.constraint;
+
+import javax.validation.Constraint;
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.ElementType.TYPE_USE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.time.Instant.parse;
+
+/**
+ * Constraint for Strings that should contain timestamp (instant in ISO format).
+ * @author Marcin Wierzchowski
+ */
+@Target({METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER, TYPE_USE})
+@Retention(RUNTIME)
+@Documented
+@Constraint(validatedBy = Timestamp.Validator.class)
+public @interface Timestamp {
+    String message() default "{helios.constraints.Timestamp}";
+    Class<?>[] groups() default {};
+    Class<? extends Payload>[] payload() default {};
+
+    /**
+     * Validator implementation
+     */
+    class Validator implements ConstraintValidator<Timestamp, String> {
+        /**
+         * Main validator method
+         * @param timestampValue string with timestamp
+         * @param context validation context
+         * @return validation result
+         */
+        @Override
+        public boolean isValid(String timestampValue, ConstraintValidatorContext context) {
+            return timestampValue == null || isParsable(timestampValue);
+        }
+
+        /**
+         * Helper method that checks if string can be parsed to {@link java.time.Instant}.
+         * @param timestampValue string to check
+         * @return true if parsable, false otherwise
+         */
+        boolean isParsable(String timestampValue) {
+            try {
+                return parse(timestampValue) != null;
+            } catch (Exception ex) {
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.mwierzchowski.helios.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.time.Instant;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+/**
+ * DTO for alerts of timers agenda.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class TimerAgendaEntryDto {
+    /**
+     * Id of timer
+     */
+    @Schema(description = "Id of timer", example = "1", accessMode = READ_ONLY)
+    private Integer timerId;
+
+    /**
+     * Description of timer
+     */
+    @Schema(description = "Description of timer", example = "Wake up", accessMode = READ_ONLY)
+    private String description;
+
+    /**
+     * Id of schedule
+     */
+    @Schema(description = "Id of schedule", example = "1", accessMode = READ_ONLY)
+    private Integer scheduleId;
+
+    /**
+     * Timestamp of the alert
+     */
+    @Schema(description = "Timestamp of the alert", example = "2020-04-06T06:30:00Z", accessMode = READ_ONLY)
+    private Instant alert;
+}
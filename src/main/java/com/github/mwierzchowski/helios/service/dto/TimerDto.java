@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 
 import javax.validation.constraints.NotNull;
+import java.time.Instant;
 
 import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
 
@@ -33,4 +34,10 @@ public class TimerDto {
      */
     @Schema(description = "Flag informing that timer has schedules", example = "true", accessMode = READ_ONLY)
     private Boolean scheduled;
+
+    /**
+     * Timestamp of the next alert of timer (null if timer is not scheduled).
+     */
+    @Schema(description = "Timestamp of the next alert", example = "2020-04-06T06:30:00Z", accessMode = READ_ONLY)
+    private Instant nextAlert;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.github.mwierzchowski.helios.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+/**
+ * DTO for error of a single line of timers import.
+ * @author Marcin Wierzchowski
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimerImportErrorDto {
+    /**
+     * Number of line (starting from 1)
+     */
+    @Schema(description = "Number of line", example = "3", accessMode = READ_ONLY)
+    private Integer line;
+
+    /**
+     * Error message
+     */
+    @Schema(description = "Error message", example = "Timer 'Wake up' already exists", accessMode = READ_ONLY)
+    private String message;
+}
@@ -0,0 +1,34 @@
+package com.github.mwierzchowski.helios.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+/**
+ * DTO for report of timers import.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class TimerImportReportDto {
+    /**
+     * Number of imported timers
+     */
+    @Schema(description = "Number of imported timers", example = "10", accessMode = READ_ONLY)
+    private Integer importedTimers = 0;
+
+    /**
+     * Number of imported schedules
+     */
+    @Schema(description = "Number of imported schedules", example = "20", accessMode = READ_ONLY)
+    private Integer importedSchedules = 0;
+
+    /**
+     * Errors of rejected lines
+     */
+    @Schema(description = "Errors of rejected lines", accessMode = READ_ONLY)
+    private List<TimerImportErrorDto> errors = new ArrayList<>();
+}
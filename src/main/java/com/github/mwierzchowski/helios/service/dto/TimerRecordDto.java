@@ -0,0 +1,40 @@
+package com.github.mwierzchowski.helios.service.dto;
+
+import com.github.mwierzchowski.helios.service.constraint.TimerDescription;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+/**
+ * DTO for timer with its schedules, used as a single line of bulk import and export.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class TimerRecordDto {
+    /**
+     * Timer id (ignored on import)
+     */
+    @Schema(description = "Id of timer", example = "1", accessMode = READ_ONLY)
+    private Integer id;
+
+    /**
+     * Timer description
+     */
+    @NotNull
+    @TimerDescription
+    @Schema(description = "Unique description of timer", example = "Wake up")
+    private String description;
+
+    /**
+     * Timer schedules
+     */
+    @NotNull
+    @Schema(description = "Schedules of timer")
+    private List<@NotNull @Valid TimerScheduleDto> schedules = new ArrayList<>();
+}
@@ -0,0 +1,52 @@
+package com.github.mwierzchowski.helios.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+/**
+ * DTO for summary of weather metric in the window of time.
+ * @author Marcin Wierzchowski
+ */
+@Data
+public class WeatherSummaryDto {
+    /**
+     * Start of the window
+     */
+    @Schema(description = "Start of the window", example = "2020-04-06T06:00:00Z", accessMode = READ_ONLY)
+    private Instant from;
+
+    /**
+     * End of the window
+     */
+    @Schema(description = "End of the window", example = "2020-04-06T06:15:00Z", accessMode = READ_ONLY)
+    private Instant to;
+
+    /**
+     * Number of observations
+     */
+    @Schema(description = "Number of observations", example = "3", accessMode = READ_ONLY)
+    private Integer count;
+
+    /**
+     * Minimal value
+     */
+    @Schema(description = "Minimal value", example = "11.5", accessMode = READ_ONLY)
+    private BigDecimal min;
+
+    /**
+     * Maximal value
+     */
+    @Schema(description = "Maximal value", example = "12.25", accessMode = READ_ONLY)
+    private BigDecimal max;
+
+    /**
+     * Average value
+     */
+    @Schema(description = "Average value", example = "11.9", accessMode = READ_ONLY)
+    private BigDecimal average;
+}
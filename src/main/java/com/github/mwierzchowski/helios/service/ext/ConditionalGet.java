@@ -0,0 +1,18 @@
+package com.github.mwierzchowski.helios.service.ext;
+
+import javax.ws.rs.NameBinding;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks resource methods which representations depend only on timers, so they support conditional requests (see
+ * {@link ConditionalGetFilter}).
+ * @author Marcin Wierzchowski
+ */
+@NameBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+}
@@ -0,0 +1,145 @@
+package com.github.mwierzchowski.helios.service.ext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.mwierzchowski.helios.core.timers.TimersVersion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.Provider;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static javax.ws.rs.core.MediaType.APPLICATION_JSON_TYPE;
+
+/**
+ * Filter that supports conditional GET of timers representations (see {@link ConditionalGet}). Strong ETag of the
+ * response is the global version of timers (see {@link TimersVersion}). When request has matching If-None-Match
+ * header, 304 is returned before resource method is called, so database is not touched. Serialized body of every
+ * representation is cached together with the version, so it is served again without loading and mapping entities
+ * until the version changes. Number of cached representations is bounded (least recently used are evicted), so
+ * clients can not grow the cache with arbitrary query strings.
+ * @author Marcin Wierzchowski
+ */
+@Slf4j
+@Provider
+@Component
+@ConditionalGet
+@RequiredArgsConstructor
+public class ConditionalGetFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    /**
+     * Name of request property with version for which request is processed
+     */
+    private static final String VERSION_PROPERTY = ConditionalGetFilter.class.getName() + ".version";
+
+    /**
+     * Maximal number of cached representations
+     */
+    static final int MAX_CACHED_RESPONSES = 64;
+
+    /**
+     * Cached responses by representation (request path with query), in access order
+     */
+    private final Map<String, CachedResponse> cachedResponses = Collections.synchronizedMap(
+            new LinkedHashMap<>(MAX_CACHED_RESPONSES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                    return size() > MAX_CACHED_RESPONSES;
+                }
+            });
+
+    /**
+     * Global version of timers
+     */
+    private final TimersVersion timersVersion;
+
+    /**
+     * Object mapper
+     */
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Request filter method. It aborts request with 304 when representation was not modified or with the cached
+     * body when it is still valid.
+     * @param requestContext request
+     */
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        if (!HttpMethod.GET.equals(requestContext.getMethod())) {
+            return;
+        }
+        var version = timersVersion.current();
+        var entityTag = new EntityTag(version);
+        var notModified = requestContext.getRequest().evaluatePreconditions(entityTag);
+        if (notModified != null) {
+            log.debug("Representation {} not modified", representationOf(requestContext));
+            requestContext.abortWith(notModified.tag(entityTag).build());
+            return;
+        }
+        var cached = cachedResponses.get(representationOf(requestContext));
+        if (cached != null && cached.version.equals(version)) {
+            requestContext.abortWith(Response.ok(cached.body, APPLICATION_JSON_TYPE).tag(entityTag).build());
+            return;
+        }
+        requestContext.setProperty(VERSION_PROPERTY, version);
+    }
+
+    /**
+     * Response filter method. It serializes the body, tags it and caches it, unless version has changed while the
+     * response was prepared.
+     * @param requestContext request
+     * @param responseContext response
+     * @throws IOException when body can not be serialized
+     */
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        var version = (String) requestContext.getProperty(VERSION_PROPERTY);
+        if (version == null || responseContext.getStatus() != Response.Status.OK.getStatusCode()
+                || !responseContext.hasEntity()) {
+            return;
+        }
+        var body = objectMapper.writeValueAsBytes(responseContext.getEntity());
+        responseContext.setEntity(body, responseContext.getEntityAnnotations(), APPLICATION_JSON_TYPE);
+        responseContext.getHeaders().putSingle(HttpHeaders.ETAG, new EntityTag(version));
+        if (version.equals(timersVersion.current())) {
+            cachedResponses.put(representationOf(requestContext), new CachedResponse(version, body));
+        }
+    }
+
+    /**
+     * Helper method that provides key of the representation.
+     * @param requestContext request
+     * @return request path with query
+     */
+    private String representationOf(ContainerRequestContext requestContext) {
+        var uri = requestContext.getUriInfo().getRequestUri();
+        return uri.getRawQuery() == null ? uri.getRawPath() : uri.getRawPath() + "?" + uri.getRawQuery();
+    }
+
+    /**
+     * Serialized body of representation.
+     */
+    @RequiredArgsConstructor
+    private static class CachedResponse {
+        /**
+         * Version of timers
+         */
+        private final String version;
+
+        /**
+         * Serialized body
+         */
+        private final byte[] body;
+    }
+}
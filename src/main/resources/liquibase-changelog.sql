@@ -20,3 +20,53 @@ create table timer_schedule (
     updated timestamp not null,
     version int not null
 );
+
+--changeset mwierzchowski:convert-timer-schedule-days-to-mask
+alter table timer_schedule add column days_mask smallint;
+update timer_schedule set days_mask = (
+    select coalesce(bit_or(1 << (day::int - 1)), 0)
+    from unnest(string_to_array(timer_schedule.days, ',')) as day
+    where day <> ''
+);
+alter table timer_schedule drop column days;
+alter table timer_schedule rename column days_mask to days;
+alter table timer_schedule alter column days set not null;
+
+--changeset mwierzchowski:create-timer-cluster-tables
+create table timer_node (
+    id varchar(64) primary key,
+    expires timestamp not null
+);
+
+create table timer_lease (
+    partition_id int primary key,
+    owner varchar(64),
+    expires timestamp
+);
+
+create table timer_firing (
+    schedule_id int not null,
+    occurrence timestamp not null,
+    node varchar(64) not null,
+    fired timestamp not null,
+    primary key (schedule_id, occurrence)
+);
+create index timer_firing_occurrence_idx on timer_firing (occurrence);
+
+--changeset mwierzchowski:create-sun-ephemeris-table
+create table sun_ephemeris (
+    latitude double precision not null,
+    longitude double precision not null,
+    day date not null,
+    type varchar(16) not null,
+    time bigint not null,
+    primary key (latitude, longitude, day, type)
+);
+create index sun_ephemeris_day_idx on sun_ephemeris (day);
+
+--changeset mwierzchowski:create-timers-version-table
+create table timers_version (
+    id int primary key,
+    writes bigint not null
+);
+insert into timers_version (id, writes) values (1, 0);
@@ -0,0 +1,53 @@
+package com.github.mwierzchowski.helios.adapter.commons
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+
+class HttpTransportSpec extends Specification {
+    def meterRegistry = new SimpleMeterRegistry()
+    def properties = new HttpProperties().tap {
+        it.maxConnections = 7
+        it.services = ["slow": new HttpProperties.Timeouts().tap { it.read = Duration.ofSeconds(30) }]
+    }
+
+    @Subject
+    def transport = new HttpTransport(properties, meterRegistry)
+
+    def cleanup() {
+        transport.close()
+    }
+
+    def "Should provide REST template with default timeouts"() {
+        when:
+        def requestConfig = transport.restTemplate("fast").requestFactory.requestConfig
+        then:
+        requestConfig.connectTimeout == 5000
+        requestConfig.socketTimeout == 10000
+        requestConfig.connectionRequestTimeout == 5000
+    }
+
+    def "Should provide REST template with timeouts of the service"() {
+        when:
+        def requestConfig = transport.restTemplate("slow").requestFactory.requestConfig
+        then:
+        requestConfig.socketTimeout == 30000
+    }
+
+    def "Should share HTTP client between services"() {
+        when:
+        def slowClient = transport.restTemplate("slow").requestFactory.httpClient
+        def fastClient = transport.restTemplate("fast").requestFactory.httpClient
+        then:
+        slowClient.is(fastClient)
+    }
+
+    def "Should provide metrics of connection pool"() {
+        expect:
+        meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", HttpTransport.CLIENT_NAME)
+                .gauge().value() == 7
+    }
+}
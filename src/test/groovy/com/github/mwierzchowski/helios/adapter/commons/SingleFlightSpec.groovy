@@ -0,0 +1,111 @@
+package com.github.mwierzchowski.helios.adapter.commons
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+
+import static com.github.mwierzchowski.helios.adapter.commons.SingleFlight.CALLS_METRIC
+
+class SingleFlightSpec extends Specification {
+    def meterRegistry = new SimpleMeterRegistry()
+    def executor = Executors.newCachedThreadPool()
+
+    @Subject
+    def singleFlight = new SingleFlight<String, String>("test", meterRegistry)
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "Should execute concurrent calls of the same key once"() {
+        given:
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def executions = new AtomicInteger()
+        def leader = CompletableFuture.supplyAsync({
+            singleFlight.execute("key") {
+                executions.incrementAndGet()
+                started.countDown()
+                release.await()
+                "result"
+            }
+        }, executor)
+        started.await()
+        when:
+        def followers = (1..5).collect {
+            CompletableFuture.supplyAsync({
+                singleFlight.execute("key") { executions.incrementAndGet(); "other" }
+            }, executor)
+        }
+        while (calls("follower") < 5) {
+            sleep(10)
+        }
+        release.countDown()
+        then:
+        leader.get() == "result"
+        followers*.get() == ["result"] * 5
+        executions.get() == 1
+        calls("leader") == 1
+        singleFlight.inFlight() == 0
+    }
+
+    def "Should execute calls of different keys independently"() {
+        when:
+        def results = ["a", "b"].collect { key -> singleFlight.execute(key) { key.toUpperCase() } }
+        then:
+        results == ["A", "B"]
+        calls("leader") == 2
+        calls("follower") == 0
+    }
+
+    def "Should execute call again when previous one is completed"() {
+        when:
+        singleFlight.execute("key") { "first" }
+        def result = singleFlight.execute("key") { "second" }
+        then:
+        result == "second"
+        calls("leader") == 2
+    }
+
+    def "Should propagate exception of the call to followers"() {
+        given:
+        def started = new CountDownLatch(1)
+        def release = new CountDownLatch(1)
+        def leader = CompletableFuture.supplyAsync({
+            singleFlight.execute("key") {
+                started.countDown()
+                release.await()
+                throw new IllegalStateException("Test")
+            }
+        }, executor)
+        started.await()
+        def follower = CompletableFuture.supplyAsync({ singleFlight.execute("key") { "other" } }, executor)
+        while (calls("follower") < 1) {
+            sleep(10)
+        }
+        when:
+        release.countDown()
+        follower.get()
+        then:
+        def ex = thrown(ExecutionException)
+        ex.cause instanceof IllegalStateException
+        when:
+        leader.get()
+        then:
+        ex = thrown(ExecutionException)
+        ex.cause instanceof IllegalStateException
+        singleFlight.inFlight() == 0
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def calls(String role) {
+        meterRegistry.get(CALLS_METRIC).tag("name", "test").tag("role", role).counter().count()
+    }
+}
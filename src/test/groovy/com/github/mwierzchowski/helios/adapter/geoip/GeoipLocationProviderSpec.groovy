@@ -1,12 +1,14 @@
 package com.github.mwierzchowski.helios.adapter.geoip
 
 import com.github.mwierzchowski.helios.LiteIntegrationSpec
+import com.github.mwierzchowski.helios.adapter.commons.HttpProperties
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport
 import org.springframework.beans.factory.annotation.Autowired
 import org.springframework.test.context.TestPropertySource
 import spock.lang.Specification
 import spock.lang.Subject
 
-@LiteIntegrationSpec([GeoipProperties, GeoipLocationProvider])
+@LiteIntegrationSpec([HttpProperties, HttpTransport, GeoipProperties, GeoipLocationProvider])
 @TestPropertySource(properties = "helios.location.fixed=false")
 class GeoipLocationProviderSpec extends Specification {
     @Subject
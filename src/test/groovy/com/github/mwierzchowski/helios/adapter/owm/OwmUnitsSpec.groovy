@@ -0,0 +1,31 @@
+package com.github.mwierzchowski.helios.adapter.owm
+
+import spock.lang.Specification
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.MILES_PER_HOUR
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.FAHRENHEIT
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.KELVIN
+
+class OwmUnitsSpec extends Specification {
+    def "Should provide units of units system"() {
+        when:
+        def units = OwmUnits.ofSystem(system)
+        then:
+        units.temperatureUnit == temperatureUnit
+        units.speedUnit == speedUnit
+        where:
+        system     || temperatureUnit | speedUnit
+        "standard" || KELVIN          | METERS_PER_SECOND
+        "metric"   || CELSIUS         | METERS_PER_SECOND
+        "Imperial" || FAHRENHEIT      | MILES_PER_HOUR
+    }
+
+    def "Should not accept unknown units system"() {
+        when:
+        OwmUnits.ofSystem("nautical")
+        then:
+        thrown IllegalArgumentException
+    }
+}
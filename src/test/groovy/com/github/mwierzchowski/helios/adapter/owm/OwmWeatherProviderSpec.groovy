@@ -2,16 +2,28 @@ package com.github.mwierzchowski.helios.adapter.owm
 
 import com.github.mwierzchowski.helios.LiteIntegrationSpec
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator
+import com.github.mwierzchowski.helios.adapter.commons.HttpProperties
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport
+import com.github.mwierzchowski.helios.core.weather.Speed
+import com.github.mwierzchowski.helios.core.weather.Temperature
 import com.github.tomakehurst.wiremock.matching.UrlPattern
+import io.micrometer.core.instrument.MeterRegistry
 import org.openweathermap.model.CurrentWeatherResponse
 import org.spockframework.spring.SpringBean
 import org.springframework.beans.factory.annotation.Autowired
 import spock.lang.Specification
 import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
 
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
 import static com.github.tomakehurst.wiremock.client.WireMock.*
 
-@LiteIntegrationSpec([OwmConfiguration, OwmProperties, OwmWeatherProvider])
+@LiteIntegrationSpec([HttpProperties, HttpTransport, OwmConfiguration, OwmProperties, OwmClient, OwmWeatherProvider])
 class OwmWeatherProviderSpec extends Specification {
     @Subject
     @Autowired
@@ -20,6 +32,20 @@ class OwmWeatherProviderSpec extends Specification {
     @SpringBean
     ExternalServiceHealthIndicator<CurrentWeatherResponse> healthIndicator = Mock()
 
+    Instant now = Instant.parse("2020-04-06T06:00:00Z")
+
+    @SpringBean
+    Clock clock = Stub() {
+        instant() >> { now }
+        getZone() >> ZoneOffset.UTC
+    }
+
+    @Autowired
+    OwmProperties owmProperties
+
+    @Autowired
+    MeterRegistry meterRegistry
+
     UrlPattern weatherUrl = urlMatching("/owm-mock/.*")
 
     def setup() {
@@ -32,6 +58,10 @@ class OwmWeatherProviderSpec extends Specification {
         then:
         weather.isProvided()
         weather.sources[0] == OwmWeatherProvider.WEATHER_SOURCE_NAME
+        weather.temperature == new Temperature(new BigDecimal("18.13"), CELSIUS)
+        weather.temperature.unit == CELSIUS
+        weather.wind.speed == new Speed(new BigDecimal("4.6"), METERS_PER_SECOND)
+        weather.wind.speed.unit == METERS_PER_SECOND
     }
 
     def "Should return cached conditions on next attempt"() {
@@ -54,6 +84,45 @@ class OwmWeatherProviderSpec extends Specification {
         verify(2, getRequestedFor(weatherUrl))
     }
 
+    def "Should provide cached conditions immediately and refresh them in background before expiration"() {
+        given:
+        def weather1 = weatherProvider.currentWeather().get()
+        def unchangedRefreshes = refreshes("unchanged")
+        now = now.plusMillis(owmProperties.cacheTtl - owmProperties.refreshAhead)
+        when:
+        def weather2 = weatherProvider.currentWeather().get()
+        then:
+        weather2.is(weather1)
+        new PollingConditions(timeout: 5).eventually {
+            verify(2, getRequestedFor(weatherUrl))
+            refreshes("unchanged") == unchangedRefreshes + 1
+        }
+    }
+
+    def "Should not provide conditions cached longer than max staleness"() {
+        given:
+        weatherProvider.currentWeather()
+        def staleLookups = lookups("stale")
+        now = now.plusMillis(owmProperties.maxStaleness + 1)
+        when:
+        def weather = weatherProvider.currentWeather()
+        then:
+        weather.isPresent()
+        verify(2, getRequestedFor(weatherUrl))
+        lookups("stale") == staleLookups + 1
+    }
+
+    def "Should count cache lookups"() {
+        given:
+        def misses = lookups("miss")
+        def hits = lookups("hit")
+        when:
+        2.times { weatherProvider.currentWeather() }
+        then:
+        lookups("miss") == misses + 1
+        lookups("hit") == hits + 1
+    }
+
     def "Should register successful requests in health indicator"() {
         when:
         weatherProvider.currentWeather()
@@ -71,4 +140,14 @@ class OwmWeatherProviderSpec extends Specification {
         verify(3, getRequestedFor(weatherUrl))
         1 * healthIndicator.register(_ as Throwable)
     }
+
+    /** Helper methods ************************************************************************************************/
+
+    def lookups(String result) {
+        meterRegistry.counter(OwmWeatherProvider.CACHE_METRIC, "result", result).count()
+    }
+
+    def refreshes(String result) {
+        meterRegistry.counter(OwmWeatherProvider.REFRESH_METRIC, "result", result).count()
+    }
 }
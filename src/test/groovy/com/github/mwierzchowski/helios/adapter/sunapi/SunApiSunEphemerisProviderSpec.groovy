@@ -2,20 +2,37 @@ package com.github.mwierzchowski.helios.adapter.sunapi
 
 import com.github.mwierzchowski.helios.LiteIntegrationSpec
 import com.github.mwierzchowski.helios.adapter.commons.ExternalServiceHealthIndicator
+import com.github.mwierzchowski.helios.adapter.commons.HttpProperties
+import com.github.mwierzchowski.helios.adapter.commons.HttpTransport
+import com.github.mwierzchowski.helios.core.commons.Location
+import com.github.mwierzchowski.helios.core.commons.LocationProvider
+import com.github.mwierzchowski.helios.core.sun.SolarCalculator
+import com.github.mwierzchowski.helios.core.sun.SunEphemeris
 import com.github.tomakehurst.wiremock.matching.UrlPattern
+import io.micrometer.core.instrument.MeterRegistry
+import org.spockframework.mock.EmptyOrDummyResponse
 import org.spockframework.spring.SpringBean
 import org.springframework.beans.factory.annotation.Autowired
 import org.sunrisesunset.model.SunriseSunsetResponse
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.Duration
 import java.time.LocalDate
 import java.time.LocalTime
+import java.time.ZoneId
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executors
 
+import static com.github.mwierzchowski.helios.adapter.sunapi.SunApiSunEphemerisProvider.WARM_UP_COVERAGE_METRIC
+import static com.github.mwierzchowski.helios.adapter.sunapi.SunApiSunEphemerisProvider.WARM_UP_DURATION_METRIC
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.DAWN
 import static com.github.tomakehurst.wiremock.client.WireMock.*
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED
+import static java.util.concurrent.TimeUnit.SECONDS
 
-@LiteIntegrationSpec([SunApiConfiguration, SunApiProperties, SunApiSunEphemerisProvider])
+@LiteIntegrationSpec([HttpProperties, HttpTransport, SunApiConfiguration, SunApiProperties, SolarCalculator,
+        SunApiSunEphemerisProvider])
 class SunApiSunEphemerisProviderSpec extends Specification {
     @Subject
     @Autowired
@@ -24,13 +41,36 @@ class SunApiSunEphemerisProviderSpec extends Specification {
     @Autowired
     SunApiProperties sunProperties
 
+    @Autowired
+    SolarCalculator solarCalculator
+
+    @Autowired
+    MeterRegistry meterRegistry
+
     @SpringBean
     ExternalServiceHealthIndicator<SunriseSunsetResponse> healthIndicator = Mock()
 
+    @SpringBean
+    SunEphemerisStore ephemerisStore = Mock(defaultResponse: EmptyOrDummyResponse.INSTANCE)
+
+    @SpringBean
+    LocationProvider locationProvider = Stub() {
+        locate() >> { location }
+    }
+
+    Location location = new Location("Warsaw", 52.23d, 21.01d)
+
     UrlPattern sunapiUrl = urlPathMatching("/sun-mock/.*")
 
     def setup() {
         ephemerisProvider.cache.clear()
+        sunProperties.warmUpBackoff = Duration.ofMillis(50)
+        sunProperties.warmUpMaxBackoff = Duration.ofMillis(100)
+    }
+
+    def cleanup() {
+        sunProperties.warmUpBackoff = Duration.ofSeconds(15)
+        sunProperties.warmUpMaxBackoff = Duration.ofMinutes(10)
     }
 
     def "Should provide given day sun ephemeris"() {
@@ -59,13 +99,68 @@ class SunApiSunEphemerisProviderSpec extends Specification {
         verify(1, getRequestedFor(sunapiUrl))
     }
 
+    def "Should request ephemeris once for concurrent calls"() {
+        given:
+        def today = LocalDate.now()
+        def executor = Executors.newFixedThreadPool(5)
+        setGlobalFixedDelay(300)
+        when:
+        def ephemerides = (1..5)
+                .collect { CompletableFuture.supplyAsync({ ephemerisProvider.sunEphemerisFor(today) }, executor) }
+                .collect { it.get() }
+        then:
+        ephemerides.every { it == ephemerides.first() && !it.approximated }
+        1 * healthIndicator.register(_ as SunriseSunsetResponse)
+        verify(1, getRequestedFor(sunapiUrl))
+        cleanup:
+        setGlobalFixedDelay(0)
+        executor.shutdown()
+    }
+
+    def "Should provide stored ephemeris without calling Sun API"() {
+        given:
+        def today = LocalDate.now()
+        def stored = [today, today.plusDays(1)].collectEntries { day -> [day, new SunEphemeris().tap { it.day = day }] }
+        when:
+        def ephemeris = ephemerisProvider.sunEphemerisFor(today)
+        then:
+        1 * ephemerisStore.load(location, today) >> stored
+        ephemeris == stored[today]
+        ephemerisProvider.cache == stored
+        0 * healthIndicator.register(_)
+        verify(0, getRequestedFor(sunapiUrl))
+    }
+
+    def "Should save fetched ephemeris in store"() {
+        given:
+        def today = LocalDate.now()
+        when:
+        def ephemeris = ephemerisProvider.sunEphemerisFor(today)
+        then:
+        1 * ephemerisStore.save(location, { it.is(ephemeris) })
+    }
+
+    def "Should invalidate cached ephemeris when location changes"() {
+        given:
+        def today = LocalDate.now()
+        ephemerisProvider.sunEphemerisFor(today)
+        when:
+        location = new Location("Warszawa", 52.23d, 21.01d)
+        ephemerisProvider.sunEphemerisFor(today)
+        then:
+        1 * ephemerisStore.evictOtherThan({ it.city == "Warszawa" })
+        1 * ephemerisStore.save({ it.city == "Warszawa" }, _)
+        verify(2, getRequestedFor(sunapiUrl))
+    }
+
     def "Should cache ephemeris on demand"() {
         given:
         def today = LocalDate.now()
         when:
-        ephemerisProvider.manageCache()
-        sleep(500)
+        def warmUp = ephemerisProvider.manageCache().get(5, SECONDS)
         then:
+        warmUp.days == sunProperties.cacheDays
+        warmUp.coverage == 1.0d
         ephemerisProvider.cache.size() == sunProperties.cacheDays
         ephemerisProvider.cache.containsKey(today)
         ephemerisProvider.cache.containsKey(today.plusDays(sunProperties.cacheDays - 1))
@@ -80,15 +175,90 @@ class SunApiSunEphemerisProviderSpec extends Specification {
         ephemerisProvider.sunEphemerisFor(today)
         ephemerisProvider.sunEphemerisFor(weekAgo)
         when:
-        ephemerisProvider.manageCache()
+        ephemerisProvider.manageCache().get(5, SECONDS)
         then:
         ephemerisProvider.cache.containsKey(today)
         !ephemerisProvider.cache.containsKey(weekAgo)
     }
 
-    def "Should retry on failed request and provide non cacheable fallback"() {
+    def "Should retry failed day independently during cache warm-up"() {
+        given:
+        def flakyDay = LocalDate.now().plusDays(2)
+        stubFor(get(sunapiUrl).atPriority(1)
+                .withQueryParam("date", equalTo(flakyDay.toString()))
+                .inScenario("flaky").whenScenarioStateIs(STARTED).willSetStateTo("recovered")
+                .willReturn(aResponse().withStatus(500)))
+        when:
+        def warmUp = ephemerisProvider.manageCache().get(5, SECONDS)
+        then:
+        warmUp.covered == sunProperties.cacheDays
+        ephemerisProvider.cache.containsKey(flakyDay)
+        1 * healthIndicator.register(_ as Throwable)
+        verify(2, getRequestedFor(sunapiUrl).withQueryParam("date", equalTo(flakyDay.toString())))
+        verify(sunProperties.cacheDays + 1, getRequestedFor(sunapiUrl))
+    }
+
+    def "Should keep partial progress when day fails on every attempt during cache warm-up"() {
+        given:
+        def failingDay = LocalDate.now().plusDays(1)
+        stubFor(get(sunapiUrl).atPriority(1)
+                .withQueryParam("date", equalTo(failingDay.toString()))
+                .willReturn(aResponse().withStatus(500)))
+        when:
+        def warmUp = ephemerisProvider.manageCache().get(5, SECONDS)
+        then:
+        warmUp.covered == sunProperties.cacheDays - 1
+        ephemerisProvider.cache.size() == sunProperties.cacheDays - 1
+        !ephemerisProvider.cache.containsKey(failingDay)
+        sunProperties.warmUpMaxAttempts * healthIndicator.register(_ as Throwable)
+        verify(sunProperties.warmUpMaxAttempts, getRequestedFor(sunapiUrl)
+                .withQueryParam("date", equalTo(failingDay.toString())))
+    }
+
+    def "Should report duration and coverage of cache warm-up"() {
+        given:
+        def count = meterRegistry.timer(WARM_UP_DURATION_METRIC).count()
+        when:
+        ephemerisProvider.manageCache().get(5, SECONDS)
+        then:
+        meterRegistry.timer(WARM_UP_DURATION_METRIC).count() == count + 1
+        meterRegistry.get(WARM_UP_COVERAGE_METRIC).gauge().value() == 1.0d
+    }
+
+    def "Should not start cache warm-up when it is already running"() {
+        given:
+        setGlobalFixedDelay(300)
+        when:
+        def warmUp1 = ephemerisProvider.manageCache()
+        def warmUp2 = ephemerisProvider.manageCache()
+        warmUp1.get(5, SECONDS)
+        then:
+        warmUp1.is(warmUp2)
+        verify(sunProperties.cacheDays, getRequestedFor(sunapiUrl))
+        cleanup:
+        setGlobalFixedDelay(0)
+    }
+
+    def "Should retry on failed request and provide non cacheable calculated fallback"() {
+        given:
+        def today = LocalDate.now()
+        def calculated = solarCalculator.sunEphemerisOf(today, location, ZoneId.systemDefault())
+        stubFor(get(sunapiUrl).willReturn(aResponse().withStatus(400)))
+        when:
+        def fallback = ephemerisProvider.sunEphemerisFor(today)
+        then:
+        fallback.day == today
+        fallback.times == calculated.times
+        fallback.approximated
+        ephemerisProvider.cache.size() == 0
+        1 * healthIndicator.register(_ as Throwable)
+        verify(3, getRequestedFor(sunapiUrl))
+    }
+
+    def "Should retry on failed request and provide non cacheable fixed fallback"() {
         given:
         def today = LocalDate.now()
+        sunProperties.fallback.calculated = false
         stubFor(get(sunapiUrl).willReturn(aResponse().withStatus(400)))
         when:
         def fallback = ephemerisProvider.sunEphemerisFor(today)
@@ -99,5 +269,7 @@ class SunApiSunEphemerisProviderSpec extends Specification {
         ephemerisProvider.cache.size() == 0
         1 * healthIndicator.register(_ as Throwable)
         verify(3, getRequestedFor(sunapiUrl))
+        cleanup:
+        sunProperties.fallback.calculated = true
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.github.mwierzchowski.helios.adapter.sunapi
+
+import com.github.mwierzchowski.helios.DatabaseIntegrationSpec
+import com.github.mwierzchowski.helios.core.commons.Location
+import com.github.mwierzchowski.helios.core.sun.SunEphemeris
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import spock.lang.Specification
+
+import java.time.LocalDate
+import java.time.LocalTime
+import java.time.ZoneId
+
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.NOON
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNRISE
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNSET
+
+@DatabaseIntegrationSpec
+class SunEphemerisStoreSpec extends Specification {
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    SunEphemerisStore store
+    Location warsaw = new Location("Warsaw", 52.23d, 21.01d)
+    Location cracow = new Location("Cracow", 50.06d, 19.94d)
+    LocalDate today = LocalDate.parse("2020-04-06")
+
+    def setup() {
+        store = new SunEphemerisStore(jdbcTemplate)
+    }
+
+    def "Should load saved ephemerides of the location since given day"() {
+        given:
+        (-1..1).each { store.save(warsaw, ephemerisOf(today.plusDays(it))) }
+        store.save(cracow, ephemerisOf(today))
+        when:
+        def ephemerides = store.load(warsaw, today)
+        then:
+        ephemerides.keySet() == [today, today.plusDays(1)] as Set
+        ephemerides[today] == ephemerisOf(today)
+    }
+
+    def "Should store times of events as epoch seconds"() {
+        when:
+        store.save(warsaw, ephemerisOf(today))
+        then:
+        jdbcTemplate.queryForObject("select time from sun_ephemeris where type = 'NOON'", Long) ==
+                today.atTime(12, 10).atZone(ZoneId.systemDefault()).toEpochSecond()
+    }
+
+    def "Should replace saved ephemeris of the same day"() {
+        given:
+        store.save(warsaw, ephemerisOf(today))
+        def changed = ephemerisOf(today).tap { it.times.remove(SUNSET) }
+        when:
+        store.save(warsaw, changed)
+        then:
+        store.load(warsaw, today)[today] == changed
+    }
+
+    def "Should evict ephemerides of past days"() {
+        given:
+        (-2..1).each { store.save(warsaw, ephemerisOf(today.plusDays(it))) }
+        when:
+        def evicted = store.evictBefore(today)
+        then:
+        evicted == 6
+        store.load(warsaw, today.minusDays(7)).keySet() == [today, today.plusDays(1)] as Set
+    }
+
+    def "Should evict ephemerides of other locations"() {
+        given:
+        store.save(warsaw, ephemerisOf(today))
+        store.save(cracow, ephemerisOf(today))
+        when:
+        store.evictOtherThan(cracow)
+        then:
+        store.load(warsaw, today).isEmpty()
+        store.load(cracow, today).size() == 1
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def ephemerisOf(LocalDate day) {
+        new SunEphemeris().tap {
+            it.day = day
+            it.times[SUNRISE] = LocalTime.parse("05:30:15")
+            it.times[NOON] = LocalTime.parse("12:10:00")
+            it.times[SUNSET] = LocalTime.parse("18:50:45")
+        }
+    }
+}
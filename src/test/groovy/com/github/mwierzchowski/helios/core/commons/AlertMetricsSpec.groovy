@@ -0,0 +1,59 @@
+package com.github.mwierzchowski.helios.core.commons
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+
+class AlertMetricsSpec extends Specification {
+    Instant now = Instant.parse("2020-04-06T06:30:00Z")
+    CommonProperties commonProperties = new CommonProperties(alertLatenessThreshold: Duration.ofSeconds(2))
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+
+    @Subject
+    AlertMetrics alertMetrics = new AlertMetrics(commonProperties, meterRegistry, Clock.fixed(now, ZoneOffset.UTC))
+
+    def "Should record lateness of alert"() {
+        when:
+        def lateness = alertMetrics.recordLateness("TestEvent", "1", now.minusMillis(1500))
+        then:
+        lateness == Duration.ofMillis(1500)
+        with(meterRegistry.get(AlertMetrics.LATENESS).tags("event", "TestEvent", "timer", "1").timer()) {
+            count() == 1
+            totalTime(MILLISECONDS) == 1500
+        }
+        meterRegistry.find(AlertMetrics.LATE).counter() == null
+    }
+
+    def "Should record zero lateness if alert was fired early"() {
+        expect:
+        alertMetrics.recordLateness("TestEvent", "1", now.plusSeconds(1)) == Duration.ZERO
+    }
+
+    def "Should count alerts later than threshold"() {
+        when:
+        alertMetrics.recordLateness("TestEvent", AlertMetrics.NO_TIMER, now.minusSeconds(3))
+        alertMetrics.recordLateness("TestEvent", AlertMetrics.NO_TIMER, now.minusSeconds(1))
+        then:
+        meterRegistry.get(AlertMetrics.LATE).tags("timer", AlertMetrics.NO_TIMER).counter().count() == 1
+    }
+
+    def "Should record validation and publish time"() {
+        given:
+        def published = false
+        when:
+        def valid = alertMetrics.recordValidation("TestEvent", "1", { false })
+        alertMetrics.recordPublish("TestEvent", "1", { published = true })
+        then:
+        !valid
+        published
+        meterRegistry.get(AlertMetrics.VALIDATION).timer().count() == 1
+        meterRegistry.get(AlertMetrics.PUBLISH).timer().count() == 1
+    }
+}
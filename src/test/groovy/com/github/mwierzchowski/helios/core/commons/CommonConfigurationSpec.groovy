@@ -0,0 +1,52 @@
+package com.github.mwierzchowski.helios.core.commons
+
+import com.github.mwierzchowski.helios.core.journal.EventJournal
+import com.github.mwierzchowski.helios.core.journal.JournalingEventStore
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.context.ApplicationEventPublisher
+import spock.lang.Specification
+import spock.lang.Subject
+
+import static com.github.mwierzchowski.helios.core.commons.EventStoreProperties.Type.DIRECT
+import static com.github.mwierzchowski.helios.core.commons.EventStoreProperties.Type.RING_BUFFER
+
+class CommonConfigurationSpec extends Specification {
+    @Subject
+    def configuration = new CommonConfiguration()
+
+    def commonProperties = new CommonProperties()
+    def publisher = Mock(ApplicationEventPublisher)
+    def ringBufferStore = Mock(RingBufferEventStore)
+    def ringBuffer = Mock(ObjectProvider)
+    def journal = Mock(ObjectProvider)
+
+    def "Should provide ring buffer store when it is configured"() {
+        given:
+        commonProperties.eventStore.type = RING_BUFFER
+        when:
+        def eventStore = configuration.eventStore(commonProperties, publisher, ringBuffer, journal)
+        then:
+        1 * ringBuffer.getObject() >> ringBufferStore
+        eventStore.is(ringBufferStore)
+    }
+
+    def "Should provide direct store and not create ring buffer by default"() {
+        given:
+        def event = Mock(HeliosEvent)
+        commonProperties.eventStore.type = DIRECT
+        when:
+        configuration.eventStore(commonProperties, publisher, ringBuffer, journal).publish(event)
+        then:
+        0 * ringBuffer.getObject()
+        1 * publisher.publishEvent(event)
+    }
+
+    def "Should wrap store with journal when it is enabled"() {
+        given:
+        journal.getIfAvailable() >> Mock(EventJournal)
+        when:
+        def eventStore = configuration.eventStore(commonProperties, publisher, ringBuffer, journal)
+        then:
+        eventStore instanceof JournalingEventStore
+    }
+}
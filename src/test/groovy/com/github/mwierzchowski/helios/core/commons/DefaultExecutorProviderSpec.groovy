@@ -0,0 +1,68 @@
+package com.github.mwierzchowski.helios.core.commons
+
+import spock.lang.Requires
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.TimeUnit
+
+import static com.github.mwierzchowski.helios.core.commons.ExecutorMode.*
+
+class DefaultExecutorProviderSpec extends Specification {
+    def "Should provide platform executors in platform mode"() {
+        given:
+        def executorProvider = providerOf(PLATFORM)
+        when:
+        def thread = executorProvider.executor().submit({ Thread.currentThread() } as Callable).get()
+        def ioThread = executorProvider.ioExecutor().submit({ Thread.currentThread() } as Callable).get()
+        def schedulerThread = executorProvider.scheduler()
+                .schedule({ Thread.currentThread() } as Callable, 1, TimeUnit.MILLISECONDS).get()
+        then:
+        !executorProvider.isVirtual()
+        thread.name.startsWith("helios-task-")
+        ioThread.name.startsWith("helios-io-")
+        schedulerThread.name.startsWith("helios-scheduler-")
+        cleanup:
+        executorProvider.shutdown()
+    }
+
+    @Requires({ Runtime.version().feature() < 21 })
+    def "Should fall back to platform executors in auto mode if virtual threads are not supported"() {
+        given:
+        def executorProvider = providerOf(AUTO)
+        expect:
+        !executorProvider.isVirtual()
+        cleanup:
+        executorProvider.shutdown()
+    }
+
+    @Requires({ Runtime.version().feature() < 21 })
+    def "Should throw exception in virtual mode if virtual threads are not supported"() {
+        when:
+        providerOf(VIRTUAL)
+        then:
+        thrown IllegalStateException
+    }
+
+    @Requires({ Runtime.version().feature() >= 21 })
+    def "Should provide virtual executors in virtual mode"() {
+        given:
+        def executorProvider = providerOf(VIRTUAL)
+        when:
+        def thread = executorProvider.executor().submit({ Thread.currentThread() } as Callable).get()
+        then:
+        executorProvider.isVirtual()
+        thread.virtual
+        thread.name.startsWith("helios-task-")
+        cleanup:
+        executorProvider.shutdown()
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def providerOf(ExecutorMode mode) {
+        def commonProperties = new CommonProperties()
+        commonProperties.executor.mode = mode
+        return new DefaultExecutorProvider(commonProperties)
+    }
+}
@@ -0,0 +1,198 @@
+package com.github.mwierzchowski.helios.core.commons
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.context.ApplicationListener
+import org.springframework.context.PayloadApplicationEvent
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+import static com.github.mwierzchowski.helios.core.commons.EventStoreProperties.OverflowPolicy.*
+import static com.github.mwierzchowski.helios.core.commons.EventStoreProperties.WaitStrategy.*
+
+class RingBufferEventStoreSpec extends Specification {
+    HeliosEventMulticaster multicaster = new HeliosEventMulticaster()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    PollingConditions conditions = new PollingConditions(timeout: 5)
+
+    @Subject
+    RingBufferEventStore eventStore
+
+    def cleanup() {
+        eventStore?.stop()
+    }
+
+    def "Should deliver events to every listener in order of publishing"() {
+        given:
+        def first = new RecordingListener()
+        def second = new RecordingListener()
+        def third = new RecordingListener()
+        [first, second, third].each { multicaster.addApplicationListener(it) }
+        eventStore = storeOf(16, 2, waitStrategy, BLOCK)
+        eventStore.start()
+        when:
+        def publishers = (0..<4).collect { publisher ->
+            Thread.start {
+                (0..<250).each { eventStore.publish(new TestEvent(publisher * 1000 + it)) }
+            }
+        }
+        publishers*.join()
+        then:
+        conditions.eventually {
+            assert [first, second, third].every { it.subjects.size() == 1000 }
+        }
+        [first, second, third].every { listener ->
+            (0..<4).every { publisher ->
+                def subjects = listener.subjects.findAll { it.intdiv(1000) == publisher }
+                subjects == (0..<250).collect { publisher * 1000 + it }
+            }
+        }
+        [first, second, third].every { it.threads.size() == 1 }
+        (first.threads + second.threads + third.threads).every { it.startsWith("helios-events-") }
+        where:
+        waitStrategy << [BLOCKING, SLEEPING, YIELDING, BUSY_SPIN]
+    }
+
+    def "Should drop events when buffer is full and drop policy is used"() {
+        given:
+        def listener = new BlockedListener()
+        multicaster.addApplicationListener(listener)
+        eventStore = storeOf(2, 1, BLOCKING, DROP)
+        eventStore.start()
+        when:
+        (0..<5).each { eventStore.publish(new TestEvent(it)) }
+        then:
+        conditions.eventually {
+            assert meterRegistry.counter("helios.events.dropped").count() > 0
+        }
+        eventStore.depth() <= eventStore.capacity()
+        cleanup:
+        listener.release()
+    }
+
+    def "Should deliver events by publisher when buffer is full and caller runs policy is used"() {
+        given:
+        def listener = new BlockedListener()
+        multicaster.addApplicationListener(listener)
+        eventStore = storeOf(2, 1, BLOCKING, CALLER_RUNS)
+        eventStore.start()
+        (0..<2).each { eventStore.publish(new TestEvent(it)) }
+        conditions.eventually {
+            assert eventStore.depth() == 2
+        }
+        listener.block = false
+        when:
+        eventStore.publish(new TestEvent(3))
+        then:
+        listener.threads.contains(Thread.currentThread().name)
+        cleanup:
+        listener.release()
+    }
+
+    def "Should deliver events by publisher if store is not started"() {
+        given:
+        def listener = new RecordingListener()
+        multicaster.addApplicationListener(listener)
+        eventStore = storeOf(4, 1, BLOCKING, BLOCK)
+        when:
+        eventStore.publish(new TestEvent(1))
+        then:
+        listener.subjects.toList() == [1]
+        listener.threads == [Thread.currentThread().name] as Set
+    }
+
+    def "Should report latency and depth metrics"() {
+        given:
+        multicaster.addApplicationListener(new RecordingListener())
+        eventStore = storeOf(8, 1, SLEEPING, BLOCK)
+        eventStore.start()
+        when:
+        (0..<5).each { eventStore.publish(new TestEvent(it)) }
+        then:
+        conditions.eventually {
+            assert meterRegistry.timer("helios.events.latency").count() == 5
+        }
+        meterRegistry.get("helios.events.depth").gauge().value() == 0
+        meterRegistry.get("helios.events.capacity").gauge().value() == 8
+    }
+
+    def "Should round capacity up to the power of 2"() {
+        expect:
+        storeOf(capacity, 1, BLOCKING, BLOCK).capacity() == expected
+        where:
+        capacity || expected
+        1        || 1
+        3        || 4
+        8        || 8
+        1000     || 1024
+    }
+
+    def "Should not accept invalid configuration"() {
+        when:
+        storeOf(capacity, consumers, BLOCKING, BLOCK)
+        then:
+        thrown IllegalArgumentException
+        where:
+        capacity | consumers
+        0        | 1
+        4        | 0
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def storeOf(capacity, consumers, waitStrategy, overflowPolicy) {
+        def properties = new EventStoreProperties()
+        properties.type = EventStoreProperties.Type.RING_BUFFER
+        properties.capacity = capacity
+        properties.consumers = consumers
+        properties.waitStrategy = waitStrategy
+        properties.overflowPolicy = overflowPolicy
+        return new RingBufferEventStore(properties, multicaster, meterRegistry)
+    }
+
+    static class TestEvent implements HeliosEvent<Integer> {
+        Integer subject
+
+        TestEvent(Integer subject) {
+            this.subject = subject
+        }
+
+        @Override
+        Integer getSubject() {
+            return subject
+        }
+    }
+
+    static class RecordingListener implements ApplicationListener<PayloadApplicationEvent<TestEvent>> {
+        Queue<Integer> subjects = new ConcurrentLinkedQueue<>()
+        Set<String> threads = Collections.synchronizedSet(new HashSet<>())
+
+        @Override
+        void onApplicationEvent(PayloadApplicationEvent<TestEvent> event) {
+            threads.add(Thread.currentThread().name)
+            subjects.add(event.payload.subject)
+        }
+    }
+
+    static class BlockedListener extends RecordingListener {
+        volatile boolean block = true
+        CountDownLatch latch = new CountDownLatch(1)
+
+        @Override
+        void onApplicationEvent(PayloadApplicationEvent<TestEvent> event) {
+            if (block) {
+                latch.await(5, TimeUnit.SECONDS)
+            }
+            super.onApplicationEvent(event)
+        }
+
+        void release() {
+            block = false
+            latch.countDown()
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.mwierzchowski.helios.core.journal
+
+import com.github.mwierzchowski.helios.core.commons.EventStore
+import com.github.mwierzchowski.helios.core.commons.FailureEvent
+import com.github.mwierzchowski.helios.core.sun.SunEphemerisEvent
+import com.github.mwierzchowski.helios.core.sun.SunEphemerisEventCodec
+import com.github.mwierzchowski.helios.core.timers.Timer
+import com.github.mwierzchowski.helios.core.timers.TimerAlertEvent
+import com.github.mwierzchowski.helios.core.timers.TimerAlertEventCodec
+import com.github.mwierzchowski.helios.core.timers.TimerWheelSpec.ManualClock
+import com.github.mwierzchowski.helios.core.weather.Speed
+import com.github.mwierzchowski.helios.core.weather.Temperature
+import com.github.mwierzchowski.helios.core.weather.Weather
+import com.github.mwierzchowski.helios.core.weather.WeatherObservationEvent
+import com.github.mwierzchowski.helios.core.weather.WeatherObservationEventCodec
+import com.github.mwierzchowski.helios.core.weather.WeatherStaleEvent
+import com.github.mwierzchowski.helios.core.weather.WeatherStaleEventCodec
+import com.github.mwierzchowski.helios.core.weather.Wind
+import org.springframework.util.unit.DataSize
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.ByteBuffer
+import java.nio.file.Files
+import java.time.Duration
+import java.time.Instant
+
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNRISE
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+
+class EventJournalSpec extends Specification {
+    File directory = Files.createTempDirectory("helios-journal").toFile()
+    ManualClock clock = new ManualClock(Instant.parse("2020-04-06T10:00:00Z"))
+    JournalProperties properties = new JournalProperties().tap {
+        it.directory = this.directory.absolutePath
+        it.segmentSize = DataSize.ofKilobytes(1)
+        it.retainedSegments = 4
+    }
+    List<EventCodec<?>> codecs = [new WeatherObservationEventCodec(), new WeatherStaleEventCodec(),
+                                  new SunEphemerisEventCodec(), new TimerAlertEventCodec()]
+
+    @Subject
+    EventJournal journal = new EventJournal(properties, clock, codecs)
+
+    def setup() {
+        journal.open()
+    }
+
+    def cleanup() {
+        journal.close()
+        directory.deleteDir()
+    }
+
+    def "Should append events with monotonic sequences and decode them"() {
+        given:
+        def observation = new WeatherObservationEvent(weather())
+        def sunrise = new SunEphemerisEvent(SUNRISE, Instant.parse("2020-04-06T04:15:00Z"))
+        def alert = new TimerAlertEvent(new Timer().tap { id = 7; description = "Morning" })
+        when:
+        def sequences = [observation, sunrise, alert].collect { journal.append(it).asLong }
+        def entries = journal.query(null, null, null)
+        then:
+        sequences == [1L, 2L, 3L]
+        entries*.sequence == [1L, 2L, 3L]
+        entries*.type == ["WeatherObservationEvent", "SunEphemerisEvent", "TimerAlertEvent"]
+        entries[0].event == observation
+        entries[1].event == sunrise
+        entries[2].event.subject.id == 7
+        entries[2].event.subject.description == "Morning"
+        entries.every { it.timestamp == clock.instant() }
+    }
+
+    def "Should not journal events without codec"() {
+        when:
+        def sequence = journal.append(new FailureEvent("test", new RuntimeException()))
+        then:
+        !sequence.isPresent()
+        journal.query(null, null, null).isEmpty()
+    }
+
+    def "Should query events by type and time range"() {
+        given:
+        (0..<10).each {
+            journal.append(new SunEphemerisEvent(SUNRISE, clock.instant()))
+            journal.append(new WeatherStaleEvent(weather()))
+            clock.advance(Duration.ofMinutes(1))
+        }
+        def from = Instant.parse("2020-04-06T10:02:00Z")
+        def to = Instant.parse("2020-04-06T10:05:00Z")
+        when:
+        def entries = journal.query(SunEphemerisEvent, from, to)
+        then:
+        entries*.event*.timestamp == [from, from.plusSeconds(60), from.plusSeconds(120)]
+        journal.query(FailureEvent, null, null).isEmpty()
+    }
+
+    def "Should roll segments and delete segments above retained count"() {
+        when:
+        (1..100).each { journal.append(new WeatherObservationEvent(weather())) }
+        def entries = journal.query(null, null, null)
+        then:
+        journal.segmentCount() == properties.retainedSegments
+        directory.listFiles().length == properties.retainedSegments
+        entries.last().sequence == 100
+        entries*.sequence == (entries.first().sequence..100).toList()
+    }
+
+    def "Should delete segments older than retention period"() {
+        given:
+        (1..20).each { journal.append(new WeatherObservationEvent(weather())) }
+        def segments = journal.segmentCount()
+        when:
+        clock.advance(properties.retention.plusDays(1))
+        (1..20).each { journal.append(new WeatherObservationEvent(weather())) }
+        then:
+        segments > 1
+        journal.query(null, null, null).count { it.timestamp != clock.instant() } < 20
+    }
+
+    def "Should continue sequence and ignore torn record after reopening"() {
+        given:
+        (1..3).each { journal.append(new SunEphemerisEvent(SUNRISE, clock.instant())) }
+        journal.close()
+        def segment = directory.listFiles().first()
+        def content = segment.bytes
+        def recordLength = ByteBuffer.wrap(content).getInt() + 8
+        content[2 * recordLength + 10] = (byte) (content[2 * recordLength + 10] + 1)
+        segment.bytes = content
+        when:
+        def reopened = new EventJournal(properties, clock, codecs)
+        reopened.open()
+        then:
+        reopened.query(null, null, null)*.sequence == [1L, 2L]
+        reopened.append(new SunEphemerisEvent(SUNRISE, clock.instant())).asLong == 3
+        cleanup:
+        reopened.close()
+    }
+
+    def "Should provide replayable events appended since given moment"() {
+        given:
+        journal.append(new WeatherObservationEvent(weather()))
+        clock.advance(Duration.ofHours(1))
+        def since = clock.instant()
+        journal.append(new TimerAlertEvent(new Timer().tap { id = 1; description = "Test" }))
+        journal.append(new WeatherStaleEvent(weather()))
+        journal.append(new SunEphemerisEvent(SUNRISE, clock.instant()))
+        when:
+        def entries = journal.replayableSince(since)
+        then:
+        entries*.type == ["WeatherStaleEvent", "SunEphemerisEvent"]
+    }
+
+    def "Should not accept codecs with the same type id"() {
+        when:
+        new EventJournal(properties, clock, [new WeatherObservationEventCodec(), new WeatherObservationEventCodec()])
+        then:
+        thrown IllegalStateException
+    }
+
+    def "Should publish event even if it can not be journaled"() {
+        given:
+        def failingJournal = Mock(EventJournal) {
+            append(_) >> { throw new UncheckedIOException(new IOException("Test")) }
+        }
+        def delegate = Mock(EventStore)
+        def eventStore = new JournalingEventStore(failingJournal, delegate)
+        def event = new WeatherStaleEvent(weather())
+        when:
+        eventStore.publish(event)
+        then:
+        1 * delegate.publish(event)
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def weather() {
+        new Weather().tap {
+            it.source = "Test source"
+            it.timestamp = Instant.parse("2020-04-06T09:55:00Z")
+            it.temperature = new Temperature(new BigDecimal("21.5"), CELSIUS)
+            it.wind = new Wind(new Speed(new BigDecimal("3.25"), METERS_PER_SECOND), 270)
+            it.cloudsCoverage = 40
+        }
+    }
+}
@@ -10,9 +10,10 @@ import spock.lang.Subject
 
 class SceneRuleExecutorSpec extends Specification {
     def properties = new SceneRuleProperties()
+    def factSource = Mock(FactSource)
 
     @Subject
-    def executor = new SceneRuleExecutor(properties)
+    def executor = new SceneRuleExecutor(properties, [factSource])
 
     def "Should update facts on supported events"() {
         given:
@@ -57,4 +58,23 @@ class SceneRuleExecutorSpec extends Specification {
         // TODO this specification is rather dummy
         noExceptionThrown()
     }
+
+    def "Should provide facts of fact sources on supported events"() {
+        given:
+        def event = new TimerAlertEvent(new Timer())
+        when:
+        executor.executeRulesFor(event)
+        then:
+        1 * factSource.getFactName() >> "Test"
+        1 * factSource.getFact() >> "Test fact"
+    }
+
+    def "Should not provide facts of fact sources on not supported events"() {
+        given:
+        def event = new TimerRemovedEvent(new Timer())
+        when:
+        executor.executeRulesFor(event)
+        then:
+        0 * factSource.getFact()
+    }
 }
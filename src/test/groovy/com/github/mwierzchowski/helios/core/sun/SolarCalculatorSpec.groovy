@@ -0,0 +1,112 @@
+package com.github.mwierzchowski.helios.core.sun
+
+import com.github.mwierzchowski.helios.core.commons.Location
+import groovy.json.JsonSlurper
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalTime
+import java.time.OffsetDateTime
+import java.time.ZoneOffset
+
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.DAWN
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.DUSK
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.NOON
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNRISE
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.SUNSET
+import static java.time.ZoneOffset.UTC
+
+class SolarCalculatorSpec extends Specification {
+    static final Duration ACCURACY = Duration.ofSeconds(90)
+
+    @Subject
+    def calculator = new SolarCalculator()
+
+    def "Should calculate ephemeris close to recorded Sun API response"() {
+        given:
+        def results = new JsonSlurper().parse(getClass().getResource("/mappings/sunapi-mapping.json"))
+                .mappings[0].response.jsonBody.results
+        def expected = [
+                (DAWN): results.civil_twilight_begin,
+                (SUNRISE): results.sunrise,
+                (NOON): results.solar_noon,
+                (SUNSET): results.sunset,
+                (DUSK): results.civil_twilight_end
+        ].collectEntries { type, time -> [type, OffsetDateTime.parse(time).toLocalTime()] }
+        def day = OffsetDateTime.parse(results.solar_noon).toLocalDate()
+        when:
+        def ephemeris = calculator.sunEphemerisOf(day, new Location("Warsaw", 52.23d, 21.01d), UTC)
+        then:
+        ephemeris.day == day
+        ephemeris.times.keySet() == expected.keySet()
+        ephemeris.times.every { type, time -> difference(time, expected[type]) <= ACCURACY }
+    }
+
+    def "Should calculate noon close to mean solar noon corrected by equation of time"() {
+        when:
+        def ephemeris = calculator.sunEphemerisOf(day, new Location(null, 0d, 0d), UTC)
+        then:
+        difference(ephemeris.times[NOON], LocalTime.parse(noon)) <= Duration.ofSeconds(30)
+        where:
+        day                          | noon
+        LocalDate.parse("2020-02-11") | "12:14:12"
+        LocalDate.parse("2020-11-03") | "11:43:35"
+    }
+
+    def "Should calculate day of equal length on equator"() {
+        when:
+        def ephemeris = calculator.sunEphemerisOf(LocalDate.parse("2020-03-20"), new Location(null, 0d, 0d), UTC)
+        def dayLength = Duration.between(ephemeris.times[SUNRISE], ephemeris.times[SUNSET])
+        then:
+        dayLength > Duration.ofHours(12)
+        dayLength < Duration.ofHours(12).plusMinutes(10)
+    }
+
+    def "Should provide ephemeris in given zone"() {
+        given:
+        def day = LocalDate.parse("2020-06-21")
+        def location = new Location(null, 52.23d, 21.01d)
+        when:
+        def utc = calculator.sunEphemerisOf(day, location, UTC)
+        def local = calculator.sunEphemerisOf(day, location, ZoneOffset.ofHours(2))
+        then:
+        local.times.every { type, time -> time == utc.times[type].plusHours(2) }
+    }
+
+    def "Should skip events that do not happen during polar night and polar day"() {
+        given:
+        def tromso = new Location("Tromso", 69.65d, 18.96d)
+        when:
+        def polarNight = calculator.sunEphemerisOf(LocalDate.parse("2020-12-21"), tromso, UTC)
+        def polarDay = calculator.sunEphemerisOf(LocalDate.parse("2020-06-21"), tromso, UTC)
+        then:
+        polarNight.times.keySet() == [DAWN, NOON, DUSK] as Set
+        polarDay.times.keySet() == [NOON] as Set
+    }
+
+    def "Should calculate position of the sun"() {
+        given:
+        def warsaw = new Location("Warsaw", 52.23d, 21.01d)
+        when:
+        def position = calculator.sunPositionAt(Instant.parse(instant), warsaw)
+        then:
+        position.timestamp == Instant.parse(instant)
+        Math.abs(position.azimuth - azimuth) < 0.5
+        Math.abs(position.elevation - elevation) < 0.5
+        where:
+        instant                | azimuth | elevation
+        "2019-07-04T02:21:48Z" | 49.3    | -0.8
+        "2019-07-04T06:00:00Z" | 90.7    | 30.0
+        "2019-07-04T10:40:15Z" | 180.0   | 60.6
+        "2019-07-04T16:00:00Z" | 276.9   | 24.0
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def difference(LocalTime time1, LocalTime time2) {
+        Duration.between(time1, time2).abs()
+    }
+}
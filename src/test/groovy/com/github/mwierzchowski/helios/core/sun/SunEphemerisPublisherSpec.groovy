@@ -1,23 +1,26 @@
 package com.github.mwierzchowski.helios.core.sun
 
+import com.github.mwierzchowski.helios.core.commons.AlertMetrics
+import com.github.mwierzchowski.helios.core.commons.CommonProperties
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider
 import com.github.mwierzchowski.helios.core.commons.EventStore
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import spock.lang.Specification
 
 import java.time.Clock
 import java.time.LocalDate
 import java.time.LocalTime
 import java.time.ZoneId
-import java.util.concurrent.Executors
 
 import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.*
 
 class SunEphemerisPublisherSpec extends Specification {
     def ephemerisProvider = Mock(SunEphemerisProvider)
-    def executorService = Executors.newSingleThreadScheduledExecutor()
+    def executorProvider = new DefaultExecutorProvider(new CommonProperties())
     def eventStore = Mock(EventStore)
 
     def cleanup() {
-        executorService.shutdownNow()
+        executorProvider.shutdown()
     }
 
     def "Should publish events that did not pass yet"() {
@@ -32,7 +35,9 @@ class SunEphemerisPublisherSpec extends Specification {
             it.times.put SUNSET, timeOf(20)
             it.times.put DUSK, timeOf(22)
         }
-        def ephemerisPublisher = new SunEphemerisPublisher(clock, ephemerisProvider, executorService, eventStore)
+        def ephemerisCalendar = new SunEphemerisCalendar(ephemerisProvider, clock)
+        def ephemerisPublisher = new SunEphemerisPublisher(clock, ephemerisCalendar, executorProvider, eventStore,
+                alertMetricsOf(clock))
         when:
         ephemerisPublisher.startPublishingEvents()
         sleep(1500)
@@ -57,7 +62,9 @@ class SunEphemerisPublisherSpec extends Specification {
             it.times.put DAWN, timeOf(0)
             it.times.put SUNRISE, timeOf(4)
         }
-        def ephemerisPublisher = new SunEphemerisPublisher(clock, ephemerisProvider, executorService, eventStore)
+        def ephemerisCalendar = new SunEphemerisCalendar(ephemerisProvider, clock)
+        def ephemerisPublisher = new SunEphemerisPublisher(clock, ephemerisCalendar, executorProvider, eventStore,
+                alertMetricsOf(clock))
         when:
         ephemerisPublisher.startPublishingEvents()
         sleep(1500)
@@ -79,6 +86,10 @@ class SunEphemerisPublisherSpec extends Specification {
         return Clock.fixed(time.atDate(day).atZone(zone).toInstant(), zone)
     }
 
+    def alertMetricsOf(clock) {
+        new AlertMetrics(new CommonProperties(), new SimpleMeterRegistry(), clock)
+    }
+
     def timeOf(hour, minute = 0, second = 0) {
         LocalTime.of(hour, minute, second)
     }
@@ -0,0 +1,116 @@
+package com.github.mwierzchowski.helios.core.sun
+
+import spock.lang.Specification
+
+import java.time.Instant
+import java.time.LocalDate
+import java.time.LocalTime
+import java.time.ZoneId
+
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisTable.NO_EVENT
+import static com.github.mwierzchowski.helios.core.sun.SunEphemerisType.*
+
+class SunEphemerisTableSpec extends Specification {
+    ZoneId zone = ZoneId.of("Europe/Warsaw")
+    LocalDate firstDay = LocalDate.parse("2020-03-28")
+
+    def "Should provide seconds of day of events"() {
+        when:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, this.&ephemerisOf)
+        then:
+        table.size() == 15
+        table.secondOfDay(firstDay, SUNRISE) == LocalTime.parse("05:30").toSecondOfDay()
+        table.secondOfDay(firstDay.plusDays(2), DUSK) == LocalTime.parse("19:40").toSecondOfDay()
+        table.covers(firstDay.plusDays(2))
+        !table.covers(firstDay.plusDays(3))
+        table.isComplete()
+    }
+
+    def "Should find next event after given instant"() {
+        given:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, this.&ephemerisOf)
+        when:
+        def index = table.nextIndexAfter(instantOf(day, time))
+        then:
+        table.typeAt(index) == type
+        table.instantAt(index) == instantOf(eventDay, eventTime)
+        where:
+        day          | time       || type    | eventDay     | eventTime
+        "2020-03-28" | "00:00"    || DAWN    | "2020-03-28" | "05:00"
+        "2020-03-28" | "05:00"    || SUNRISE | "2020-03-28" | "05:30"
+        "2020-03-28" | "12:00:01" || SUNSET  | "2020-03-28" | "19:10"
+        "2020-03-28" | "23:00"    || DAWN    | "2020-03-29" | "05:00"
+        "2020-03-29" | "19:10"    || DUSK    | "2020-03-29" | "19:40"
+    }
+
+    def "Should not find event after the last one"() {
+        given:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, this.&ephemerisOf)
+        expect:
+        table.nextIndexAfter(instantOf("2020-03-30", "19:40")) == NO_EVENT
+    }
+
+    def "Should keep events ordered by time even if ephemeris crosses midnight"() {
+        given:
+        def source = { LocalDate day ->
+            new SunEphemeris().tap {
+                it.day = day
+                it.times[NOON] = LocalTime.parse("12:00")
+                it.times[DUSK] = LocalTime.parse("00:30")
+            }
+        }
+        def table = SunEphemerisTable.of(firstDay, 1, zone, source)
+        when:
+        def index = table.nextIndexAfter(instantOf("2020-03-28", "00:00"))
+        then:
+        table.typeAt(index) == DUSK
+        table.typeAt(index + 1) == NOON
+    }
+
+    def "Should mark missing and approximated days"() {
+        given:
+        def source = { LocalDate day ->
+            day == firstDay ? null : ephemerisOf(day).tap { it.approximated = day == firstDay.plusDays(1) }
+        }
+        when:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, source)
+        then:
+        !table.isComplete()
+        table.secondOfDay(firstDay, NOON) == NO_EVENT
+        table.ephemerisOf(firstDay.plusDays(1)).approximated
+        !table.ephemerisOf(firstDay.plusDays(2)).approximated
+    }
+
+    def "Should provide ephemeris of the day"() {
+        given:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, this.&ephemerisOf)
+        expect:
+        table.ephemerisOf(firstDay.plusDays(1)) == ephemerisOf(firstDay.plusDays(1))
+    }
+
+    def "Should not provide day not covered by the table"() {
+        given:
+        def table = SunEphemerisTable.of(firstDay, 3, zone, this.&ephemerisOf)
+        when:
+        table.secondOfDay(firstDay.minusDays(1), NOON)
+        then:
+        thrown IllegalArgumentException
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def ephemerisOf(LocalDate day) {
+        new SunEphemeris().tap {
+            it.day = day
+            it.times[DAWN] = LocalTime.parse("05:00")
+            it.times[SUNRISE] = LocalTime.parse("05:30")
+            it.times[NOON] = LocalTime.parse("12:00")
+            it.times[SUNSET] = LocalTime.parse("19:10")
+            it.times[DUSK] = LocalTime.parse("19:40")
+        }
+    }
+
+    def instantOf(String day, String time) {
+        LocalDate.parse(day).atTime(LocalTime.parse(time)).atZone(zone).toInstant()
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.mwierzchowski.helios.core.sun
+
+import com.github.mwierzchowski.helios.core.commons.CommonProperties
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider
+import com.github.mwierzchowski.helios.core.commons.EventStore
+import com.github.mwierzchowski.helios.core.commons.Location
+import com.github.mwierzchowski.helios.core.commons.LocationProvider
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+
+class SunPositionPublisherSpec extends Specification {
+    def positionProperties = new SunPositionProperties()
+    def solarCalculator = Spy(SolarCalculator)
+    def location = new Location("Warsaw", 52.23d, 21.01d)
+    def locationProvider = { location } as LocationProvider
+    def now = Instant.parse("2019-07-04T06:10:30Z")
+    def clock = Mock(Clock) {
+        instant() >> { now }
+    }
+    def executorProvider = new DefaultExecutorProvider(new CommonProperties())
+    def eventStore = Mock(EventStore)
+
+    @Subject
+    def positionPublisher = new SunPositionPublisher(positionProperties, solarCalculator, locationProvider, clock,
+            executorProvider, eventStore)
+
+    def cleanup() {
+        positionPublisher.stopPublishingEvents()
+        executorProvider.shutdown()
+    }
+
+    def "Should calculate position once per minute"() {
+        when:
+        def position1 = positionPublisher.currentPosition()
+        now = now.plusSeconds(20)
+        def position2 = positionPublisher.currentPosition()
+        now = now.plusSeconds(20)
+        def position3 = positionPublisher.currentPosition()
+        then:
+        position1.is(position2)
+        position3.timestamp == Instant.parse("2019-07-04T06:11:00Z")
+        2 * solarCalculator.sunPositionAt(_, location)
+    }
+
+    def "Should publish first position"() {
+        when:
+        positionPublisher.publishPosition()
+        then:
+        1 * eventStore.publish({
+            verifyAll(it, SunPositionEvent) {
+                timestamp == Instant.parse("2019-07-04T06:10:00Z")
+                subject.azimuth > 80 && subject.azimuth < 100
+                subject.elevation > 25 && subject.elevation < 35
+            }
+        })
+    }
+
+    def "Should not publish position that did not cross any bucket"() {
+        given:
+        positionPublisher.publishPosition()
+        when:
+        now = now.plusSeconds(60)
+        positionPublisher.publishPosition()
+        then:
+        0 * eventStore.publish(_)
+    }
+
+    def "Should publish position that crossed bucket"() {
+        given:
+        positionPublisher.publishPosition()
+        when:
+        now = now.plus(Duration.ofHours(1))
+        positionPublisher.publishPosition()
+        then:
+        1 * eventStore.publish(_ as SunPositionEvent)
+    }
+
+    def "Should publish positions with configured interval"() {
+        given:
+        positionProperties.checkInterval = Duration.ofMillis(50)
+        positionProperties.elevationBucket = 0.001d
+        when:
+        positionPublisher.startPublishingEvents()
+        sleep(250)
+        now = now.plusSeconds(60)
+        sleep(250)
+        then:
+        2 * eventStore.publish(_ as SunPositionEvent)
+    }
+}
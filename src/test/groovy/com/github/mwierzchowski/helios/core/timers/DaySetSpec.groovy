@@ -0,0 +1,70 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import spock.lang.Specification
+
+import static java.time.DayOfWeek.*
+
+class DaySetSpec extends Specification {
+    def "Should keep days as bit mask"() {
+        given:
+        def days = new DaySet()
+        when:
+        days.addAll([SUNDAY, MONDAY, WEDNESDAY])
+        then:
+        days.mask == 0b1000101
+        days.size() == 3
+        days.toList() == [MONDAY, WEDNESDAY, SUNDAY]
+        days.contains(WEDNESDAY)
+        !days.contains(TUESDAY)
+    }
+
+    def "Should remove days"() {
+        given:
+        def days = new DaySet(DaySet.ALL_DAYS)
+        when:
+        days.remove(MONDAY)
+        days.removeIf { it == SUNDAY }
+        then:
+        days.toList() == [TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY]
+    }
+
+    def "Should be equal to other set with the same days"() {
+        expect:
+        new DaySet(0b11) == [MONDAY, TUESDAY] as Set
+        ([MONDAY, TUESDAY] as Set) == new DaySet(0b11)
+        new DaySet(0b11).hashCode() == ([MONDAY, TUESDAY] as Set).hashCode()
+    }
+
+    def "Should throw exception if mask is invalid"() {
+        when:
+        new DaySet(0b10000000)
+        then:
+        thrown IllegalArgumentException
+    }
+
+    def "Should check overlapping with other days"() {
+        expect:
+        new DaySet(0b11).overlaps([TUESDAY] as Set)
+        !new DaySet(0b11).overlaps(new DaySet(0b100))
+    }
+
+    def "Should find days until next day of mask"() {
+        expect:
+        DaySet.daysUntilNext(mask, today.ordinal()) == result
+        where:
+        mask      | today     || result
+        0b0000001 | MONDAY    || 7
+        0b0000010 | MONDAY    || 1
+        0b1000000 | MONDAY    || 6
+        0b0000001 | SUNDAY    || 1
+        0b0000101 | THURSDAY  || 4
+        0b1111111 | SATURDAY  || 1
+    }
+
+    def "Should throw exception when looking for next day of empty mask"() {
+        when:
+        DaySet.daysUntilNext(0, 0)
+        then:
+        thrown NoSuchElementException
+    }
+}
@@ -0,0 +1,95 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import spock.lang.Specification
+
+import java.time.Instant
+import java.time.LocalTime
+import java.time.ZoneOffset
+
+import static java.time.DayOfWeek.*
+
+class TimerAgendaSpec extends Specification {
+    def zone = ZoneOffset.UTC
+
+    def "Should merge occurrences of all schedules ordered by time"() {
+        given:
+        def schedules = [
+                scheduleOf(1, "08:00", [SATURDAY, SUNDAY]),
+                scheduleOf(2, "06:30", [MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY]),
+                scheduleOf(3, "20:00", [MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY, SUNDAY])
+        ]
+        def from = Instant.parse("2020-04-10T07:00:00Z")
+        def to = Instant.parse("2020-04-13T07:00:00Z")
+        when:
+        def entries = new TimerAgenda(schedules, from, to, zone).toList()
+        then:
+        entries*.instant*.toString() == [
+                "2020-04-10T20:00:00Z",
+                "2020-04-11T08:00:00Z",
+                "2020-04-11T20:00:00Z",
+                "2020-04-12T08:00:00Z",
+                "2020-04-12T20:00:00Z",
+                "2020-04-13T06:30:00Z"
+        ]
+        entries*.schedule*.id == [3, 1, 3, 1, 3, 2]
+    }
+
+    def "Should order occurrences at the same time by schedule id"() {
+        given:
+        def schedules = [scheduleOf(2, "06:30", [MONDAY]), scheduleOf(1, "06:30", [MONDAY])]
+        def from = Instant.parse("2020-04-06T00:00:00Z")
+        when:
+        def entries = new TimerAgenda(schedules, from, from.plusSeconds(86400), zone).toList()
+        then:
+        entries*.schedule*.id == [1, 2]
+    }
+
+    def "Should iterate long window of many schedules lazily"() {
+        given:
+        def schedules = (1..2000).collect { scheduleOf(it, LocalTime.ofSecondOfDay(it * 30).toString(), [MONDAY]) }
+        def from = Instant.parse("2020-04-06T00:00:00Z")
+        def agenda = new TimerAgenda(schedules, from, from.plusSeconds(8 * 7 * 86400), zone)
+        when:
+        def count = 0
+        def previous = from
+        def ordered = true
+        while (agenda.hasNext()) {
+            def entry = agenda.next()
+            ordered &= !entry.instant.isBefore(previous)
+            previous = entry.instant
+            count++
+        }
+        then:
+        count == 2000 * 8
+        ordered
+    }
+
+    def "Should be empty if window is empty or schedules have no days"() {
+        given:
+        def from = Instant.parse("2020-04-06T00:00:00Z")
+        expect:
+        !new TimerAgenda([scheduleOf(1, "06:30", [MONDAY])], from, from, zone).hasNext()
+        !new TimerAgenda([scheduleOf(1, "06:30", [])], from, from.plusSeconds(86400), zone).hasNext()
+        !new TimerAgenda([], from, from.plusSeconds(86400), zone).hasNext()
+    }
+
+    def "Should throw exception if there are no more alerts"() {
+        given:
+        def from = Instant.parse("2020-04-06T00:00:00Z")
+        def agenda = new TimerAgenda([scheduleOf(1, "06:30", [SUNDAY])], from, from.plusSeconds(86400), zone)
+        when:
+        agenda.next()
+        then:
+        thrown NoSuchElementException
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def scheduleOf(id, time, days) {
+        new TimerSchedule().tap {
+            it.id = id
+            it.time = LocalTime.parse(time)
+            it.days.addAll days
+        }
+    }
+}
@@ -1,29 +1,51 @@
 package com.github.mwierzchowski.helios.core.timers
 
+import com.github.mwierzchowski.helios.core.commons.AlertMetrics
+import com.github.mwierzchowski.helios.core.commons.CommonProperties
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider
 import com.github.mwierzchowski.helios.core.commons.EventStore
-import org.springframework.scheduling.TaskScheduler
-import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
+import org.springframework.dao.DataAccessResourceFailureException
 import spock.lang.Specification
+import org.springframework.transaction.support.TransactionSynchronization
+import org.springframework.transaction.support.TransactionSynchronizationManager
 import spock.lang.Subject
 
+import java.time.Clock
+import java.time.Duration
 import java.time.LocalDate
 import java.time.LocalTime
 
-import static java.util.Optional.empty
-
 class TimerAlertStarterSpec extends Specification {
+    TimerProperties timerProperties = new TimerProperties(bootstrapBatchSize: 2)
     TimerRepository timerRepository = Mock(TimerRepository)
-    TaskScheduler taskScheduler = new ConcurrentTaskScheduler()
+    DefaultExecutorProvider executorProvider = new DefaultExecutorProvider(new CommonProperties())
+    TimerWheel timerWheel = new TimerWheel(new TimerProperties(), Clock.systemDefaultZone(), executorProvider)
+    TimerOccurrenceIndex occurrenceIndex = new TimerOccurrenceIndex()
+    TimerScheduleRegistry scheduleRegistry = new TimerScheduleRegistry()
     EventStore eventStore = Mock(EventStore)
+    Clock clock = Clock.systemDefaultZone()
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    AlertMetrics alertMetrics = new AlertMetrics(new CommonProperties(), meterRegistry, clock)
 
     @Subject
-    TimerAlertPublisher alertPublisher = new TimerAlertPublisher(timerRepository, taskScheduler, eventStore)
+    TimerAlertPublisher alertPublisher = new TimerAlertPublisher(timerProperties, timerRepository, timerWheel,
+            occurrenceIndex, scheduleRegistry, eventStore, clock, meterRegistry, alertMetrics,
+            new LocalTimerOwnership())
+
+    def setup() {
+        timerWheel.start()
+    }
+
+    def cleanup() {
+        timerWheel.stop()
+        executorProvider.shutdown()
+    }
 
     def "Should publish alert if timer is scheduled later today"() {
         given:
         def delay = 1
         def timer = timerOf(1, true, delay)
-        timerRepository.findById(timer.id) >> Optional.of(timer)
         when:
         alertPublisher.startAlertFor(timer)
         sleep(1500)
@@ -35,6 +57,18 @@ class TimerAlertStarterSpec extends Specification {
         })
     }
 
+    def "Should record lateness, validation and publish time of alert"() {
+        given:
+        def timer = timerOf(1, true, 1)
+        when:
+        alertPublisher.startAlertFor(timer)
+        sleep(1500)
+        then:
+        [AlertMetrics.LATENESS, AlertMetrics.VALIDATION, AlertMetrics.PUBLISH].every {
+            meterRegistry.get(it).tags("event", "TimerAlertEvent", "timer", "1").timer().count() == 1
+        }
+    }
+
     def "Should not publish alert if timer is scheduled for the other day"() {
         given:
         def delay = 1
@@ -61,9 +95,9 @@ class TimerAlertStarterSpec extends Specification {
         def delay = 1
         def timerId = 1
         def timer = timerOf(timerId, true, delay)
-        timerRepository.findById(timerId) >> empty()
         when:
         alertPublisher.startAlertFor(timer)
+        timer.schedules.each { scheduleRegistry.unregister(it) }
         sleepSeconds(delay)
         then:
         0 * eventStore.publish(_ as TimerAlertEvent)
@@ -73,18 +107,190 @@ class TimerAlertStarterSpec extends Specification {
         given:
         def delay = 1
         def timerId = 1
-        def timerV1 = timerOf(timerId, true, delay)
-        def timerV2 = timerOf(timerId, true, delay).tap {
-            it.schedules.clear()
+        def timer = timerOf(timerId, true, delay)
+        when:
+        alertPublisher.startAlertFor(timer)
+        scheduleRegistry.unregister(timer.schedules[0])
+        sleepSeconds(delay)
+        then:
+        0 * eventStore.publish(_ as TimerAlertEvent)
+    }
+
+    def "Should not publish alert if schedule alert was stopped"() {
+        given:
+        def delay = 1
+        def timer = timerOf(1, true, delay)
+        when:
+        alertPublisher.startAlertFor(timer)
+        alertPublisher.stopAlertFor(timer.schedules[0])
+        sleep(1500)
+        then:
+        0 * eventStore.publish(_ as TimerAlertEvent)
+        timerWheel.size() == 0
+    }
+
+    def "Should not publish alert if alerts of timer were stopped"() {
+        given:
+        def delay = 1
+        def timer = timerOf(1, true, delay)
+        when:
+        alertPublisher.startAlertFor(timer)
+        alertPublisher.stopAlertsFor(timer)
+        sleep(1500)
+        then:
+        0 * eventStore.publish(_ as TimerAlertEvent)
+    }
+
+    def "Should publish alert only once if alert was started again"() {
+        given:
+        def delay = 1
+        def timer = timerOf(1, true, delay)
+        when:
+        alertPublisher.startAlertFor(timer)
+        alertPublisher.startAlertFor(timer)
+        sleep(1500)
+        then:
+        1 * eventStore.publish(_ as TimerAlertEvent)
+        timerWheel.size() == 1
+    }
+
+    def "Should not publish alert if schedule version changed"() {
+        given:
+        def delay = 1
+        def timerV1 = timerOf(1, true, delay)
+        def timerV2 = timerOf(1, true, delay).tap {
+            it.schedules[0].version = 2
         }
-        timerRepository.findById(timerId) >> Optional.of(timerV2)
         when:
         alertPublisher.startAlertFor(timerV1)
-        sleepSeconds(delay)
+        scheduleRegistry.register(timerV2.schedules[0])
+        sleep(1500)
         then:
         0 * eventStore.publish(_ as TimerAlertEvent)
     }
 
+    def "Should publish alert without reaching repository"() {
+        given:
+        def delay = 1
+        def timer = timerOf(1, true, delay)
+        when:
+        alertPublisher.startAlertFor(timer)
+        sleep(1500)
+        then:
+        0 * timerRepository._
+        1 * eventStore.publish(_ as TimerAlertEvent)
+    }
+
+    def "Should retry claim of alert firing that failed and keep alerts of the schedule scheduled"() {
+        given:
+        timerProperties.cluster.claimRetryDelay = Duration.ofMillis(300)
+        def ownership = Stub(TimerOwnership) {
+            owns(_) >> true
+            claimFiring(_, _) >> { throw new DataAccessResourceFailureException("Database is not available") } >>
+                    TimerOwnership.Firing.GRANTED
+        }
+        def publisher = new TimerAlertPublisher(timerProperties, timerRepository, timerWheel,
+                occurrenceIndex, scheduleRegistry, eventStore, clock, meterRegistry, alertMetrics, ownership)
+        def timer = timerOf(1, true, 1)
+        when:
+        publisher.startAlertFor(timer)
+        sleep(2000)
+        then:
+        1 * eventStore.publish(_ as TimerAlertEvent)
+        meterRegistry.counter("helios.timers.alerts.claim.failed").count() == 1
+        timerWheel.size() == 1
+        occurrenceIndex.details().size() == 1
+    }
+
+    def "Should start alerts of all timers in batches"() {
+        given:
+        def timers = (1..3).collect { timerOf(it, true, 3600) }
+        when:
+        alertPublisher.startAlerts()
+        then:
+        1 * timerRepository.findIdsAfter(0, { it.pageSize == 2 }) >> [1, 2]
+        1 * timerRepository.findAllWithSchedulesByIdIn([1, 2]) >> timers[0..1]
+        1 * timerRepository.findIdsAfter(2, _) >> [3]
+        1 * timerRepository.findAllWithSchedulesByIdIn([3]) >> [timers[2]]
+        0 * timerRepository._
+        occurrenceIndex.details().size() == 3
+        meterRegistry.counter("helios.timers.bootstrap.timers").count() == 3
+        meterRegistry.timer("helios.timers.bootstrap.duration").count() == 1
+    }
+
+    def "Should start alerts of imported timers only after commit"() {
+        given:
+        def timers = (1..2).collect { timerOf(it, true, 3600) }
+        TransactionSynchronizationManager.initSynchronization()
+        when:
+        alertPublisher.startAlertsAfterCommit(timers)
+        then:
+        occurrenceIndex.details().isEmpty()
+        when:
+        TransactionSynchronizationManager.synchronizations.each { it.afterCommit() }
+        then:
+        occurrenceIndex.details().size() == 2
+        cleanup:
+        TransactionSynchronizationManager.clearSynchronization()
+    }
+
+    def "Should not change alerts when transaction is rolled back"() {
+        given:
+        def timer = timerOf(1, true, 3600)
+        def added = timerOf(2, true, 3600).tap { it.schedules[0].id = 2 }
+        alertPublisher.startAlertFor(timer)
+        TransactionSynchronizationManager.initSynchronization()
+        when:
+        alertPublisher.startAlertsAfterCommit([added])
+        alertPublisher.stopAlertsAfterCommit(timer.schedules.toList())
+        alertPublisher.stopAlertsAfterCommit(timer)
+        TransactionSynchronizationManager.synchronizations.each {
+            it.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK)
+        }
+        then:
+        scheduleRegistry.isLive(timer.schedules[0])
+        !scheduleRegistry.isLive(added.schedules[0])
+        scheduleRegistry.size() == 1
+        timerWheel.size() == 1
+        occurrenceIndex.details().size() == 1
+        cleanup:
+        TransactionSynchronizationManager.clearSynchronization()
+    }
+
+    def "Should stop alerts of removed schedules only after commit"() {
+        given:
+        def timer = timerOf(1, true, 3600)
+        alertPublisher.startAlertFor(timer)
+        TransactionSynchronizationManager.initSynchronization()
+        when:
+        alertPublisher.stopAlertsAfterCommit(timer.schedules.toList())
+        then:
+        timerWheel.size() == 1
+        when:
+        TransactionSynchronizationManager.synchronizations.each { it.afterCommit() }
+        then:
+        !scheduleRegistry.isLive(timer.schedules[0])
+        timerWheel.size() == 0
+        cleanup:
+        TransactionSynchronizationManager.clearSynchronization()
+    }
+
+    def "Should publish alert that became due during startup"() {
+        given:
+        def startupClock = Clock.offset(clock, Duration.ofSeconds(-2))
+        def publisher = new TimerAlertPublisher(timerProperties, timerRepository, timerWheel,
+                occurrenceIndex, scheduleRegistry, eventStore, startupClock, meterRegistry, alertMetrics,
+                new LocalTimerOwnership())
+        def timer = timerOf(1, true, -1)
+        timerRepository.findIdsAfter(0, _) >> [1]
+        timerRepository.findAllWithSchedulesByIdIn([1]) >> [timer]
+        when:
+        publisher.startAlerts()
+        sleep(500)
+        then:
+        1 * eventStore.publish(_ as TimerAlertEvent)
+    }
+
     /** Helper methods ************************************************************************************************/
 
     def timerOf(id = 1, today = false, delay = -3600, version = 1) {
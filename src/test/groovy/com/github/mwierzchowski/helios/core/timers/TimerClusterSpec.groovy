@@ -0,0 +1,164 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import com.github.mwierzchowski.helios.DatabaseIntegrationSpec
+import com.github.mwierzchowski.helios.core.commons.ExecutorProvider
+import com.github.mwierzchowski.helios.core.timers.TimerWheelSpec.ManualClock
+import org.springframework.beans.factory.ObjectProvider
+import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.jdbc.core.JdbcTemplate
+import org.springframework.test.context.jdbc.Sql
+import spock.lang.Specification
+
+import java.time.Duration
+import java.time.Instant
+import java.util.concurrent.ScheduledExecutorService
+
+import static com.github.mwierzchowski.helios.core.timers.TimerOwnership.Firing.*
+
+@DatabaseIntegrationSpec
+class TimerClusterSpec extends Specification {
+    @Autowired
+    JdbcTemplate jdbcTemplate
+
+    ManualClock clock = new ManualClock(Instant.parse("2020-04-06T06:00:00Z"))
+    TimerAlertPublisher alertPublisher = Mock()
+    TimerLeaseStore leaseStore
+    TimersVersion timersVersion
+    TimerCluster node1
+    TimerCluster node2
+
+    def setup() {
+        leaseStore = new TimerLeaseStore(jdbcTemplate)
+        leaseStore.initialize(4)
+        timersVersion = new TimersVersion(new TimerOccurrenceIndex(), Stub(ObjectProvider) {
+            ifAvailable(_) >> { args -> args[0].accept(leaseStore) }
+        })
+        node1 = nodeOf("node-1")
+        node2 = nodeOf("node-2")
+    }
+
+    def "Should own all partitions if node is alone"() {
+        when:
+        node1.renew()
+        then:
+        node1.ownedPartitions() == [0, 1, 2, 3] as Set
+        1 * alertPublisher.startAlertsIn([0, 1, 2, 3] as Set, 4, Instant.EPOCH)
+    }
+
+    def "Should rebalance partitions when node joins"() {
+        given:
+        node1.renew()
+        when:
+        node2.renew()
+        node1.renew()
+        node2.renew()
+        then:
+        node1.ownedPartitions() == [0, 1] as Set
+        node2.ownedPartitions() == [2, 3] as Set
+    }
+
+    def "Should take over partitions when node dies"() {
+        given:
+        node1.renew()
+        node2.renew()
+        node1.renew()
+        node2.renew()
+        when:
+        clock.advance(Duration.ofSeconds(31))
+        node2.renew()
+        then:
+        node1.ownedPartitions().isEmpty()
+        node2.ownedPartitions() == [0, 1, 2, 3] as Set
+    }
+
+    def "Should release partitions when node leaves"() {
+        given:
+        node1.join()
+        node1.renew()
+        when:
+        node1.leave()
+        node2.renew()
+        then:
+        node2.ownedPartitions() == [0, 1, 2, 3] as Set
+    }
+
+    def "Should own timers of owned partitions only"() {
+        given:
+        node1.renew()
+        node2.renew()
+        node1.renew()
+        node2.renew()
+        def timer = new Timer().tap { id = timerId }
+        expect:
+        node1.owns(timer) == owned1
+        node2.owns(timer) == !owned1
+        where:
+        timerId | owned1
+        4       | true
+        5       | true
+        6       | false
+        7       | false
+    }
+
+    @Sql("/data/timer-data.sql")
+    def "Should grant firing of occurrence exactly once"() {
+        given:
+        node1.renew()
+        def schedule = scheduleOf(1, 1)
+        def occurrence = Instant.parse("2020-04-06T06:30:00Z")
+        expect:
+        node1.claimFiring(schedule, occurrence) == GRANTED
+        node1.claimFiring(schedule, occurrence) == ALREADY_FIRED
+        node1.claimFiring(schedule, occurrence.plus(Duration.ofDays(1))) == GRANTED
+    }
+
+    @Sql("/data/timer-data.sql")
+    def "Should revoke firing if schedule changed or timer is not owned"() {
+        given:
+        node1.renew()
+        def occurrence = Instant.parse("2020-04-06T06:30:00Z")
+        expect:
+        node1.claimFiring(scheduleOf(1, 2), occurrence) == REVOKED
+        node2.claimFiring(scheduleOf(1, 1), occurrence) == REVOKED
+    }
+
+    def "Should change version of timers after write on other node"() {
+        given:
+        def otherVersion = new TimersVersion(new TimerOccurrenceIndex(), Stub(ObjectProvider) {
+            ifAvailable(_) >> { args -> args[0].accept(leaseStore) }
+        })
+        node1.renew()
+        def version = timersVersion.current()
+        when:
+        otherVersion.bumpAfterCommit()
+        node1.renew()
+        then:
+        timersVersion.current() != version
+        leaseStore.timersVersion() == old(leaseStore.timersVersion()) + 1
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def nodeOf(nodeId) {
+        def properties = new TimerProperties()
+        properties.cluster.enabled = true
+        properties.cluster.nodeId = nodeId
+        properties.cluster.partitions = 4
+        def publisherProvider = Mock(ObjectProvider) {
+            getObject() >> alertPublisher
+        }
+        def executorProvider = Stub(ExecutorProvider) {
+            scheduler() >> Stub(ScheduledExecutorService)
+        }
+        new TimerCluster(properties, leaseStore, executorProvider, clock, timersVersion, publisherProvider)
+    }
+
+    def scheduleOf(id, version) {
+        def timer = new Timer().tap { it.id = 1 }
+        new TimerSchedule().tap {
+            it.id = id
+            it.version = version
+            it.timer = timer
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+
+class TimerOccurrenceIndexSpec extends Specification {
+    @Subject
+    TimerOccurrenceIndex occurrenceIndex = new TimerOccurrenceIndex()
+
+    def "Should provide nearest occurrence of timer"() {
+        given:
+        def timer = timerOf(1, 2)
+        when:
+        occurrenceIndex.update(timer.schedules[0], instant(10))
+        occurrenceIndex.update(timer.schedules[1], instant(5))
+        then:
+        occurrenceIndex.nearestOccurrenceOf(timer.id).get() == instant(5)
+    }
+
+    def "Should provide nearest occurrence of all timers"() {
+        given:
+        def timer1 = timerOf(1, 1)
+        def timer2 = timerOf(2, 1)
+        when:
+        occurrenceIndex.update(timer1.schedules[0], instant(10))
+        occurrenceIndex.update(timer2.schedules[0], instant(5))
+        then:
+        with (occurrenceIndex.nearestOccurrence().get()) {
+            timerId == timer2.id
+            instant == instant(5)
+        }
+    }
+
+    def "Should replace occurrence of the same schedule"() {
+        given:
+        def timer = timerOf(1, 1)
+        when:
+        occurrenceIndex.update(timer.schedules[0], instant(5))
+        occurrenceIndex.update(timer.schedules[0], instant(10))
+        then:
+        occurrenceIndex.nearestOccurrenceOf(timer.id).get() == instant(10)
+        occurrenceIndex.details() == [(timer.description): instant(10)]
+    }
+
+    def "Should not provide occurrence of removed schedule"() {
+        given:
+        def timer = timerOf(1, 2)
+        occurrenceIndex.update(timer.schedules[0], instant(5))
+        occurrenceIndex.update(timer.schedules[1], instant(10))
+        when:
+        occurrenceIndex.remove(timer.schedules[0])
+        then:
+        occurrenceIndex.nearestOccurrenceOf(timer.id).get() == instant(10)
+    }
+
+    def "Should not provide details of removed timer"() {
+        given:
+        def timer1 = timerOf(1, 1)
+        def timer2 = timerOf(2, 1)
+        occurrenceIndex.update(timer1.schedules[0], instant(5))
+        occurrenceIndex.update(timer2.schedules[0], instant(10))
+        when:
+        occurrenceIndex.remove(timer1)
+        then:
+        occurrenceIndex.nearestOccurrenceOf(timer1.id).isEmpty()
+        occurrenceIndex.nearestOccurrence().get().timerId == timer2.id
+        occurrenceIndex.details() == [(timer2.description): instant(10)]
+    }
+
+    def "Should provide details of not scheduled timer"() {
+        given:
+        def timer = timerOf(1, 0)
+        when:
+        occurrenceIndex.describe(timer)
+        then:
+        occurrenceIndex.details() == [(timer.description): "not scheduled"]
+    }
+
+    def "Should rebuild details snapshot only after change"() {
+        given:
+        def timer = timerOf(1, 1)
+        occurrenceIndex.update(timer.schedules[0], instant(5))
+        when:
+        def details1 = occurrenceIndex.details()
+        def details2 = occurrenceIndex.details()
+        occurrenceIndex.update(timer.schedules[0], instant(10))
+        def details3 = occurrenceIndex.details()
+        then:
+        details1.is(details2)
+        !details1.is(details3)
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def timerOf(id, schedules) {
+        new Timer().tap {
+            it.id = id
+            it.description = "Test timer ${id}"
+            for (int i = 1; i <= schedules; i++) {
+                def scheduleId = id * 10 + i
+                it.add new TimerSchedule().tap {
+                    it.id = scheduleId
+                }
+            }
+        }
+    }
+
+    def instant(minutes) {
+        Instant.parse("2020-04-06T10:00:00Z").plusSeconds(minutes * 60)
+    }
+}
@@ -3,6 +3,7 @@ package com.github.mwierzchowski.helios.core.timers
 import com.github.mwierzchowski.helios.DatabaseIntegrationSpec
 import org.apache.commons.lang3.exception.ExceptionUtils
 import org.springframework.beans.factory.annotation.Autowired
+import org.springframework.data.domain.PageRequest
 import org.springframework.test.context.jdbc.Sql
 import spock.lang.Specification
 import spock.lang.Subject
@@ -39,6 +40,18 @@ class TimerRepositorySpec extends Specification {
         timers.size() == 0
     }
 
+    @Sql("/data/timer-data.sql")
+    def "Should find ids of timers from partitions changed since given time"() {
+        expect:
+        timerRepository.findIdsInPartitionsChangedSince(2, owned, Instant.parse(since)) == ids
+        where:
+        owned  | since                  || ids
+        [0, 1] | "1970-01-01T00:00:00Z" || [1, 2]
+        [1]    | "1970-01-01T00:00:00Z" || [1]
+        [0]    | "1970-01-01T00:00:00Z" || [2]
+        [0, 1] | "2020-04-06T00:00:00Z" || []
+    }
+
     @Sql("/data/timer-data.sql")
     def "Should find timer by id"() {
         when:
@@ -69,6 +82,26 @@ class TimerRepositorySpec extends Specification {
         foundTimer.isEmpty()
     }
 
+    @Sql("/data/timer-data.sql")
+    def "Should find ids of timers after given id in pages"() {
+        expect:
+        timerRepository.findIdsAfter(0, PageRequest.of(0, 1)) == [1]
+        timerRepository.findIdsAfter(1, PageRequest.of(0, 1)) == [2]
+        timerRepository.findIdsAfter(2, PageRequest.of(0, 1)) == []
+    }
+
+    @Sql("/data/timer-data.sql")
+    def "Should find timers with schedules by ids"() {
+        when:
+        def timers = timerRepository.findAllWithSchedulesByIdIn([1, 2])
+        then:
+        timers.size() == 2
+        timers[0].id == 1
+        timers[0].schedules.size() == 2
+        timers[1].id == 2
+        timers[1].schedules.size() == 1
+    }
+
     @Sql("/data/timer-data.sql")
     def "Should find timer by description"() {
         given:
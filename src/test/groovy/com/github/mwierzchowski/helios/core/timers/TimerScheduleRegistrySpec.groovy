@@ -0,0 +1,51 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+class TimerScheduleRegistrySpec extends Specification {
+    @Subject
+    TimerScheduleRegistry scheduleRegistry = new TimerScheduleRegistry()
+
+    def "Should schedule be live if it was registered with the same version"() {
+        given:
+        def schedule = scheduleOf(1, 1)
+        when:
+        scheduleRegistry.register(schedule)
+        then:
+        scheduleRegistry.isLive(schedule)
+        scheduleRegistry.isLive(scheduleOf(1, 1))
+    }
+
+    def "Should schedule not be live if version is different"() {
+        given:
+        scheduleRegistry.register(scheduleOf(1, 2))
+        expect:
+        !scheduleRegistry.isLive(scheduleOf(1, 1))
+    }
+
+    def "Should schedule not be live if it was not registered"() {
+        expect:
+        !scheduleRegistry.isLive(scheduleOf(1, 1))
+    }
+
+    def "Should schedule not be live if it was unregistered"() {
+        given:
+        def schedule = scheduleOf(1, 1)
+        scheduleRegistry.register(schedule)
+        when:
+        scheduleRegistry.unregister(schedule)
+        then:
+        !scheduleRegistry.isLive(schedule)
+        scheduleRegistry.size() == 0
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def scheduleOf(id, version) {
+        new TimerSchedule().tap {
+            it.id = id
+            it.version = version
+        }
+    }
+}
@@ -2,11 +2,16 @@ package com.github.mwierzchowski.helios.core.timers
 
 import spock.lang.Specification
 
+import java.time.Clock
+import java.time.Instant
 import java.time.LocalDate
 import java.time.LocalDateTime
 import java.time.LocalTime
+import java.time.ZoneId
 import java.time.ZonedDateTime
 
+import static java.time.DayOfWeek.*
+
 class TimerScheduleSpec extends Specification {
 
     def "Should be same if other schedule has same time related data"() {
@@ -158,6 +163,53 @@ class TimerScheduleSpec extends Specification {
         pointInTime(6, -1).isAfter(occurrence)
     }
 
+    def "Should nearest occurrence be calculated for given clock"() {
+        given:
+        def schedule = new TimerSchedule().tap {
+            it.days.addAll days
+            it.time = LocalTime.parse(time)
+        }
+        def zone = ZoneId.of("Europe/Warsaw")
+        def clock = Clock.fixed(LocalDateTime.parse(now).atZone(zone).toInstant(), zone)
+        expect:
+        schedule.nearestOccurrence(clock) == LocalDateTime.parse(result).atZone(zone).toInstant()
+        where:
+        days               | time    | now                   || result
+        [MONDAY]           | "06:30" | "2020-04-06T06:00:00" || "2020-04-06T06:30:00"
+        [MONDAY]           | "06:30" | "2020-04-06T06:30:00" || "2020-04-13T06:30:00"
+        [MONDAY, SATURDAY] | "06:30" | "2020-04-06T07:00:00" || "2020-04-11T06:30:00"
+        [SUNDAY]           | "02:30" | "2020-03-28T12:00:00" || "2020-03-29T03:30:00"
+        [SUNDAY]           | "12:00" | "2020-10-24T12:00:00" || "2020-10-25T12:00:00"
+    }
+
+    def "Should iterate occurrences since given instant"() {
+        given:
+        def schedule = new TimerSchedule().tap {
+            it.days.addAll days
+            it.time = LocalTime.parse(time)
+        }
+        def zone = ZoneId.of("Europe/Warsaw")
+        def since = LocalDateTime.parse(now).atZone(zone).toInstant()
+        when:
+        def occurrences = schedule.occurrencesSince(since, zone)
+        then:
+        (1..3).collect { occurrences.next() } == results.collect { LocalDateTime.parse(it).atZone(zone).toInstant() }
+        where:
+        days               | time    | now                   || results
+        [MONDAY]           | "06:30" | "2020-04-06T06:30:00" || ["2020-04-06T06:30:00", "2020-04-13T06:30:00", "2020-04-20T06:30:00"]
+        [MONDAY, SATURDAY] | "06:30" | "2020-04-06T07:00:00" || ["2020-04-11T06:30:00", "2020-04-13T06:30:00", "2020-04-18T06:30:00"]
+        [SATURDAY, SUNDAY] | "02:30" | "2020-03-28T12:00:00" || ["2020-03-29T03:30:00", "2020-04-04T02:30:00", "2020-04-05T02:30:00"]
+    }
+
+    def "Should not iterate occurrences if schedule has no days"() {
+        given:
+        def schedule = new TimerSchedule().tap {
+            it.time = LocalTime.of(6, 30)
+        }
+        expect:
+        !schedule.occurrencesSince(Instant.now(), ZoneId.systemDefault()).hasNext()
+    }
+
     /** Helper methods ************************************************************************************************/
 
     def timerSchedule(daysDiff = 0, hoursDiff = 0) {
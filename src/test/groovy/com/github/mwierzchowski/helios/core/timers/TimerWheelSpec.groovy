@@ -0,0 +1,157 @@
+package com.github.mwierzchowski.helios.core.timers
+
+import com.github.mwierzchowski.helios.core.commons.CommonProperties
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneId
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import static java.time.ZoneOffset.UTC
+
+class TimerWheelSpec extends Specification {
+    ManualClock clock = new ManualClock(Instant.parse("2020-04-06T10:00:00Z"))
+    Queue<String> executed = new ConcurrentLinkedQueue<>()
+    PollingConditions conditions = new PollingConditions(timeout: 2)
+
+    DefaultExecutorProvider executorProvider = new DefaultExecutorProvider(new CommonProperties())
+
+    @Subject
+    TimerWheel timerWheel = new TimerWheel(new TimerProperties(), clock, executorProvider)
+
+    def setup() {
+        timerWheel.start()
+    }
+
+    def cleanup() {
+        timerWheel.stop()
+        executorProvider.shutdown()
+    }
+
+    def "Should execute task when its deadline is reached"() {
+        given:
+        timerWheel.schedule("a", clock.instant().plusSeconds(30), task("a"))
+        when:
+        clock.advance(Duration.ofSeconds(29))
+        sleep(200)
+        then:
+        executed.isEmpty()
+        when:
+        clock.advance(Duration.ofSeconds(1))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["a"]
+        }
+        timerWheel.size() == 0
+    }
+
+    def "Should execute task immediately if deadline is in the past"() {
+        when:
+        timerWheel.schedule("a", clock.instant().minusSeconds(1), task("a"))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["a"]
+        }
+    }
+
+    def "Should cascade tasks from day and week tiers"() {
+        given:
+        timerWheel.schedule("hour", clock.instant().plus(Duration.ofHours(1)), task("hour"))
+        timerWheel.schedule("days", clock.instant().plus(Duration.ofDays(3)), task("days"))
+        timerWheel.schedule("weeks", clock.instant().plus(Duration.ofDays(20)), task("weeks"))
+        when:
+        clock.advance(Duration.ofHours(1))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["hour"]
+        }
+        when:
+        clock.advance(Duration.ofDays(3).minusHours(1))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["hour", "days"]
+        }
+        when:
+        clock.advance(Duration.ofDays(17))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["hour", "days", "weeks"]
+        }
+    }
+
+    def "Should not execute cancelled task"() {
+        given:
+        timerWheel.schedule("a", clock.instant().plusSeconds(10), task("a"))
+        when:
+        def cancelled = timerWheel.cancel("a")
+        clock.advance(Duration.ofSeconds(10))
+        sleep(200)
+        then:
+        cancelled
+        executed.isEmpty()
+        timerWheel.size() == 0
+    }
+
+    def "Should replace task registered with the same key"() {
+        given:
+        timerWheel.schedule("a", clock.instant().plusSeconds(10), task("old"))
+        when:
+        timerWheel.schedule("a", clock.instant().plusSeconds(20), task("new"))
+        clock.advance(Duration.ofSeconds(20))
+        then:
+        conditions.eventually {
+            assert executed.toList() == ["new"]
+        }
+    }
+
+    def "Should not replace task if it is already registered"() {
+        given:
+        timerWheel.schedule("a", clock.instant().plusSeconds(10), task("old"))
+        when:
+        def scheduled = timerWheel.scheduleIfAbsent("a", clock.instant().plusSeconds(5), task("new"))
+        clock.advance(Duration.ofSeconds(10))
+        then:
+        !scheduled
+        conditions.eventually {
+            assert executed.toList() == ["old"]
+        }
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def task(String name) {
+        return { executed.add(name) } as Runnable
+    }
+
+    static class ManualClock extends Clock {
+        volatile Instant now
+
+        ManualClock(Instant now) {
+            this.now = now
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration)
+        }
+
+        @Override
+        ZoneId getZone() {
+            return UTC
+        }
+
+        @Override
+        Clock withZone(ZoneId zone) {
+            return this
+        }
+
+        @Override
+        Instant instant() {
+            return now
+        }
+    }
+}
@@ -5,6 +5,8 @@ import spock.lang.Specification
 import javax.validation.Validation
 
 import static SpeedUnit.KILOMETERS_PER_HOUR
+import static SpeedUnit.METERS_PER_SECOND
+import static SpeedUnit.MILES_PER_HOUR
 
 class SpeedSpec extends Specification {
     def validator = Validation.buildDefaultValidatorFactory().getValidator()
@@ -19,29 +21,63 @@ class SpeedSpec extends Specification {
     }
 
     def "Speed can not have null value"() {
-        given:
-        def speed = new Speed(null, KILOMETERS_PER_HOUR)
         when:
-        def errors = validator.validate(speed)
+        new Speed(null, KILOMETERS_PER_HOUR)
         then:
-        errors.size() == 1
+        thrown NullPointerException
     }
 
     def "Speed can not have value lesser then 0"() {
-        given:
-        def speed = new Speed(-1, KILOMETERS_PER_HOUR)
         when:
-        def errors = validator.validate(speed)
+        new Speed(-1, KILOMETERS_PER_HOUR)
         then:
-        errors.size() == 1
+        thrown IllegalArgumentException
     }
 
     def "Speed can not have null unit"() {
-        given:
-        def speed = new Speed(0, null)
         when:
-        def errors = validator.validate(speed)
+        new Speed(0, null)
         then:
-        errors.size() == 1
+        thrown NullPointerException
+    }
+
+    def "Speed should be normalized to millimeters per second"() {
+        expect:
+        new Speed(new BigDecimal(value), unit).toMillimetersPerSecond() == millimetersPerSecond
+        where:
+        value  | unit                || millimetersPerSecond
+        "0"    | METERS_PER_SECOND   || 0
+        "3.25" | METERS_PER_SECOND   || 3_250
+        "36"   | KILOMETERS_PER_HOUR || 10_000
+        "100"  | KILOMETERS_PER_HOUR || 27_778
+        "10"   | MILES_PER_HOUR      || 4_470
+    }
+
+    def "Speed should provide value in its unit and in other units"() {
+        given:
+        def speed = new Speed(new BigDecimal("10.00"), METERS_PER_SECOND)
+        expect:
+        speed.value == new BigDecimal("10")
+        speed.unit == METERS_PER_SECOND
+        speed.getValue(KILOMETERS_PER_HOUR) == new BigDecimal("36")
+        speed.getValue(MILES_PER_HOUR) == new BigDecimal("22.369")
+        speed.to(KILOMETERS_PER_HOUR).value == new BigDecimal("36")
+    }
+
+    def "Speed should survive conversion round trip"() {
+        given:
+        def speed = Speed.ofMillimetersPerSecond(millimetersPerSecond, METERS_PER_SECOND)
+        expect:
+        new Speed(speed.getValue(unit), unit) == speed
+        where:
+        [millimetersPerSecond, unit] << [[0, 1, 447, 27_778, 123_457], SpeedUnit.values()].combinations()
+    }
+
+    def "Speeds should be equal regardless of scale and unit"() {
+        expect:
+        new Speed(new BigDecimal("5.0"), METERS_PER_SECOND) == new Speed(new BigDecimal("5.00"), METERS_PER_SECOND)
+        new Speed(new BigDecimal("36"), KILOMETERS_PER_HOUR) == new Speed(new BigDecimal("10"), METERS_PER_SECOND)
+        new Speed(new BigDecimal("36"), KILOMETERS_PER_HOUR).hashCode() == new Speed(new BigDecimal("10"), METERS_PER_SECOND).hashCode()
+        new Speed(new BigDecimal("5"), METERS_PER_SECOND) != new Speed(new BigDecimal("5.001"), METERS_PER_SECOND)
     }
 }
@@ -4,12 +4,16 @@ import spock.lang.Specification
 
 import javax.validation.Validation
 
+import static TemperatureUnit.CELSIUS
+import static TemperatureUnit.FAHRENHEIT
+import static TemperatureUnit.KELVIN
+
 class TemperatureSpec extends Specification {
     def validator = Validation.buildDefaultValidatorFactory().getValidator()
 
     def "Temperature could be created when values are correct"() {
         given:
-        def temperature = new Temperature(0, TemperatureUnit.CELSIUS)
+        def temperature = new Temperature(0, CELSIUS)
         when:
         def errors = validator.validate(temperature)
         then:
@@ -17,20 +21,62 @@ class TemperatureSpec extends Specification {
     }
 
     def "Temperature's value can not be null"() {
-        given:
-        def temperature = new Temperature(null, TemperatureUnit.CELSIUS)
         when:
-        def errors = validator.validate(temperature)
+        new Temperature(null, CELSIUS)
         then:
-        errors.size() == 1
+        thrown NullPointerException
     }
 
     def "Temerature's unit can not be null"() {
-        given:
-        def temperature = new Temperature(0, null)
         when:
-        def errors = validator.validate(temperature)
+        new Temperature(0, null)
         then:
-        errors.size() == 1
+        thrown NullPointerException
+    }
+
+    def "Temperature should be normalized to millikelvins"() {
+        expect:
+        new Temperature(new BigDecimal(value), unit).toMilliKelvins() == milliKelvins
+        where:
+        value     | unit       || milliKelvins
+        "0"       | KELVIN     || 0
+        "293.15"  | KELVIN     || 293_150
+        "20"      | CELSIUS    || 293_150
+        "-40"     | CELSIUS    || 233_150
+        "-40"     | FAHRENHEIT || 233_150
+        "68"      | FAHRENHEIT || 293_150
+        "21.5"    | CELSIUS    || 294_650
+        "0.0004"  | CELSIUS    || 273_150
+        "0.0005"  | CELSIUS    || 273_151
+    }
+
+    def "Temperature should provide value in its unit and in other units"() {
+        given:
+        def temperature = new Temperature(new BigDecimal("21.50"), CELSIUS)
+        expect:
+        temperature.value == new BigDecimal("21.5")
+        temperature.unit == CELSIUS
+        temperature.getValue(KELVIN) == new BigDecimal("294.65")
+        temperature.getValue(FAHRENHEIT) == new BigDecimal("70.7")
+        temperature.to(FAHRENHEIT).unit == FAHRENHEIT
+        temperature.to(FAHRENHEIT).value == new BigDecimal("70.7")
+    }
+
+    def "Temperature should survive conversion round trip"() {
+        given:
+        def temperature = Temperature.ofMilliKelvins(milliKelvins, KELVIN)
+        expect:
+        new Temperature(temperature.getValue(unit), unit) == temperature
+        where:
+        [milliKelvins, unit] << [[0, 1, 273_149, 293_151, 310_927], TemperatureUnit.values()].combinations()
+    }
+
+    def "Temperatures should be equal regardless of scale and unit"() {
+        expect:
+        new Temperature(new BigDecimal("20.0"), CELSIUS) == new Temperature(new BigDecimal("20.00"), CELSIUS)
+        new Temperature(new BigDecimal("20"), CELSIUS) == new Temperature(new BigDecimal("293.15"), KELVIN)
+        new Temperature(new BigDecimal("20"), CELSIUS).hashCode() == new Temperature(new BigDecimal("68"), FAHRENHEIT).hashCode()
+        new Temperature(new BigDecimal("20"), CELSIUS) != new Temperature(new BigDecimal("20.001"), CELSIUS)
+        new Temperature(new BigDecimal("20"), CELSIUS) < new Temperature(new BigDecimal("20.001"), CELSIUS)
     }
 }
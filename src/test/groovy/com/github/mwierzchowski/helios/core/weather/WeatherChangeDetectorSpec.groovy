@@ -0,0 +1,93 @@
+package com.github.mwierzchowski.helios.core.weather
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+
+class WeatherChangeDetectorSpec extends Specification {
+    def properties = new WeatherProperties()
+
+    @Subject
+    def detector = new WeatherChangeDetector(properties)
+
+    def "Should detect change of temperature above deadband"() {
+        expect:
+        detector.isChanged(weatherOf("20.0"), weatherOf(temperature)) == changed
+        where:
+        temperature || changed
+        "20.0"      || false
+        "20.00"     || false
+        "20.4"      || false
+        "20.5"      || true
+        "19.5"      || true
+    }
+
+    def "Should require hysteresis when temperature reverses direction"() {
+        given:
+        def previous = weatherOf("20.0")
+        def published = weatherOf("20.5")
+        detector.published(previous, published)
+        expect:
+        !detector.isChanged(published, weatherOf("20.0"))
+        detector.isChanged(published, weatherOf("19.8"))
+        detector.isChanged(published, weatherOf("21.0"))
+    }
+
+    def "Should forget directions when there is no previous weather"() {
+        given:
+        detector.published(weatherOf("20.0"), weatherOf("20.5"))
+        detector.published(null, weatherOf("20.5"))
+        expect:
+        detector.isChanged(weatherOf("20.5"), weatherOf("20.0"))
+    }
+
+    def "Should detect change of wind direction as the shortest one"() {
+        expect:
+        detector.isChanged(weatherOf("20", "1", from), weatherOf("20", "1", to)) == changed
+        where:
+        from | to  || changed
+        350  | 5   || false
+        350  | 10  || true
+        10   | 350 || true
+        90   | 100 || false
+    }
+
+    def "Should detect metric that appears or disappears"() {
+        given:
+        def weather = weatherOf("20")
+        def withoutWind = weatherOf("20").tap { wind = null }
+        expect:
+        detector.isChanged(weather, withoutWind)
+        detector.isChanged(withoutWind, weather)
+        !detector.isChanged(withoutWind, withoutWind)
+    }
+
+    def "Should detect any change when thresholds are not configured"() {
+        given:
+        properties.thresholds.clear()
+        expect:
+        detector.isChanged(weatherOf("20.0"), weatherOf("20.001"))
+        !detector.isChanged(weatherOf("20.0"), weatherOf("20.0"))
+    }
+
+    def "Should detect any change when there is no previous weather"() {
+        expect:
+        detector.isChanged(null, weatherOf("20"))
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def weatherOf(String temperature, String speed = "5", Integer direction = 90) {
+        new Weather().tap {
+            it.source = "Test source"
+            it.timestamp = Instant.parse("2020-04-06T06:00:00Z")
+            it.temperature = new Temperature(new BigDecimal(temperature), CELSIUS)
+            it.wind = new Wind(new Speed(new BigDecimal(speed), METERS_PER_SECOND), direction)
+            it.cloudsCoverage = 50
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.mwierzchowski.helios.core.weather
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Clock
+import java.time.Duration
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.CLOUDS_COVERAGE
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.TEMPERATURE
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.WIND_DIRECTION
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.WIND_SPEED
+
+class WeatherHistorySpec extends Specification {
+    def now = Instant.parse("2020-04-06T06:00:00Z")
+    def properties = new WeatherProperties().tap { historyCapacity = 16 }
+
+    @Subject
+    def history = new WeatherHistory(properties, Clock.fixed(now, ZoneOffset.UTC))
+
+    def "Should append metrics of observed weather"() {
+        when:
+        history.record(weatherOf(now.minusSeconds(60), "10.5", "2.5", 90, 40))
+        history.record(weatherOf(now, "11.5", "3.5", 180, 60))
+        then:
+        with(history.summarize(TEMPERATURE, Duration.ofMinutes(5)).get()) {
+            it.count == 2
+            it.min == 283_650
+            it.max == 284_650
+        }
+        history.summarize(WIND_SPEED, Duration.ofMinutes(5)).get().average == 3_000
+        with(history.summarize(WIND_DIRECTION, Duration.ofMinutes(5)).get()) {
+            it.min == 90
+            it.max == 180
+            it.average == 135
+        }
+        history.summarize(CLOUDS_COVERAGE, Duration.ofSeconds(30)).get().average == 60
+        history.seriesOf(TEMPERATURE).capacity() == 16
+    }
+
+    def "Should skip metrics not provided by weather"() {
+        given:
+        def weather = new Weather().tap {
+            it.source = "Test source"
+            it.timestamp = now
+            it.cloudsCoverage = 10
+        }
+        when:
+        history.record(weather)
+        then:
+        history.seriesOf(CLOUDS_COVERAGE).size() == 1
+        history.seriesOf(TEMPERATURE).size() == 0
+        history.seriesOf(WIND_SPEED).size() == 0
+    }
+
+    def "Should be available as a fact"() {
+        expect:
+        history.factName == "WeatherHistory"
+        history.fact.is(history)
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def weatherOf(Instant timestamp, String temperature, String speed, Integer direction, Integer clouds) {
+        new Weather().tap {
+            it.source = "Test source"
+            it.timestamp = timestamp
+            it.temperature = new Temperature(new BigDecimal(temperature), CELSIUS)
+            it.wind = new Wind(new Speed(new BigDecimal(speed), METERS_PER_SECOND), direction)
+            it.cloudsCoverage = clouds
+        }
+    }
+}
@@ -1,12 +1,18 @@
 package com.github.mwierzchowski.helios.core.weather
 
+import com.github.mwierzchowski.helios.core.commons.CommonProperties
+import com.github.mwierzchowski.helios.core.commons.DefaultExecutorProvider
 import com.github.mwierzchowski.helios.core.commons.EventStore
 import com.github.mwierzchowski.helios.core.commons.HeliosEvent
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry
 import spock.lang.Specification
 import spock.lang.Subject
 
+import java.time.Clock
+
 import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.KILOMETERS_PER_HOUR
 import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.CLOUDS_COVERAGE
 import static java.time.Instant.now
 import static java.util.Optional.empty
 import static java.util.Optional.of
@@ -15,13 +21,20 @@ class WeatherPublisherSpec extends Specification {
     WeatherProperties weatherProperties = new WeatherProperties()
     WeatherProvider weatherProvider = Mock()
     EventStore eventStore = Mock()
+    DefaultExecutorProvider executorProvider = new DefaultExecutorProvider(new CommonProperties())
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry()
+    WeatherHistory weatherHistory = new WeatherHistory(weatherProperties, Clock.systemUTC())
 
     @Subject
-    WeatherPublisher weatherPublisher = new WeatherPublisher(weatherProperties, [weatherProvider], eventStore)
+    WeatherPublisher weatherPublisher = publisherOf([weatherProvider])
+
+    def cleanup() {
+        executorProvider.shutdown()
+    }
 
     def "Should do nothing if weather providers are not available"() {
         given:
-        weatherPublisher = new WeatherPublisher(weatherProperties, null, eventStore)
+        weatherPublisher = publisherOf(null)
         when:
         weatherPublisher.publishWeather()
         then:
@@ -46,7 +59,7 @@ class WeatherPublisherSpec extends Specification {
         def provider2 = Mock(WeatherProvider)
         provider1.currentWeather() >> of(weather1)
         provider2.currentWeather() >> of(weather2)
-        weatherPublisher = new WeatherPublisher(weatherProperties, [provider1, provider2], eventStore)
+        weatherPublisher = publisherOf([provider1, provider2])
         when:
         weatherPublisher.publishWeather()
         then:
@@ -67,13 +80,16 @@ class WeatherPublisherSpec extends Specification {
         then:
         1 * eventStore.publish({
             verifyAll(it, WeatherObservationEvent) {
-                subject.isSameAs(weather)
+                subject.temperature == weather.temperature
+                subject.wind == weather.wind
+                subject.cloudsCoverage == weather.cloudsCoverage
             }
         })
     }
 
     def "Should send weather notification if next observation is different then previous one"() {
         given:
+        weatherProperties.minPublishInterval = 0
         def weather1 = of(weather(now()))
         def weather2 = of(weather(now().plusSeconds(100), 50))
         weatherProvider.currentWeather() >>> [weather1, weather2]
@@ -100,6 +116,64 @@ class WeatherPublisherSpec extends Specification {
         0 * eventStore.publish(_ as WeatherStaleEvent)
     }
 
+    def "Should record every reading in history including suppressed ones"() {
+        given:
+        def weather1 = of(weather(now()))
+        def weather2 = of(weather(now().plusSeconds(100)))
+        weatherProvider.currentWeather() >>> [weather1, weather2, empty()]
+        when:
+        3.times {
+            weatherPublisher.publishWeather()
+        }
+        then:
+        1 * eventStore.publish(_ as WeatherObservationEvent)
+        weatherHistory.seriesOf(CLOUDS_COVERAGE).size() == 2
+    }
+
+    def "Should suppress and count observations that did not change significantly"() {
+        given:
+        weatherProperties.minPublishInterval = 0
+        def weather1 = of(weather(now(), 50))
+        def weather2 = of(weather(now(), 55))
+        def weather3 = of(weather(now(), 60))
+        weatherProvider.currentWeather() >>> [weather1, weather2, weather3]
+        when:
+        3.times {
+            weatherPublisher.publishWeather()
+        }
+        then:
+        2 * eventStore.publish(_ as WeatherObservationEvent)
+        meterRegistry.get("helios.weather.observations.published").counter().count() == 2
+        meterRegistry.get("helios.weather.observations.suppressed").tag("reason", "deadband").counter().count() == 1
+    }
+
+    def "Should require hysteresis when change reverses its direction"() {
+        given:
+        weatherProperties.minPublishInterval = 0
+        def observations = [0, 10, 0, -5].collect { of(weather(now(), 50 + it)) }
+        weatherProvider.currentWeather() >>> observations
+        when:
+        4.times {
+            weatherPublisher.publishWeather()
+        }
+        then:
+        3 * eventStore.publish(_ as WeatherObservationEvent)
+    }
+
+    def "Should suppress significant changes observed before minimal publish interval"() {
+        given:
+        def weather1 = of(weather(now(), 0))
+        def weather2 = of(weather(now(), 50))
+        weatherProvider.currentWeather() >>> [weather1, weather2]
+        when:
+        2.times {
+            weatherPublisher.publishWeather()
+        }
+        then:
+        1 * eventStore.publish(_ as WeatherObservationEvent)
+        meterRegistry.get("helios.weather.observations.suppressed").tag("reason", "interval").counter().count() == 1
+    }
+
     def "Should send warning notification if first observation is missing"() {
         given:
         weatherProvider.currentWeather() >> empty()
@@ -151,6 +225,20 @@ class WeatherPublisherSpec extends Specification {
         0 * eventStore.publish(_ as WeatherStaleEvent)
     }
 
+    def "Should measure missing observations from the last reading even if it was not published"() {
+        given:
+        def weather1 = of(weather(now().minusMillis(weatherProperties.observationDeadline + 10000)))
+        def weather2 = of(weather(now()))
+        weatherProvider.currentWeather() >>> [weather1, weather2, empty()]
+        when:
+        3.times {
+            weatherPublisher.publishWeather()
+        }
+        then:
+        1 * eventStore.publish(_ as WeatherObservationEvent)
+        0 * eventStore.publish(_ as WeatherStaleEvent)
+    }
+
     def "Should always sends weather notification if observation is back after warning was sent"() {
         given:
         def weather1 = of(weather(now().minusMillis(weatherProperties.observationDeadline + 10000)))
@@ -166,6 +254,73 @@ class WeatherPublisherSpec extends Specification {
         1 * eventStore.publish(_ as WeatherStaleEvent)
     }
 
+    def "Should query providers concurrently and merge results in order of providers"() {
+        given:
+        def weather1 = weather(now(), 10)
+        def weather2 = weather(now(), 20)
+        def provider1 = Stub(WeatherProvider) {
+            currentWeather() >> { sleep(500); of(weather1) }
+        }
+        def provider2 = Stub(WeatherProvider) {
+            currentWeather() >> { sleep(500); of(weather2) }
+        }
+        weatherPublisher = publisherOf([provider1, provider2])
+        when:
+        def started = System.currentTimeMillis()
+        weatherPublisher.publishWeather()
+        def duration = System.currentTimeMillis() - started
+        then:
+        1 * eventStore.publish({
+            verifyAll(it, WeatherObservationEvent) {
+                it.subject.cloudsCoverage == 20
+            }
+        })
+        duration < 1000
+    }
+
+    def "Should discard and count results of providers that did not respond on time"() {
+        given:
+        weatherProperties.providerTimeout = timeout
+        weatherProperties.providersDeadline = deadline
+        def slowProvider = Stub(WeatherProvider) {
+            currentWeather() >> { sleep(2000); of(weather(now(), 50)) }
+        }
+        weatherProvider.currentWeather() >> of(weather())
+        weatherPublisher = publisherOf([weatherProvider, slowProvider])
+        when:
+        weatherPublisher.publishWeather()
+        then:
+        1 * eventStore.publish({
+            verifyAll(it, WeatherObservationEvent) {
+                it.subject.cloudsCoverage == 0
+            }
+        })
+        meterRegistry.get("helios.weather.providers.late").counter().count() == 1
+        where:
+        timeout | deadline
+        200     | 5000
+        5000    | 200
+    }
+
+    def "Should count failures of providers and use results of others"() {
+        given:
+        def failingProvider = Stub(WeatherProvider) {
+            currentWeather() >> { throw new IllegalStateException("Test") }
+        }
+        weatherProvider.currentWeather() >> of(weather())
+        weatherPublisher = publisherOf([weatherProvider, failingProvider])
+        when:
+        weatherPublisher.publishWeather()
+        then:
+        1 * eventStore.publish(_ as WeatherObservationEvent)
+        meterRegistry.get("helios.weather.providers.failed").counter().count() == 1
+    }
+
+    def publisherOf(providers) {
+        new WeatherPublisher(weatherProperties, providers, eventStore, executorProvider, meterRegistry,
+                new WeatherChangeDetector(weatherProperties), weatherHistory)
+    }
+
     def weather(timestamp = now(), clouds = 0) {
         new Weather().tap {
             it.source = 'Test source'
@@ -0,0 +1,114 @@
+package com.github.mwierzchowski.helios.core.weather
+
+import spock.lang.Specification
+
+import java.time.Instant
+
+class WeatherSeriesSpec extends Specification {
+    def start = Instant.parse("2020-04-06T06:00:00Z")
+
+    def "Should summarize samples in window"() {
+        given:
+        def series = seriesOf(10, [10, 20, 30, 40, 50])
+        when:
+        def summary = series.summarize(start.plusSeconds(60), start.plusSeconds(240)).get()
+        then:
+        summary.count == 3
+        summary.min == 20
+        summary.max == 40
+        summary.average == 30
+        summary.from == start.plusSeconds(60).toEpochMilli()
+        summary.to == start.plusSeconds(240).toEpochMilli()
+    }
+
+    def "Should provide empty summary when there are no samples in window"() {
+        given:
+        def series = seriesOf(10, [10, 20])
+        expect:
+        !series.summarize(start.plusSeconds(600), start.plusSeconds(900)).isPresent()
+        !series.summarize(start.plusSeconds(60), start).isPresent()
+    }
+
+    def "Should overwrite oldest samples when full"() {
+        given:
+        def series = seriesOf(3, [10, 20, 30, 40, 50])
+        when:
+        def summary = series.summarize(start, start.plusSeconds(600)).get()
+        then:
+        series.size() == 3
+        series.capacity() == 3
+        summary.count == 3
+        summary.min == 30
+        summary.max == 50
+    }
+
+    def "Should reject samples older than the latest one"() {
+        given:
+        def series = seriesOf(10, [10, 20])
+        expect:
+        !series.append(start, 5)
+        series.append(start.plusSeconds(60), 25)
+        series.size() == 3
+    }
+
+    def "Should downsample samples into buckets"() {
+        given:
+        def series = seriesOf(100, (1..60).toList())
+        when:
+        def summaries = series.downsample(start, start.plusSeconds(3600), 4)
+        then:
+        summaries.size() == 4
+        summaries*.count == [15, 15, 15, 15]
+        summaries*.min == [1, 16, 31, 46]
+        summaries*.max == [15, 30, 45, 60]
+        summaries*.average == [8, 23, 38, 53]
+        summaries*.from == (0..3).collect { start.plusSeconds(900 * it).toEpochMilli() }
+    }
+
+    def "Should skip buckets without samples"() {
+        given:
+        def series = new WeatherSeries(10)
+        series.append(start, 1)
+        series.append(start.plusSeconds(3000), 2)
+        when:
+        def summaries = series.downsample(start, start.plusSeconds(3600), 4)
+        then:
+        summaries*.min == [1, 2]
+    }
+
+    def "Should summarize circular samples along the circle"() {
+        given:
+        def series = new WeatherSeries(10, 360)
+        [350, 10, 20].eachWithIndex { value, index -> series.append(start.plusSeconds(60 * index), value) }
+        when:
+        def summary = series.summarize(start, start.plusSeconds(600)).get()
+        then:
+        summary.count == 3
+        summary.average == 7
+        summary.min == 350
+        summary.max == 20
+    }
+
+    def "Should not accept invalid capacity or number of points"() {
+        when:
+        new WeatherSeries(0)
+        then:
+        thrown IllegalArgumentException
+        when:
+        new WeatherSeries(1, -1)
+        then:
+        thrown IllegalArgumentException
+        when:
+        new WeatherSeries(1).downsample(start, start.plusSeconds(60), 0)
+        then:
+        thrown IllegalArgumentException
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def seriesOf(int capacity, List<Integer> values) {
+        def series = new WeatherSeries(capacity)
+        values.eachWithIndex { value, index -> series.append(start.plusSeconds(60 * index), value) }
+        series
+    }
+}
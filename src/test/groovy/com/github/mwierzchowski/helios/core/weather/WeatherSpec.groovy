@@ -62,16 +62,6 @@ class WeatherSpec extends Specification {
         errors.size() == 1
     }
 
-    def "Should have valid temperature"() {
-        given:
-        temperature.unit = null
-        def weather = weatherOf(timestamp, temperature, wind, 100)
-        when:
-        def errors = validator.validate(weather)
-        then:
-        errors.size() == 1
-    }
-
     def "Should have not null wind"() {
         given:
         def weather = weatherOf(timestamp, temperature, null, 100)
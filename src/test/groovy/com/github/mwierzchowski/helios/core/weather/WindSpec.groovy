@@ -28,16 +28,6 @@ class WindSpec extends Specification {
         errors.size() == 1
     }
 
-    def "Speed can not be incorrect"() {
-        given:
-        speed.value = -1
-        def wind = new Wind(speed, 125)
-        when:
-        def errors = validator.validate(wind)
-        then:
-        errors.size() == 1
-    }
-
     def "Direction can not be null"() {
         given:
         def wind = new Wind(speed, null)
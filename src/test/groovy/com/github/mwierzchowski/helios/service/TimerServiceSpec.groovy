@@ -1,15 +1,22 @@
 package com.github.mwierzchowski.helios.service
 
+import com.fasterxml.jackson.databind.ObjectMapper
 import com.github.mwierzchowski.helios.core.commons.EventStore
 import com.github.mwierzchowski.helios.core.commons.NotFoundException
 import com.github.mwierzchowski.helios.core.timers.*
 import com.github.mwierzchowski.helios.service.dto.TimerDto
 import com.github.mwierzchowski.helios.service.dto.TimerScheduleDto
+import org.springframework.beans.factory.ObjectProvider
 import spock.lang.Specification
 import spock.lang.Subject
 
+import javax.validation.Validation
+import java.time.Clock
+import java.time.Instant
 import java.time.LocalTime
+import java.time.ZoneOffset
 
+import static com.fasterxml.jackson.databind.SerializationFeature.WRITE_DATES_AS_TIMESTAMPS
 import static java.time.DayOfWeek.*
 import static java.util.Collections.emptyList
 import static java.util.Optional.empty
@@ -18,10 +25,16 @@ import static java.util.Optional.of as optional
 class TimerServiceSpec extends Specification {
     TimerRepository timerRepository = Mock()
     TimerAlertPublisher alertStarter = Mock()
+    TimerOccurrenceIndex occurrenceIndex = new TimerOccurrenceIndex()
+    TimersVersion timersVersion = new TimersVersion(occurrenceIndex, Stub(ObjectProvider))
+    TimerBulkStore timerBulkStore = Mock()
     EventStore eventStore = Mock()
+    ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules().disable(WRITE_DATES_AS_TIMESTAMPS)
+    Clock clock = Clock.fixed(Instant.parse("2020-04-06T06:00:00Z"), ZoneOffset.UTC)
 
     @Subject
-    TimerService timerService = new TimerService(timerRepository, alertStarter, eventStore)
+    TimerService timerService = new TimerService(timerRepository, timerBulkStore, alertStarter, occurrenceIndex,
+            timersVersion, eventStore, objectMapper, Validation.buildDefaultValidatorFactory().validator, clock)
 
     def "Should return list of timers"() {
         given:
@@ -44,6 +57,20 @@ class TimerServiceSpec extends Specification {
         }
     }
 
+    def "Should return next alert of timers from occurrence index"() {
+        given:
+        def timer1 = timerOf(1)
+        def timer2 = timerOf(2, false)
+        def nextAlert = Instant.parse("2020-04-06T06:30:00Z")
+        occurrenceIndex.update(timer1.schedules[0], nextAlert)
+        timerRepository.findAll() >> [timer1, timer2]
+        when:
+        def timerDtoList = timerService.getTimers()
+        then:
+        timerDtoList[0].nextAlert == nextAlert
+        timerDtoList[1].nextAlert == null
+    }
+
     def "Should return empty list of timers if timers do not exist"() {
         given:
         timerRepository.findAll() >> emptyList()
@@ -80,22 +107,27 @@ class TimerServiceSpec extends Specification {
         given:
         def timerId = 1
         timerRepository.findById(timerId) >> optional(timerOf(timerId))
+        def version = timersVersion.current()
         when:
         timerService.removeTimer(timerId)
         then:
         1 * timerRepository.delete(_ as Timer)
+        1 * alertStarter.stopAlertsAfterCommit(_ as Timer)
         1 * eventStore.publish(_ as TimerRemovedEvent)
+        timersVersion.current() != version
     }
 
     def "Should not remove timer if it does not exist"() {
         given:
         def timerId = 1
         timerRepository.findById(timerId) >> empty()
+        def version = timersVersion.current()
         when:
         timerService.removeTimer(timerId)
         then:
         0 * timerRepository.delete(_ as Timer)
         0 * eventStore.publish(_ as TimerRemovedEvent)
+        timersVersion.current() == version
     }
 
     def "Should change timer description if new description does not exist"() {
@@ -208,8 +240,8 @@ class TimerServiceSpec extends Specification {
                 schedules[0].days.contains(valueOf(scheduleDto.days[0]))
             }
         })
-        1 * alertStarter.startAlertFor({
-            verifyAll(it, Timer) {
+        1 * alertStarter.startAlertsAfterCommit({
+            verifyAll(it[0], Timer) {
                 id == timerId
             }
         })
@@ -231,8 +263,8 @@ class TimerServiceSpec extends Specification {
                 schedules[2].days.contains(valueOf(scheduleDto.days[0]))
             }
         })
-        1 * alertStarter.startAlertFor({
-            verifyAll(it, Timer) {
+        1 * alertStarter.startAlertsAfterCommit({
+            verifyAll(it[0], Timer) {
                 id == timerId
             }
         })
@@ -286,6 +318,7 @@ class TimerServiceSpec extends Specification {
                 schedules[0].id == 2
             }
         })
+        1 * alertStarter.stopAlertsAfterCommit({ it instanceof List && it[0].id == scheduleId })
     }
 
     def "Should not remove remove timer schedule if it does not exist"() {
@@ -311,6 +344,68 @@ class TimerServiceSpec extends Specification {
         ex.id == timerId
     }
 
+    def "Should import valid timers and report invalid lines"() {
+        given:
+        timerRepository.findAllDescriptions() >> ["existing timer"]
+        def input = new ByteArrayInputStream("""\
+            {"description":"morning","schedules":[{"time":"06:30:00","days":["MONDAY","TUESDAY"]}]}
+            {"description":"existing timer","schedules":[]}
+            not a json
+
+            {"description":"","schedules":[]}
+            {"description":"evening","schedules":[{"time":"20:00:00","days":["MONDAY"]},{"time":"21:00:00","days":["MONDAY"]}]}
+            {"description":"morning","schedules":[]}
+            {"description":"weekend","schedules":[{"time":"09:00:00","days":["SATURDAY"]},{"time":"09:00:00","days":["SATURDAY"]}]}
+            """.stripIndent().bytes)
+        when:
+        def report = timerService.importTimers(input)
+        then:
+        1 * timerBulkStore.persistAll({ it*.description == ["morning", "weekend"] })
+        1 * alertStarter.startAlertsAfterCommit({ it.size() == 2 })
+        report.importedTimers == 2
+        report.importedSchedules == 2
+        report.errors*.line == [2, 3, 5, 6, 7]
+        report.errors[0].message == "Timer 'existing timer' already exists"
+        report.errors[1].message.startsWith("Invalid JSON")
+        report.errors[2].message.startsWith("description ")
+        report.errors[3].message.startsWith("Schedules of timer 'evening' are overlapping")
+        report.errors[4].message == "Timer 'morning' already exists"
+    }
+
+    def "Should export timers as newline delimited JSON"() {
+        given:
+        timerBulkStore.forEach(_) >> { args -> [timerOf(1), timerOf(2, false)].each { args[0].accept(it) } }
+        def output = new ByteArrayOutputStream()
+        when:
+        timerService.exportTimers().write(output)
+        def lines = output.toString("UTF-8").readLines()
+        then:
+        lines.size() == 2
+        with(objectMapper.readTree(lines[0])) {
+            it.get("id").asInt() == 1
+            it.get("description").asText() == "test timer 1"
+            it.get("schedules").size() == 2
+        }
+        objectMapper.readTree(lines[1]).get("schedules").size() == 0
+    }
+
+    def "Should stream agenda of scheduled timers"() {
+        given:
+        timerRepository.findAllScheduled() >> [timerOf(1), timerOf(2)]
+        def output = new ByteArrayOutputStream()
+        when:
+        timerService.getAgenda(from, null, limit).write(output)
+        def agenda = objectMapper.readTree(output.toByteArray())
+        then:
+        agenda.collect { it.get("alert").asText() } == alerts
+        agenda.collect { it.get("description").asText() }.every { it.startsWith("test timer") }
+        where:
+        from                   | limit || alerts
+        null                   | 100   || ["2020-04-06T06:30:00Z", "2020-04-06T06:30:00Z"]
+        null                   | 1     || ["2020-04-06T06:30:00Z"]
+        "2020-04-11T07:00:00Z" | 100   || ["2020-04-11T08:00:00Z", "2020-04-11T08:00:00Z"]
+    }
+
     /** Helper methods ************************************************************************************************/
 
     def timerOf(id = 1, schedule = true) {
@@ -0,0 +1,72 @@
+package com.github.mwierzchowski.helios.service
+
+import com.github.mwierzchowski.helios.core.weather.Speed
+import com.github.mwierzchowski.helios.core.weather.Temperature
+import com.github.mwierzchowski.helios.core.weather.Weather
+import com.github.mwierzchowski.helios.core.weather.WeatherHistory
+import com.github.mwierzchowski.helios.core.weather.WeatherProperties
+import com.github.mwierzchowski.helios.core.weather.Wind
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Clock
+import java.time.Instant
+import java.time.ZoneOffset
+
+import static com.github.mwierzchowski.helios.core.weather.SpeedUnit.METERS_PER_SECOND
+import static com.github.mwierzchowski.helios.core.weather.TemperatureUnit.CELSIUS
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.CLOUDS_COVERAGE
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.TEMPERATURE
+import static com.github.mwierzchowski.helios.core.weather.WeatherMetric.WIND_SPEED
+
+class WeatherServiceSpec extends Specification {
+    def now = Instant.parse("2020-04-06T06:00:00Z")
+    def clock = Clock.fixed(now, ZoneOffset.UTC)
+    def weatherHistory = new WeatherHistory(new WeatherProperties(), clock)
+
+    @Subject
+    def weatherService = new WeatherService(weatherHistory, clock)
+
+    def setup() {
+        (4..1).each {
+            weatherHistory.record(new Weather().tap {
+                it.source = "Test source"
+                it.timestamp = now.minusSeconds(3600 * it)
+                it.temperature = new Temperature(new BigDecimal(10 + it), CELSIUS)
+                it.wind = new Wind(new Speed(new BigDecimal(it), METERS_PER_SECOND), 90)
+                it.cloudsCoverage = 25 * it
+            })
+        }
+    }
+
+    def "Should provide history of temperature in Celsius by default"() {
+        when:
+        def history = weatherService.getHistory(TEMPERATURE, null, null, 100, null)
+        then:
+        history.size() == 4
+        history*.min == [14, 13, 12, 11]
+    }
+
+    def "Should provide history in requested unit"() {
+        when:
+        def temperatures = weatherService.getHistory(TEMPERATURE, null, null, 1, "K")
+        def speeds = weatherService.getHistory(WIND_SPEED, null, null, 1, "km/h")
+        then:
+        temperatures.size() == 1
+        temperatures[0].min == new BigDecimal("284.15")
+        temperatures[0].max == new BigDecimal("287.15")
+        temperatures[0].average == new BigDecimal("285.65")
+        temperatures[0].count == 4
+        speeds[0].min == new BigDecimal("3.6")
+        speeds[0].max == new BigDecimal("14.4")
+    }
+
+    def "Should provide history in window"() {
+        when:
+        def history = weatherService.getHistory(CLOUDS_COVERAGE, "2020-04-06T01:30:00Z", "2020-04-06T04:30:00Z", 3, "C")
+        then:
+        history*.from == [Instant.parse("2020-04-06T01:30:00Z"), Instant.parse("2020-04-06T02:30:00Z"),
+                          Instant.parse("2020-04-06T03:30:00Z")]
+        history*.max == [100, 75, 50]
+    }
+}
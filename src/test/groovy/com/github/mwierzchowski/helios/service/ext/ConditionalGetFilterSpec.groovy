@@ -0,0 +1,137 @@
+package com.github.mwierzchowski.helios.service.ext
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import com.github.mwierzchowski.helios.core.timers.Timer
+import com.github.mwierzchowski.helios.core.timers.TimerOccurrenceIndex
+import com.github.mwierzchowski.helios.core.timers.TimersVersion
+import org.springframework.beans.factory.ObjectProvider
+import spock.lang.Specification
+import spock.lang.Subject
+
+import javax.ws.rs.container.ContainerRequestContext
+import javax.ws.rs.container.ContainerResponseContext
+import javax.ws.rs.core.EntityTag
+import javax.ws.rs.core.MultivaluedHashMap
+import javax.ws.rs.core.Request
+import javax.ws.rs.core.Response
+import javax.ws.rs.core.UriInfo
+import java.lang.annotation.Annotation
+
+class ConditionalGetFilterSpec extends Specification {
+    TimerOccurrenceIndex occurrenceIndex = new TimerOccurrenceIndex()
+    TimersVersion timersVersion = new TimersVersion(occurrenceIndex, Stub(ObjectProvider))
+    ObjectMapper objectMapper = new ObjectMapper()
+
+    @Subject
+    ConditionalGetFilter filter = new ConditionalGetFilter(timersVersion, objectMapper)
+
+    def "Should return not modified if ETag matches current version"() {
+        given:
+        def request = requestOf(Response.notModified())
+        when:
+        filter.filter(request)
+        then:
+        1 * request.abortWith({ Response response ->
+            response.status == 304 && response.entityTag == new EntityTag(timersVersion.current())
+        })
+    }
+
+    def "Should tag, serialize and cache response if representation was modified"() {
+        given:
+        def request = requestOf(null)
+        def response = responseOf(["a", "b"])
+        when:
+        filter.filter(request)
+        filter.filter(request, response)
+        then:
+        0 * request.abortWith(_)
+        1 * response.setEntity(objectMapper.writeValueAsBytes(["a", "b"]), _, _)
+        response.headers.getFirst("ETag") == new EntityTag(timersVersion.current())
+        when:
+        filter.filter(request)
+        then:
+        1 * request.abortWith({ Response cached ->
+            cached.status == 200 && cached.entity == objectMapper.writeValueAsBytes(["a", "b"])
+        })
+    }
+
+    def "Should not use cached response if version has changed"() {
+        given:
+        def request = requestOf(null)
+        filter.filter(request)
+        filter.filter(request, responseOf(["a"]))
+        when:
+        timersVersion.bumpAfterCommit()
+        filter.filter(request)
+        then:
+        0 * request.abortWith(_)
+    }
+
+    def "Should not cache response if version has changed while it was prepared"() {
+        given:
+        def request = requestOf(null)
+        filter.filter(request)
+        when:
+        occurrenceIndex.describe(new Timer().tap { id = 1; description = "Test" })
+        filter.filter(request, responseOf(["a"]))
+        filter.filter(request)
+        then:
+        0 * request.abortWith(_)
+    }
+
+    def "Should evict least recently used responses when cache is full"() {
+        given:
+        def first = requestOf(null, "GET", "/api/v1/timers?page=0")
+        filter.filter(first)
+        filter.filter(first, responseOf(["first"]))
+        when:
+        (1..ConditionalGetFilter.MAX_CACHED_RESPONSES).each {
+            def other = requestOf(null, "GET", "/api/v1/timers?page=$it")
+            filter.filter(other)
+            filter.filter(other, responseOf([it]))
+        }
+        filter.filter(first)
+        then:
+        0 * first.abortWith(_)
+    }
+
+    def "Should ignore other methods than GET"() {
+        given:
+        def request = requestOf(null, "POST")
+        when:
+        filter.filter(request)
+        then:
+        0 * request.abortWith(_)
+        0 * request.setProperty(_, _)
+    }
+
+    /** Helper methods ************************************************************************************************/
+
+    def requestOf(Response.ResponseBuilder preconditionsResult, String method = "GET", String path = "/api/v1/timers") {
+        def properties = [:]
+        def uriInfo = Stub(UriInfo) {
+            getRequestUri() >> URI.create("http://localhost$path")
+        }
+        def request = Stub(Request) {
+            evaluatePreconditions(_ as EntityTag) >> preconditionsResult
+        }
+        return Mock(ContainerRequestContext) {
+            getMethod() >> method
+            getRequest() >> request
+            getUriInfo() >> uriInfo
+            getProperty(_) >> { String name -> properties[name] }
+            setProperty(_, _) >> { String name, Object value -> properties[name] = value }
+        }
+    }
+
+    def responseOf(Object entity) {
+        def headers = new MultivaluedHashMap<String, Object>()
+        return Mock(ContainerResponseContext) {
+            getStatus() >> 200
+            hasEntity() >> true
+            getEntity() >> entity
+            getEntityAnnotations() >> new Annotation[0]
+            getHeaders() >> headers
+        }
+    }
+}